@@ -3,7 +3,6 @@ package de.graphioli.algorithms;
 import de.graphioli.model.Graph;
 import de.graphioli.model.Vertex;
 import java.util.ArrayList;
-import java.util.LinkedList;
 
 /**
  * This class performs the breadth-first-search algorithm.
@@ -11,8 +10,16 @@ import java.util.LinkedList;
  * @author Team Graphioli
  */
 public final class BreadthFirstSearch {
-	private static ArrayList<Vertex> reachableVertex = new ArrayList<Vertex>();
-	private static LinkedList<Vertex> queue = new LinkedList<Vertex>();
+
+	/**
+	 * One reusable search engine per thread.
+	 */
+	private static final ThreadLocal<BreadthFirstSearchEngine> ENGINE = new ThreadLocal<BreadthFirstSearchEngine>() {
+		@Override
+		protected BreadthFirstSearchEngine initialValue() {
+			return new BreadthFirstSearchEngine();
+		}
+	};
 
 	/**
 	 * Private empty constructor, to ensure that no instance is being created.
@@ -34,43 +41,10 @@ public final class BreadthFirstSearch {
 	 * @return list of all vertices that can be reached within the given depth
 	 */
 	public static ArrayList<Vertex> performAlgorithm(Graph graph, Vertex vertex, int depth) {
-	
-		int curDepth = depth;
-		if (graph != null && vertex != null && graph.getVertices().contains(vertex) && curDepth > -1) {
-			reachableVertex = new ArrayList<Vertex>();
-			queue = new LinkedList<Vertex>();
-			LinkedList<Vertex> nextQueue = new LinkedList<Vertex>();
-	
-			Vertex tmpVertex = vertex;
-			queue.add(tmpVertex);
-	
-			// Goes through the queue until the given depth is reached
-			while (curDepth > 0) {
-				Vertex queueVertex = queue.pop();
-	
-				// Adds the adjacent vertices to the queue and list of reachable
-				// vertices
-				for (Vertex adjacentVertex : queueVertex.getAdjacentVertices()) {
-					if (!reachableVertex.contains(adjacentVertex)) {
-						nextQueue.add(adjacentVertex);
-						reachableVertex.add(adjacentVertex);
-					}
-				}
-	
-				if (queue.isEmpty()) {
-					if (nextQueue.isEmpty()) {
-						return reachableVertex;
-					}
-					// Next layer starts
-					for (Vertex copy : nextQueue) {
-						queue.add(copy);
-					}
-					nextQueue.clear();
-					curDepth--;
-				}
-			}
-			return reachableVertex;
+		BreadthFirstSearchEngine engine = ENGINE.get();
+		if (depth < 0 || !engine.search(graph, vertex, depth)) {
+			return null;
 		}
-		return null;
+		return engine.getReachableVertices();
 	}
 }
@@ -0,0 +1,344 @@
+package de.graphioli.algorithms;
+
+import de.graphioli.model.CompactGraph;
+import de.graphioli.model.Graph;
+import de.graphioli.model.Vertex;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class performs a depth-limited breadth-first-search on the
+ * {@link CompactGraph} of a {@link Graph}. Its buffers are reused between
+ * searches, so repeated searches do not allocate. An instance must not be
+ * shared between threads.
+ * 
+ * @author Team Graphioli
+ */
+public final class BreadthFirstSearchEngine {
+
+	/**
+	 * Initial capacity of the buffers.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Ring buffer of vertex ids to visit. Its length is a power of two.
+	 */
+	private int[] queue;
+
+	/**
+	 * Generation stamp per vertex. A vertex was visited in the current search
+	 * if its stamp equals {@link #generation}.
+	 */
+	private int[] stamps;
+
+	/**
+	 * Distance of each visited vertex from the start vertex.
+	 */
+	private int[] distances;
+
+	/**
+	 * Predecessor of each visited vertex, {@code -1} for the start vertex.
+	 */
+	private int[] parents;
+
+	/**
+	 * Visited vertices except the start vertex, in the order they were found.
+	 */
+	private int[] order;
+
+	/**
+	 * Number of entries in {@link #order}.
+	 */
+	private int orderSize;
+
+	/**
+	 * The current generation.
+	 */
+	private int generation;
+
+	/**
+	 * The graph of the last search.
+	 */
+	private CompactGraph graph;
+
+	/**
+	 * The start vertex of the last search.
+	 */
+	private int start;
+
+	/**
+	 * Length of the shortest cycle through the start vertex found within the
+	 * depth limit, {@code -1} if there is none.
+	 */
+	private int cycleLength;
+
+	/**
+	 * Number of entries in {@link #order} at the time the cycle through the
+	 * start vertex was found.
+	 */
+	private int cyclePosition;
+
+	/**
+	 * Creates a new {@link BreadthFirstSearchEngine}.
+	 */
+	public BreadthFirstSearchEngine() {
+		this.queue = new int[INITIAL_CAPACITY];
+		this.stamps = new int[INITIAL_CAPACITY];
+		this.distances = new int[INITIAL_CAPACITY];
+		this.parents = new int[INITIAL_CAPACITY];
+		this.order = new int[INITIAL_CAPACITY];
+		this.start = -1;
+	}
+
+	/**
+	 * Searches the given {@link Graph} starting at the given {@link Vertex}.
+	 * 
+	 * @param searchGraph
+	 *            the graph to search
+	 * @param startVertex
+	 *            the vertex to start at
+	 * @param maxDepth
+	 *            the maximum distance of vertices to visit
+	 * @return {@code false} if the parameters are invalid or the vertex is not
+	 *         in the graph, {@code true} otherwise
+	 */
+	public boolean search(Graph searchGraph, Vertex startVertex, int maxDepth) {
+		if (searchGraph == null || startVertex == null || !searchGraph.containsVertex(startVertex)) {
+			return false;
+		}
+		CompactGraph compact = searchGraph.getCompactGraph();
+		return this.search(compact, compact.getId(startVertex), maxDepth);
+	}
+
+	/**
+	 * Searches the given {@link CompactGraph} starting at the vertex with the
+	 * given id.
+	 * 
+	 * @param searchGraph
+	 *            the graph to search
+	 * @param startId
+	 *            the id of the vertex to start at
+	 * @param maxDepth
+	 *            the maximum distance of vertices to visit
+	 * @return {@code false} if the parameters are invalid, {@code true}
+	 *         otherwise
+	 */
+	public boolean search(CompactGraph searchGraph, int startId, int maxDepth) {
+		if (searchGraph == null || startId < 0 || startId >= searchGraph.getVertexCount() || maxDepth < 0) {
+			return false;
+		}
+
+		this.prepare(searchGraph);
+		this.start = startId;
+		this.cycleLength = -1;
+		this.cyclePosition = -1;
+
+		int[] offsets = searchGraph.getOffsets();
+		int[] targets = searchGraph.getTargets();
+		int mask = this.queue.length - 1;
+		int head = 0;
+		int tail = 0;
+
+		this.stamps[startId] = this.generation;
+		this.distances[startId] = 0;
+		this.parents[startId] = -1;
+		this.queue[tail++ & mask] = startId;
+
+		while (head != tail) {
+			int current = this.queue[head++ & mask];
+			int nextDistance = this.distances[current] + 1;
+			if (nextDistance > maxDepth) {
+				// Queue is ordered by distance, all remaining are too far
+				break;
+			}
+
+			for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+				int target = targets[i];
+				if (this.stamps[target] != this.generation) {
+					this.stamps[target] = this.generation;
+					this.distances[target] = nextDistance;
+					this.parents[target] = current;
+					this.order[this.orderSize++] = target;
+					this.queue[tail++ & mask] = target;
+				} else if (target == startId && this.cycleLength == -1) {
+					this.cycleLength = nextDistance;
+					this.cyclePosition = this.orderSize;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the length of the shortest cycle through the start vertex that
+	 * was found within the depth limit.
+	 * 
+	 * @return the cycle length, or {@code -1} if there is none
+	 */
+	public int getCycleLength() {
+		return this.cycleLength;
+	}
+
+	/**
+	 * Returns the distance of the given vertex from the start vertex.
+	 * 
+	 * @param id
+	 *            the id of the vertex
+	 * @return the distance, or {@code -1} if the vertex was not visited
+	 */
+	public int getDistance(int id) {
+		if (!this.isVisited(id)) {
+			return -1;
+		}
+		return this.distances[id];
+	}
+
+	/**
+	 * Returns the distance of the given {@link Vertex} from the start vertex.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 * @return the distance, or {@code -1} if the vertex was not visited
+	 */
+	public int getDistance(Vertex vertex) {
+		return this.getDistance(this.idOf(vertex));
+	}
+
+	/**
+	 * Returns the predecessor of the given vertex on a shortest path from the
+	 * start vertex.
+	 * 
+	 * @param id
+	 *            the id of the vertex
+	 * @return the id of the predecessor, or {@code -1} if the vertex is the
+	 *         start vertex or was not visited
+	 */
+	public int getParent(int id) {
+		if (!this.isVisited(id)) {
+			return -1;
+		}
+		return this.parents[id];
+	}
+
+	/**
+	 * Returns the predecessor of the given {@link Vertex} on a shortest path
+	 * from the start vertex.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 * @return the predecessor, or {@code null} if the vertex is the start
+	 *         vertex or was not visited
+	 */
+	public Vertex getParent(Vertex vertex) {
+		int parent = this.getParent(this.idOf(vertex));
+		if (parent == -1) {
+			return null;
+		}
+		return this.graph.getVertex(parent);
+	}
+
+	/**
+	 * Returns all vertices that were reached over at least one edge, in the
+	 * order they were found. The start vertex is only included if it lies on
+	 * a cycle within the depth limit.
+	 * 
+	 * @return list of the reachable vertices
+	 */
+	public ArrayList<Vertex> getReachableVertices() {
+		ArrayList<Vertex> result = new ArrayList<Vertex>(this.orderSize + 1);
+		for (int i = 0; i < this.orderSize; i++) {
+			if (i == this.cyclePosition) {
+				result.add(this.graph.getVertex(this.start));
+			}
+			result.add(this.graph.getVertex(this.order[i]));
+		}
+		if (this.cyclePosition == this.orderSize) {
+			result.add(this.graph.getVertex(this.start));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of vertices visited in the last search, including the
+	 * start vertex.
+	 * 
+	 * @return the number of visited vertices
+	 */
+	public int getVisitedCount() {
+		if (this.start == -1) {
+			return 0;
+		}
+		return this.orderSize + 1;
+	}
+
+	/**
+	 * Checks whether the given vertex was visited in the last search. The start
+	 * vertex is always visited.
+	 * 
+	 * @param id
+	 *            the id of the vertex
+	 * @return {@code true} if the vertex was visited
+	 */
+	public boolean isVisited(int id) {
+		return this.start != -1 && id >= 0 && id < this.graph.getVertexCount() && this.stamps[id] == this.generation;
+	}
+
+	/**
+	 * Checks whether the given {@link Vertex} was visited in the last search.
+	 * The start vertex is always visited.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 * @return {@code true} if the vertex was visited
+	 */
+	public boolean isVisited(Vertex vertex) {
+		return this.isVisited(this.idOf(vertex));
+	}
+
+	/**
+	 * Returns the id of the given {@link Vertex} in the last searched graph.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 * @return the id, or {@code -1} if unknown
+	 */
+	private int idOf(Vertex vertex) {
+		if (this.graph == null || vertex == null) {
+			return -1;
+		}
+		return this.graph.getId(vertex);
+	}
+
+	/**
+	 * Makes sure the buffers fit the given graph and starts a new generation.
+	 * 
+	 * @param searchGraph
+	 *            the graph about to be searched
+	 */
+	private void prepare(CompactGraph searchGraph) {
+		int vertexCount = searchGraph.getVertexCount();
+
+		if (this.stamps.length < vertexCount) {
+			int capacity = Integer.highestOneBit(vertexCount - 1) << 1;
+			this.queue = new int[capacity];
+			this.stamps = new int[capacity];
+			this.distances = new int[capacity];
+			this.parents = new int[capacity];
+			this.order = new int[capacity];
+			this.generation = 0;
+		}
+
+		this.generation++;
+		if (this.generation == 0) {
+			// Stamps wrapped around, forget all old ones
+			Arrays.fill(this.stamps, 0);
+			this.generation = 1;
+		}
+
+		this.graph = searchGraph;
+		this.orderSize = 0;
+	}
+
+}
@@ -0,0 +1,352 @@
+package de.graphioli.algorithms;
+
+import de.graphioli.model.Edge;
+import de.graphioli.model.Graph;
+import de.graphioli.model.GraphListener;
+import de.graphioli.model.Vertex;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class keeps track of the connected components of a {@link Graph} while
+ * it is being built. It is a union-find structure with path compression that
+ * is updated whenever a vertex or an edge is added. Edge directions are
+ * ignored, so two vertices are connected if they are in the same weakly
+ * connected component. Removing a vertex or an edge causes a rebuild from the
+ * graph on the next query or the next added edge.
+ * 
+ * @author Team Graphioli
+ */
+public class ConnectivityIndex implements GraphListener {
+
+	/**
+	 * The ConnectionListener interface defines the callback used to report that
+	 * two watched vertices became connected.
+	 */
+	public interface ConnectionListener {
+
+		/**
+		 * Called when the two given vertices became connected.
+		 * 
+		 * @param vertexA
+		 *            the one vertex of the watched pair
+		 * @param vertexB
+		 *            the other vertex of the watched pair
+		 */
+		void onConnected(Vertex vertexA, Vertex vertexB);
+	}
+
+	/**
+	 * Initial capacity of the union-find arrays.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * The graph this index belongs to.
+	 */
+	private final Graph graph;
+
+	/**
+	 * Maps every vertex to its id in the union-find arrays.
+	 */
+	private final HashMap<Vertex, Integer> ids;
+
+	/**
+	 * The watched vertex pairs.
+	 */
+	private final ArrayList<Watch> watches;
+
+	/**
+	 * Parent pointer of every id. Roots point to themselves.
+	 */
+	private int[] parents;
+
+	/**
+	 * Upper bound of the tree height of every root.
+	 */
+	private int[] ranks;
+
+	/**
+	 * Number of ids in use.
+	 */
+	private int size;
+
+	/**
+	 * {@code true} if a removal happened and the index has to be rebuilt.
+	 */
+	private boolean stale;
+
+	/**
+	 * Creates a new {@link ConnectivityIndex} for the given {@link Graph} and
+	 * registers it as listener of the graph.
+	 * 
+	 * @param graph
+	 *            the graph to track
+	 */
+	public ConnectivityIndex(Graph graph) {
+		this.graph = graph;
+		this.ids = new HashMap<Vertex, Integer>();
+		this.watches = new ArrayList<Watch>();
+		this.parents = new int[INITIAL_CAPACITY];
+		this.ranks = new int[INITIAL_CAPACITY];
+		this.rebuild();
+		graph.addGraphListener(this);
+	}
+
+	/**
+	 * Stops tracking the graph.
+	 */
+	public void detach() {
+		this.graph.removeGraphListener(this);
+	}
+
+	/**
+	 * Checks whether the two given vertices are connected.
+	 * 
+	 * @param vertexA
+	 *            the one vertex
+	 * @param vertexB
+	 *            the other vertex
+	 * @return {@code true} if both vertices are in the graph and connected by a
+	 *         path, ignoring edge directions
+	 */
+	public boolean isConnected(Vertex vertexA, Vertex vertexB) {
+		if (this.stale) {
+			this.rebuild();
+		}
+		Integer idA = this.ids.get(vertexA);
+		Integer idB = this.ids.get(vertexB);
+		if (idA == null || idB == null) {
+			return false;
+		}
+		return this.find(idA) == this.find(idB);
+	}
+
+	/**
+	 * Registers a pair of vertices. The given listener is called once the
+	 * vertices become connected. If they get disconnected by a removal, the
+	 * listener will be called again when they are reconnected.
+	 * 
+	 * @param vertexA
+	 *            the one vertex
+	 * @param vertexB
+	 *            the other vertex
+	 * @param listener
+	 *            the listener to notify
+	 */
+	public void watch(Vertex vertexA, Vertex vertexB, ConnectionListener listener) {
+		Watch watch = new Watch(vertexA, vertexB, listener);
+		this.watches.add(watch);
+		this.checkWatch(watch);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeAdded(Edge edge) {
+		if (this.stale) {
+			// Rebuilding also covers the new edge
+			this.rebuild();
+			return;
+		}
+		Integer idA = this.ids.get(edge.getOriginVertex());
+		Integer idB = this.ids.get(edge.getTargetVertex());
+		if (idA != null && idB != null && this.union(idA, idB)) {
+			this.checkWatches();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeChanged(Edge edge) {
+		// Connectivity does not depend on the visual state
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeRemoved(Edge edge) {
+		this.stale = true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexAdded(Vertex vertex) {
+		if (!this.stale) {
+			this.add(vertex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexChanged(Vertex vertex) {
+		// Connectivity does not depend on the visual state
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexRemoved(Vertex vertex) {
+		this.stale = true;
+	}
+
+	/**
+	 * Adds a vertex as a new singleton set.
+	 * 
+	 * @param vertex
+	 *            the vertex to add
+	 */
+	private void add(Vertex vertex) {
+		if (this.ids.containsKey(vertex)) {
+			return;
+		}
+		if (this.size == this.parents.length) {
+			int[] newParents = new int[this.size * 2];
+			int[] newRanks = new int[this.size * 2];
+			System.arraycopy(this.parents, 0, newParents, 0, this.size);
+			System.arraycopy(this.ranks, 0, newRanks, 0, this.size);
+			this.parents = newParents;
+			this.ranks = newRanks;
+		}
+		this.parents[this.size] = this.size;
+		this.ranks[this.size] = 0;
+		this.ids.put(vertex, this.size);
+		this.size++;
+	}
+
+	/**
+	 * Notifies the listeners of all watched pairs that just became connected.
+	 */
+	private void checkWatches() {
+		for (int i = 0; i < this.watches.size(); i++) {
+			this.checkWatch(this.watches.get(i));
+		}
+	}
+
+	/**
+	 * Notifies the listener of the given pair if it just became connected.
+	 * 
+	 * @param watch
+	 *            the pair to check
+	 */
+	private void checkWatch(Watch watch) {
+		boolean connected = this.isConnected(watch.vertexA, watch.vertexB);
+		if (connected && !watch.connected) {
+			watch.connected = true;
+			watch.listener.onConnected(watch.vertexA, watch.vertexB);
+		} else if (!connected) {
+			watch.connected = false;
+		}
+	}
+
+	/**
+	 * Returns the root of the set containing the given id, halving the path on
+	 * the way.
+	 * 
+	 * @param id
+	 *            the id to look up
+	 * @return the root id
+	 */
+	private int find(int id) {
+		int current = id;
+		while (this.parents[current] != current) {
+			this.parents[current] = this.parents[this.parents[current]];
+			current = this.parents[current];
+		}
+		return current;
+	}
+
+	/**
+	 * Rebuilds the index from the current state of the graph.
+	 */
+	private void rebuild() {
+		this.stale = false;
+		this.ids.clear();
+		this.size = 0;
+		for (Vertex vertex : this.graph.getVertices()) {
+			this.add(vertex);
+		}
+		for (Edge edge : this.graph.getEdges()) {
+			this.union(this.ids.get(edge.getOriginVertex()), this.ids.get(edge.getTargetVertex()));
+		}
+		this.checkWatches();
+	}
+
+	/**
+	 * Merges the sets containing the two given ids.
+	 * 
+	 * @param idA
+	 *            the one id
+	 * @param idB
+	 *            the other id
+	 * @return {@code true} if the ids were in different sets before
+	 */
+	private boolean union(int idA, int idB) {
+		int rootA = this.find(idA);
+		int rootB = this.find(idB);
+		if (rootA == rootB) {
+			return false;
+		}
+		if (this.ranks[rootA] < this.ranks[rootB]) {
+			this.parents[rootA] = rootB;
+		} else if (this.ranks[rootA] > this.ranks[rootB]) {
+			this.parents[rootB] = rootA;
+		} else {
+			this.parents[rootB] = rootA;
+			this.ranks[rootA]++;
+		}
+		return true;
+	}
+
+	/**
+	 * A watched pair of vertices.
+	 */
+	private static final class Watch {
+
+		/**
+		 * The one vertex.
+		 */
+		private final Vertex vertexA;
+
+		/**
+		 * The other vertex.
+		 */
+		private final Vertex vertexB;
+
+		/**
+		 * The listener to notify.
+		 */
+		private final ConnectionListener listener;
+
+		/**
+		 * Whether the pair was connected at the last check.
+		 */
+		private boolean connected;
+
+		/**
+		 * Creates a new watched pair.
+		 * 
+		 * @param vertexA
+		 *            the one vertex
+		 * @param vertexB
+		 *            the other vertex
+		 * @param listener
+		 *            the listener to notify
+		 */
+		Watch(Vertex vertexA, Vertex vertexB, ConnectionListener listener) {
+			this.vertexA = vertexA;
+			this.vertexB = vertexB;
+			this.listener = listener;
+		}
+	}
+
+}
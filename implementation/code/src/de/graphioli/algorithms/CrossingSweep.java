@@ -0,0 +1,661 @@
+package de.graphioli.algorithms;
+
+import de.graphioli.algorithms.PlanarityCheck.Conflict;
+import de.graphioli.algorithms.PlanarityCheck.Intersection;
+import de.graphioli.model.Edge;
+import de.graphioli.model.GridPoint;
+import de.graphioli.model.VisualVertex;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * This class finds all intersecting pairs among a set of edge segments with a
+ * Bentley-Ottmann plane sweep. The sweep line moves from left to right and
+ * stops at every end point and every intersection point, which takes
+ * O((n + k) log n) time for n segments and k intersection points. All
+ * positions are compared exactly using rational numbers.
+ * 
+ * Only pairs with at least one checked segment are reported, the other
+ * segments are only used as obstacles.
+ * 
+ * @author Team Graphioli
+ */
+final class CrossingSweep {
+
+	/**
+	 * Coordinates in (-2^16, 2^16) are compared with <code>long</code>
+	 * arithmetic, larger ones with {@link BigInteger}s.
+	 */
+	private static final long SMALL_BOUND = 1L << 16;
+
+	/**
+	 * The pending event points, each with the segments starting there.
+	 */
+	private final TreeMap<Point, ArrayList<Segment>> events;
+
+	/**
+	 * The segments crossing the sweep line, ordered from bottom to top.
+	 */
+	private final TreeSet<Segment> status;
+
+	/**
+	 * Probe ordered below all segments passing through the current event
+	 * point.
+	 */
+	private final Segment lowProbe;
+
+	/**
+	 * The conflicts found so far.
+	 */
+	private final ArrayList<Conflict> conflicts;
+
+	/**
+	 * The id pairs of the conflicts found so far.
+	 */
+	private final HashSet<Long> reported;
+
+	/**
+	 * Whether touching segments are reported.
+	 */
+	private final boolean touching;
+
+	/**
+	 * Whether overlapping segments are reported.
+	 */
+	private final boolean overlapping;
+
+	/**
+	 * Number of segments added so far.
+	 */
+	private int segmentCount;
+
+	/**
+	 * The current event point.
+	 */
+	private Point sweepPoint;
+
+	/**
+	 * {@code true} if segments through the current event point are ordered as
+	 * right after it, {@code false} if as right before it.
+	 */
+	private boolean afterSweepPoint;
+
+	/**
+	 * Creates a new {@link CrossingSweep}.
+	 * 
+	 * @param touching
+	 *            whether touching segments are reported
+	 * @param overlapping
+	 *            whether overlapping segments are reported
+	 */
+	CrossingSweep(boolean touching, boolean overlapping) {
+		this.touching = touching;
+		this.overlapping = overlapping;
+		this.events = new TreeMap<Point, ArrayList<Segment>>();
+		this.status = new TreeSet<Segment>(new StatusComparator());
+		this.lowProbe = new Segment(null, false, -1);
+		this.conflicts = new ArrayList<Conflict>();
+		this.reported = new HashSet<Long>();
+	}
+
+	/**
+	 * Adds the segment of the given {@link Edge}.
+	 * 
+	 * @param edge
+	 *            an edge between two {@link VisualVertex}es
+	 * @param checked
+	 *            {@code true} if intersections with this segment are reported
+	 */
+	void addEdge(Edge edge, boolean checked) {
+		Segment segment = new Segment(edge, checked, this.segmentCount++);
+		this.addEvent(segment.start).add(segment);
+		this.addEvent(segment.end);
+	}
+
+	/**
+	 * Runs the sweep over all added segments.
+	 * 
+	 * @return the conflicts, in the order of their left-most common point
+	 */
+	ArrayList<Conflict> run() {
+		while (!this.events.isEmpty()) {
+			Map.Entry<Point, ArrayList<Segment>> event = this.events.pollFirstEntry();
+			this.handleEvent(event.getKey(), event.getValue());
+		}
+		return this.conflicts;
+	}
+
+	/**
+	 * Returns the segments starting at the given point, creating the event
+	 * point if it is not known yet.
+	 * 
+	 * @param point
+	 *            the event point
+	 * @return the segments starting at the point
+	 */
+	private ArrayList<Segment> addEvent(Point point) {
+		ArrayList<Segment> starting = this.events.get(point);
+		if (starting == null) {
+			starting = new ArrayList<Segment>(1);
+			this.events.put(point, starting);
+		}
+		return starting;
+	}
+
+	/**
+	 * Processes an event point.
+	 * 
+	 * @param point
+	 *            the event point
+	 * @param starting
+	 *            the segments starting at the point
+	 */
+	private void handleEvent(Point point, ArrayList<Segment> starting) {
+		this.sweepPoint = point;
+		this.afterSweepPoint = false;
+
+		// Segments through the point are adjacent in the status
+		ArrayList<Segment> containing = new ArrayList<Segment>();
+		Segment current = this.status.ceiling(this.lowProbe);
+		while (current != null && current.compareHeight(point) == 0) {
+			containing.add(current);
+			current = this.status.higher(current);
+		}
+
+		if (containing.size() + starting.size() > 1) {
+			ArrayList<Segment> involved = new ArrayList<Segment>(containing);
+			involved.addAll(starting);
+			this.report(involved);
+		}
+
+		for (Segment segment : containing) {
+			this.status.remove(segment);
+		}
+
+		// Reinsert in the order right after the point
+		this.afterSweepPoint = true;
+		boolean inserted = false;
+		for (Segment segment : containing) {
+			if (segment.end.compareTo(point) != 0) {
+				this.status.add(segment);
+				inserted = true;
+			}
+		}
+		for (Segment segment : starting) {
+			if (segment.end.compareTo(point) != 0) {
+				this.status.add(segment);
+				inserted = true;
+			}
+		}
+
+		if (inserted) {
+			Segment lowest = this.status.ceiling(this.lowProbe);
+			Segment highest = lowest;
+			Segment next = this.status.higher(highest);
+			while (next != null && next.compareHeight(point) == 0) {
+				highest = next;
+				next = this.status.higher(highest);
+			}
+			this.findEvent(this.status.lower(lowest), lowest, point);
+			this.findEvent(highest, next, point);
+		} else {
+			this.findEvent(this.status.lower(this.lowProbe), this.status.ceiling(this.lowProbe), point);
+		}
+	}
+
+	/**
+	 * Adds the intersection point of the given segments as event point, if it
+	 * lies after the given point.
+	 * 
+	 * @param segmentA
+	 *            the lower segment, may be {@code null}
+	 * @param segmentB
+	 *            the upper segment, may be {@code null}
+	 * @param point
+	 *            the current event point
+	 */
+	private void findEvent(Segment segmentA, Segment segmentB, Point point) {
+		if (segmentA == null || segmentB == null) {
+			return;
+		}
+		Intersection intersection = PlanarityCheck.classify(segmentA.x1, segmentA.y1, segmentA.x2, segmentA.y2,
+				segmentB.x1, segmentB.y1, segmentB.x2, segmentB.y2);
+		if (intersection != Intersection.CROSSING && intersection != Intersection.TOUCHING) {
+			return;
+		}
+
+		BigInteger denominator = segmentA.dx.multiply(segmentB.dy).subtract(segmentA.dy.multiply(segmentB.dx));
+		if (denominator.signum() == 0) {
+			// Collinear segments touch in a common end point
+			return;
+		}
+
+		BigInteger offsetX = BigInteger.valueOf((long) segmentB.x1 - segmentA.x1);
+		BigInteger offsetY = BigInteger.valueOf((long) segmentB.y1 - segmentA.y1);
+		BigInteger parameter = offsetX.multiply(segmentB.dy).subtract(offsetY.multiply(segmentB.dx));
+		if (denominator.signum() < 0) {
+			denominator = denominator.negate();
+			parameter = parameter.negate();
+		}
+
+		Point intersectionPoint = new Point(BigInteger.valueOf(segmentA.x1).multiply(denominator)
+				.add(parameter.multiply(segmentA.dx)), BigInteger.valueOf(segmentA.y1).multiply(denominator)
+				.add(parameter.multiply(segmentA.dy)), denominator);
+		if (intersectionPoint.compareTo(point) > 0) {
+			this.addEvent(intersectionPoint);
+		}
+	}
+
+	/**
+	 * Reports all intersecting pairs among the given segments, which have a
+	 * point in common.
+	 * 
+	 * @param involved
+	 *            the segments through the current event point
+	 */
+	private void report(ArrayList<Segment> involved) {
+		for (int i = 0; i < involved.size(); i++) {
+			Segment segmentA = involved.get(i);
+			for (int j = i + 1; j < involved.size(); j++) {
+				Segment segmentB = involved.get(j);
+				if (!segmentA.checked && !segmentB.checked) {
+					continue;
+				}
+
+				Intersection intersection = PlanarityCheck.classify(segmentA.x1, segmentA.y1, segmentA.x2,
+						segmentA.y2, segmentB.x1, segmentB.y1, segmentB.x2, segmentB.y2);
+				if (intersection == Intersection.CROSSING || (this.touching && intersection == Intersection.TOUCHING)
+						|| (this.overlapping && intersection == Intersection.OVERLAPPING)) {
+					int low = Math.min(segmentA.id, segmentB.id);
+					int high = Math.max(segmentA.id, segmentB.id);
+					if (this.reported.add(((long) low << 32) | high)) {
+						Segment first = segmentA.id == low ? segmentA : segmentB;
+						Segment second = segmentA.id == low ? segmentB : segmentA;
+						this.conflicts.add(new Conflict(first.edge, second.edge, intersection));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Orders the segments of the status by their height at the sweep line.
+	 */
+	private final class StatusComparator implements Comparator<Segment> {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int compare(Segment segmentA, Segment segmentB) {
+			if (segmentA == segmentB) {
+				return 0;
+			}
+
+			Point point = CrossingSweep.this.sweepPoint;
+			int result = Segment.compareHeights(segmentA, segmentB, point);
+			if (result != 0) {
+				return result;
+			}
+
+			// Both pass through the same point of the sweep line
+			if (segmentA == CrossingSweep.this.lowProbe) {
+				return -1;
+			}
+			if (segmentB == CrossingSweep.this.lowProbe) {
+				return 1;
+			}
+
+			int slope = segmentA.compareSlope(segmentB);
+			if (slope != 0) {
+				int position = segmentA.compareHeight(point);
+				if (position < 0 || (position == 0 && CrossingSweep.this.afterSweepPoint)) {
+					// Right of the common point
+					return slope;
+				}
+				// Left of the common point
+				return -slope;
+			}
+
+			return segmentA.id < segmentB.id ? -1 : 1;
+		}
+	}
+
+	/**
+	 * A rational number with a positive denominator.
+	 */
+	private static final class Fraction implements Comparable<Fraction> {
+
+		/**
+		 * The numerator.
+		 */
+		private final BigInteger numerator;
+
+		/**
+		 * The denominator, always positive.
+		 */
+		private final BigInteger denominator;
+
+		/**
+		 * Creates a new fraction.
+		 * 
+		 * @param numerator
+		 *            the numerator
+		 * @param denominator
+		 *            the positive denominator
+		 */
+		Fraction(BigInteger numerator, BigInteger denominator) {
+			this.numerator = numerator;
+			this.denominator = denominator;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int compareTo(Fraction other) {
+			if (this.denominator.equals(other.denominator)) {
+				return this.numerator.compareTo(other.numerator);
+			}
+			return this.numerator.multiply(other.denominator).compareTo(other.numerator.multiply(this.denominator));
+		}
+	}
+
+	/**
+	 * A point with rational coordinates. Points are ordered by x coordinate,
+	 * then by y coordinate.
+	 */
+	private static final class Point implements Comparable<Point> {
+
+		/**
+		 * The x coordinate.
+		 */
+		private final Fraction x;
+
+		/**
+		 * The y coordinate.
+		 */
+		private final Fraction y;
+
+		/**
+		 * Whether this point has small integer coordinates.
+		 */
+		private final boolean small;
+
+		/**
+		 * The x coordinate, if the point is small.
+		 */
+		private final long smallX;
+
+		/**
+		 * The y coordinate, if the point is small.
+		 */
+		private final long smallY;
+
+		/**
+		 * Creates a new point.
+		 * 
+		 * @param numeratorX
+		 *            the numerator of the x coordinate
+		 * @param numeratorY
+		 *            the numerator of the y coordinate
+		 * @param denominator
+		 *            the positive denominator of both coordinates
+		 */
+		Point(BigInteger numeratorX, BigInteger numeratorY, BigInteger denominator) {
+			this.x = new Fraction(numeratorX, denominator);
+			this.y = new Fraction(numeratorY, denominator);
+			this.small = denominator.equals(BigInteger.ONE) && isSmall(numeratorX) && isSmall(numeratorY);
+			this.smallX = this.small ? numeratorX.longValue() : 0;
+			this.smallY = this.small ? numeratorY.longValue() : 0;
+		}
+
+		/**
+		 * Checks whether the given integer is within the bounds for
+		 * <code>long</code> arithmetic.
+		 * 
+		 * @param value
+		 *            the integer
+		 * @return {@code true} if the value is small
+		 */
+		private static boolean isSmall(BigInteger value) {
+			return value.bitLength() < Long.SIZE && Math.abs(value.longValue()) < SMALL_BOUND;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int compareTo(Point other) {
+			if (this.small && other.small) {
+				int result = Long.compare(this.smallX, other.smallX);
+				return result != 0 ? result : Long.compare(this.smallY, other.smallY);
+			}
+			int result = this.x.compareTo(other.x);
+			if (result != 0) {
+				return result;
+			}
+			return this.y.compareTo(other.y);
+		}
+	}
+
+	/**
+	 * The line segment of an edge, oriented from its smaller to its larger end
+	 * point.
+	 */
+	private static final class Segment {
+
+		/**
+		 * The edge drawn as this segment.
+		 */
+		private final Edge edge;
+
+		/**
+		 * Whether intersections with this segment are reported.
+		 */
+		private final boolean checked;
+
+		/**
+		 * The id of this segment.
+		 */
+		private final int id;
+
+		/**
+		 * The x coordinate of the start point.
+		 */
+		private final int x1;
+
+		/**
+		 * The y coordinate of the start point.
+		 */
+		private final int y1;
+
+		/**
+		 * The x coordinate of the end point.
+		 */
+		private final int x2;
+
+		/**
+		 * The y coordinate of the end point.
+		 */
+		private final int y2;
+
+		/**
+		 * Whether all coordinates of this segment are small.
+		 */
+		private final boolean small;
+
+		/**
+		 * The horizontal extent, never negative.
+		 */
+		private final BigInteger dx;
+
+		/**
+		 * The vertical extent.
+		 */
+		private final BigInteger dy;
+
+		/**
+		 * The start point.
+		 */
+		private final Point start;
+
+		/**
+		 * The end point.
+		 */
+		private final Point end;
+
+		/**
+		 * Creates the segment of the given edge, or a probe if the edge is
+		 * {@code null}.
+		 * 
+		 * @param edge
+		 *            an edge between two {@link VisualVertex}es, or
+		 *            {@code null}
+		 * @param checked
+		 *            whether intersections with this segment are reported
+		 * @param id
+		 *            the id of the segment
+		 */
+		Segment(Edge edge, boolean checked, int id) {
+			this.edge = edge;
+			this.checked = checked;
+			this.id = id;
+
+			if (edge == null) {
+				this.x1 = 0;
+				this.y1 = 0;
+				this.x2 = 0;
+				this.y2 = 0;
+			} else {
+				GridPoint origin = ((VisualVertex) edge.getOriginVertex()).getGridPoint();
+				GridPoint target = ((VisualVertex) edge.getTargetVertex()).getGridPoint();
+				boolean forward = origin.getPositionX() < target.getPositionX()
+						|| (origin.getPositionX() == target.getPositionX() && origin.getPositionY() <= target
+								.getPositionY());
+				GridPoint first = forward ? origin : target;
+				GridPoint second = forward ? target : origin;
+				this.x1 = first.getPositionX();
+				this.y1 = first.getPositionY();
+				this.x2 = second.getPositionX();
+				this.y2 = second.getPositionY();
+			}
+
+			this.small = Math.abs((long) this.x1) < SMALL_BOUND && Math.abs((long) this.y1) < SMALL_BOUND
+					&& Math.abs((long) this.x2) < SMALL_BOUND && Math.abs((long) this.y2) < SMALL_BOUND;
+			this.dx = BigInteger.valueOf((long) this.x2 - this.x1);
+			this.dy = BigInteger.valueOf((long) this.y2 - this.y1);
+			this.start = new Point(BigInteger.valueOf(this.x1), BigInteger.valueOf(this.y1), BigInteger.ONE);
+			this.end = new Point(BigInteger.valueOf(this.x2), BigInteger.valueOf(this.y2), BigInteger.ONE);
+		}
+
+		/**
+		 * Compares the slope of this segment with the slope of the given
+		 * segment. Vertical segments have the largest slope.
+		 * 
+		 * @param other
+		 *            the other segment
+		 * @return a negative number, zero or a positive number if this slope
+		 *         is smaller, equal or larger
+		 */
+		int compareSlope(Segment other) {
+			if (this.x1 == this.x2 || other.x1 == other.x2) {
+				return (this.x1 == this.x2 ? 1 : 0) - (other.x1 == other.x2 ? 1 : 0);
+			}
+			if (this.small && other.small) {
+				return Long.signum(((long) this.y2 - this.y1) * (other.x2 - other.x1) - ((long) other.y2 - other.y1)
+						* (this.x2 - this.x1));
+			}
+			return this.dy.multiply(other.dx).compareTo(other.dy.multiply(this.dx));
+		}
+
+		/**
+		 * Compares the heights of the given segments on the vertical line
+		 * through the given point.
+		 * 
+		 * @param segmentA
+		 *            the one segment
+		 * @param segmentB
+		 *            the other segment
+		 * @param point
+		 *            the point
+		 * @return a negative number, zero or a positive number if the one
+		 *         segment is lower, at the same height or higher
+		 */
+		static int compareHeights(Segment segmentA, Segment segmentB, Point point) {
+			if (segmentA.hasPointHeight()) {
+				return -segmentB.compareHeight(point);
+			}
+			if (segmentB.hasPointHeight()) {
+				return segmentA.compareHeight(point);
+			}
+			if (segmentA.small && segmentB.small && point.small) {
+				// Heights are numerator / dx, with positive dx
+				long dxA = segmentA.x2 - segmentA.x1;
+				long dxB = segmentB.x2 - segmentB.x1;
+				long numeratorA = segmentA.y1 * dxA + (point.smallX - segmentA.x1) * (segmentA.y2 - segmentA.y1);
+				long numeratorB = segmentB.y1 * dxB + (point.smallX - segmentB.x1) * (segmentB.y2 - segmentB.y1);
+				return Long.signum(numeratorA * dxB - numeratorB * dxA);
+			}
+			return segmentA.yAt(point).compareTo(segmentB.yAt(point));
+		}
+
+		/**
+		 * Compares the height of this segment on the vertical line through the
+		 * given point with the height of the point.
+		 * 
+		 * @param point
+		 *            the point
+		 * @return a negative number, zero or a positive number if this segment
+		 *         is lower, at the same height or higher
+		 */
+		int compareHeight(Point point) {
+			if (this.hasPointHeight()) {
+				return 0;
+			}
+			if (this.small && point.small) {
+				long dxThis = this.x2 - this.x1;
+				return Long.signum(this.y1 * dxThis + (point.smallX - this.x1) * (this.y2 - this.y1) - point.smallY
+						* dxThis);
+			}
+			return this.yAt(point).compareTo(point.y);
+		}
+
+		/**
+		 * Checks whether this segment is a probe or vertical, so its height is
+		 * always the height of the current event point.
+		 * 
+		 * @return {@code true} if the height is the height of the event point
+		 */
+		boolean hasPointHeight() {
+			return this.edge == null || this.x1 == this.x2;
+		}
+
+		/**
+		 * Returns the y coordinate of this segment on the vertical line through
+		 * the given point. Vertical segments and probes return the y coordinate
+		 * of the point.
+		 * 
+		 * @param point
+		 *            the point
+		 * @return the y coordinate at the x coordinate of the point
+		 */
+		Fraction yAt(Point point) {
+			if (this.hasPointHeight()) {
+				return point.y;
+			}
+			// y1 + (x - x1) * dy / dx, with x = n / d
+			BigInteger numerator = point.x.numerator.subtract(BigInteger.valueOf(this.x1).multiply(
+					point.x.denominator));
+			numerator = BigInteger.valueOf(this.y1).multiply(this.dx).multiply(point.x.denominator)
+					.add(numerator.multiply(this.dy));
+			return new Fraction(numerator, this.dx.multiply(point.x.denominator));
+		}
+	}
+
+}
@@ -1,8 +1,11 @@
 package de.graphioli.algorithms;
 
+import de.graphioli.model.Edge;
 import de.graphioli.model.Graph;
 import de.graphioli.model.Vertex;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 
 /**
  * This class can check if a path between two given vertices exists.
@@ -24,7 +27,7 @@ public final class FindPath {
 
 	/**
 	 * Checks if a path exists in a specified graph between two given vertices.
-	 * This method uses the {@link BreadthFirstSearch} algorithm.
+	 * This method uses {@link FindPath#findPath(Graph, Vertex, Vertex)}.
 	 * 
 	 * @param graph
 	 *            specified graph
@@ -36,10 +39,177 @@ public final class FindPath {
 	 *         vertices, <code>false</code> otherwise.
 	 */
 	public static boolean performAlgorithm(Graph graph, Vertex vertexA, Vertex vertexB) {
-		ArrayList<Vertex> reachableVertices = BreadthFirstSearch.performAlgorithm(graph, vertexA, MAX_DEPTH);
-		if (reachableVertices != null && reachableVertices.contains(vertexB)) {
-			return true;
+		return findPath(graph, vertexA, vertexB) != null;
+	}
+
+	/**
+	 * Returns a shortest path between two given vertices with at most
+	 * {@link #MAX_DEPTH} edges.
+	 * 
+	 * @param graph
+	 *            specified graph
+	 * @param vertexA
+	 *            starting {@link Vertex}
+	 * @param vertexB
+	 *            target {@link Vertex}
+	 * @return the vertices of the path, starting with {@code vertexA} and
+	 *         ending with {@code vertexB}, or {@code null} if there is no path
+	 */
+	public static ArrayList<Vertex> findPath(Graph graph, Vertex vertexA, Vertex vertexB) {
+		return findPath(graph, vertexA, vertexB, MAX_DEPTH);
+	}
+
+	/**
+	 * Returns a shortest path between two given vertices with at most the
+	 * given number of edges. The search runs from both ends at once, following
+	 * outgoing edges from {@code vertexA} and incoming edges from
+	 * {@code vertexB}, and stops as soon as the two searches meet. If both
+	 * vertices are the same, a shortest cycle through it is returned.
+	 * 
+	 * @param graph
+	 *            specified graph
+	 * @param vertexA
+	 *            starting {@link Vertex}
+	 * @param vertexB
+	 *            target {@link Vertex}
+	 * @param maxLength
+	 *            the maximum number of edges of the path
+	 * @return the vertices of the path, starting with {@code vertexA} and
+	 *         ending with {@code vertexB}, or {@code null} if there is no path
+	 */
+	public static ArrayList<Vertex> findPath(Graph graph, Vertex vertexA, Vertex vertexB, int maxLength) {
+		if (graph == null || !graph.containsVertex(vertexA) || !graph.containsVertex(vertexB) || maxLength < 1) {
+			return null;
 		}
-		return false;
+
+		boolean isCycle = vertexA.equals(vertexB);
+
+		HashMap<Vertex, Vertex> forwardParents = new HashMap<Vertex, Vertex>();
+		HashMap<Vertex, Integer> forwardDistances = new HashMap<Vertex, Integer>();
+		HashMap<Vertex, Vertex> backwardParents = new HashMap<Vertex, Vertex>();
+		HashMap<Vertex, Integer> backwardDistances = new HashMap<Vertex, Integer>();
+		ArrayList<Vertex> forwardFrontier = new ArrayList<Vertex>();
+		ArrayList<Vertex> backwardFrontier = new ArrayList<Vertex>();
+		int forwardDepth = 0;
+		int backwardDepth = 0;
+
+		backwardParents.put(vertexB, null);
+		backwardDistances.put(vertexB, 0);
+		backwardFrontier.add(vertexB);
+
+		if (isCycle) {
+			// Start one step ahead, so the search can come back to vertexA
+			for (Edge edge : vertexA.getOutgoingEdges()) {
+				Vertex next = edge.getOppositeVertex(vertexA);
+				forwardParents.put(next, vertexA);
+				forwardDistances.put(next, 1);
+				forwardFrontier.add(next);
+			}
+			forwardDepth = 1;
+		} else {
+			forwardParents.put(vertexA, null);
+			forwardDistances.put(vertexA, 0);
+			forwardFrontier.add(vertexA);
+		}
+
+		Vertex meeting = null;
+		int bestLength = Integer.MAX_VALUE;
+
+		while (meeting == null && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()
+				&& forwardDepth + backwardDepth < maxLength) {
+
+			ArrayList<Vertex> nextFrontier = new ArrayList<Vertex>();
+
+			if (forwardFrontier.size() <= backwardFrontier.size()) {
+				// Expand forward along outgoing edges
+				forwardDepth++;
+				for (Vertex vertex : forwardFrontier) {
+					for (Edge edge : vertex.getOutgoingEdges()) {
+						Vertex next = edge.getOppositeVertex(vertex);
+						if (forwardDistances.containsKey(next) || (!isCycle && next.equals(vertexA))) {
+							continue;
+						}
+						forwardParents.put(next, vertex);
+						forwardDistances.put(next, forwardDepth);
+						nextFrontier.add(next);
+
+						Integer otherDistance = backwardDistances.get(next);
+						if (otherDistance != null && forwardDepth + otherDistance < bestLength) {
+							meeting = next;
+							bestLength = forwardDepth + otherDistance;
+						}
+					}
+				}
+				forwardFrontier = nextFrontier;
+			} else {
+				// Expand backward along incoming edges
+				backwardDepth++;
+				for (Vertex vertex : backwardFrontier) {
+					for (Edge edge : vertex.getIncomingEdges()) {
+						Vertex next = edge.getOppositeVertex(vertex);
+						if (backwardDistances.containsKey(next)) {
+							continue;
+						}
+						backwardParents.put(next, vertex);
+						backwardDistances.put(next, backwardDepth);
+						nextFrontier.add(next);
+
+						Integer otherDistance = forwardDistances.get(next);
+						if (otherDistance != null && backwardDepth + otherDistance < bestLength) {
+							meeting = next;
+							bestLength = backwardDepth + otherDistance;
+						}
+					}
+				}
+				backwardFrontier = nextFrontier;
+			}
+		}
+
+		if (meeting == null || bestLength > maxLength) {
+			return null;
+		}
+
+		return buildPath(vertexA, meeting, forwardParents, backwardParents, isCycle);
+	}
+
+	/**
+	 * Joins the two halves of a path at the vertex where they meet.
+	 * 
+	 * @param vertexA
+	 *            starting {@link Vertex}
+	 * @param meeting
+	 *            the vertex where both searches met
+	 * @param forwardParents
+	 *            the predecessors found by the forward search
+	 * @param backwardParents
+	 *            the successors found by the backward search
+	 * @param isCycle
+	 *            whether the path starts and ends at the same vertex
+	 * @return the complete path
+	 */
+	private static ArrayList<Vertex> buildPath(Vertex vertexA, Vertex meeting, HashMap<Vertex, Vertex> forwardParents,
+			HashMap<Vertex, Vertex> backwardParents, boolean isCycle) {
+		ArrayList<Vertex> path = new ArrayList<Vertex>();
+
+		path.add(meeting);
+		if (isCycle || !meeting.equals(vertexA)) {
+			Vertex current = forwardParents.get(meeting);
+			while (current != null) {
+				path.add(current);
+				if (current.equals(vertexA)) {
+					break;
+				}
+				current = forwardParents.get(current);
+			}
+		}
+		Collections.reverse(path);
+
+		Vertex current = backwardParents.get(meeting);
+		while (current != null) {
+			path.add(current);
+			current = backwardParents.get(current);
+		}
+
+		return path;
 	}
 }
@@ -2,7 +2,11 @@ package de.graphioli.algorithms;
 
 import de.graphioli.model.Edge;
 import de.graphioli.model.Graph;
+import de.graphioli.model.GridPoint;
 import de.graphioli.model.VisualVertex;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
 
 /**
  * This class checks if a newly added edge makes the drawing of the graph
@@ -12,6 +16,112 @@ import de.graphioli.model.VisualVertex;
  */
 public final class PlanarityCheck {
 
+	/**
+	 * The ways two line segments can meet.
+	 */
+	public enum Intersection {
+
+		/**
+		 * The segments have no point in common.
+		 */
+		NONE,
+
+		/**
+		 * The segments cross in a single point that is inside both of them.
+		 */
+		CROSSING,
+
+		/**
+		 * The segments have a single point in common that is an end point of at
+		 * least one of them, e.g. a shared end point.
+		 */
+		TOUCHING,
+
+		/**
+		 * The segments are collinear and share more than one point.
+		 */
+		OVERLAPPING
+	}
+
+	/**
+	 * A pair of intersecting edges found by
+	 * {@link PlanarityCheck#findConflicts(Graph, Collection, boolean, boolean)}.
+	 */
+	public static final class Conflict {
+
+		/**
+		 * The one edge.
+		 */
+		private final Edge edgeA;
+
+		/**
+		 * The other edge.
+		 */
+		private final Edge edgeB;
+
+		/**
+		 * How the edges meet.
+		 */
+		private final Intersection intersection;
+
+		/**
+		 * Creates a new conflict.
+		 * 
+		 * @param edgeA
+		 *            the one edge
+		 * @param edgeB
+		 *            the other edge
+		 * @param intersection
+		 *            how the edges meet
+		 */
+		Conflict(Edge edgeA, Edge edgeB, Intersection intersection) {
+			this.edgeA = edgeA;
+			this.edgeB = edgeB;
+			this.intersection = intersection;
+		}
+
+		/**
+		 * Returns the one edge of the pair.
+		 * 
+		 * @return the one edge
+		 */
+		public Edge getEdgeA() {
+			return this.edgeA;
+		}
+
+		/**
+		 * Returns the other edge of the pair.
+		 * 
+		 * @return the other edge
+		 */
+		public Edge getEdgeB() {
+			return this.edgeB;
+		}
+
+		/**
+		 * Returns how the edges meet.
+		 * 
+		 * @return the kind of intersection
+		 */
+		public Intersection getIntersection() {
+			return this.intersection;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return this.intersection + ": " + this.edgeA + " / " + this.edgeB;
+		}
+	}
+
+	/**
+	 * Coordinates in [-2^30, 2^30) differ by less than 2^31, so their
+	 * differences can be multiplied without overflowing a <code>long</code>.
+	 */
+	private static final int SMALL_BOUND = 1 << 30;
+
 	/**
 	 * Private empty constructor, to ensure that no instance is being created.
 	 */
@@ -20,7 +130,10 @@ public final class PlanarityCheck {
 
 	/**
 	 * This method checks for all the {@link Edge}s in the {@link Graph} if they
-	 * intersect with a new new {@link Edge}.
+	 * cross a new new {@link Edge}. Edges that only touch or overlap the new
+	 * edge are allowed. Only the edges near the new edge are checked, using a
+	 * {@link SegmentIndex} that is created on the first check of a graph and
+	 * kept up to date afterwards.
 	 * 
 	 * @param graph
 	 *            The {@link Graph} whose drawing is checked for planarity
@@ -31,82 +144,347 @@ public final class PlanarityCheck {
 	 *         intersects with another one
 	 */
 	public static boolean performAlgorithm(Graph graph, Edge newEdge) {
-		for (Edge edge : graph.getEdges()) {
-			if (intersectionBetween(edge, newEdge)) {
-				return false;
+		return performAlgorithm(graph, newEdge, false, false);
+	}
+
+	/**
+	 * This method checks for all the {@link Edge}s in the {@link Graph} if they
+	 * intersect with a new {@link Edge}. Crossing edges always count as
+	 * intersection, touching and overlapping edges only if requested.
+	 * 
+	 * @param graph
+	 *            The {@link Graph} whose drawing is checked for planarity
+	 * @param newEdge
+	 *            The new {@link Edge}
+	 * @param touching
+	 *            whether {@link Intersection#TOUCHING} counts as intersection
+	 * @param overlapping
+	 *            whether {@link Intersection#OVERLAPPING} counts as
+	 *            intersection
+	 * @return <code>true</code> if the {@link Graph} with the new {@link Edge}
+	 *         is still planar drawn, <code>false</code> if new {@link Edge}
+	 *         intersects with another one
+	 */
+	public static boolean performAlgorithm(Graph graph, Edge newEdge, boolean touching, boolean overlapping) {
+		return performAlgorithm(getSegmentIndex(graph), newEdge, touching, overlapping);
+	}
+
+	/**
+	 * This method checks if any {@link Edge} in the given {@link SegmentIndex}
+	 * crosses a new {@link Edge}.
+	 * 
+	 * @param index
+	 *            The {@link SegmentIndex} of the drawing to check
+	 * @param newEdge
+	 *            The new {@link Edge}
+	 * @return <code>true</code> if the drawing with the new {@link Edge} is
+	 *         still planar, <code>false</code> if new {@link Edge} intersects
+	 *         with another one
+	 */
+	public static boolean performAlgorithm(SegmentIndex index, Edge newEdge) {
+		return performAlgorithm(index, newEdge, false, false);
+	}
+
+	/**
+	 * This method checks if any {@link Edge} in the given {@link SegmentIndex}
+	 * intersects with a new {@link Edge}.
+	 * 
+	 * @param index
+	 *            The {@link SegmentIndex} of the drawing to check
+	 * @param newEdge
+	 *            The new {@link Edge}
+	 * @param touching
+	 *            whether {@link Intersection#TOUCHING} counts as intersection
+	 * @param overlapping
+	 *            whether {@link Intersection#OVERLAPPING} counts as
+	 *            intersection
+	 * @return <code>true</code> if the drawing with the new {@link Edge} is
+	 *         still planar, <code>false</code> if new {@link Edge} intersects
+	 *         with another one
+	 */
+	public static boolean performAlgorithm(SegmentIndex index, Edge newEdge, boolean touching, boolean overlapping) {
+		return index.findIntersection(newEdge, touching, overlapping) == null;
+	}
+
+	/**
+	 * Returns the {@link SegmentIndex} of the given {@link Graph}, creating it
+	 * if the graph has not been checked before. The index is registered as a
+	 * listener of the graph and owned by it, there is no global cache: the
+	 * index is found again through {@link Graph#getGraphListener(Class)}, and
+	 * is garbage collected together with its graph.
+	 * 
+	 * @param graph
+	 *            the graph
+	 * @return the segment index of the graph
+	 */
+	public static SegmentIndex getSegmentIndex(Graph graph) {
+		SegmentIndex index = graph.getGraphListener(SegmentIndex.class);
+		if (index == null) {
+			index = new SegmentIndex(graph);
+		}
+		return index;
+	}
+
+	/**
+	 * This method finds all crossing pairs among the given new {@link Edge}s
+	 * and between a new edge and an edge of the {@link Graph}.
+	 * 
+	 * @param graph
+	 *            The {@link Graph} the edges will be added to, may be
+	 *            <code>null</code>
+	 * @param newEdges
+	 *            The new {@link Edge}s
+	 * @return the crossing pairs, empty if the drawing stays planar
+	 */
+	public static ArrayList<Conflict> findConflicts(Graph graph, Collection<? extends Edge> newEdges) {
+		return findConflicts(graph, newEdges, false, false);
+	}
+
+	/**
+	 * This method finds all intersecting pairs among the given new
+	 * {@link Edge}s and between a new edge and an edge of the {@link Graph},
+	 * using a single plane sweep. Pairs of two graph edges are not reported.
+	 * 
+	 * @param graph
+	 *            The {@link Graph} the edges will be added to, may be
+	 *            <code>null</code>
+	 * @param newEdges
+	 *            The new {@link Edge}s
+	 * @param touching
+	 *            whether {@link Intersection#TOUCHING} counts as intersection
+	 * @param overlapping
+	 *            whether {@link Intersection#OVERLAPPING} counts as
+	 *            intersection
+	 * @return the intersecting pairs, empty if the drawing stays planar
+	 */
+	public static ArrayList<Conflict> findConflicts(Graph graph, Collection<? extends Edge> newEdges,
+			boolean touching, boolean overlapping) {
+		CrossingSweep sweep = new CrossingSweep(touching, overlapping);
+		if (graph != null) {
+			for (Edge edge : graph.getEdges()) {
+				sweep.addEdge(edge, false);
 			}
 		}
-		return true;
+		for (Edge edge : newEdges) {
+			sweep.addEdge(edge, true);
+		}
+		return sweep.run();
 	}
 
 	/**
-	 * This method checks if the given {@link Edge}s intersect.
+	 * This method determines how the given {@link Edge}s meet.
 	 * 
 	 * @param edgeA
 	 *            the one edge to check
 	 * @param edgeB
 	 *            the other edge to check
-	 * @return <code>true</code> if the edges intersect, <code>false</code> if
-	 *         not
-	 */
-	private static boolean intersectionBetween(Edge edgeA, Edge edgeB) {
-
-		VisualVertex vertexA1 = (VisualVertex) edgeA.getOriginVertex();
-		VisualVertex vertexA2 = (VisualVertex) edgeA.getTargetVertex();
-		VisualVertex vertexB1 = (VisualVertex) edgeB.getOriginVertex();
-		VisualVertex vertexB2 = (VisualVertex) edgeB.getTargetVertex();
-
-		double xA1 = vertexA1.getGridPoint().getPositionX();
-		double yA1 = vertexA1.getGridPoint().getPositionY();
-		double xA2 = vertexA2.getGridPoint().getPositionX();
-		double yA2 = vertexA2.getGridPoint().getPositionY();
-		double xB1 = vertexB1.getGridPoint().getPositionX();
-		double yB1 = vertexB1.getGridPoint().getPositionY();
-		double xB2 = vertexB2.getGridPoint().getPositionX();
-		double yB2 = vertexB2.getGridPoint().getPositionY();
-
-		// Numerators
-		double nx = (xA1 * yA2 - yA1 * xA2) * (xB1 - xB2) - (xA1 - xA2) * (xB1 * yB2 - yB1 * xB2);
-//		double ny = (xA1 * yA2 - yA1 * xA2) * (yB1 - yB2) - (yA1 - yA2) * (xB1 * yB2 - yB1 * xB2);
-
-		// Denominator
-		double d = (xA1 - xA2) * (yB1 - yB2) - (yA1 - yA2) * (xB1 - xB2);
-
-		if (d == 0) {
-			// edges are parallel
-			return false;
+	 * @return the kind of intersection of the edges
+	 */
+	public static Intersection classify(Edge edgeA, Edge edgeB) {
+		GridPoint pointA1 = ((VisualVertex) edgeA.getOriginVertex()).getGridPoint();
+		GridPoint pointA2 = ((VisualVertex) edgeA.getTargetVertex()).getGridPoint();
+		GridPoint pointB1 = ((VisualVertex) edgeB.getOriginVertex()).getGridPoint();
+		GridPoint pointB2 = ((VisualVertex) edgeB.getTargetVertex()).getGridPoint();
+
+		return classify(pointA1.getPositionX(), pointA1.getPositionY(), pointA2.getPositionX(),
+				pointA2.getPositionY(), pointB1.getPositionX(), pointB1.getPositionY(), pointB2.getPositionX(),
+				pointB2.getPositionY());
+	}
+
+	/**
+	 * This method determines how the line segments between the given grid
+	 * coordinates meet. It only uses the signs of exact integer orientations,
+	 * so the result does not depend on rounding.
+	 * 
+	 * @param xA1
+	 *            x coordinate of the first end of segment A
+	 * @param yA1
+	 *            y coordinate of the first end of segment A
+	 * @param xA2
+	 *            x coordinate of the second end of segment A
+	 * @param yA2
+	 *            y coordinate of the second end of segment A
+	 * @param xB1
+	 *            x coordinate of the first end of segment B
+	 * @param yB1
+	 *            y coordinate of the first end of segment B
+	 * @param xB2
+	 *            x coordinate of the second end of segment B
+	 * @param yB2
+	 *            y coordinate of the second end of segment B
+	 * @return the kind of intersection of the segments
+	 */
+	public static Intersection classify(int xA1, int yA1, int xA2, int yA2, int xB1, int yB1, int xB2, int yB2) {
+		if (Math.max(xA1, xA2) < Math.min(xB1, xB2) || Math.max(xB1, xB2) < Math.min(xA1, xA2)
+				|| Math.max(yA1, yA2) < Math.min(yB1, yB2) || Math.max(yB1, yB2) < Math.min(yA1, yA2)) {
+			// Bounding boxes are disjoint
+			return Intersection.NONE;
 		}
 
-		// Coordinates of point of intersection
-		double x = nx / d;
-//		double y = ny / d;
-
-		if (xA1 < xA2) {
-			if (xB1 < xB2) {
-				if (xA1 < x && xB1 < x && x < xA2 && x < xB2) {
-					return true;
-				}
-			} else {
-				if (xA1 < x && xB2 < x && x < xA2 && x < xB1) {
-					return true;
-				}
-			}
+		// Side of each end point relative to the other segment
+		int sideB1;
+		int sideB2;
+		int sideA1;
+		int sideA2;
+		if (isSmall(xA1) && isSmall(yA1) && isSmall(xA2) && isSmall(yA2) && isSmall(xB1) && isSmall(yB1)
+				&& isSmall(xB2) && isSmall(yB2)) {
+			sideB1 = orientation(xA1, yA1, xA2, yA2, xB1, yB1);
+			sideB2 = orientation(xA1, yA1, xA2, yA2, xB2, yB2);
+			sideA1 = orientation(xB1, yB1, xB2, yB2, xA1, yA1);
+			sideA2 = orientation(xB1, yB1, xB2, yB2, xA2, yA2);
 		} else {
-			if (xB1 < xB2) {
-				if (xA2 < x && xB1 < x && x < xA1 && x < xB2) {
-					return true;
-				}
-			} else {
-				if (xA2 < x && xB2 < x && x < xA1 && x < xB1) {
-					return true;
-				}
+			sideB1 = exactOrientation(xA1, yA1, xA2, yA2, xB1, yB1);
+			sideB2 = exactOrientation(xA1, yA1, xA2, yA2, xB2, yB2);
+			sideA1 = exactOrientation(xB1, yB1, xB2, yB2, xA1, yA1);
+			sideA2 = exactOrientation(xB1, yB1, xB2, yB2, xA2, yA2);
+		}
+
+		if (sideB1 * sideB2 < 0 && sideA1 * sideA2 < 0) {
+			return Intersection.CROSSING;
+		}
+
+		if (sideB1 == 0 && sideB2 == 0 && sideA1 == 0 && sideA2 == 0) {
+			// Collinear, the common part is the overlap of the bounding boxes
+			int lowX = Math.max(Math.min(xA1, xA2), Math.min(xB1, xB2));
+			int highX = Math.min(Math.max(xA1, xA2), Math.max(xB1, xB2));
+			int lowY = Math.max(Math.min(yA1, yA2), Math.min(yB1, yB2));
+			int highY = Math.min(Math.max(yA1, yA2), Math.max(yB1, yB2));
+			if (lowX > highX || lowY > highY) {
+				return Intersection.NONE;
 			}
+			if (lowX == highX && lowY == highY) {
+				return Intersection.TOUCHING;
+			}
+			return Intersection.OVERLAPPING;
+		}
+
+		if ((sideB1 == 0 && inBox(xA1, yA1, xA2, yA2, xB1, yB1))
+				|| (sideB2 == 0 && inBox(xA1, yA1, xA2, yA2, xB2, yB2))
+				|| (sideA1 == 0 && inBox(xB1, yB1, xB2, yB2, xA1, yA1))
+				|| (sideA2 == 0 && inBox(xB1, yB1, xB2, yB2, xA2, yA2))) {
+			return Intersection.TOUCHING;
 		}
-		return false;
-		// If point of intersection is in the line segments (edges)
-//		return (x - xA1) / (xA2 - xA1) < 1
-//				&& (x - xB1) / (xB2 - xB1) < 1
-//				&& (y - yA1) / (yA2 - yA1) < 1
-//				&& (y - yB1) / (yB2 - yB1) < 1;
+
+		return Intersection.NONE;
+	}
+
+	/**
+	 * This method checks if the line segments between the given grid
+	 * coordinates intersect.
+	 * 
+	 * @param xA1
+	 *            x coordinate of the first end of segment A
+	 * @param yA1
+	 *            y coordinate of the first end of segment A
+	 * @param xA2
+	 *            x coordinate of the second end of segment A
+	 * @param yA2
+	 *            y coordinate of the second end of segment A
+	 * @param xB1
+	 *            x coordinate of the first end of segment B
+	 * @param yB1
+	 *            y coordinate of the first end of segment B
+	 * @param xB2
+	 *            x coordinate of the second end of segment B
+	 * @param yB2
+	 *            y coordinate of the second end of segment B
+	 * @param touching
+	 *            whether {@link Intersection#TOUCHING} counts as intersection
+	 * @param overlapping
+	 *            whether {@link Intersection#OVERLAPPING} counts as
+	 *            intersection
+	 * @return <code>true</code> if the segments intersect, <code>false</code>
+	 *         if not
+	 */
+	static boolean intersectionBetween(int xA1, int yA1, int xA2, int yA2, int xB1, int yB1, int xB2, int yB2,
+			boolean touching, boolean overlapping) {
+		Intersection intersection = classify(xA1, yA1, xA2, yA2, xB1, yB1, xB2, yB2);
+		return intersection == Intersection.CROSSING || (touching && intersection == Intersection.TOUCHING)
+				|| (overlapping && intersection == Intersection.OVERLAPPING);
+	}
+
+	/**
+	 * Checks whether the given point lies in the bounding box of the given
+	 * segment.
+	 * 
+	 * @param x1
+	 *            x coordinate of the first end of the segment
+	 * @param y1
+	 *            y coordinate of the first end of the segment
+	 * @param x2
+	 *            x coordinate of the second end of the segment
+	 * @param y2
+	 *            y coordinate of the second end of the segment
+	 * @param x
+	 *            x coordinate of the point
+	 * @param y
+	 *            y coordinate of the point
+	 * @return <code>true</code> if the point is in the bounding box
+	 */
+	private static boolean inBox(int x1, int y1, int x2, int y2, int x, int y) {
+		return Math.min(x1, x2) <= x && x <= Math.max(x1, x2) && Math.min(y1, y2) <= y && y <= Math.max(y1, y2);
+	}
+
+	/**
+	 * Checks whether the given coordinate is small enough for
+	 * {@link #orientation(int, int, int, int, int, int)}.
+	 * 
+	 * @param coordinate
+	 *            the coordinate to check
+	 * @return <code>true</code> if the coordinate is within the bound
+	 */
+	private static boolean isSmall(int coordinate) {
+		return -SMALL_BOUND <= coordinate && coordinate < SMALL_BOUND;
+	}
+
+	/**
+	 * Returns on which side of the line through the first two points the third
+	 * point lies. All coordinates must be small, see {@link #isSmall(int)}.
+	 * 
+	 * @param x1
+	 *            x coordinate of the first point
+	 * @param y1
+	 *            y coordinate of the first point
+	 * @param x2
+	 *            x coordinate of the second point
+	 * @param y2
+	 *            y coordinate of the second point
+	 * @param x3
+	 *            x coordinate of the third point
+	 * @param y3
+	 *            y coordinate of the third point
+	 * @return <code>1</code> for counterclockwise, <code>-1</code> for
+	 *         clockwise and <code>0</code> if the points are collinear
+	 */
+	private static int orientation(int x1, int y1, int x2, int y2, int x3, int y3) {
+		// Differences are below 2^31, so the products fit into a long
+		return Long.signum((long) (x2 - x1) * (y3 - y1) - (long) (y2 - y1) * (x3 - x1));
+	}
+
+	/**
+	 * Returns on which side of the line through the first two points the third
+	 * point lies, for any coordinates.
+	 * 
+	 * @param x1
+	 *            x coordinate of the first point
+	 * @param y1
+	 *            y coordinate of the first point
+	 * @param x2
+	 *            x coordinate of the second point
+	 * @param y2
+	 *            y coordinate of the second point
+	 * @param x3
+	 *            x coordinate of the third point
+	 * @param y3
+	 *            y coordinate of the third point
+	 * @return <code>1</code> for counterclockwise, <code>-1</code> for
+	 *         clockwise and <code>0</code> if the points are collinear
+	 */
+	private static int exactOrientation(int x1, int y1, int x2, int y2, int x3, int y3) {
+		BigInteger dx2 = BigInteger.valueOf((long) x2 - x1);
+		BigInteger dy2 = BigInteger.valueOf((long) y2 - y1);
+		BigInteger dx3 = BigInteger.valueOf((long) x3 - x1);
+		BigInteger dy3 = BigInteger.valueOf((long) y3 - y1);
+		return dx2.multiply(dy3).subtract(dy2.multiply(dx3)).signum();
 	}
 }
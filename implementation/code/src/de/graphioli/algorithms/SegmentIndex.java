@@ -0,0 +1,354 @@
+package de.graphioli.algorithms;
+
+import de.graphioli.model.Edge;
+import de.graphioli.model.Graph;
+import de.graphioli.model.GraphListener;
+import de.graphioli.model.GridPoint;
+import de.graphioli.model.Vertex;
+import de.graphioli.model.VisualVertex;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class is a uniform grid index over the line segments drawn for the
+ * edges of a {@link Graph}. Each segment is stored in every cell it passes
+ * through, so a query only has to look at the segments sharing a cell with the
+ * queried segment. An edge and its opposing edge are stored as one segment.
+ * The index listens to the graph and is kept up to date as edges are added and
+ * removed.
+ * 
+ * @author Team Graphioli
+ */
+public class SegmentIndex implements GraphListener {
+
+	/**
+	 * The default side length of a cell, in grid points.
+	 */
+	public static final int DEFAULT_CELL_SIZE = 4;
+
+	/**
+	 * Small tolerance used when computing the rows a segment passes through.
+	 */
+	private static final double EPSILON = 1e-9;
+
+	/**
+	 * The side length of a cell, in grid points.
+	 */
+	private final int cellSize;
+
+	/**
+	 * The segments of each non-empty cell, keyed on the packed cell position.
+	 */
+	private final HashMap<Long, ArrayList<Segment>> cells;
+
+	/**
+	 * The segment of each indexed edge.
+	 */
+	private final HashMap<Edge, Segment> segments;
+
+	/**
+	 * Stamp of the current query, used to test each segment only once.
+	 */
+	private int queryStamp;
+
+	/**
+	 * Creates a new {@link SegmentIndex} with the default cell size for the
+	 * given {@link Graph}, and registers it as listener of the graph.
+	 * 
+	 * @param graph
+	 *            the graph to index
+	 */
+	public SegmentIndex(Graph graph) {
+		this(graph, DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 * Creates a new {@link SegmentIndex} for the given {@link Graph}, and
+	 * registers it as listener of the graph.
+	 * 
+	 * @param graph
+	 *            the graph to index
+	 * @param cellSize
+	 *            the side length of a cell, in grid points
+	 */
+	public SegmentIndex(Graph graph, int cellSize) {
+		this.cellSize = Math.max(cellSize, 1);
+		this.cells = new HashMap<Long, ArrayList<Segment>>();
+		this.segments = new HashMap<Edge, Segment>();
+		for (Edge edge : graph.getEdges()) {
+			this.onEdgeAdded(edge);
+		}
+		graph.addGraphListener(this);
+	}
+
+	/**
+	 * Returns an indexed {@link Edge} whose segment crosses the segment of the
+	 * given edge.
+	 * 
+	 * @param edge
+	 *            the edge to check
+	 * @return a crossing edge, or {@code null} if there is none
+	 */
+	public Edge findIntersection(Edge edge) {
+		return this.findIntersection(edge, false, false);
+	}
+
+	/**
+	 * Returns an indexed {@link Edge} whose segment intersects the segment of
+	 * the given edge.
+	 * 
+	 * @param edge
+	 *            the edge to check
+	 * @param touching
+	 *            whether segments that only touch count as intersecting
+	 * @param overlapping
+	 *            whether collinear overlapping segments count as intersecting
+	 * @return an intersecting edge, or {@code null} if there is none
+	 */
+	public Edge findIntersection(Edge edge, final boolean touching, final boolean overlapping) {
+		final Segment query = new Segment(edge);
+		final int stamp = ++this.queryStamp;
+		final Edge[] result = new Edge[1];
+
+		this.forEachCell(query, new CellVisitor() {
+			@Override
+			public boolean visit(long key) {
+				ArrayList<Segment> bucket = SegmentIndex.this.cells.get(key);
+				if (bucket == null) {
+					return true;
+				}
+				for (int i = 0; i < bucket.size(); i++) {
+					Segment candidate = bucket.get(i);
+					if (candidate.stamp != stamp) {
+						candidate.stamp = stamp;
+						if (PlanarityCheck.intersectionBetween(candidate.x1, candidate.y1, candidate.x2, candidate.y2,
+								query.x1, query.y1, query.x2, query.y2, touching, overlapping)) {
+							result[0] = candidate.edge;
+							return false;
+						}
+					}
+				}
+				return true;
+			}
+		});
+
+		return result[0];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeAdded(Edge edge) {
+		if (this.segments.containsKey(edge)) {
+			return;
+		}
+
+		// An opposing edge of a directed graph shares the segment
+		Segment segment = null;
+		Edge opposingEdge = edge.getTargetVertex().getOutgoingEdgeTo(edge.getOriginVertex());
+		if (opposingEdge != null && opposingEdge != edge) {
+			segment = this.segments.get(opposingEdge);
+		}
+		if (segment == null) {
+			segment = new Segment(edge);
+			final Segment added = segment;
+			this.forEachCell(segment, new CellVisitor() {
+				@Override
+				public boolean visit(long key) {
+					ArrayList<Segment> bucket = SegmentIndex.this.cells.get(key);
+					if (bucket == null) {
+						bucket = new ArrayList<Segment>(2);
+						SegmentIndex.this.cells.put(key, bucket);
+					}
+					bucket.add(added);
+					return true;
+				}
+			});
+		}
+		segment.references++;
+		this.segments.put(edge, segment);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeChanged(Edge edge) {
+		// The drawn segment does not depend on the visual state
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeRemoved(Edge edge) {
+		final Segment segment = this.segments.remove(edge);
+		if (segment == null) {
+			return;
+		}
+		segment.references--;
+		if (segment.references > 0) {
+			if (segment.edge.equals(edge)) {
+				// Keep a reference to the opposing edge that is still indexed
+				Edge opposingEdge = edge.getTargetVertex().getOutgoingEdgeTo(edge.getOriginVertex());
+				if (opposingEdge != null) {
+					segment.edge = opposingEdge;
+				}
+			}
+			return;
+		}
+		this.forEachCell(segment, new CellVisitor() {
+			@Override
+			public boolean visit(long key) {
+				ArrayList<Segment> bucket = SegmentIndex.this.cells.get(key);
+				if (bucket != null) {
+					bucket.remove(segment);
+					if (bucket.isEmpty()) {
+						SegmentIndex.this.cells.remove(key);
+					}
+				}
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexAdded(Vertex vertex) {
+		// Vertices are not indexed
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexChanged(Vertex vertex) {
+		// The drawn segment does not depend on the visual state
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexRemoved(Vertex vertex) {
+		// Connected edges are reported separately
+	}
+
+	/**
+	 * Calls the given visitor for every cell the given segment passes through.
+	 * The cells are determined column by column from the part of the segment
+	 * inside each column.
+	 * 
+	 * @param segment
+	 *            the segment
+	 * @param visitor
+	 *            the visitor to call
+	 */
+	private void forEachCell(Segment segment, CellVisitor visitor) {
+		int minX = Math.min(segment.x1, segment.x2);
+		int maxX = Math.max(segment.x1, segment.x2);
+		int firstColumn = (int) Math.floor(minX / (double) this.cellSize);
+		int lastColumn = (int) Math.floor(maxX / (double) this.cellSize);
+
+		for (int column = firstColumn; column <= lastColumn; column++) {
+			double yLow;
+			double yHigh;
+			if (segment.x1 == segment.x2) {
+				yLow = Math.min(segment.y1, segment.y2);
+				yHigh = Math.max(segment.y1, segment.y2);
+			} else {
+				int fromX = Math.max(minX, column * this.cellSize);
+				int toX = Math.min(maxX, (column + 1) * this.cellSize);
+				double slope = (double) (segment.y2 - segment.y1) / (segment.x2 - segment.x1);
+				double fromY = segment.y1 + (fromX - segment.x1) * slope;
+				double toY = segment.y1 + (toX - segment.x1) * slope;
+				yLow = Math.min(fromY, toY) - EPSILON;
+				yHigh = Math.max(fromY, toY) + EPSILON;
+			}
+
+			int firstRow = (int) Math.floor(yLow / this.cellSize);
+			int lastRow = (int) Math.floor(yHigh / this.cellSize);
+			for (int row = firstRow; row <= lastRow; row++) {
+				if (!visitor.visit(GridPoint.pack(column, row))) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Callback for {@link SegmentIndex#forEachCell(Segment, CellVisitor)}.
+	 */
+	private interface CellVisitor {
+
+		/**
+		 * Visits a cell.
+		 * 
+		 * @param key
+		 *            the packed position of the cell
+		 * @return {@code false} to stop visiting further cells
+		 */
+		boolean visit(long key);
+	}
+
+	/**
+	 * The line segment of an edge, in grid coordinates.
+	 */
+	private static final class Segment {
+
+		/**
+		 * An indexed edge drawn as this segment.
+		 */
+		private Edge edge;
+
+		/**
+		 * Number of indexed edges drawn as this segment.
+		 */
+		private int references;
+
+		/**
+		 * Stamp of the last query that tested this segment.
+		 */
+		private int stamp;
+
+		/**
+		 * The x coordinate of the origin.
+		 */
+		private final int x1;
+
+		/**
+		 * The y coordinate of the origin.
+		 */
+		private final int y1;
+
+		/**
+		 * The x coordinate of the target.
+		 */
+		private final int x2;
+
+		/**
+		 * The y coordinate of the target.
+		 */
+		private final int y2;
+
+		/**
+		 * Creates the segment of the given edge.
+		 * 
+		 * @param edge
+		 *            an edge between two {@link VisualVertex}es
+		 */
+		Segment(Edge edge) {
+			GridPoint origin = ((VisualVertex) edge.getOriginVertex()).getGridPoint();
+			GridPoint target = ((VisualVertex) edge.getTargetVertex()).getGridPoint();
+			this.edge = edge;
+			this.x1 = origin.getPositionX();
+			this.y1 = origin.getPositionY();
+			this.x2 = target.getPositionX();
+			this.y2 = target.getPositionY();
+		}
+	}
+
+}
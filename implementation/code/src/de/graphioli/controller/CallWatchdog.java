@@ -0,0 +1,384 @@
+package de.graphioli.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * This class watches the callbacks of a {@link Game} and collects metrics for
+ * each kind of callback: a histogram of the latencies, the number of calls
+ * that came close to their time budget or were cancelled for exceeding it,
+ * and stack samples of calls that were still running after half of their
+ * budget. It helps to find slow game code before the framework cancels it.
+ * 
+ * The framework wraps every callback with {@link #watch(String, Callable, long)}
+ * and reports the calls it cancels with {@link #recordTimeout(String, long)}.
+ * The metrics can be read at any time, e.g. through
+ * {@link GameManager#getCallWatchdog()}.
+ * 
+ * @author Team Graphioli
+ */
+public final class CallWatchdog {
+
+	/**
+	 * The upper bounds of the latency histogram buckets, in milliseconds. The
+	 * last bucket counts all slower calls.
+	 */
+	private static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+	/**
+	 * Fraction of the budget after which a call counts as near timeout.
+	 */
+	private static final double NEAR_TIMEOUT_FRACTION = 0.75;
+
+	/**
+	 * Fraction of the budget after which the stack of a running call is
+	 * sampled.
+	 */
+	private static final double SAMPLE_FRACTION = 0.5;
+
+	/**
+	 * The maximum number of stack samples kept per callback.
+	 */
+	private static final int MAX_SAMPLES = 8;
+
+	/**
+	 * The maximum number of stack frames logged for a sample.
+	 */
+	private static final int LOGGED_FRAMES = 8;
+
+	/**
+	 * Logging instance.
+	 */
+	private static final Logger LOG = Logger.getLogger(CallWatchdog.class.getName());
+
+	/**
+	 * The metrics of each callback, keyed on its name.
+	 */
+	private final HashMap<String, Metrics> metrics;
+
+	/**
+	 * Schedules the stack samples, created on demand.
+	 */
+	private ScheduledExecutorService sampler;
+
+	/**
+	 * Creates a new {@link CallWatchdog}.
+	 */
+	public CallWatchdog() {
+		this.metrics = new HashMap<String, Metrics>();
+	}
+
+	/**
+	 * Returns the upper bounds of the latency histogram buckets.
+	 * 
+	 * @return the bounds in milliseconds
+	 * @see #getHistogram(String)
+	 */
+	public static long[] getBucketBounds() {
+		return BUCKET_BOUNDS.clone();
+	}
+
+	/**
+	 * Returns the names of the callbacks watched so far.
+	 * 
+	 * @return the names, sorted
+	 */
+	public synchronized List<String> getCallbackNames() {
+		ArrayList<String> names = new ArrayList<String>(this.metrics.keySet());
+		Collections.sort(names);
+		return names;
+	}
+
+	/**
+	 * Returns the number of finished calls of the given callback.
+	 * 
+	 * @param callback
+	 *            the name of the callback, e.g. {@code onVertexClick}
+	 * @return the number of calls
+	 */
+	public synchronized long getCallCount(String callback) {
+		Metrics calls = this.metrics.get(callback);
+		return calls == null ? 0 : calls.count;
+	}
+
+	/**
+	 * Returns the latency histogram of the given callback. Entry {@code i}
+	 * counts the calls that took at most {@code getBucketBounds()[i]}
+	 * milliseconds and more than the previous bound; the last entry counts
+	 * the slower calls.
+	 * 
+	 * @param callback
+	 *            the name of the callback
+	 * @return a copy of the histogram
+	 */
+	public synchronized long[] getHistogram(String callback) {
+		Metrics calls = this.metrics.get(callback);
+		return calls == null ? new long[BUCKET_BOUNDS.length + 1] : calls.histogram.clone();
+	}
+
+	/**
+	 * Returns the latency of the slowest call of the given callback.
+	 * 
+	 * @param callback
+	 *            the name of the callback
+	 * @return the latency in milliseconds
+	 */
+	public synchronized long getMaxLatency(String callback) {
+		Metrics calls = this.metrics.get(callback);
+		return calls == null ? 0 : calls.maxLatency;
+	}
+
+	/**
+	 * Returns the number of calls of the given callback that used more than
+	 * three quarters of their budget, but returned in time.
+	 * 
+	 * @param callback
+	 *            the name of the callback
+	 * @return the number of calls near timeout
+	 */
+	public synchronized long getNearTimeoutCount(String callback) {
+		Metrics calls = this.metrics.get(callback);
+		return calls == null ? 0 : calls.nearTimeouts;
+	}
+
+	/**
+	 * Returns the latest stack samples of calls of the given callback that
+	 * were still running after half of their budget, oldest first.
+	 * 
+	 * @param callback
+	 *            the name of the callback
+	 * @return the stack samples
+	 */
+	public synchronized List<StackTraceElement[]> getStackSamples(String callback) {
+		Metrics calls = this.metrics.get(callback);
+		if (calls == null) {
+			return new ArrayList<StackTraceElement[]>();
+		}
+		return new ArrayList<StackTraceElement[]>(calls.samples);
+	}
+
+	/**
+	 * Returns the number of calls of the given callback that were cancelled,
+	 * because they did not return within their budget. They are counted when
+	 * cancelled, even if they never return.
+	 * 
+	 * @param callback
+	 *            the name of the callback
+	 * @return the number of timed out calls
+	 */
+	public synchronized long getTimeoutCount(String callback) {
+		Metrics calls = this.metrics.get(callback);
+		return calls == null ? 0 : calls.timeouts;
+	}
+
+	/**
+	 * Drops all collected metrics.
+	 */
+	public synchronized void reset() {
+		this.metrics.clear();
+	}
+
+	/**
+	 * Returns a summary of the collected metrics, one line per callback.
+	 * 
+	 * @return the summary
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (String name : new TreeMap<String, Metrics>(this.metrics).keySet()) {
+			Metrics calls = this.metrics.get(name);
+			builder.append(name).append(": ").append(calls.count).append(" calls, max ")
+					.append(calls.maxLatency).append(" ms, ").append(calls.nearTimeouts).append(" near timeout, ")
+					.append(calls.timeouts).append(" timed out\n");
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Records a finished call. A call that returns after its budget has
+	 * already been reported as timed out when it was cancelled.
+	 * 
+	 * @param name
+	 *            the name of the callback
+	 * @param latency
+	 *            the latency of the call, in milliseconds
+	 * @param budget
+	 *            the time budget of the call, in milliseconds
+	 */
+	synchronized void record(String name, long latency, long budget) {
+		Metrics calls = this.getMetrics(name);
+		calls.count++;
+		calls.maxLatency = Math.max(calls.maxLatency, latency);
+		int bucket = 0;
+		while (bucket < BUCKET_BOUNDS.length && latency > BUCKET_BOUNDS[bucket]) {
+			bucket++;
+		}
+		calls.histogram[bucket]++;
+
+		if (latency < budget && latency >= budget * NEAR_TIMEOUT_FRACTION) {
+			calls.nearTimeouts++;
+			LOG.warning(name + " took " + latency + " ms of its budget of " + budget + " ms.");
+		}
+	}
+
+	/**
+	 * Records a call that was cancelled, because it did not return within its
+	 * budget.
+	 * 
+	 * @param name
+	 *            the name of the callback
+	 * @param budget
+	 *            the time budget of the call, in milliseconds
+	 */
+	synchronized void recordTimeout(String name, long budget) {
+		this.getMetrics(name).timeouts++;
+		LOG.warning(name + " was cancelled after its budget of " + budget + " ms.");
+	}
+
+	/**
+	 * Wraps the given callback, so that running it records its latency and
+	 * samples its stack if it runs long.
+	 * 
+	 * @param name
+	 *            the name of the callback
+	 * @param callback
+	 *            the callback to watch
+	 * @param budget
+	 *            the time budget of the callback, in milliseconds
+	 * @return the watched callback
+	 */
+	Callable<Boolean> watch(final String name, final Callable<Boolean> callback, final long budget) {
+		return new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				long start = System.nanoTime();
+				ScheduledFuture<?> sample = CallWatchdog.this.scheduleSample(name, Thread.currentThread(), budget);
+				try {
+					return callback.call();
+				} finally {
+					sample.cancel(false);
+					CallWatchdog.this.record(name, (System.nanoTime() - start) / 1000000L, budget);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns the metrics of the given callback, creating them if necessary.
+	 * 
+	 * @param name
+	 *            the name of the callback
+	 * @return the metrics
+	 */
+	private Metrics getMetrics(String name) {
+		Metrics calls = this.metrics.get(name);
+		if (calls == null) {
+			calls = new Metrics();
+			this.metrics.put(name, calls);
+		}
+		return calls;
+	}
+
+	/**
+	 * Records a stack sample of a running call.
+	 * 
+	 * @param name
+	 *            the name of the callback
+	 * @param stack
+	 *            the stack of the thread running the call
+	 * @param elapsed
+	 *            the time the call has been running, in milliseconds
+	 */
+	private synchronized void recordSample(String name, StackTraceElement[] stack, long elapsed) {
+		Metrics calls = this.getMetrics(name);
+		if (calls.samples.size() == MAX_SAMPLES) {
+			calls.samples.remove(0);
+		}
+		calls.samples.add(stack);
+
+		StringBuilder message = new StringBuilder(name + " still running after " + elapsed + " ms:");
+		for (int i = 0; i < stack.length && i < LOGGED_FRAMES; i++) {
+			message.append("\n\tat ").append(stack[i]);
+		}
+		LOG.warning(message.toString());
+	}
+
+	/**
+	 * Schedules a stack sample of the given thread after half of the budget.
+	 * 
+	 * @param name
+	 *            the name of the callback
+	 * @param thread
+	 *            the thread running the call
+	 * @param budget
+	 *            the time budget of the call, in milliseconds
+	 * @return the scheduled sample, to be cancelled when the call returns
+	 */
+	private synchronized ScheduledFuture<?> scheduleSample(final String name, final Thread thread, long budget) {
+		if (this.sampler == null) {
+			this.sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread samplerThread = new Thread(runnable, "Game call watchdog");
+					samplerThread.setDaemon(true);
+					return samplerThread;
+				}
+			});
+		}
+		final long delay = (long) (budget * SAMPLE_FRACTION);
+		return this.sampler.schedule(new Runnable() {
+			@Override
+			public void run() {
+				CallWatchdog.this.recordSample(name, thread.getStackTrace(), delay);
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The metrics of one callback.
+	 */
+	private static final class Metrics {
+
+		/**
+		 * The number of finished calls.
+		 */
+		private long count;
+
+		/**
+		 * The latency of the slowest call, in milliseconds.
+		 */
+		private long maxLatency;
+
+		/**
+		 * The number of calls near timeout.
+		 */
+		private long nearTimeouts;
+
+		/**
+		 * The number of cancelled calls.
+		 */
+		private long timeouts;
+
+		/**
+		 * The latency histogram, see {@link CallWatchdog#BUCKET_BOUNDS}.
+		 */
+		private final long[] histogram = new long[BUCKET_BOUNDS.length + 1];
+
+		/**
+		 * The latest stack samples, oldest first.
+		 */
+		private final ArrayList<StackTraceElement[]> samples = new ArrayList<StackTraceElement[]>();
+	}
+
+}
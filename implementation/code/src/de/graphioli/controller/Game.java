@@ -1,11 +1,13 @@
 package de.graphioli.controller;
 
+import de.graphioli.gameexplorer.GameDefinition;
 import de.graphioli.model.GameResources;
 import de.graphioli.model.GridPoint;
 import de.graphioli.model.MenuItem;
 import de.graphioli.model.VisualVertex;
 
 import java.util.HashMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 
@@ -14,6 +16,13 @@ import java.util.logging.Logger;
  * Graphioli framework. It defines the callback functions that the game
  * developer needs in order to implement the game's logic.
  * 
+ * The framework calls the callbacks one at a time on a shared worker thread
+ * and waits for each at most the time budget declared in the
+ * {@code callTimeouts} of the game's properties, two seconds by default. A
+ * callback that runs longer is interrupted; long computations should check
+ * {@link Thread#isInterrupted()} and return early. The latencies of all
+ * callbacks are collected by a {@link CallWatchdog}.
+ * 
  * @author Team Graphioli
  */
 public abstract class Game {
@@ -24,17 +33,21 @@ public abstract class Game {
 	 */
 	private static final Logger LOG = Logger.getLogger(Game.class.getName());
 
+	/**
+	 * The time budget of a callback in milliseconds, if the
+	 * {@link GameDefinition} declares none.
+	 */
 	private static final long CALL_TIMEOUT = 2000;
-	
+
 	/**
-	 * {@true} when there is a call to the game running.
+	 * Collects the latencies and timeouts of the callbacks of all games.
 	 */
-	volatile boolean callFinished;
-	
+	private static final CallWatchdog WATCHDOG = new CallWatchdog();
+
 	/**
-	 * The result of the last call to the game.
+	 * Runs the callbacks of all games on one reused worker thread.
 	 */
-	volatile boolean callResult;
+	private static final GameCallExecutor CALLS = new GameCallExecutor("Game callback", WATCHDOG);
 
 	/**
 	 * The {@link GameManager} associated with this {@link Game}.
@@ -54,30 +67,6 @@ public abstract class Game {
 		LOG.info("Game Object instantiated.");
 	}
 
-	@SuppressWarnings("deprecation")
-	private boolean executeAndWaitForCall(Thread callThread) {
-		this.callFinished = false;
-		this.callResult = false;
-		callThread.start();
-
-		try {
-			callThread.join(CALL_TIMEOUT);
-		} catch (InterruptedException e) {
-			LOG.severe("Call interrupted: " + e.getMessage());
-			return true;
-		}
-
-		if (!this.callFinished) {
-			callThread.stop(); // Deprecated, but in this case there is no
-								// alternative.
-			this.callFinished = true;
-			LOG.warning("Call timed out.");
-			return false;
-		}
-
-		return true;
-	}
-
 	/**
 	 * Returns the associated {@link GameManager}.
 	 * 
@@ -171,6 +160,30 @@ public abstract class Game {
 		return true;
 	}
 
+	/**
+	 * Called after the {@link UndoManager} redid the move undone last. Bring
+	 * the state the game keeps apart from the board in line with it. Changes
+	 * of the board made during this call are not recorded.
+	 * 
+	 * @return <code>true</code> if the game supports redoing moves,
+	 *         <code>false</code> to undo the move again
+	 */
+	protected boolean onRedo() {
+		return false;
+	}
+
+	/**
+	 * Called after the {@link UndoManager} undid the last move. Bring the
+	 * state the game keeps apart from the board in line with it. Changes of
+	 * the board made during this call are not recorded.
+	 * 
+	 * @return <code>true</code> if the game supports undoing moves,
+	 *         <code>false</code> to redo the move again
+	 */
+	protected boolean onUndo() {
+		return false;
+	}
+
 	/**
 	 * Called when a player clicks on a {@link VisualVertex}.
 	 * 
@@ -192,22 +205,12 @@ public abstract class Game {
 	 *             when the call does not return in time.
 	 */
 	final boolean callOnEmptyGridPointClick(final GridPoint gridPoint) throws TimeoutException {
-
-		Thread callThread = new Thread(new Runnable() {
-			public void run() {
-				Game.this.callResult = Game.this.onEmptyGridPointClick(gridPoint);
-				Game.this.callFinished = true;
-
+		return this.call("onEmptyGridPointClick", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onEmptyGridPointClick(gridPoint));
 			}
-
 		});
-
-		LOG.finer("Executing onEmptyGridPointClick");
-		if (!this.executeAndWaitForCall(callThread)) {
-			throw new TimeoutException("onEmptyGridPointClick timed out.");
-		}
-		LOG.finer("onEmptyGridPointClick returned in time.");
-		return this.callResult;
 	}
 
 	/**
@@ -221,21 +224,12 @@ public abstract class Game {
 	 * @return {@code true} when the initialization was successful.
 	 */
 	final boolean callOnGameInit() throws TimeoutException {
-
-		Thread callThread = new Thread(new Runnable() {
-			public void run() {
-				Game.this.callResult = Game.this.onGameInit();
-				Game.this.callFinished = true;
+		return this.call("onGameInit", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onGameInit());
 			}
-
 		});
-
-		LOG.finer("Executing onGameInit");
-		if (!this.executeAndWaitForCall(callThread)) {
-			throw new TimeoutException("onGameInit timed out.");
-		}
-		LOG.finer("onGameInit returned in time.");
-		return this.callResult;
 	}
 
 	/**
@@ -248,21 +242,12 @@ public abstract class Game {
 	 *             when the call does not return in time.
 	 */
 	final boolean callOnGameLoad(final HashMap<Integer, Object> customValues) throws TimeoutException {
-
-		Thread callThread = new Thread(new Runnable() {
-			public void run() {
-				Game.this.callResult = Game.this.onGameLoad(customValues);
-				Game.this.callFinished = true;
+		return this.call("onGameLoad", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onGameLoad(customValues));
 			}
-
 		});
-
-		LOG.finer("Executing onGameLoad");
-		if (!this.executeAndWaitForCall(callThread)) {
-			throw new TimeoutException("onGameLoad timed out.");
-		}
-		LOG.finer("onGameLoad returned in time.");
-		return this.callResult;
 	}
 
 	/**
@@ -275,21 +260,12 @@ public abstract class Game {
 	 *             when the call does not return in time.
 	 */
 	final boolean callOnGameSave(final HashMap<Integer, Object> customValues) throws TimeoutException {
-
-		Thread callThread = new Thread(new Runnable() {
-			public void run() {
-				Game.this.callResult = Game.this.onGameSave(customValues);
-				Game.this.callFinished = true;
+		return this.call("onGameSave", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onGameSave(customValues));
 			}
-
 		});
-
-		LOG.finer("Executing onGameSave");
-		if (!this.executeAndWaitForCall(callThread)) {
-			throw new TimeoutException("onGameSave timed out.");
-		}
-		LOG.finer("onGameSave returned in time.");
-		return this.callResult;
 	}
 
 	/**
@@ -300,21 +276,12 @@ public abstract class Game {
 	 *             when the call does not return in time.
 	 */
 	final boolean callOnGameStart() throws TimeoutException {
-
-		Thread callThread = new Thread(new Runnable() {
-			public void run() {
-				Game.this.callResult = Game.this.onGameStart();
-				Game.this.callFinished = true;
+		return this.call("onGameStart", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onGameStart());
 			}
-
 		});
-
-		LOG.finer("Executing onGameStart");
-		if (!this.executeAndWaitForCall(callThread)) {
-			throw new TimeoutException("onGameStart timed out.");
-		}
-		LOG.finer("onGameStart returned in time.");
-		return this.callResult;
 	}
 
 	/**
@@ -327,21 +294,12 @@ public abstract class Game {
 	 *             when the call does not return in time.
 	 */
 	final boolean callOnKeyRelease(final int keycode) throws TimeoutException {
-
-		Thread callThread = new Thread(new Runnable() {
-			public void run() {
-				Game.this.callResult = Game.this.onKeyRelease(keycode);
-				Game.this.callFinished = true;
+		return this.call("onKeyRelease", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onKeyRelease(keycode));
 			}
-
 		});
-
-		LOG.finer("Executing onKeyRelease");
-		if (!this.executeAndWaitForCall(callThread)) {
-			throw new TimeoutException("onKeyRelease timed out.");
-		}
-		LOG.finer("onKeyRelease returned in time.");
-		return this.callResult;
 	}
 
 	/**
@@ -354,21 +312,44 @@ public abstract class Game {
 	 *             when the call does not return in time.
 	 */
 	final boolean callOnMenuItemClick(final MenuItem menuItem) throws TimeoutException {
-
-		Thread callThread = new Thread(new Runnable() {
-			public void run() {
-				Game.this.callResult = Game.this.onMenuItemClick(menuItem);
-				Game.this.callFinished = true;
+		return this.call("onMenuItemClick", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onMenuItemClick(menuItem));
 			}
+		});
+	}
 
+	/**
+	 * This method executes a {@code onRedo} call.
+	 * 
+	 * @return the result of the {@link Game#onRedo()} method.
+	 * @throws TimeoutException
+	 *             when the call does not return in time.
+	 */
+	final boolean callOnRedo() throws TimeoutException {
+		return this.call("onRedo", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onRedo());
+			}
 		});
+	}
 
-		LOG.finer("Executing onMenuItemClick");
-		if (!this.executeAndWaitForCall(callThread)) {
-			throw new TimeoutException("onMenuItemClick timed out.");
-		}
-		LOG.finer("onMenuItemClick returned in time.");
-		return this.callResult;
+	/**
+	 * This method executes a {@code onUndo} call.
+	 * 
+	 * @return the result of the {@link Game#onUndo()} method.
+	 * @throws TimeoutException
+	 *             when the call does not return in time.
+	 */
+	final boolean callOnUndo() throws TimeoutException {
+		return this.call("onUndo", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onUndo());
+			}
+		});
 	}
 
 	/**
@@ -382,21 +363,21 @@ public abstract class Game {
 	 *             when the call does not return in time.
 	 */
 	final boolean callOnVertexClick(final VisualVertex vertex) throws TimeoutException {
-
-		Thread callThread = new Thread(new Runnable() {
-			public void run() {
-				Game.this.callResult = Game.this.onVertexClick(vertex);
-				Game.this.callFinished = true;
+		return this.call("onVertexClick", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(Game.this.onVertexClick(vertex));
 			}
-
 		});
+	}
 
-		LOG.finer("Executing onVertexClick");
-		if (!this.executeAndWaitForCall(callThread)) {
-			throw new TimeoutException("onVertexClick timed out.");
-		}
-		LOG.finer("onVertexClick returned in time.");
-		return this.callResult;
+	/**
+	 * Returns the {@link CallWatchdog} that watches the callbacks of all games.
+	 * 
+	 * @return the watchdog
+	 */
+	static CallWatchdog getCallWatchdog() {
+		return WATCHDOG;
 	}
 
 	/**
@@ -417,4 +398,42 @@ public abstract class Game {
 
 	}
 
+	/**
+	 * Runs a callback on the worker thread and waits for its result.
+	 * 
+	 * @param name
+	 *            the name of the callback
+	 * @param callback
+	 *            the callback to run
+	 * @return the result of the callback
+	 * @throws TimeoutException
+	 *             when the callback does not return in time or fails
+	 */
+	private boolean call(String name, Callable<Boolean> callback) throws TimeoutException {
+		LOG.finer("Executing " + name);
+		long budget = this.getCallTimeout(name);
+		boolean result = CALLS.call(name, WATCHDOG.watch(name, callback, budget), budget);
+		LOG.finer(name + " returned in time.");
+		return result;
+	}
+
+	/**
+	 * Returns the time budget of the given callback, as declared by the
+	 * {@link GameDefinition} of the current game.
+	 * 
+	 * @param name
+	 *            the name of the callback
+	 * @return the time budget in milliseconds
+	 */
+	private long getCallTimeout(String name) {
+		GameDefinition definition = null;
+		if (this.gameManager != null) {
+			definition = this.gameManager.getCurrentGameDefinition();
+		}
+		if (definition == null) {
+			return CALL_TIMEOUT;
+		}
+		return definition.getCallTimeout(name, CALL_TIMEOUT);
+	}
+
 }
@@ -0,0 +1,192 @@
+package de.graphioli.controller;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class runs the callbacks of a {@link Game} on a single reused worker
+ * thread, instead of starting a new thread for every call. Results come back
+ * as {@link Future}s.
+ * 
+ * A call that does not finish in time is cancelled cooperatively: its worker
+ * is interrupted and abandoned, and the next call gets a fresh worker. Calls
+ * made from within a callback run directly on the worker, as the worker would
+ * otherwise wait for itself. Timeouts are reported to a {@link CallWatchdog},
+ * also for calls that never return.
+ * 
+ * @author Team Graphioli
+ */
+final class GameCallExecutor {
+
+	/**
+	 * Logging instance.
+	 */
+	private static final Logger LOG = Logger.getLogger(GameCallExecutor.class.getName());
+
+	/**
+	 * The name of the worker threads.
+	 */
+	private final String threadName;
+
+	/**
+	 * Counts the timed out calls, may be {@code null}.
+	 */
+	private final CallWatchdog watchdog;
+
+	/**
+	 * The executor of the current worker, created on demand.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * The current worker thread, {@code null} until the first call.
+	 */
+	private volatile Thread worker;
+
+	/**
+	 * Creates a new {@link GameCallExecutor}.
+	 * 
+	 * @param threadName
+	 *            the name of the worker threads
+	 */
+	GameCallExecutor(String threadName) {
+		this(threadName, null);
+	}
+
+	/**
+	 * Creates a new {@link GameCallExecutor} that reports timeouts.
+	 * 
+	 * @param threadName
+	 *            the name of the worker threads
+	 * @param watchdog
+	 *            counts the timed out calls, may be {@code null}
+	 */
+	GameCallExecutor(String threadName, CallWatchdog watchdog) {
+		this.threadName = threadName;
+		this.watchdog = watchdog;
+	}
+
+	/**
+	 * Waits for the result of a callback submitted to this executor. If it
+	 * does not return in time, it is cancelled, its worker is replaced and the
+	 * timeout is reported to the watchdog.
+	 * 
+	 * @param name
+	 *            the name of the callback, for logging
+	 * @param future
+	 *            the pending result of the callback
+	 * @param timeout
+	 *            the time to wait for the result, in milliseconds
+	 * @return the result of the callback, or {@code false} if the waiting
+	 *         thread was interrupted
+	 * @throws TimeoutException
+	 *             when the callback does not return in time or fails
+	 */
+	boolean await(String name, Future<Boolean> future, long timeout) throws TimeoutException {
+		try {
+			return future.get(timeout, TimeUnit.MILLISECONDS).booleanValue();
+		} catch (InterruptedException e) {
+			LOG.severe("Call interrupted: " + e.getMessage());
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			LOG.log(Level.SEVERE, name + " failed.", e.getCause());
+			throw new TimeoutException(name + " failed.");
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			this.replaceWorker();
+			LOG.warning("Call timed out.");
+			if (this.watchdog != null) {
+				this.watchdog.recordTimeout(name, timeout);
+			}
+			throw new TimeoutException(name + " timed out.");
+		}
+	}
+
+	/**
+	 * Runs the given callback on the worker and waits for its result.
+	 * 
+	 * @param name
+	 *            the name of the callback, for logging
+	 * @param callback
+	 *            the callback to run
+	 * @param timeout
+	 *            the time to wait for the result, in milliseconds
+	 * @return the result of the callback, or {@code false} if the waiting
+	 *         thread was interrupted
+	 * @throws TimeoutException
+	 *             when the callback does not return in time or fails
+	 */
+	boolean call(String name, Callable<Boolean> callback, long timeout) throws TimeoutException {
+		return this.await(name, this.submit(callback), timeout);
+	}
+
+	/**
+	 * Returns whether the current thread is the worker of this executor.
+	 * 
+	 * @return {@code true} if called from within a callback
+	 */
+	boolean isWorkerThread() {
+		return Thread.currentThread() == this.worker;
+	}
+
+	/**
+	 * Submits the given callback to the worker. From within a callback it is
+	 * run directly instead.
+	 * 
+	 * @param callback
+	 *            the callback to run
+	 * @return the pending result of the callback
+	 */
+	Future<Boolean> submit(Callable<Boolean> callback) {
+		if (this.isWorkerThread()) {
+			FutureTask<Boolean> task = new FutureTask<Boolean>(callback);
+			task.run();
+			return task;
+		}
+		return this.getExecutor().submit(callback);
+	}
+
+	/**
+	 * Returns the executor of the current worker, creating it if necessary.
+	 * 
+	 * @return the executor
+	 */
+	private synchronized ExecutorService getExecutor() {
+		if (this.executor == null) {
+			this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, GameCallExecutor.this.threadName);
+					thread.setDaemon(true);
+					GameCallExecutor.this.worker = thread;
+					return thread;
+				}
+			});
+		}
+		return this.executor;
+	}
+
+	/**
+	 * Abandons the current worker, which is still busy with a cancelled
+	 * callback, so the next call does not have to wait for it.
+	 */
+	private synchronized void replaceWorker() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+		this.worker = null;
+	}
+
+}
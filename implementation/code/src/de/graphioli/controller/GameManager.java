@@ -16,6 +16,7 @@ import de.graphioli.utils.GraphioliLogger;
 import de.graphioli.utils.InvalidJarException;
 import de.graphioli.utils.JarParser;
 import de.graphioli.utils.Localization;
+import de.graphioli.utils.UIDManager;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -63,6 +64,11 @@ public final class GameManager {
 	 */
 	private PlayerManager playerManager;
 
+	/**
+	 * The {@link UndoManager} recording the moves on the {@link GameBoard}.
+	 */
+	private UndoManager undoManager;
+
 	/**
 	 * GameDefinition for the current played game.
 	 */
@@ -189,6 +195,17 @@ public final class GameManager {
 		return this.playerManager;
 	}
 
+	/**
+	 * Returns the {@link UndoManager} recording the moves on the
+	 * {@link GameBoard}. Games may use it to end a move early, to pause
+	 * recording or to drop the recorded moves, e.g. when a new level starts.
+	 * 
+	 * @return UndoManager The UndoManager
+	 */
+	public UndoManager getUndoManager() {
+		return this.undoManager;
+	}
+
 	/**
 	 * Returns the {@link ViewManager} associated with this {@link GameManager}.
 	 * 
@@ -238,6 +255,9 @@ public final class GameManager {
 
 		// Recreating game data
 		this.gameBoard = capsule.getBoard();
+		// Scope all IDs created from now on to this board, see UIDManager
+		UIDManager.setGenerator(this.gameBoard.getUIDGenerator());
+		this.undoManager = new UndoManager(this.gameBoard);
 		this.playerManager = new PlayerManager(capsule.getPlayers(), this);
 		this.playerManager.setActivePlayer(capsule.getActivePlayer());
 
@@ -262,6 +282,7 @@ public final class GameManager {
 
 		this.viewManager.updatePlayerStatus(this.playerManager.getActivePlayer());
 
+		this.undoManager.clear();
 		this.viewManager.updateView();
 
 		return true;
@@ -322,6 +343,21 @@ public final class GameManager {
 		return true;
 	}
 
+	/**
+	 * Redoes the move undone last on the {@link GameBoard} and lets the
+	 * {@link Game} follow, see {@link Game#onRedo()}. If the game does not
+	 * support it, the move is undone again.
+	 * 
+	 * @return <code>true</code> if a move was redone, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean redo() {
+		if (!this.undoManager.redo()) {
+			return false;
+		}
+		return this.followHistory(false);
+	}
+
 	/**
 	 * Restarts the game and resets the {@link GameBoard} and {@link Player}s.
 	 * 
@@ -384,6 +420,16 @@ public final class GameManager {
 		return true;
 	}
 
+	/**
+	 * Returns the {@link CallWatchdog} with the latency metrics of the
+	 * callbacks of the games.
+	 * 
+	 * @return the watchdog
+	 */
+	public CallWatchdog getCallWatchdog() {
+		return Game.getCallWatchdog();
+	}
+
 	/**
 	 * Returns the current {@link GameDefinition}.
 	 * 
@@ -492,6 +538,59 @@ public final class GameManager {
 
 	}
 
+	/**
+	 * Undoes the last move on the {@link GameBoard} and lets the {@link Game}
+	 * follow, see {@link Game#onUndo()}. If the game does not support it, the
+	 * move is redone again.
+	 * 
+	 * @return <code>true</code> if a move was undone, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean undo() {
+		if (!this.undoManager.undo()) {
+			return false;
+		}
+		return this.followHistory(true);
+	}
+
+	/**
+	 * Lets the {@link Game} follow a move undone or redone by the
+	 * {@link UndoManager}. Reverts the move if the game does not support it.
+	 * 
+	 * @param undone
+	 *            {@code true} if a move was undone, {@code false} if it was
+	 *            redone
+	 * @return {@code true} if the game followed
+	 */
+	private boolean followHistory(boolean undone) {
+		boolean recording = this.undoManager.isRecording();
+		boolean followed;
+		this.undoManager.setRecording(false);
+		try {
+			followed = undone ? this.game.callOnUndo() : this.game.callOnRedo();
+		} catch (TimeoutException e) {
+			this.viewManager.displayPopUp(Localization.getLanguageString("timeout_err"));
+			this.closeGame();
+			return false;
+		} finally {
+			this.undoManager.setRecording(recording);
+		}
+
+		if (!followed) {
+			LOG.fine("Game does not support undoing moves.");
+			if (undone) {
+				this.undoManager.redo();
+			} else {
+				this.undoManager.undo();
+			}
+			this.viewManager.displayPopUp(Localization.getLanguageString("undo_unsupported"));
+			return false;
+		}
+
+		this.viewManager.updateView();
+		return true;
+	}
+
 	/**
 	 * Creates the components of the framework.
 	 * 
@@ -507,6 +606,9 @@ public final class GameManager {
 		// Create GameBoard
 		this.gameBoard = new GameBoard(gameDefinition.isDirectedGraph(), gameDefinition.getHorizontalGridPointCount(),
 				gameDefinition.getVerticalGridPointCount());
+		// Scope all IDs created from now on to this board, see UIDManager
+		UIDManager.setGenerator(this.gameBoard.getUIDGenerator());
+		this.undoManager = new UndoManager(this.gameBoard);
 
 		// Create ViewManager instance
 		this.viewManager = new ViewManager(this);
@@ -555,6 +657,8 @@ public final class GameManager {
 			this.closeGame();
 		}
 
+		// Setting up the game is no move
+		this.undoManager.clear();
 		this.viewManager.updateView();
 		return true;
 	}
@@ -0,0 +1,313 @@
+package de.graphioli.controller;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class dispatches the user input of a game one event at a time and in
+ * order on its own thread, so that the Swing event dispatch thread does not
+ * have to wait while the {@link Game} handles it.
+ * 
+ * Bursts of input are coalesced: an event posted with a key is dropped while
+ * an event with an equal key is still pending or being dispatched. Pending
+ * events are dispatched in frames of at most {@link #getBatchSize()} events,
+ * each followed by a frame callback, e.g. to redraw the view once per frame
+ * instead of once per event.
+ * 
+ * Once closed, events that are still pending are dropped.
+ * 
+ * @author Team Graphioli
+ */
+final class InputQueue {
+
+	/**
+	 * The default number of events dispatched per frame.
+	 */
+	static final int DEFAULT_BATCH_SIZE = 8;
+
+	/**
+	 * Logging instance.
+	 */
+	private static final Logger LOG = Logger.getLogger(InputQueue.class.getName());
+
+	/**
+	 * The name of the input thread.
+	 */
+	private final String threadName;
+
+	/**
+	 * Run on the input thread after each frame, may be {@code null}.
+	 */
+	private final Runnable frameCallback;
+
+	/**
+	 * The events waiting to be dispatched, oldest first.
+	 */
+	private final LinkedList<Event> pending;
+
+	/**
+	 * The keys of the events pending or being dispatched.
+	 */
+	private final HashSet<Object> activeKeys;
+
+	/**
+	 * The maximum number of events dispatched per frame.
+	 */
+	private int batchSize;
+
+	/**
+	 * Whether the input thread is dispatching the pending events.
+	 */
+	private boolean draining;
+
+	/**
+	 * The executor of the input thread, created on demand.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * The input thread, {@code null} until the first event.
+	 */
+	private volatile Thread worker;
+
+	/**
+	 * Whether this queue has been closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Creates a new {@link InputQueue}.
+	 * 
+	 * @param threadName
+	 *            the name of the input thread
+	 * @param frameCallback
+	 *            run on the input thread after each frame of events, may be
+	 *            {@code null}
+	 */
+	InputQueue(String threadName, Runnable frameCallback) {
+		this.threadName = threadName;
+		this.frameCallback = frameCallback;
+		this.pending = new LinkedList<Event>();
+		this.activeKeys = new HashSet<Object>();
+		this.batchSize = DEFAULT_BATCH_SIZE;
+	}
+
+	/**
+	 * Closes this queue. The event being dispatched is finished, pending events
+	 * are dropped and further events are refused.
+	 */
+	synchronized void close() {
+		this.closed = true;
+		this.pending.clear();
+		this.activeKeys.clear();
+		if (this.executor != null) {
+			this.executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * Returns the maximum number of events dispatched per frame.
+	 * 
+	 * @return the number of events per frame
+	 */
+	synchronized int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Returns whether this queue has been closed.
+	 * 
+	 * @return {@code true} if closed
+	 */
+	boolean isClosed() {
+		return this.closed;
+	}
+
+	/**
+	 * Returns whether the current thread is the input thread of this queue.
+	 * 
+	 * @return {@code true} if called while dispatching an event
+	 */
+	boolean isInputThread() {
+		return Thread.currentThread() == this.worker;
+	}
+
+	/**
+	 * Appends an event to this queue. It is dispatched on the input thread
+	 * after all events posted before.
+	 * 
+	 * @param event
+	 *            the event to dispatch
+	 * @return {@code true} if the event was queued, {@code false} if this
+	 *         queue has been closed
+	 */
+	boolean post(Runnable event) {
+		return this.post(null, event);
+	}
+
+	/**
+	 * Appends an event to this queue, unless an event with an equal key is
+	 * still pending or being dispatched. It is dispatched on the input thread
+	 * after all events posted before.
+	 * 
+	 * @param key
+	 *            identifies repeated events, or {@code null} if the event is
+	 *            never dropped
+	 * @param event
+	 *            the event to dispatch
+	 * @return {@code true} if the event was queued, {@code false} if it was
+	 *         dropped as repeated or this queue has been closed
+	 */
+	synchronized boolean post(Object key, Runnable event) {
+		if (this.closed) {
+			return false;
+		}
+		if (key != null && !this.activeKeys.add(key)) {
+			LOG.finer("Dropped repeated input " + key);
+			return false;
+		}
+		this.pending.add(new Event(key, event));
+		if (!this.draining) {
+			this.draining = true;
+			this.getExecutor().execute(new Runnable() {
+				@Override
+				public void run() {
+					InputQueue.this.drain();
+				}
+			});
+		}
+		return true;
+	}
+
+	/**
+	 * Sets the maximum number of events dispatched per frame.
+	 * 
+	 * @param batchSize
+	 *            the number of events per frame, at least one
+	 */
+	synchronized void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("At least one event per frame needed.");
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Dispatches an event and releases its key.
+	 * 
+	 * @param event
+	 *            the event to dispatch
+	 */
+	private void dispatch(Event event) {
+		try {
+			event.action.run();
+		} catch (RuntimeException e) {
+			LOG.log(Level.SEVERE, "Dispatching input failed.", e);
+		} finally {
+			if (event.key != null) {
+				synchronized (this) {
+					this.activeKeys.remove(event.key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Dispatches the pending events frame by frame, until none are left.
+	 */
+	private void drain() {
+		while (true) {
+			int limit = this.getBatchSize();
+			int count = 0;
+			Event event = this.next();
+			while (event != null) {
+				this.dispatch(event);
+				count++;
+				event = count < limit ? this.next() : null;
+			}
+
+			if (count > 0 && this.frameCallback != null && !this.closed) {
+				try {
+					this.frameCallback.run();
+				} catch (RuntimeException e) {
+					LOG.log(Level.SEVERE, "Finishing input frame failed.", e);
+				}
+			}
+
+			synchronized (this) {
+				if (this.closed || this.pending.isEmpty()) {
+					this.draining = false;
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the executor of the input thread, creating it if necessary.
+	 * 
+	 * @return the executor
+	 */
+	private ExecutorService getExecutor() {
+		if (this.executor == null) {
+			this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, InputQueue.this.threadName);
+					thread.setDaemon(true);
+					InputQueue.this.worker = thread;
+					return thread;
+				}
+			});
+		}
+		return this.executor;
+	}
+
+	/**
+	 * Takes the next pending event.
+	 * 
+	 * @return the event, or {@code null} if none is pending
+	 */
+	private synchronized Event next() {
+		if (this.closed || this.pending.isEmpty()) {
+			return null;
+		}
+		return this.pending.removeFirst();
+	}
+
+	/**
+	 * An event with its key.
+	 */
+	private static final class Event {
+
+		/**
+		 * Identifies repeated events, may be {@code null}.
+		 */
+		private final Object key;
+
+		/**
+		 * The action dispatching the event.
+		 */
+		private final Runnable action;
+
+		/**
+		 * Creates a new {@link Event}.
+		 * 
+		 * @param key
+		 *            identifies repeated events, may be {@code null}
+		 * @param action
+		 *            the action dispatching the event
+		 */
+		Event(Object key, Runnable action) {
+			this.key = key;
+			this.action = action;
+		}
+	}
+
+}
@@ -0,0 +1,481 @@
+package de.graphioli.controller;
+
+import de.graphioli.model.BoardTransaction;
+import de.graphioli.model.Edge;
+import de.graphioli.model.GameBoard;
+import de.graphioli.model.GraphListener;
+import de.graphioli.model.Vertex;
+import de.graphioli.model.VisualEdge;
+import de.graphioli.model.VisualVertex;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.logging.Logger;
+
+/**
+ * This class records the changes of a {@link GameBoard} as steps, so that moves
+ * can be undone and redone. Instead of copying the board, a step stores the
+ * added and removed elements and the previous and new visual states of changed
+ * ones, so undoing and redoing a step takes time in the size of the step. The
+ * number of kept steps is limited, the oldest steps are dropped.
+ * 
+ * A step collects all changes until {@link #endStep()} is called, which the
+ * framework does after every call to the {@link Game}. Changes of the
+ * visualization are only recorded for elements that provide their visual
+ * state, see {@link VisualVertex#getVisualState()}.
+ * 
+ * The manager is not synchronized. The framework uses it from one thread at a
+ * time only.
+ * 
+ * @author Team Graphioli
+ */
+public final class UndoManager implements GraphListener {
+
+	/**
+	 * The default number of steps that can be undone.
+	 */
+	public static final int DEFAULT_LIMIT = 100;
+
+	/**
+	 * Logging instance.
+	 */
+	private static final Logger LOG = Logger.getLogger(UndoManager.class.getName());
+
+	/**
+	 * The kinds of recorded changes.
+	 */
+	private enum Type {
+		ADD_VERTEX, REMOVE_VERTEX, CHANGE_VERTEX, ADD_EDGE, REMOVE_EDGE, CHANGE_EDGE
+	}
+
+	/**
+	 * The game board whose changes are recorded.
+	 */
+	private final GameBoard gameBoard;
+
+	/**
+	 * The steps that can be undone, the latest last.
+	 */
+	private final ArrayDeque<ArrayList<Change>> undoSteps;
+
+	/**
+	 * The undone steps that can be redone, the latest undone last.
+	 */
+	private final ArrayDeque<ArrayList<Change>> redoSteps;
+
+	/**
+	 * The current visual state of each element on the board that provides
+	 * one, to know the previous state when it changes.
+	 */
+	private final HashMap<Object, Object> visualStates;
+
+	/**
+	 * The changes of the step not ended yet.
+	 */
+	private ArrayList<Change> currentStep;
+
+	/**
+	 * The maximum number of steps that can be undone.
+	 */
+	private int limit;
+
+	/**
+	 * Whether changes are recorded.
+	 */
+	private boolean recording;
+
+	/**
+	 * Whether a step is being undone or redone.
+	 */
+	private boolean replaying;
+
+	/**
+	 * Creates a new {@link UndoManager} with the default limit for the given
+	 * {@link GameBoard}, and registers it as listener of the board.
+	 * 
+	 * @param gameBoard
+	 *            the game board to record
+	 */
+	public UndoManager(GameBoard gameBoard) {
+		this(gameBoard, DEFAULT_LIMIT);
+	}
+
+	/**
+	 * Creates a new {@link UndoManager} for the given {@link GameBoard}, and
+	 * registers it as listener of the board.
+	 * 
+	 * @param gameBoard
+	 *            the game board to record
+	 * @param limit
+	 *            the maximum number of steps that can be undone
+	 */
+	public UndoManager(GameBoard gameBoard, int limit) {
+		this.gameBoard = gameBoard;
+		this.undoSteps = new ArrayDeque<ArrayList<Change>>();
+		this.redoSteps = new ArrayDeque<ArrayList<Change>>();
+		this.visualStates = new HashMap<Object, Object>();
+		this.currentStep = new ArrayList<Change>();
+		this.limit = Math.max(limit, 1);
+		this.recording = true;
+
+		for (Vertex vertex : gameBoard.getGraph().getVertices()) {
+			this.storeVisualState(vertex, ((VisualVertex) vertex).getVisualState());
+		}
+		for (Edge edge : gameBoard.getGraph().getEdges()) {
+			this.storeVisualState(edge, ((VisualEdge) edge).getVisualState());
+		}
+		gameBoard.addGraphListener(this);
+	}
+
+	/**
+	 * Returns whether there is an undone step to redo.
+	 * 
+	 * @return {@code true} if {@link #redo()} would redo a step
+	 */
+	public boolean canRedo() {
+		return this.currentStep.isEmpty() && !this.redoSteps.isEmpty();
+	}
+
+	/**
+	 * Returns whether there is a step to undo.
+	 * 
+	 * @return {@code true} if {@link #undo()} would undo a step
+	 */
+	public boolean canUndo() {
+		return !this.currentStep.isEmpty() || !this.undoSteps.isEmpty();
+	}
+
+	/**
+	 * Drops all recorded steps, e.g. when a new level starts.
+	 */
+	public void clear() {
+		this.currentStep = new ArrayList<Change>();
+		this.undoSteps.clear();
+		this.redoSteps.clear();
+	}
+
+	/**
+	 * Ends the current step. The following changes are recorded as a new
+	 * step. Does nothing if nothing changed since the last step ended.
+	 */
+	public void endStep() {
+		if (this.currentStep.isEmpty()) {
+			return;
+		}
+		this.undoSteps.addLast(this.currentStep);
+		while (this.undoSteps.size() > this.limit) {
+			this.undoSteps.removeFirst();
+		}
+		this.currentStep = new ArrayList<Change>();
+	}
+
+	/**
+	 * Returns the maximum number of steps that can be undone.
+	 * 
+	 * @return the limit
+	 */
+	public int getLimit() {
+		return this.limit;
+	}
+
+	/**
+	 * Returns whether changes are recorded.
+	 * 
+	 * @return {@code true} if changes are recorded
+	 */
+	public boolean isRecording() {
+		return this.recording;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeAdded(Edge edge) {
+		this.storeVisualState(edge, ((VisualEdge) edge).getVisualState());
+		this.record(Type.ADD_EDGE, edge, null, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeChanged(Edge edge) {
+		this.recordChange(Type.CHANGE_EDGE, edge, ((VisualEdge) edge).getVisualState());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeRemoved(Edge edge) {
+		this.visualStates.remove(edge);
+		this.record(Type.REMOVE_EDGE, edge, null, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexAdded(Vertex vertex) {
+		this.storeVisualState(vertex, ((VisualVertex) vertex).getVisualState());
+		this.record(Type.ADD_VERTEX, vertex, null, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexChanged(Vertex vertex) {
+		this.recordChange(Type.CHANGE_VERTEX, vertex, ((VisualVertex) vertex).getVisualState());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexRemoved(Vertex vertex) {
+		this.visualStates.remove(vertex);
+		this.record(Type.REMOVE_VERTEX, vertex, null, null);
+	}
+
+	/**
+	 * Redoes the step undone last. A step can only be redone as long as no new
+	 * changes were recorded after undoing it.
+	 * 
+	 * @return {@code true} if a step was redone
+	 */
+	public boolean redo() {
+		this.endStep();
+		if (this.redoSteps.isEmpty()) {
+			return false;
+		}
+		ArrayList<Change> step = this.redoSteps.removeLast();
+		if (!this.replay(step, true)) {
+			return false;
+		}
+		this.undoSteps.addLast(step);
+		return true;
+	}
+
+	/**
+	 * Sets the maximum number of steps that can be undone. Surplus steps are
+	 * dropped, the oldest first.
+	 * 
+	 * @param limit
+	 *            the new limit, at least {@code 1}
+	 */
+	public void setLimit(int limit) {
+		this.limit = Math.max(limit, 1);
+		while (this.undoSteps.size() > this.limit) {
+			this.undoSteps.removeFirst();
+		}
+		while (this.redoSteps.size() > this.limit) {
+			this.redoSteps.removeFirst();
+		}
+	}
+
+	/**
+	 * Sets whether changes are recorded. Changes made while not recording
+	 * cannot be undone, e.g. highlighting a selection. Structural changes made
+	 * while not recording may leave the recorded steps inapplicable, in which
+	 * case undoing fails and all steps are dropped.
+	 * 
+	 * @param recording
+	 *            whether changes are recorded
+	 */
+	public void setRecording(boolean recording) {
+		this.recording = recording;
+	}
+
+	/**
+	 * Undoes the latest step. Ends the current step first.
+	 * 
+	 * @return {@code true} if a step was undone
+	 */
+	public boolean undo() {
+		this.endStep();
+		if (this.undoSteps.isEmpty()) {
+			return false;
+		}
+		ArrayList<Change> step = this.undoSteps.removeLast();
+		if (!this.replay(step, false)) {
+			return false;
+		}
+		this.redoSteps.addLast(step);
+		return true;
+	}
+
+	/**
+	 * Records a change in the current step, unless recording is off or a step
+	 * is being replayed. A new change makes the undone steps unredoable.
+	 * 
+	 * @param type
+	 *            the kind of change
+	 * @param element
+	 *            the VisualVertex or VisualEdge
+	 * @param oldState
+	 *            the previous visual state of a changed element
+	 * @param newState
+	 *            the new visual state of a changed element
+	 */
+	private void record(Type type, Object element, Object oldState, Object newState) {
+		if (!this.recording || this.replaying) {
+			return;
+		}
+		this.redoSteps.clear();
+		this.currentStep.add(new Change(type, element, oldState, newState));
+	}
+
+	/**
+	 * Records a change of the visual state of an element. Consecutive changes
+	 * of the same element are merged.
+	 * 
+	 * @param type
+	 *            {@code CHANGE_VERTEX} or {@code CHANGE_EDGE}
+	 * @param element
+	 *            the VisualVertex or VisualEdge
+	 * @param newState
+	 *            the new visual state
+	 */
+	private void recordChange(Type type, Object element, Object newState) {
+		Object oldState = this.visualStates.get(element);
+		this.storeVisualState(element, newState);
+		if (oldState == null || newState == null || oldState.equals(newState)) {
+			return;
+		}
+
+		if (this.recording && !this.replaying && !this.currentStep.isEmpty()) {
+			Change last = this.currentStep.get(this.currentStep.size() - 1);
+			if (last.type == type && last.element == element) {
+				last.newState = newState;
+				return;
+			}
+		}
+		this.record(type, element, oldState, newState);
+	}
+
+	/**
+	 * Applies a step, or its inverse in reverse order. The additions and
+	 * removals are committed as one {@link BoardTransaction} first, and the
+	 * visual states are only restored if it succeeds. If the step cannot be
+	 * applied, the board was changed without recording, all steps are dropped
+	 * and the board is left untouched.
+	 * 
+	 * @param step
+	 *            the changes of the step
+	 * @param forward
+	 *            {@code true} to redo the step, {@code false} to undo it
+	 * @return {@code true} if the step was applied
+	 */
+	private boolean replay(ArrayList<Change> step, boolean forward) {
+		BoardTransaction transaction = this.gameBoard.beginTransaction();
+		ArrayList<Change> visualChanges = new ArrayList<Change>();
+		boolean success;
+		this.replaying = true;
+		try {
+			for (int i = 0; i < step.size(); i++) {
+				Change change = step.get(forward ? i : step.size() - 1 - i);
+				switch (change.type) {
+					case ADD_VERTEX:
+					case REMOVE_VERTEX:
+						if (forward == (change.type == Type.ADD_VERTEX)) {
+							transaction.addVisualVertex((VisualVertex) change.element);
+						} else {
+							transaction.removeVisualVertex((VisualVertex) change.element);
+						}
+						break;
+					case ADD_EDGE:
+					case REMOVE_EDGE:
+						if (forward == (change.type == Type.ADD_EDGE)) {
+							transaction.addVisualEdge((VisualEdge) change.element);
+						} else {
+							transaction.removeVisualEdge((VisualEdge) change.element);
+						}
+						break;
+					default:
+						visualChanges.add(change);
+						break;
+				}
+			}
+			success = transaction.commit();
+			for (int i = 0; success && i < visualChanges.size(); i++) {
+				Change change = visualChanges.get(i);
+				Object state = forward ? change.newState : change.oldState;
+				if (change.type == Type.CHANGE_VERTEX) {
+					((VisualVertex) change.element).setVisualState(state);
+				} else {
+					((VisualEdge) change.element).setVisualState(state);
+				}
+			}
+		} finally {
+			this.replaying = false;
+		}
+
+		if (!success) {
+			LOG.warning("Board changed without recording, dropping all steps.");
+			this.clear();
+		}
+		return success;
+	}
+
+	/**
+	 * Remembers the current visual state of an element.
+	 * 
+	 * @param element
+	 *            the VisualVertex or VisualEdge
+	 * @param state
+	 *            its visual state, {@code null} if it provides none
+	 */
+	private void storeVisualState(Object element, Object state) {
+		if (state != null) {
+			this.visualStates.put(element, state);
+		}
+	}
+
+	/**
+	 * A single recorded change.
+	 */
+	private static final class Change {
+
+		/**
+		 * The kind of change.
+		 */
+		private final Type type;
+
+		/**
+		 * The VisualVertex or VisualEdge.
+		 */
+		private final Object element;
+
+		/**
+		 * The previous visual state of a changed element.
+		 */
+		private final Object oldState;
+
+		/**
+		 * The new visual state of a changed element.
+		 */
+		private Object newState;
+
+		/**
+		 * Creates a new {@link Change}.
+		 * 
+		 * @param type
+		 *            the kind of change
+		 * @param element
+		 *            the VisualVertex or VisualEdge
+		 * @param oldState
+		 *            the previous visual state of a changed element
+		 * @param newState
+		 *            the new visual state of a changed element
+		 */
+		Change(Type type, Object element, Object oldState, Object newState) {
+			this.type = type;
+			this.element = element;
+			this.oldState = oldState;
+			this.newState = newState;
+		}
+	}
+
+}
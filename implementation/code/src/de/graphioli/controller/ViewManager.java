@@ -8,14 +8,31 @@ import de.graphioli.view.GameWindow;
 import de.graphioli.view.View;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.swing.SwingUtilities;
+
 /**
  * This class acts as an interface between the graphical user interface (GUI)
  * and the other parts of the framework. It pushes update notifications to the
  * view and receives user input from it.
  * 
+ * User input is queued and dispatched to the {@link Game} on a separate input
+ * thread, so the user interface stays responsive while the game handles it.
+ * Repeated key releases are merged, and further clicks on a grid point are
+ * dropped while a click on it is pending or being handled. The input is
+ * handled in frames of a few events, and the view is redrawn at most once per
+ * frame.
+ * 
+ * Updates of the view may be requested from any thread; they are carried out
+ * on the Swing event dispatch thread.
+ * 
  * @author Team Graphioli
  */
 public class ViewManager {
@@ -35,6 +52,22 @@ public class ViewManager {
 	 */
 	private GameManager gameManager;
 
+	/**
+	 * The queue of the user input to dispatch to the {@link Game}.
+	 */
+	private final InputQueue input;
+
+	/**
+	 * Whether the input handled in the current frame changed the view.
+	 */
+	private volatile boolean redrawRequested;
+
+	/**
+	 * Whether a redraw has been posted to the event dispatch thread, but not
+	 * been carried out yet.
+	 */
+	private final AtomicBoolean redrawPending;
+
 	/**
 	 * Creates a new ViewManager associated with the given {@link GameManager}.
 	 * 
@@ -44,6 +77,13 @@ public class ViewManager {
 	public ViewManager(GameManager gameManager) {
 		LOG.fine("ViewManager initiated");
 		this.gameManager = gameManager;
+		this.redrawPending = new AtomicBoolean();
+		this.input = new InputQueue("Game input", new Runnable() {
+			@Override
+			public void run() {
+				ViewManager.this.flushView();
+			}
+		});
 
 		// Instantiate view
 		this.view = new GameWindow();
@@ -58,21 +98,33 @@ public class ViewManager {
 	 * @return <code>true</code> if the action was performed successfully,
 	 *         <code>false</code> otherwise
 	 */
-	public boolean displayErrorMessage(String message) {
-		return this.view.displayErrorMessage(message);
+	public boolean displayErrorMessage(final String message) {
+		this.postToView(new Runnable() {
+			@Override
+			public void run() {
+				ViewManager.this.view.displayErrorMessage(message);
+			}
+		});
+		return true;
 	}
 
 	/**
-	 * Notifies the {@link View} to display the given message in a pop-up. NOTE:
-	 * Don't use this inside game logic. It will lead to an timeout.
+	 * Notifies the {@link View} to display the given message in a pop-up and
+	 * waits until it is closed. NOTE: Don't use this inside game logic. It will
+	 * lead to an timeout.
 	 * 
 	 * @param message
 	 *            The message to display
 	 * @return <code>true</code> if the action was performed successfully,
 	 *         <code>false</code> otherwise
 	 */
-	public boolean displayPopUp(String message) {
-		return this.view.displayPopUp(message);
+	public boolean displayPopUp(final String message) {
+		return this.callView(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(ViewManager.this.view.displayPopUp(message));
+			}
+		});
 	}
 
 	/**
@@ -90,33 +142,208 @@ public class ViewManager {
 	 * 
 	 * @param menuItem
 	 *            The menu item that was clicked
+	 * @return <code>true</code> if the click was queued, <code>false</code>
+	 *         if the game has been closed
+	 */
+	public boolean onCustomMenuItemClick(final MenuItem menuItem) {
+		return this.input.post(new Runnable() {
+			@Override
+			public void run() {
+				ViewManager.this.dispatchCustomMenuItemClick(menuItem);
+			}
+		});
+	}
+
+	/**
+	 * Callback function used by the {@link View} to notify about a click on a
+	 * {@link GridPoint}.
+	 * 
+	 * @param gridPoint
+	 *            The GridPoint that was clicked
+	 * @return <code>true</code> if the click was queued, <code>false</code>
+	 *         if it was dropped or the game has been closed
+	 */
+	public boolean onGridPointClick(final GridPoint gridPoint) {
+		return this.input.post(gridPoint, new Runnable() {
+			@Override
+			public void run() {
+				ViewManager.this.dispatchGridPointClick(gridPoint);
+			}
+		});
+	}
+
+	/**
+	 * Callback function used by the {@link View} to notify about a key release.
+	 * 
+	 * @param keyCode
+	 *            The code of the key that was released
+	 * @return <code>true</code> if the key release was queued,
+	 *         <code>false</code> if it was merged or the game has been closed
+	 */
+	public boolean onKeyRelease(final int keyCode) {
+		return this.input.post(Integer.valueOf(keyCode), new Runnable() {
+			@Override
+			public void run() {
+				ViewManager.this.dispatchKeyRelease(keyCode);
+			}
+		});
+	}
+
+	/**
+	 * Queues an action of the user that works on the running game, e.g.
+	 * undoing a move, behind the pending user input. The action runs on the
+	 * input thread.
+	 * 
+	 * @param action
+	 *            The action to run
+	 * @return <code>true</code> if the action was queued, <code>false</code>
+	 *         if the game has been closed
+	 */
+	public boolean postInput(Runnable action) {
+		return this.input.post(action);
+	}
+
+	/**
+	 * Sets how many queued inputs are handled per frame, before the view is
+	 * redrawn. Fewer inputs per frame give quicker feedback, more save
+	 * redraws during bursts of input.
+	 * 
+	 * @param count
+	 *            The number of inputs per frame, at least one
+	 */
+	public void setInputsPerFrame(int count) {
+		this.input.setBatchSize(count);
+	}
+
+	/**
+	 * Notifies the view to add the given menu items.
+	 * 
+	 * @param items the menu items to add.
+	 * @return {@code true} on success.
+	 */
+	boolean addCustomMenuItems(final List<MenuItem> items) {
+		return this.callView(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(ViewManager.this.view.addCustomMenuItems(items));
+			}
+		});
+	}
+
+	/**
+	 * Informs the View to ask the player if the game should be restarted.
+	 * 
+	 * @return {@code true} if player wants to restart, {@code false} otherwise
+	 */
+	boolean askForRestart() {
+		return this.callView(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(ViewManager.this.view.askForRestart());
+			}
+		});
+	}
+
+	/**
+	 * Closes the View and all its components. Pending user input is dropped.
+	 * 
+	 * @return {@code true} if the disposal was successful
+	 */
+	boolean closeView() {
+		this.input.close();
+		return this.callView(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.valueOf(ViewManager.this.view.closeView());
+			}
+		});
+	}
+
+	/**
+	 * Notifies the {@link View} to display the given {@link Player} as active.
+	 * 
+	 * @param player
+	 *            The active player
 	 * @return <code>true</code> if the action was performed successfully,
 	 *         <code>false</code> otherwise
 	 */
-	public boolean onCustomMenuItemClick(MenuItem menuItem) {
+	boolean updatePlayerStatus(final Player player) {
+		this.postToView(new Runnable() {
+			@Override
+			public void run() {
+				ViewManager.this.view.updatePlayerStatus(player);
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Notifies the view to update itself. While handling user input, the
+	 * update is deferred to the end of the frame.
+	 */
+	void updateView() {
+		if (this.input.isInputThread()) {
+			this.redrawRequested = true;
+		} else {
+			this.redraw();
+		}
+	}
+
+	/**
+	 * Runs the given update of the view on the event dispatch thread and waits
+	 * for its result.
+	 * 
+	 * @param update
+	 *            The update to run
+	 * @return the result of the update, or <code>false</code> if it failed
+	 */
+	private boolean callView(Callable<Boolean> update) {
+		// Show the current board behind dialogs
+		this.flushView();
+		FutureTask<Boolean> task = new FutureTask<Boolean>(update);
+		if (SwingUtilities.isEventDispatchThread()) {
+			task.run();
+		} else {
+			SwingUtilities.invokeLater(task);
+		}
+		try {
+			return task.get().booleanValue();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			LOG.log(Level.SEVERE, "Updating the view failed.", e.getCause());
+			return false;
+		}
+	}
+
+	/**
+	 * Dispatches a click on a custom menu item to the {@link Game}.
+	 * 
+	 * @param menuItem
+	 *            The menu item that was clicked
+	 */
+	private void dispatchCustomMenuItemClick(MenuItem menuItem) {
 		try {
-			if (this.gameManager.getGame().callOnMenuItemClick(menuItem)) {
+			boolean success = this.gameManager.getGame().callOnMenuItemClick(menuItem);
+			this.gameManager.getUndoManager().endStep();
+			if (success) {
 				this.updateView();
 				this.gameManager.checkFinished();
-				return true;
 			}
 		} catch (TimeoutException e) {
 			this.displayPopUp(Localization.getLanguageString("timeout_err"));
 			this.gameManager.closeGame();
 		}
-		return false;
 	}
 
 	/**
-	 * Callback function used by the {@link View} to notify about a click on a
-	 * {@link GridPoint}.
+	 * Dispatches a click on a {@link GridPoint} to the {@link Game}.
 	 * 
 	 * @param gridPoint
 	 *            The GridPoint that was clicked
-	 * @return <code>true</code> if the action was performed successfully,
-	 *         <code>false</code> otherwise
 	 */
-	public boolean onGridPointClick(GridPoint gridPoint) {
+	private void dispatchGridPointClick(GridPoint gridPoint) {
 		try {
 			if (this.gameManager.getGameBoard().getGrid().getVisualVertexAtGridPoint(gridPoint) == null) {
 				LOG.fine("OnEmptyGridPointClick " + gridPoint);
@@ -140,78 +367,76 @@ public class ViewManager {
 			this.gameManager.closeGame();
 		}
 
+		this.gameManager.getUndoManager().endStep();
 		this.gameManager.checkFinished();
-		return true;
 	}
 
 	/**
-	 * Callback function used by the {@link View} to notify about a key release.
+	 * Dispatches a key release to the {@link Game}.
 	 * 
 	 * @param keyCode
 	 *            The code of the key that was released
-	 * @return <code>true</code> if the action was performed successfully,
-	 *         <code>false</code> otherwise
 	 */
-	public boolean onKeyRelease(int keyCode) {
+	private void dispatchKeyRelease(int keyCode) {
 		try {
-			if (this.gameManager.getGame().callOnKeyRelease(keyCode)) {
+			boolean success = this.gameManager.getGame().callOnKeyRelease(keyCode);
+			this.gameManager.getUndoManager().endStep();
+			if (success) {
 				this.updateView();
 				this.gameManager.checkFinished();
-				return true;
 			}
 		} catch (TimeoutException e) {
 			this.displayPopUp(Localization.getLanguageString("timeout_err"));
 			this.gameManager.closeGame();
 		}
-		return false;
-	}
-
-	/**
-	 * Notifies the view to add the given menu items.
-	 * 
-	 * @param items the menu items to add.
-	 * @return {@code true} on success.
-	 */
-	boolean addCustomMenuItems(List<MenuItem> items) {
-		return this.view.addCustomMenuItems(items);
 	}
 
 	/**
-	 * Informs the View to ask the player if the game should be restarted.
-	 * 
-	 * @return {@code true} if player wants to restart, {@code false} otherwise
+	 * Redraws the view, if the input handled in the current frame changed it.
 	 */
-	boolean askForRestart() {
-		return this.view.askForRestart();
-	}
-
-	/**
-	 * Closes the View and all its components.
-	 * 
-	 * @return {@code true} if the disposal was successful
-	 */
-	boolean closeView() {
-		this.view.closeView();
-		return true;
+	private void flushView() {
+		if (this.redrawRequested) {
+			this.redrawRequested = false;
+			this.redraw();
+		}
 	}
 
 	/**
-	 * Notifies the {@link View} to display the given {@link Player} as active.
+	 * Runs the given update of the view on the event dispatch thread without
+	 * waiting for it. Updates posted after the view was closed are dropped.
 	 * 
-	 * @param player
-	 *            The active player
-	 * @return <code>true</code> if the action was performed successfully,
-	 *         <code>false</code> otherwise
+	 * @param update
+	 *            The update to run
 	 */
-	boolean updatePlayerStatus(Player player) {
-		return this.view.updatePlayerStatus(player);
+	private void postToView(final Runnable update) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			update.run();
+			return;
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (!ViewManager.this.input.isClosed()) {
+					update.run();
+				}
+			}
+		});
 	}
 
 	/**
-	 * Notifies the view to update itself.
+	 * Posts a redraw of the view, unless one is still pending.
 	 */
-	void updateView() {
-		this.view.redrawGraph();
+	private void redraw() {
+		if (!this.redrawPending.compareAndSet(false, true)) {
+			return;
+		}
+		this.postToView(new Runnable() {
+			@Override
+			public void run() {
+				ViewManager.this.redrawPending.set(false);
+				ViewManager.this.view.redrawGraph();
+			}
+		});
 	}
 
 }
@@ -4,6 +4,7 @@ import de.graphioli.model.GameResources;
 import de.graphioli.model.MenuItem;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * This class represents the game's definition, containing crucial information
@@ -73,6 +74,12 @@ public final class GameDefinition implements Serializable {
 	 */
 	private boolean supportsSavegames;
 
+	/**
+	 * The time budgets of the callbacks of the game in milliseconds, keyed on
+	 * the name of the callback, e.g. {@code onGameInit}. Optional.
+	 */
+	private HashMap<String, Long> callTimeouts;
+
 	/**
 	 * Private constructor to ensure that no instance is created of this class.
 	 */
@@ -98,6 +105,27 @@ public final class GameDefinition implements Serializable {
 		return res.getStringResource(keyString);
 	}
 
+	/**
+	 * Returns the time budget of the given callback of the game, as declared
+	 * in the {@code callTimeouts} of the game's properties.
+	 * 
+	 * @param callback
+	 *            the name of the callback, e.g. {@code onVertexClick}
+	 * @param defaultTimeout
+	 *            the budget to use if none is declared, in milliseconds
+	 * @return the time budget in milliseconds
+	 */
+	public long getCallTimeout(String callback, long defaultTimeout) {
+		if (this.callTimeouts == null) {
+			return defaultTimeout;
+		}
+		Long timeout = this.callTimeouts.get(callback);
+		if (timeout == null || timeout.longValue() <= 0) {
+			return defaultTimeout;
+		}
+		return timeout.longValue();
+	}
+
 	/**
 	 * Returns the name of the game class.
 	 * 
@@ -236,6 +264,7 @@ public final class GameDefinition implements Serializable {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
+		result = prime * result + ((this.callTimeouts == null) ? 0 : this.callTimeouts.hashCode());
 		result = prime * result + ((this.className == null) ? 0 : this.className.hashCode());
 		result = prime * result + ((this.gamePath == null) ? 0 : this.gamePath.hashCode());
 		result = prime * result + this.horizontalGridPointCount;
@@ -264,6 +293,13 @@ public final class GameDefinition implements Serializable {
 			return false;
 		}
 		GameDefinition other = (GameDefinition) obj;
+		if (this.callTimeouts == null) {
+			if (other.callTimeouts != null) {
+				return false;
+			}
+		} else if (!this.callTimeouts.equals(other.callTimeouts)) {
+			return false;
+		}
 		if (this.className == null) {
 			if (other.className != null) {
 				return false;
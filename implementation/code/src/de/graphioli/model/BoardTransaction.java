@@ -0,0 +1,443 @@
+package de.graphioli.model;
+
+import de.graphioli.utils.Validation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.logging.Logger;
+
+/**
+ * This class stages additions and removals of VisualVertices and VisualEdges
+ * on a {@link GameBoard}. On {@link #commit()} the staged changes are
+ * validated together and then applied in the order they were staged, or not
+ * at all. The {@link GameBoardListener}s of the board are notified once.
+ * 
+ * @author Team Graphioli
+ */
+public class BoardTransaction {
+
+	/**
+	 * Logging instance.
+	 */
+	private static final Logger LOG = Logger.getLogger(BoardTransaction.class.getName());
+
+	/**
+	 * The kinds of staged changes.
+	 */
+	private enum Type {
+		ADD_VERTEX, REMOVE_VERTEX, ADD_EDGE, REMOVE_EDGE
+	}
+
+	/**
+	 * The game board the changes are applied to.
+	 */
+	private final GameBoard gameBoard;
+
+	/**
+	 * The kinds of the staged changes.
+	 */
+	private final ArrayList<Type> types = new ArrayList<Type>();
+
+	/**
+	 * The VisualVertex or VisualEdge of each staged change.
+	 */
+	private final ArrayList<Object> elements = new ArrayList<Object>();
+
+	/**
+	 * Creates a new, empty {@link BoardTransaction}.
+	 * 
+	 * @param gameBoard
+	 *            the game board the changes are applied to
+	 */
+	BoardTransaction(GameBoard gameBoard) {
+		this.gameBoard = gameBoard;
+	}
+
+	/**
+	 * Stages adding the given {@link VisualVertex}, see
+	 * {@link GameBoard#addVisualVertex(VisualVertex)}.
+	 * 
+	 * @param visualVertex
+	 *            the VisualVertex to add
+	 * @return {@code true} if the change was staged
+	 */
+	public boolean addVisualVertex(VisualVertex visualVertex) {
+		return this.stage(Type.ADD_VERTEX, visualVertex);
+	}
+
+	/**
+	 * Stages adding the given {@link VisualEdge}, see
+	 * {@link GameBoard#addVisualEdge(VisualEdge)}.
+	 * 
+	 * @param visualEdge
+	 *            the VisualEdge to add
+	 * @return {@code true} if the change was staged
+	 */
+	public boolean addVisualEdge(VisualEdge visualEdge) {
+		return this.stage(Type.ADD_EDGE, visualEdge);
+	}
+
+	/**
+	 * Stages removing the given {@link VisualVertex} and its edges, see
+	 * {@link GameBoard#removeVisualVertex(VisualVertex)}.
+	 * 
+	 * @param visualVertex
+	 *            the VisualVertex to remove
+	 * @return {@code true} if the change was staged
+	 */
+	public boolean removeVisualVertex(VisualVertex visualVertex) {
+		return this.stage(Type.REMOVE_VERTEX, visualVertex);
+	}
+
+	/**
+	 * Stages removing the given {@link VisualEdge}, see
+	 * {@link GameBoard#removeVisualEdge(VisualEdge)}.
+	 * 
+	 * @param visualEdge
+	 *            the VisualEdge to remove
+	 * @return {@code true} if the change was staged
+	 */
+	public boolean removeVisualEdge(VisualEdge visualEdge) {
+		return this.stage(Type.REMOVE_EDGE, visualEdge);
+	}
+
+	/**
+	 * Returns the number of staged changes.
+	 * 
+	 * @return the number of staged changes
+	 */
+	public int size() {
+		return this.types.size();
+	}
+
+	/**
+	 * Validates and applies all staged changes. If any change would fail, the
+	 * game board is left untouched. Either way, the staged changes are
+	 * discarded afterwards.
+	 * 
+	 * @return {@code true} if all changes were applied
+	 */
+	public boolean commit() {
+		if (!this.validate()) {
+			LOG.fine("Transaction of " + this.size() + " changes rejected.");
+			this.clear();
+			return false;
+		}
+
+		boolean success = true;
+		this.gameBoard.beginBatch();
+		try {
+			for (int i = 0; i < this.types.size() && success; i++) {
+				success = this.apply(this.types.get(i), this.elements.get(i));
+			}
+		} finally {
+			this.gameBoard.endBatch();
+		}
+
+		if (!success) {
+			LOG.severe("Applying a validated transaction failed. Graph inconsistent.");
+		}
+		this.clear();
+		return success;
+	}
+
+	/**
+	 * Discards all staged changes.
+	 */
+	public void clear() {
+		this.types.clear();
+		this.elements.clear();
+	}
+
+	/**
+	 * Stages a change.
+	 * 
+	 * @param type
+	 *            the kind of change
+	 * @param element
+	 *            the VisualVertex or VisualEdge
+	 * @return {@code false} if the element is {@code null}
+	 */
+	private boolean stage(Type type, Object element) {
+		if (element == null) {
+			return false;
+		}
+		this.types.add(type);
+		this.elements.add(element);
+		return true;
+	}
+
+	/**
+	 * Applies a single change to the game board.
+	 * 
+	 * @param type
+	 *            the kind of change
+	 * @param element
+	 *            the VisualVertex or VisualEdge
+	 * @return {@code true} if the change was applied
+	 */
+	private boolean apply(Type type, Object element) {
+		switch (type) {
+			case ADD_VERTEX:
+				return this.gameBoard.addVisualVertex((VisualVertex) element);
+			case REMOVE_VERTEX:
+				return this.gameBoard.removeVisualVertex((VisualVertex) element);
+			case ADD_EDGE:
+				return this.gameBoard.addVisualEdge((VisualEdge) element);
+			default:
+				return this.gameBoard.removeVisualEdge((VisualEdge) element);
+		}
+	}
+
+	/**
+	 * Checks whether all staged changes can be applied in order, by
+	 * simulating them on top of the current state of the game board.
+	 * 
+	 * @return {@code true} if every change would succeed
+	 */
+	private boolean validate() {
+		Staging staging = new Staging(this.gameBoard);
+		for (int i = 0; i < this.types.size(); i++) {
+			Object element = this.elements.get(i);
+			boolean valid;
+			switch (this.types.get(i)) {
+				case ADD_VERTEX:
+					valid = staging.addVertex((VisualVertex) element);
+					break;
+				case REMOVE_VERTEX:
+					valid = staging.removeVertex((VisualVertex) element);
+					break;
+				case ADD_EDGE:
+					valid = staging.addEdge((VisualEdge) element);
+					break;
+				default:
+					valid = staging.removeEdge((VisualEdge) element);
+					break;
+			}
+			if (!valid) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The state of the game board with the changes validated so far applied.
+	 * Only the differences to the board are stored. Edges are keyed on plain
+	 * {@link Edge}s, which are equal for the same origin and target.
+	 */
+	private static final class Staging {
+
+		/**
+		 * The game board.
+		 */
+		private final GameBoard gameBoard;
+
+		/**
+		 * Vertices added by the transaction.
+		 */
+		private final HashSet<Vertex> addedVertices = new HashSet<Vertex>();
+
+		/**
+		 * Vertices removed by the transaction. Their edges count as removed.
+		 */
+		private final HashSet<Vertex> removedVertices = new HashSet<Vertex>();
+
+		/**
+		 * Grid points occupied by the transaction.
+		 */
+		private final HashSet<GridPoint> occupiedPoints = new HashSet<GridPoint>();
+
+		/**
+		 * Grid points emptied by the transaction.
+		 */
+		private final HashSet<GridPoint> emptiedPoints = new HashSet<GridPoint>();
+
+		/**
+		 * Edges added by the transaction.
+		 */
+		private final HashSet<Edge> addedEdges = new HashSet<Edge>();
+
+		/**
+		 * Edges removed by the transaction.
+		 */
+		private final HashSet<Edge> removedEdges = new HashSet<Edge>();
+
+		/**
+		 * Creates a new {@link Staging} without changes.
+		 * 
+		 * @param gameBoard
+		 *            the game board
+		 */
+		Staging(GameBoard gameBoard) {
+			this.gameBoard = gameBoard;
+		}
+
+		/**
+		 * Simulates adding a vertex.
+		 * 
+		 * @param visualVertex
+		 *            the vertex
+		 * @return {@code true} if adding would succeed
+		 */
+		boolean addVertex(VisualVertex visualVertex) {
+			GridPoint gridPoint = visualVertex.getGridPoint();
+			Grid grid = this.gameBoard.getGrid();
+			if (!Validation.isValidGridPoint(gridPoint, grid.getHorizontalGridPoints(), grid.getVerticalGridPoints())
+					|| this.hasVertex(visualVertex) || (!this.removedVertices.contains(visualVertex)
+					&& (!visualVertex.getIncomingEdges().isEmpty() || !visualVertex.getOutgoingEdges().isEmpty()))) {
+				return false;
+			}
+
+			boolean occupied = this.occupiedPoints.contains(gridPoint)
+					|| (!this.emptiedPoints.contains(gridPoint) && grid.getVisualVertexAtGridPoint(gridPoint) != null);
+			if (occupied) {
+				return false;
+			}
+
+			this.addedVertices.add(visualVertex);
+			this.removedVertices.remove(visualVertex);
+			this.emptiedPoints.remove(gridPoint);
+			this.occupiedPoints.add(gridPoint);
+			return true;
+		}
+
+		/**
+		 * Simulates removing a vertex together with its edges.
+		 * 
+		 * @param visualVertex
+		 *            the vertex
+		 * @return {@code true} if removing would succeed
+		 */
+		boolean removeVertex(VisualVertex visualVertex) {
+			if (!this.hasVertex(visualVertex)) {
+				return false;
+			}
+
+			// Edges of the board, an undirected edge is listed both ways
+			for (Edge edge : visualVertex.getOutgoingEdges()) {
+				this.removedEdges.add(new Edge(visualVertex, edge.getOppositeVertex(visualVertex)));
+			}
+			for (Edge edge : visualVertex.getIncomingEdges()) {
+				this.removedEdges.add(new Edge(edge.getOppositeVertex(visualVertex), visualVertex));
+			}
+
+			// Edges of the transaction
+			for (Edge edge : new ArrayList<Edge>(this.addedEdges)) {
+				if (edge.getOriginVertex().equals(visualVertex) || edge.getTargetVertex().equals(visualVertex)) {
+					this.addedEdges.remove(edge);
+					this.removedEdges.add(edge);
+				}
+			}
+
+			this.addedVertices.remove(visualVertex);
+			this.removedVertices.add(visualVertex);
+			this.occupiedPoints.remove(visualVertex.getGridPoint());
+			this.emptiedPoints.add(visualVertex.getGridPoint());
+			return true;
+		}
+
+		/**
+		 * Simulates adding an edge, which connects both ways in an undirected
+		 * graph.
+		 * 
+		 * @param visualEdge
+		 *            the edge
+		 * @return {@code true} if adding would succeed
+		 */
+		boolean addEdge(VisualEdge visualEdge) {
+			Vertex origin = visualEdge.getOriginVertex();
+			Vertex target = visualEdge.getTargetVertex();
+			if (origin.equals(target) || !this.hasVertex(origin) || !this.hasVertex(target)
+					|| this.hasEdge(origin, target)) {
+				return false;
+			}
+
+			if (!this.gameBoard.isDirectedGraph()) {
+				if (this.hasEdge(target, origin)) {
+					return false;
+				}
+				this.setEdge(target, origin, true);
+			}
+			this.setEdge(origin, target, true);
+			return true;
+		}
+
+		/**
+		 * Simulates removing an edge, which connects both ways in an undirected
+		 * graph.
+		 * 
+		 * @param visualEdge
+		 *            the edge
+		 * @return {@code true} if removing would succeed
+		 */
+		boolean removeEdge(VisualEdge visualEdge) {
+			Vertex origin = visualEdge.getOriginVertex();
+			Vertex target = visualEdge.getTargetVertex();
+			if (!this.hasEdge(origin, target)) {
+				return false;
+			}
+
+			if (!this.gameBoard.isDirectedGraph()) {
+				if (!this.hasEdge(target, origin)) {
+					return false;
+				}
+				this.setEdge(target, origin, false);
+			}
+			this.setEdge(origin, target, false);
+			return true;
+		}
+
+		/**
+		 * Checks whether a vertex is part of the staged state.
+		 * 
+		 * @param vertex
+		 *            the vertex
+		 * @return {@code true} if the vertex is on the board
+		 */
+		private boolean hasVertex(Vertex vertex) {
+			return this.addedVertices.contains(vertex)
+					|| (!this.removedVertices.contains(vertex) && this.gameBoard.getGraph().containsVertex(vertex));
+		}
+
+		/**
+		 * Checks whether an edge is part of the staged state.
+		 * 
+		 * @param origin
+		 *            the origin of the edge
+		 * @param target
+		 *            the target of the edge
+		 * @return {@code true} if the edge is on the board
+		 */
+		private boolean hasEdge(Vertex origin, Vertex target) {
+			Edge key = new Edge(origin, target);
+			if (this.addedEdges.contains(key)) {
+				return true;
+			}
+			return !this.removedEdges.contains(key) && this.gameBoard.getGraph().containsVertex(origin)
+					&& origin.getOutgoingEdgeTo(target) != null;
+		}
+
+		/**
+		 * Marks an edge as present or absent in the staged state.
+		 * 
+		 * @param origin
+		 *            the origin of the edge
+		 * @param target
+		 *            the target of the edge
+		 * @param present
+		 *            whether the edge is present
+		 */
+		private void setEdge(Vertex origin, Vertex target, boolean present) {
+			Edge key = new Edge(origin, target);
+			if (present) {
+				this.removedEdges.remove(key);
+				this.addedEdges.add(key);
+			} else {
+				this.addedEdges.remove(key);
+				this.removedEdges.add(key);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+package de.graphioli.model;
+
+/**
+ * This {@link GridStorage} divides the grid into square tiles, which are only
+ * allocated while they contain a VisualVertex. It suits huge boards whose
+ * VisualVertices are clustered or too many for a {@link SparseGridStorage}.
+ * 
+ * @author Team Graphioli
+ */
+class ChunkedGridStorage implements GridStorage {
+
+	/**
+	 * Serial UID.
+	 */
+	private static final long serialVersionUID = 7461129361504245031L;
+
+	/**
+	 * Binary logarithm of the side length of a tile.
+	 */
+	private static final int TILE_SHIFT = 5;
+
+	/**
+	 * Mask of the coordinates within a tile.
+	 */
+	private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+
+	/**
+	 * The number of tiles per column of tiles.
+	 */
+	private final int tileRows;
+
+	/**
+	 * The tiles, indexed by tile column and row. An unallocated tile is empty.
+	 */
+	private final VisualVertex[][] tiles;
+
+	/**
+	 * The number of occupied positions per tile.
+	 */
+	private final int[] tileSizes;
+
+	/**
+	 * The number of occupied positions.
+	 */
+	private int size;
+
+	/**
+	 * Creates a new, empty {@link ChunkedGridStorage}.
+	 * 
+	 * @param horizontalGridPoints
+	 *            the number of horizontal grid points
+	 * @param verticalGridPoints
+	 *            the number of vertical grid points
+	 */
+	ChunkedGridStorage(int horizontalGridPoints, int verticalGridPoints) {
+		int tileColumns = (horizontalGridPoints + TILE_MASK) >>> TILE_SHIFT;
+		this.tileRows = (verticalGridPoints + TILE_MASK) >>> TILE_SHIFT;
+		this.tiles = new VisualVertex[tileColumns * this.tileRows][];
+		this.tileSizes = new int[this.tiles.length];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VisualVertex get(int positionX, int positionY) {
+		VisualVertex[] tile = this.tiles[this.tileIndex(positionX, positionY)];
+		if (tile == null) {
+			return null;
+		}
+		return tile[cellIndex(positionX, positionY)];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void set(int positionX, int positionY, VisualVertex visualVertex) {
+		int tileIndex = this.tileIndex(positionX, positionY);
+		VisualVertex[] tile = this.tiles[tileIndex];
+		if (tile == null) {
+			if (visualVertex == null) {
+				return;
+			}
+			tile = new VisualVertex[1 << (2 * TILE_SHIFT)];
+			this.tiles[tileIndex] = tile;
+		}
+
+		int cellIndex = cellIndex(positionX, positionY);
+		VisualVertex previous = tile[cellIndex];
+		tile[cellIndex] = visualVertex;
+
+		if (previous == null && visualVertex != null) {
+			this.tileSizes[tileIndex]++;
+			this.size++;
+		} else if (previous != null && visualVertex == null) {
+			this.size--;
+			// Release the tile once it is empty
+			if (--this.tileSizes[tileIndex] == 0) {
+				this.tiles[tileIndex] = null;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void copyTo(GridStorage target) {
+		for (int tileIndex = 0; tileIndex < this.tiles.length; tileIndex++) {
+			VisualVertex[] tile = this.tiles[tileIndex];
+			if (tile == null) {
+				continue;
+			}
+			int originX = (tileIndex / this.tileRows) << TILE_SHIFT;
+			int originY = (tileIndex % this.tileRows) << TILE_SHIFT;
+			for (int cellIndex = 0; cellIndex < tile.length; cellIndex++) {
+				if (tile[cellIndex] != null) {
+					int positionX = originX + (cellIndex >>> TILE_SHIFT);
+					target.set(positionX, originY + (cellIndex & TILE_MASK), tile[cellIndex]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the tile containing the given position.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @return the index into {@link #tiles}
+	 */
+	private int tileIndex(int positionX, int positionY) {
+		return (positionX >>> TILE_SHIFT) * this.tileRows + (positionY >>> TILE_SHIFT);
+	}
+
+	/**
+	 * Returns the index of the given position within its tile.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @return the index into the tile
+	 */
+	private static int cellIndex(int positionX, int positionY) {
+		return ((positionX & TILE_MASK) << TILE_SHIFT) | (positionY & TILE_MASK);
+	}
+
+}
@@ -0,0 +1,227 @@
+package de.graphioli.model;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class represents a read-only snapshot of a {@link Graph} in compressed
+ * sparse row form. Every {@link Vertex} is mapped to a dense {@code int} id,
+ * and the outgoing (resp. incoming) neighbors of vertex {@code i} are stored in
+ * {@code targets[offsets[i]]} to {@code targets[offsets[i + 1] - 1]} (resp. in
+ * the {@code sources} array). An edge of an undirected graph is stored in both
+ * directions.
+ * 
+ * The arrays returned by this class are shared and must not be modified.
+ * 
+ * @author Team Graphioli
+ */
+public final class CompactGraph {
+
+	/**
+	 * The vertices of the graph, indexed by their id.
+	 */
+	private final Vertex[] vertices;
+
+	/**
+	 * Maps a vertex to its id.
+	 */
+	private final HashMap<Vertex, Integer> ids;
+
+	/**
+	 * Start index of each vertex' outgoing neighbors in {@link #targets}.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Ids of the outgoing neighbors.
+	 */
+	private final int[] targets;
+
+	/**
+	 * The edges belonging to the entries of {@link #targets}.
+	 */
+	private final Edge[] edges;
+
+	/**
+	 * Start index of each vertex' incoming neighbors in {@link #sources}.
+	 */
+	private final int[] inOffsets;
+
+	/**
+	 * Ids of the incoming neighbors.
+	 */
+	private final int[] sources;
+
+	/**
+	 * The modification count of the graph this snapshot was taken from.
+	 */
+	private final int modificationCount;
+
+	/**
+	 * Creates a snapshot of the given {@link Graph}.
+	 * 
+	 * @param graph
+	 *            the graph to take the snapshot of
+	 */
+	CompactGraph(Graph graph) {
+		List<Vertex> vertexList = graph.getVertices();
+		int vertexCount = vertexList.size();
+		int edgeCount = graph.getEdges().size();
+		if (graph.isUndirected()) {
+			edgeCount *= 2;
+		}
+
+		this.modificationCount = graph.getModificationCount();
+		this.vertices = vertexList.toArray(new Vertex[vertexCount]);
+		this.ids = new HashMap<Vertex, Integer>(vertexCount * 2);
+		for (int i = 0; i < vertexCount; i++) {
+			this.ids.put(this.vertices[i], i);
+		}
+
+		this.offsets = new int[vertexCount + 1];
+		this.targets = new int[edgeCount];
+		this.edges = new Edge[edgeCount];
+		this.inOffsets = new int[vertexCount + 1];
+		this.sources = new int[edgeCount];
+
+		int position = 0;
+		int inPosition = 0;
+		for (int i = 0; i < vertexCount; i++) {
+			this.offsets[i] = position;
+			for (Edge edge : this.vertices[i].getOutgoingEdges()) {
+				this.targets[position] = this.ids.get(edge.getOppositeVertex(this.vertices[i]));
+				this.edges[position] = edge;
+				position++;
+			}
+
+			this.inOffsets[i] = inPosition;
+			for (Edge edge : this.vertices[i].getIncomingEdges()) {
+				this.sources[inPosition] = this.ids.get(edge.getOppositeVertex(this.vertices[i]));
+				inPosition++;
+			}
+		}
+		this.offsets[vertexCount] = position;
+		this.inOffsets[vertexCount] = inPosition;
+	}
+
+	/**
+	 * Returns the {@link Edge} at the given position of {@link #getTargets()}.
+	 * 
+	 * @param position
+	 *            the position in the target array
+	 * @return the edge stored at that position
+	 */
+	public Edge getEdge(int position) {
+		return this.edges[position];
+	}
+
+	/**
+	 * Returns the number of edges in this snapshot. The edges of an undirected
+	 * graph are counted in both directions.
+	 * 
+	 * @return the number of edges
+	 */
+	public int getEdgeCount() {
+		return this.targets.length;
+	}
+
+	/**
+	 * Returns the id of the given {@link Vertex}.
+	 * 
+	 * @param vertex
+	 *            the vertex to look up
+	 * @return the id of the vertex, or {@code -1} if it is not in this snapshot
+	 */
+	public int getId(Vertex vertex) {
+		Integer id = this.ids.get(vertex);
+		if (id == null) {
+			return -1;
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the offsets into {@link #getSources()}, one per vertex plus a
+	 * trailing end marker.
+	 * 
+	 * @return the incoming offsets
+	 */
+	public int[] getInOffsets() {
+		return this.inOffsets;
+	}
+
+	/**
+	 * Returns the modification count of the {@link Graph} at the time this
+	 * snapshot was taken.
+	 * 
+	 * @return the modification count
+	 */
+	public int getModificationCount() {
+		return this.modificationCount;
+	}
+
+	/**
+	 * Returns the offsets into {@link #getTargets()}, one per vertex plus a
+	 * trailing end marker.
+	 * 
+	 * @return the outgoing offsets
+	 */
+	public int[] getOffsets() {
+		return this.offsets;
+	}
+
+	/**
+	 * Returns the ids of the incoming neighbors of all vertices.
+	 * 
+	 * @return the source array
+	 */
+	public int[] getSources() {
+		return this.sources;
+	}
+
+	/**
+	 * Returns the ids of the outgoing neighbors of all vertices.
+	 * 
+	 * @return the target array
+	 */
+	public int[] getTargets() {
+		return this.targets;
+	}
+
+	/**
+	 * Returns the {@link Vertex} with the given id.
+	 * 
+	 * @param id
+	 *            the id of the vertex
+	 * @return the vertex with that id
+	 */
+	public Vertex getVertex(int id) {
+		return this.vertices[id];
+	}
+
+	/**
+	 * Returns the number of vertices in this snapshot.
+	 * 
+	 * @return the number of vertices
+	 */
+	public int getVertexCount() {
+		return this.vertices.length;
+	}
+
+	/**
+	 * Returns the weights of the edges, aligned with {@link #getTargets()}.
+	 * Changing a weight does not modify the graph structurally, so the
+	 * weights are read from the edges on every call instead of being cached
+	 * with this snapshot.
+	 * 
+	 * @return a new weight array
+	 */
+	public int[] getWeights() {
+		int[] result = new int[this.edges.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = this.edges[i].getWeight();
+		}
+		return result;
+	}
+
+}
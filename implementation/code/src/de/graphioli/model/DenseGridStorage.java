@@ -0,0 +1,99 @@
+package de.graphioli.model;
+
+/**
+ * This {@link GridStorage} allocates a reference for every grid point up
+ * front. It is the fastest backing and used for small boards.
+ * 
+ * @author Team Graphioli
+ */
+class DenseGridStorage implements GridStorage {
+
+	/**
+	 * Serial UID.
+	 */
+	private static final long serialVersionUID = -3861519623860519447L;
+
+	/**
+	 * The VisualVertices, indexed by x and y coordinate.
+	 */
+	private final VisualVertex[][] cells;
+
+	/**
+	 * The number of occupied positions.
+	 */
+	private int size;
+
+	/**
+	 * Creates a new, empty {@link DenseGridStorage}.
+	 * 
+	 * @param horizontalGridPoints
+	 *            the number of horizontal grid points
+	 * @param verticalGridPoints
+	 *            the number of vertical grid points
+	 */
+	DenseGridStorage(int horizontalGridPoints, int verticalGridPoints) {
+		this.cells = new VisualVertex[horizontalGridPoints][verticalGridPoints];
+	}
+
+	/**
+	 * Creates a new {@link DenseGridStorage} backed by the given array.
+	 * 
+	 * @param cells
+	 *            the VisualVertices, indexed by x and y coordinate
+	 */
+	DenseGridStorage(VisualVertex[][] cells) {
+		this.cells = cells;
+		for (VisualVertex[] column : cells) {
+			for (VisualVertex visualVertex : column) {
+				if (visualVertex != null) {
+					this.size++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VisualVertex get(int positionX, int positionY) {
+		return this.cells[positionX][positionY];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void set(int positionX, int positionY, VisualVertex visualVertex) {
+		VisualVertex previous = this.cells[positionX][positionY];
+		if (previous == null && visualVertex != null) {
+			this.size++;
+		} else if (previous != null && visualVertex == null) {
+			this.size--;
+		}
+		this.cells[positionX][positionY] = visualVertex;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void copyTo(GridStorage target) {
+		for (int x = 0; x < this.cells.length; x++) {
+			for (int y = 0; y < this.cells[x].length; y++) {
+				if (this.cells[x][y] != null) {
+					target.set(x, y, this.cells[x][y]);
+				}
+			}
+		}
+	}
+
+}
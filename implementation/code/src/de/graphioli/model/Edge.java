@@ -29,6 +29,12 @@ public class Edge implements Serializable {
 	 */
 	private int weight;
 
+	/**
+	 * The slot of this edge in the list of edges of its graph. Set by the
+	 * {@link Graph}.
+	 */
+	private transient int slot;
+
 	/**
 	 * Creates a new Edge with the specified Vertices vertexA and vertexB.
 	 * 
@@ -77,6 +83,21 @@ public class Edge implements Serializable {
 		return true;
 	}
 
+	/**
+	 * Returns the endpoint of this edge opposite to the given endpoint. In an
+	 * undirected {@link Graph} this is the way to walk an edge from either end.
+	 * 
+	 * @param vertex
+	 *            one endpoint of this edge
+	 * @return the other endpoint
+	 */
+	public Vertex getOppositeVertex(Vertex vertex) {
+		if (this.originVertex.equals(vertex)) {
+			return this.targetVertex;
+		}
+		return this.originVertex;
+	}
+
 	/**
 	 * Returns the origin Vertex.
 	 * 
@@ -127,4 +148,24 @@ public class Edge implements Serializable {
 		this.weight = weight;
 	}
 
+	/**
+	 * Returns the slot of this edge in the list of edges of its
+	 * {@link Graph}.
+	 * 
+	 * @return the slot number
+	 */
+	int getSlot() {
+		return this.slot;
+	}
+
+	/**
+	 * Sets the slot of this edge in the list of edges of its {@link Graph}.
+	 * 
+	 * @param slot
+	 *            the slot number
+	 */
+	void setSlot(int slot) {
+		this.slot = slot;
+	}
+
 }
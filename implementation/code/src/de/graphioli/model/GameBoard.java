@@ -1,5 +1,9 @@
 package de.graphioli.model;
 
+import de.graphioli.utils.CounterUIDGenerator;
+import de.graphioli.utils.UIDGenerator;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.logging.Logger;
@@ -29,15 +33,44 @@ public class GameBoard implements Serializable {
 	private boolean isDirectedGraph;
 
 	/**
-	 * The {@link Graph} of this GameBoard.
+	 * The {@link Graph} of this GameBoard. Volatile, so readers on other
+	 * threads see a new graph after a {@link #flush()}.
 	 */
-	private Graph graph;
+	private volatile Graph graph;
 
 	/**
 	 * The {@link Grid} of this GameBoard.
 	 */
 	private Grid grid;
 
+	/**
+	 * The generator of IDs scoped to this GameBoard. Not saved, a loaded
+	 * GameBoard continues with a new scope.
+	 */
+	private transient UIDGenerator uidGenerator;
+
+	/**
+	 * The registered {@link GameBoardListener}s. Not serialized.
+	 */
+	private transient ArrayList<GameBoardListener> listeners;
+
+	/**
+	 * The {@link GraphListener}s registered at the graph through this
+	 * GameBoard. Not serialized.
+	 */
+	private transient ArrayList<GraphListener> graphListeners;
+
+	/**
+	 * Nesting depth of running batches. Changes are reported when the
+	 * outermost batch ends.
+	 */
+	private transient int batchDepth;
+
+	/**
+	 * Whether a change happened during the running batch.
+	 */
+	private transient boolean batchChanged;
+
 	/**
 	 * Creates a new {@link GameBoard} with the specified option whether the
 	 * {@link Graph} of the GameBoard is directed or not.
@@ -53,15 +86,16 @@ public class GameBoard implements Serializable {
 
 		// Initialize GameBoard
 		this.isDirectedGraph = isDirectedGraph;
-		this.graph = new Graph();
+		this.graph = new Graph(!isDirectedGraph);
 		this.grid = new Grid(horizontalGridPoints, verticalGridPoints);
 
 	}
 
 	/**
 	 * Adds the given {@link VisualEdge} to the board. If the used graph is
-	 * undirected the opposing edge is also added. If there already is an edge
-	 * present connecting the two vertices, {@code false} is returned.
+	 * undirected the edge connects both vertices in both directions. If there
+	 * already is an edge present connecting the two vertices, {@code false} is
+	 * returned.
 	 * 
 	 * @param vEdge
 	 *            the visual edge to add
@@ -71,27 +105,22 @@ public class GameBoard implements Serializable {
 	public boolean addVisualEdge(VisualEdge vEdge) {
 		if (this.graph.addEdge(vEdge)) {
 			if (!this.isDirectedGraph) {
-				// Undirected
-				VisualEdge twinEdgeToAdd = vEdge.generateOpposedEdge();
-				twinEdgeToAdd.setHasOpposingEdge(false);
-				twinEdgeToAdd.setIsOpposingEdge(true);
-				vEdge.setHasOpposingEdge(true);
+				// Undirected, the single edge has no opposing edge
+				vEdge.setHasOpposingEdge(false);
 				vEdge.setIsOpposingEdge(false);
-				if (!this.graph.addEdge(twinEdgeToAdd)) {
-					LOG.severe("Adding opposing edge failed. Graph inconsistent.");
-					return false;
-				}
 			} else {
 				VisualEdge opEdge = this.getVisualEdge(vEdge.getTargetVertex(), vEdge.getOriginVertex());
 				if (opEdge == null) {
 					vEdge.setHasOpposingEdge(false);
 					vEdge.setIsOpposingEdge(false);
 				} else {
+					vEdge.setHasOpposingEdge(false);
 					vEdge.setIsOpposingEdge(true);
 					opEdge.setHasOpposingEdge(true);
 				}
 
 			}
+			this.changed();
 			return true;
 		} else {
 			return false;
@@ -110,6 +139,7 @@ public class GameBoard implements Serializable {
 		if (this.grid.addVisualVertexToGrid(visualVertex)) {
 			if (this.graph.addVertex(visualVertex)) {
 				LOG.finer("Added VisualVertex at position " + visualVertex.getGridPoint() + ".");
+				this.changed();
 				return true;
 			}
 			this.grid.removeVisualVertexAtGridPoint(visualVertex.getGridPoint());
@@ -119,29 +149,87 @@ public class GameBoard implements Serializable {
 
 	/**
 	 * Adds the given VisualVertices to the {@link Graph} and the {@link Grid}.
+	 * Either all or none of the VisualVertices are added.
 	 * 
 	 * @param visualVertices
 	 *            an ArrayList of the VisualVertices to be added
 	 * @return {@code true} if the adding was successful
 	 */
 	public boolean addVisualVertices(ArrayList<VisualVertex> visualVertices) {
+		BoardTransaction transaction = this.beginTransaction();
 		for (VisualVertex vertex : visualVertices) {
-			if (!this.addVisualVertex(vertex)) {
+			if (!transaction.addVisualVertex(vertex)) {
 				return false;
 			}
 		}
-		return true;
+		return transaction.commit();
+	}
+
+	/**
+	 * Registers a {@link GameBoardListener} to be notified about changes of
+	 * this GameBoard. Listeners are not serialized.
+	 * 
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addGameBoardListener(GameBoardListener listener) {
+		if (this.listeners == null) {
+			this.listeners = new ArrayList<GameBoardListener>();
+		}
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Registers a {@link GraphListener} at the {@link Graph} of this
+	 * GameBoard. Unlike a listener registered at the graph directly, it stays
+	 * registered when the GameBoard is {@link #flush() flushed}. Listeners are
+	 * not serialized.
+	 * 
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addGraphListener(GraphListener listener) {
+		if (this.graphListeners == null) {
+			this.graphListeners = new ArrayList<GraphListener>();
+		}
+		this.graphListeners.add(listener);
+		this.graph.addGraphListener(listener);
+	}
+
+	/**
+	 * Starts a new {@link BoardTransaction} on this GameBoard. Nothing changes
+	 * until the transaction is committed.
+	 * 
+	 * @return the new transaction
+	 */
+	public BoardTransaction beginTransaction() {
+		return new BoardTransaction(this);
 	}
 
 	/**
-	 * Resets this GameBoard to an empty state.
+	 * Resets this GameBoard to an empty state. The listeners registered by
+	 * {@link #addGraphListener(GraphListener)} are notified about the removal
+	 * of every edge and vertex, and move on to the new graph.
 	 */
 	public void flush() {
-		this.graph = new Graph();
-		int horizontalGridPoints = this.grid.getHorizontalGridPoints();
-		int verticalGridPoints = this.grid.getVerticalGridPoints();
-		this.grid = new Grid(horizontalGridPoints, verticalGridPoints);
+		Graph oldGraph = this.graph;
+		this.graph = new Graph(!this.isDirectedGraph);
+		if (this.graphListeners != null) {
+			for (GraphListener listener : this.graphListeners) {
+				oldGraph.removeGraphListener(listener);
+				this.graph.addGraphListener(listener);
+				for (Edge edge : oldGraph.getEdges()) {
+					listener.onEdgeRemoved(edge);
+				}
+				for (Vertex vertex : oldGraph.getVertices()) {
+					listener.onVertexRemoved(vertex);
+				}
+			}
+		}
+		oldGraph.release();
+		this.grid.clear();
 		LOG.fine("GameBoard flushed.");
+		this.changed();
 	}
 
 	/**
@@ -153,6 +241,22 @@ public class GameBoard implements Serializable {
 		return this.graph;
 	}
 
+	/**
+	 * Returns the generator of IDs scoped to this GameBoard. It counts
+	 * atomically and is installed by the
+	 * {@link de.graphioli.controller.GameManager GameManager} as the global
+	 * generator of {@link de.graphioli.utils.UIDManager UIDManager} while
+	 * this GameBoard is played, see there.
+	 * 
+	 * @return the UIDGenerator of this GameBoard
+	 */
+	public UIDGenerator getUIDGenerator() {
+		if (this.uidGenerator == null) {
+			this.uidGenerator = new CounterUIDGenerator();
+		}
+		return this.uidGenerator;
+	}
+
 	/**
 	 * Returns the {@link Grid} of this GameBoard.
 	 * 
@@ -162,30 +266,31 @@ public class GameBoard implements Serializable {
 		return this.grid;
 	}
 
+	/**
+	 * Returns an immutable {@link GraphSnapshot} of the current {@link Graph}
+	 * of this GameBoard. Unlike the graph itself, the snapshot may be iterated
+	 * on another thread, e.g. for rendering, while the game changes the board.
+	 * 
+	 * @return the snapshot of the graph
+	 */
+	public GraphSnapshot getSnapshot() {
+		return this.graph.getSnapshot();
+	}
+
 	/**
 	 * Returns the {@link VisualEdge} with vertexA as origin and vertexB as
-	 * target vertex In an undirected graph, it returns the one which is not
-	 * flagged eas opposing.
+	 * target vertex. In an undirected graph, it returns the edge connecting
+	 * both vertices, whatever its direction.
 	 * 
 	 * @param vertexA
 	 *            the origin vertex of the edge to get
 	 * @param vertexB
 	 *            the target vertex of the edge to get
 	 * @return the edge from vertexA to vertexB (resp. in an undirected graph,
-	 *         the not-opposing one.
+	 *         the edge between them).
 	 */
 	public VisualEdge getVisualEdge(VisualVertex vertexA, VisualVertex vertexB) {
-		VisualEdge edge = (VisualEdge) this.graph.getEdge(vertexA, vertexB);
-		
-		if (edge == null) {
-			return null;
-		}
-		
-		if (this.isDirectedGraph || !edge.isOpposingEdge()) {
-			return edge;
-		} else {
-			return (VisualEdge) this.graph.getEdge(vertexB, vertexA);
-		}
+		return (VisualEdge) this.graph.getEdge(vertexA, vertexB);
 	}
 
 	/**
@@ -207,28 +312,27 @@ public class GameBoard implements Serializable {
 	 * @return {@code true} if the removing was successful
 	 */
 	public boolean removeVisualEdge(VisualEdge visualEdge) {
+		if (!this.isDirectedGraph) {
+			// Undirected, the edge may be given in either direction
+			if (!this.graph.removeEdge(visualEdge)) {
+				return false;
+			}
+			this.changed();
+			return true;
+		}
+
 		if (this.graph.removeEdge(visualEdge)) {
-			if (!this.isDirectedGraph) {
-				// Undirected
-				Edge twinEdge = this.graph.getEdge(visualEdge.getTargetVertex(), visualEdge.getOriginVertex());
-				if (this.graph.removeEdge(twinEdge)) {
-					return true;
-				} else {
-					this.graph.addEdge(visualEdge);
-					return false;
-				}
-			} else {
-				if (visualEdge.hasOpposingEdge()) {
-					VisualEdge twinEdge = (VisualEdge) this.graph.getEdge(visualEdge.getTargetVertex(),
-							visualEdge.getOriginVertex());
-					twinEdge.setIsOpposingEdge(false);
-				}
-				if (visualEdge.isOpposingEdge()) {
-					VisualEdge twinEdge = (VisualEdge) this.graph.getEdge(visualEdge.getTargetVertex(),
-							visualEdge.getOriginVertex());
-					twinEdge.setHasOpposingEdge(false);
-				}
+			if (visualEdge.hasOpposingEdge()) {
+				VisualEdge twinEdge = (VisualEdge) this.graph.getEdge(visualEdge.getTargetVertex(),
+						visualEdge.getOriginVertex());
+				twinEdge.setIsOpposingEdge(false);
 			}
+			if (visualEdge.isOpposingEdge()) {
+				VisualEdge twinEdge = (VisualEdge) this.graph.getEdge(visualEdge.getTargetVertex(),
+						visualEdge.getOriginVertex());
+				twinEdge.setHasOpposingEdge(false);
+			}
+			this.changed();
 			return true;
 		}
 		return false;
@@ -246,6 +350,7 @@ public class GameBoard implements Serializable {
 		if (this.grid.removeVisualVertexAtGridPoint(visualVertex.getGridPoint())) {
 			if (this.graph.removeVertex(visualVertex)) {
 				LOG.finer("Removed VisualVertex from position " + visualVertex.getGridPoint() + ".");
+				this.changed();
 				return true;
 			}
 			// Removing failed, add to grid again.
@@ -254,4 +359,95 @@ public class GameBoard implements Serializable {
 		return false;
 	}
 
+	/**
+	 * Unregisters a {@link GraphListener} registered by
+	 * {@link #addGraphListener(GraphListener)}.
+	 * 
+	 * @param listener
+	 *            the listener to remove
+	 * @return {@code true} if the listener was registered
+	 */
+	public boolean removeGraphListener(GraphListener listener) {
+		if (this.graphListeners == null || !this.graphListeners.remove(listener)) {
+			return false;
+		}
+		this.graph.removeGraphListener(listener);
+		return true;
+	}
+
+	/**
+	 * Unregisters a {@link GameBoardListener}.
+	 * 
+	 * @param listener
+	 *            the listener to remove
+	 * @return {@code true} if the listener was registered
+	 */
+	public boolean removeGameBoardListener(GameBoardListener listener) {
+		return this.listeners != null && this.listeners.remove(listener);
+	}
+
+	/**
+	 * Starts a batch, during which changes are not reported individually.
+	 */
+	void beginBatch() {
+		this.batchDepth++;
+	}
+
+	/**
+	 * Ends a batch. When the outermost batch ends, the listeners are notified
+	 * once if anything changed.
+	 */
+	void endBatch() {
+		if (--this.batchDepth == 0 && this.batchChanged) {
+			this.batchChanged = false;
+			this.fireGameBoardChanged();
+		}
+	}
+
+	/**
+	 * Records a change, which is reported now or at the end of the running
+	 * batch.
+	 */
+	private void changed() {
+		if (this.batchDepth > 0) {
+			this.batchChanged = true;
+		} else {
+			this.fireGameBoardChanged();
+		}
+	}
+
+	/**
+	 * Notifies the listeners about a change.
+	 */
+	private void fireGameBoardChanged() {
+		if (this.listeners != null) {
+			for (int i = 0; i < this.listeners.size(); i++) {
+				this.listeners.get(i).onGameBoardChanged(this);
+			}
+		}
+	}
+
+	/**
+	 * Reads this GameBoard from a savegame. Undirected boards saved with two
+	 * opposing edges per connection are converted to a single edge each.
+	 * 
+	 * @param in
+	 *            the stream to read from
+	 * @throws IOException
+	 *             if reading fails
+	 * @throws ClassNotFoundException
+	 *             if a serialized class cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (!this.isDirectedGraph && !this.graph.isUndirected()) {
+			int dropped = this.graph.convertToUndirected();
+			for (Edge edge : this.graph.getEdges()) {
+				((VisualEdge) edge).setHasOpposingEdge(false);
+				((VisualEdge) edge).setIsOpposingEdge(false);
+			}
+			LOG.fine("Converted undirected savegame, dropped " + dropped + " opposing edges.");
+		}
+	}
+
 }
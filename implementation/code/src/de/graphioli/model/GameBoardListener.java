@@ -0,0 +1,22 @@
+package de.graphioli.model;
+
+/**
+ * The GameBoardListener interface defines the callback a {@link GameBoard}
+ * uses to report that its contents changed, e.g. to trigger a repaint. A
+ * committed {@link BoardTransaction} is reported once, no matter how many
+ * changes it contains.
+ * 
+ * @author Team Graphioli
+ */
+public interface GameBoardListener {
+
+	/**
+	 * Called after VisualVertices or VisualEdges were added to or removed from
+	 * the game board.
+	 * 
+	 * @param gameBoard
+	 *            the changed game board
+	 */
+	void onGameBoardChanged(GameBoard gameBoard);
+
+}
@@ -2,9 +2,13 @@ package de.graphioli.model;
 
 import de.graphioli.gameexplorer.GameDefinition;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 
 /**
  * This serializable class represents a GameCapsule that holds all the important
@@ -109,4 +113,30 @@ public class GameCapsule implements Serializable {
 	public ArrayList<Player> getPlayers() {
 		return this.players;
 	}
+
+	/**
+	 * Reads this capsule from a savegame. Vertices of savegames written before
+	 * the compact vertex ID are migrated while they are read, so the IDs are
+	 * checked for uniqueness afterwards.
+	 * 
+	 * @param in
+	 *            the stream to read from
+	 * @throws IOException
+	 *             if reading fails or two vertices share an ID
+	 * @throws ClassNotFoundException
+	 *             if a serialized class cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (this.board == null) {
+			return;
+		}
+		HashSet<Long> ids = new HashSet<Long>();
+		for (Vertex vertex : this.board.getGraph().getVertices()) {
+			if (!ids.add(vertex.getID())) {
+				throw new InvalidObjectException("Duplicate vertex ID " + vertex.getID());
+			}
+		}
+	}
+
 }
@@ -1,12 +1,23 @@
 package de.graphioli.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.logging.Logger;
 
 /**
- * This class represents the logical graph.
+ * This class represents the logical graph. A graph is either directed or
+ * undirected. In an undirected graph each connection is a single {@link Edge},
+ * which is listed as incoming and outgoing edge of both of its vertices.
+ * 
+ * The vertices and edges are kept in {@link PersistentList}s, so readers on
+ * other threads can take an immutable {@link GraphSnapshot} with
+ * {@link #getSnapshot()} and iterate it while the graph is modified. The graph
+ * itself must only be modified by one thread at a time.
  * 
  * @author Team Graphioli
  */
@@ -19,21 +30,121 @@ public class Graph implements Serializable {
 
 	private static final Logger LOG = Logger.getLogger(Graph.class.getName());
 
-	private final List<Vertex> vertexList;
-	private final List<Edge> edgeList;
+	/**
+	 * Number of empty slots tolerated in a list before it is compacted.
+	 */
+	private static final int COMPACTION_SLACK = 32;
 
 	/**
-	 * Creates a new, empty {link Graph}.
+	 * Ordered list of the vertices, only filled when serializing. Kept as
+	 * serialized field for savegame compatibility.
+	 */
+	private List<Vertex> vertexList;
+
+	/**
+	 * Ordered list of the edges, only filled when serializing. Kept as
+	 * serialized field for savegame compatibility.
+	 */
+	private List<Edge> edgeList;
+
+	/**
+	 * Whether this graph is undirected. Savegames written before this field
+	 * existed load as directed.
+	 */
+	private boolean undirected;
+
+	/**
+	 * The vertices, in insertion order.
+	 */
+	private transient PersistentList<Vertex> vertices;
+
+	/**
+	 * The edges, in insertion order.
+	 */
+	private transient PersistentList<Edge> edges;
+
+	/**
+	 * Index of the vertices, keyed on themselves.
+	 */
+	private transient HashMap<Vertex, Vertex> vertexIndex;
+
+	/**
+	 * Index of the edges, keyed on their origin/target pair.
+	 */
+	private transient HashMap<Edge, Edge> edgeIndex;
+
+	/**
+	 * The snapshot of the current state, {@code null} if the graph was
+	 * modified since it was taken. Guarded by {@link #lock}.
+	 */
+	private transient GraphSnapshot snapshot;
+
+	/**
+	 * The edit token of the lists, replaced whenever a snapshot is taken, so
+	 * the arrays shared with a snapshot are never changed in place.
+	 */
+	private transient Object edit;
+
+	/**
+	 * Guards changes of the lists against taking a snapshot.
+	 */
+	private transient Object lock;
+
+	/**
+	 * Number of structural modifications of this graph.
+	 */
+	private transient int modificationCount;
+
+	/**
+	 * Cached compact snapshot, valid while its modification count matches.
+	 */
+	private transient CompactGraph compactGraph;
+
+	/**
+	 * The registered {@link GraphListener}s. Not serialized.
+	 */
+	private transient ArrayList<GraphListener> listeners;
+
+	/**
+	 * Creates a new, empty, directed {link Graph}.
 	 */
 	public Graph() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new, empty {link Graph}.
+	 * 
+	 * @param undirected
+	 *            whether the graph is undirected
+	 */
+	public Graph(boolean undirected) {
+		this.undirected = undirected;
 		this.vertexList = new ArrayList<Vertex>();
 		this.edgeList = new ArrayList<Edge>();
+		this.initializeIndexes();
+	}
+
+	/**
+	 * Registers a {@link GraphListener} to be notified about changes of this
+	 * graph. Listeners are not serialized.
+	 * 
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addGraphListener(GraphListener listener) {
+		if (this.listeners == null) {
+			this.listeners = new ArrayList<GraphListener>();
+		}
+		this.listeners.add(listener);
 	}
 
 	/**
 	 * Adds the given {@link Edge} to this graph. An edge can only be added, if
 	 * both of its vertices are already in the graph but the edge does not yet
-	 * exist. Also the target and origin vertices must not be the same.
+	 * exist. Also the target and origin vertices must not be the same. In an
+	 * undirected graph the edge must not exist in either direction. Vertices
+	 * of another graph with the same IDs are rejected.
 	 * 
 	 * @param edge
 	 *            the edge to add
@@ -45,16 +156,16 @@ public class Graph implements Serializable {
 			return false;
 		}
 
-		if (!(this.vertexList.contains(edge.getOriginVertex()) && this.vertexList.contains(edge.getTargetVertex()))) {
+		if (edge.getOriginVertex().getGraph() != this || edge.getTargetVertex().getGraph() != this) {
 			return false;
 		}
 
-		if (this.edgeList.contains(edge)) {
+		if (this.findEdge(edge) != null) {
 			return false;
 		} else {
-			this.edgeList.add(edge);
-			edge.getOriginVertex().addOutgoingEdge(edge);
-			edge.getTargetVertex().addIncomingEdge(edge);
+			this.appendEdge(edge);
+			this.attachEdge(edge);
+			this.fireEdgeAdded(edge);
 			return true;
 		}
 	}
@@ -62,7 +173,8 @@ public class Graph implements Serializable {
 	/**
 	 * Adds the given {@link Vertex} to this graph. An edge can only be added,
 	 * if it is not contained in this graph already and its lists of outgoing
-	 * and incoming edges are empty.
+	 * and incoming edges are empty. A vertex can only be part of one graph at
+	 * a time, as it stores its slot in that graph.
 	 * 
 	 * @param vertex
 	 *            the vertex to add
@@ -70,18 +182,59 @@ public class Graph implements Serializable {
 	 */
 
 	public boolean addVertex(Vertex vertex) {
-		if (this.vertexList.contains(vertex)) {
+		if (this.containsVertex(vertex) || vertex.getGraph() != null) {
 			return false;
 		}
 
 		if (vertex.getIncomingEdges().size() == 0 && vertex.getOutgoingEdges().size() == 0) {
-			this.vertexList.add(vertex);
+			this.appendVertex(vertex);
+			vertex.setGraph(this);
+			this.fireVertexAdded(vertex);
 			return true;
 		} else {
 			return false;
 		}
 	}
 
+	/**
+	 * Checks whether the given {@link Edge} is part of this graph.
+	 * 
+	 * @param edge
+	 *            the edge to look for
+	 * @return {@code true} if an edge with the same origin and target is in
+	 *         this graph, or in an undirected graph one with swapped origin and
+	 *         target
+	 */
+	public boolean containsEdge(Edge edge) {
+		return edge != null && this.findEdge(edge) != null;
+	}
+
+	/**
+	 * Checks whether the given {@link Vertex} is part of this graph.
+	 * 
+	 * @param vertex
+	 *            the vertex to look for
+	 * @return {@code true} if a vertex with the same ID is in this graph
+	 */
+	public boolean containsVertex(Vertex vertex) {
+		return vertex != null && this.vertexIndex.containsKey(vertex);
+	}
+
+	/**
+	 * Returns a {@link CompactGraph} snapshot of this graph. The snapshot is
+	 * cached and only rebuilt after this graph was modified.
+	 * 
+	 * @return the compact snapshot of the current state of this graph
+	 */
+	public CompactGraph getCompactGraph() {
+		CompactGraph snapshot = this.compactGraph;
+		if (snapshot == null || snapshot.getModificationCount() != this.modificationCount) {
+			snapshot = new CompactGraph(this);
+			this.compactGraph = snapshot;
+		}
+		return snapshot;
+	}
+
 	/**
 	 * Returns the {@link Edge} between two given vertices.
 	 * 
@@ -93,47 +246,123 @@ public class Graph implements Serializable {
 	 *         <code>null</code>/
 	 */
 	public Edge getEdge(Vertex origin, Vertex target) {
-		for (Edge edge : origin.getOutgoingEdges()) {
-			if (edge.getTargetVertex().equals(target)) {
-				return edge;
+		return origin.getOutgoingEdgeTo(target);
+	}
+
+	/**
+	 * Returns the edges of the current {@link #getSnapshot() snapshot}. The
+	 * list cannot be modified and does not change when this graph does.
+	 * 
+	 * @return the list of {@link Edge}s in this {@code Graph}.
+	 */
+	public List<Edge> getEdges() {
+		return this.getSnapshot().getEdges();
+	}
+
+	/**
+	 * Returns the first registered {@link GraphListener} of the given class.
+	 * Lets a helper that listens to this graph, e.g. an index, be owned and
+	 * found by the graph instead of a global cache.
+	 * 
+	 * @param type
+	 *            the class of the listener
+	 * @param <T>
+	 *            the type of the listener
+	 * @return the listener, or {@code null} if none of the class is registered
+	 */
+	public <T extends GraphListener> T getGraphListener(Class<T> type) {
+		if (this.listeners != null) {
+			for (int i = 0; i < this.listeners.size(); i++) {
+				GraphListener listener = this.listeners.get(i);
+				if (listener.getClass() == type) {
+					return type.cast(listener);
+				}
 			}
 		}
 		return null;
 	}
 
 	/**
-	 * @return the list of {@link Edge}s in this {@code Graph}.
+	 * Returns the number of structural modifications (vertices or edges added
+	 * or removed) since this graph was created or loaded. Removing a vertex
+	 * counts the removal of each of its edges as well.
+	 * 
+	 * @return the modification count
 	 */
-	public List<Edge> getEdges() {
-		return this.edgeList;
+	public int getModificationCount() {
+		return this.modificationCount;
 	}
 
 	/**
+	 * Returns an immutable {@link GraphSnapshot} of the current structure of
+	 * this graph in constant time. Nothing is copied when taking the
+	 * snapshot; instead the next modifications of this graph copy the arrays
+	 * they change once. It is safe to call this method and to use the
+	 * snapshot from any thread.
+	 * 
+	 * @return the snapshot
+	 */
+	public GraphSnapshot getSnapshot() {
+		synchronized (this.lock) {
+			if (this.snapshot == null) {
+				this.snapshot = new GraphSnapshot(this.vertices, this.edges, this.undirected,
+						this.modificationCount);
+				this.edit = new Object();
+			}
+			return this.snapshot;
+		}
+	}
+
+	/**
+	 * Returns the vertices of the current {@link #getSnapshot() snapshot}. The
+	 * list cannot be modified and does not change when this graph does.
+	 * 
 	 * @return the list of vertices in this {@code Graph}.
 	 */
 	public List<Vertex> getVertices() {
-		return this.vertexList;
+		return this.getSnapshot().getVertices();
+	}
+
+	/**
+	 * Returns whether this graph is undirected.
+	 * 
+	 * @return {@code true} if this graph is undirected
+	 */
+	public boolean isUndirected() {
+		return this.undirected;
 	}
 
 	/**
-	 * Removes a {@link Edge} from this grapht.
+	 * Unregisters a {@link GraphListener}.
+	 * 
+	 * @param listener
+	 *            the listener to remove
+	 * @return {@code true} if the listener was registered
+	 */
+	public boolean removeGraphListener(GraphListener listener) {
+		return this.listeners != null && this.listeners.remove(listener);
+	}
+
+	/**
+	 * Removes a {@link Edge} from this grapht. In an undirected graph the edge
+	 * may also be given with swapped origin and target.
 	 * 
 	 * @param edge
 	 *            the edge to remove
 	 * @return {@code true} if the edge was in this graph
 	 */
 	public boolean removeEdge(Edge edge) {
-		int index = this.edgeList.indexOf(edge);
-
-		if (index == -1) {
-			// Edge not in list
+		Edge storedEdge = edge == null ? null : this.findEdge(edge);
+		if (storedEdge == null) {
+			// Edge not in graph
 			return false;
 		} else {
-			this.edgeList.remove(index);
+			this.removeEdgeSlot(storedEdge);
 
-			if (!edge.getOriginVertex().removeOutgoingEdge(edge) | !edge.getTargetVertex().removeIncomingEdge(edge)) {
+			if (!this.detachEdge(storedEdge)) {
 				LOG.severe("Graph inconsistency in removeEdge method!");
 			}
+			this.fireEdgeRemoved(storedEdge);
 			return true;
 		}
 	}
@@ -147,29 +376,401 @@ public class Graph implements Serializable {
 	 * @return {@code true} if the vertex was in this graph
 	 */
 	public boolean removeVertex(Vertex vertex) {
-		int index = this.vertexList.indexOf(vertex);
-
-		if (index == -1) {
-			// Vertex not in list
+		if (!this.containsVertex(vertex)) {
+			// Vertex not in graph
 			return false;
 		} else {
+			if (this.undirected) {
+				return this.removeUndirectedVertex(vertex);
+			}
 
 			// Remove edges connected to it
 			for (Edge edge : vertex.getIncomingEdges()) {
-				if (!this.edgeList.remove(edge) | !edge.getOriginVertex().removeOutgoingEdge(edge)) {
+				if (!this.removeEdgeSlot(edge) | !edge.getOriginVertex().removeOutgoingEdge(edge)) {
 					LOG.severe("Graph inconsistency in removeVertex method! (Incoming edge already removed)");
 				}
 			}
 
 			for (Edge edge : vertex.getOutgoingEdges()) {
-				if (!this.edgeList.remove(edge) | !edge.getTargetVertex().removeIncomingEdge(edge)) {
+				if (!this.removeEdgeSlot(edge) | !edge.getTargetVertex().removeIncomingEdge(edge)) {
 					LOG.severe("Graph inconsistency in removeVertex method! (Outgoing edge already removed)");
 				}
 			}
 
-			this.vertexList.remove(index);
+			this.removeVertexSlot(vertex);
+
+			if (this.listeners != null) {
+				for (Edge edge : vertex.getIncomingEdges()) {
+					this.fireEdgeRemoved(edge);
+				}
+				for (Edge edge : vertex.getOutgoingEdges()) {
+					this.fireEdgeRemoved(edge);
+				}
+				this.fireVertexRemoved(vertex);
+			}
+			this.releaseVertex(vertex);
 			return true;
 		}
 	}
 
+	/**
+	 * Turns this directed graph into an undirected one. Of each pair of
+	 * opposing edges only the one added first is kept, the other one is
+	 * dropped. Used to load savegames of undirected boards, which stored each
+	 * connection as two opposing edges.
+	 * 
+	 * @return the number of dropped edges
+	 */
+	int convertToUndirected() {
+		int droppedEdges = 0;
+		if (this.undirected) {
+			return droppedEdges;
+		}
+
+		List<Edge> edges = new ArrayList<Edge>(this.getEdges());
+		for (Edge edge : edges) {
+			this.detachEdge(edge);
+		}
+		synchronized (this.lock) {
+			this.undirected = true;
+			this.edgeIndex.clear();
+			this.edges = PersistentList.empty();
+			this.snapshot = null;
+		}
+		for (Edge edge : edges) {
+			if (this.findEdge(edge) == null) {
+				this.appendEdge(edge);
+				this.attachEdge(edge);
+			} else {
+				droppedEdges++;
+			}
+		}
+		return droppedEdges;
+	}
+
+	/**
+	 * Reports a change of the visual state of the given {@link Edge} of this
+	 * graph to the listeners.
+	 * 
+	 * @param edge
+	 *            the changed edge
+	 */
+	void edgeChanged(Edge edge) {
+		if (this.listeners != null) {
+			for (int i = 0; i < this.listeners.size(); i++) {
+				this.listeners.get(i).onEdgeChanged(edge);
+			}
+		}
+	}
+
+	/**
+	 * Detaches all vertices from this graph when it is discarded, dropping
+	 * their edges, so they can be added to another graph.
+	 */
+	void release() {
+		for (Vertex vertex : this.vertices) {
+			this.releaseVertex(vertex);
+		}
+	}
+
+	/**
+	 * Reports a change of the visual state of the given {@link Vertex} of this
+	 * graph to the listeners.
+	 * 
+	 * @param vertex
+	 *            the changed vertex
+	 */
+	void vertexChanged(Vertex vertex) {
+		if (this.listeners != null) {
+			for (int i = 0; i < this.listeners.size(); i++) {
+				this.listeners.get(i).onVertexChanged(vertex);
+			}
+		}
+	}
+
+	/**
+	 * Appends the given {@link Edge} to the list of edges.
+	 * 
+	 * @param edge
+	 *            the edge to append, which is not in the list
+	 */
+	private void appendEdge(Edge edge) {
+		this.edgeIndex.put(edge, edge);
+		edge.setSlot(this.edges.getSlotCount());
+		synchronized (this.lock) {
+			this.edges = this.edges.append(edge, this.edit);
+			this.modificationCount++;
+			this.snapshot = null;
+		}
+	}
+
+	/**
+	 * Appends the given {@link Vertex} to the list of vertices.
+	 * 
+	 * @param vertex
+	 *            the vertex to append, which is not in the list
+	 */
+	private void appendVertex(Vertex vertex) {
+		this.vertexIndex.put(vertex, vertex);
+		vertex.setSlot(this.vertices.getSlotCount());
+		synchronized (this.lock) {
+			this.vertices = this.vertices.append(vertex, this.edit);
+			this.modificationCount++;
+			this.snapshot = null;
+		}
+	}
+
+	/**
+	 * Registers the given {@link Edge} at its vertices. In an undirected graph
+	 * it is registered as incoming and outgoing edge at both of them.
+	 * 
+	 * @param edge
+	 *            the edge to register
+	 */
+	private void attachEdge(Edge edge) {
+		edge.getOriginVertex().addOutgoingEdge(edge);
+		edge.getTargetVertex().addIncomingEdge(edge);
+		if (this.undirected) {
+			edge.getOriginVertex().addIncomingEdge(edge);
+			edge.getTargetVertex().addOutgoingEdge(edge);
+		}
+	}
+
+	/**
+	 * Unregisters the given {@link Edge} from its vertices.
+	 * 
+	 * @param edge
+	 *            the edge to unregister
+	 * @return {@code true} if the edge was registered at all places
+	 */
+	private boolean detachEdge(Edge edge) {
+		boolean consistent = edge.getOriginVertex().removeOutgoingEdge(edge)
+				& edge.getTargetVertex().removeIncomingEdge(edge);
+		if (this.undirected) {
+			consistent &= edge.getOriginVertex().removeIncomingEdge(edge)
+					& edge.getTargetVertex().removeOutgoingEdge(edge);
+		}
+		return consistent;
+	}
+
+	/**
+	 * Returns the {@link Edge} of this graph equal to the given one. In an
+	 * undirected graph an edge with swapped origin and target is found as
+	 * well.
+	 * 
+	 * @param edge
+	 *            the edge to look for
+	 * @return the edge of this graph, or {@code null} if there is none
+	 */
+	private Edge findEdge(Edge edge) {
+		Edge storedEdge = this.edgeIndex.get(edge);
+		if (storedEdge == null && this.undirected) {
+			storedEdge = edge.getTargetVertex().getOutgoingEdgeTo(edge.getOriginVertex());
+			if (storedEdge != null && this.edgeIndex.get(storedEdge) != storedEdge) {
+				return null;
+			}
+		}
+		return storedEdge;
+	}
+
+	/**
+	 * Creates empty lists and indexes of vertices and edges.
+	 */
+	private void initializeIndexes() {
+		this.lock = new Object();
+		this.edit = new Object();
+		this.vertices = PersistentList.empty();
+		this.edges = PersistentList.empty();
+		this.vertexIndex = new HashMap<Vertex, Vertex>();
+		this.edgeIndex = new HashMap<Edge, Edge>();
+	}
+
+	/**
+	 * Detaches a removed {@link Vertex} from this graph, unless it was added
+	 * to another graph meanwhile. Its edges are dropped, so it can be added
+	 * again later.
+	 * 
+	 * @param vertex
+	 *            the removed vertex
+	 */
+	private void releaseVertex(Vertex vertex) {
+		if (vertex.getGraph() == this) {
+			vertex.setGraph(null);
+			vertex.clearEdges();
+		}
+	}
+
+	/**
+	 * Removes a {@link Vertex} of this undirected graph including all edges
+	 * connected to it. Each connected edge is listed once, as outgoing edge.
+	 * 
+	 * @param vertex
+	 *            the vertex to remove, which is in this graph
+	 * @return {@code true}
+	 */
+	private boolean removeUndirectedVertex(Vertex vertex) {
+		for (Edge edge : vertex.getOutgoingEdges()) {
+			Vertex neighbor = edge.getOppositeVertex(vertex);
+			if (!this.removeEdgeSlot(edge) | !neighbor.removeOutgoingEdge(edge)
+					| !neighbor.removeIncomingEdge(edge)) {
+				LOG.severe("Graph inconsistency in removeVertex method! (Edge already removed)");
+			}
+		}
+
+		this.removeVertexSlot(vertex);
+
+		if (this.listeners != null) {
+			for (Edge edge : vertex.getOutgoingEdges()) {
+				this.fireEdgeRemoved(edge);
+			}
+			this.fireVertexRemoved(vertex);
+		}
+		this.releaseVertex(vertex);
+		return true;
+	}
+
+	/**
+	 * Removes the given {@link Edge} from the list of edges. The list is
+	 * compacted when more than half of its slots are empty.
+	 * 
+	 * @param edge
+	 *            the edge to remove
+	 * @return {@code true} if the edge was in the list
+	 */
+	private boolean removeEdgeSlot(Edge edge) {
+		Edge storedEdge = this.edgeIndex.remove(edge);
+		if (storedEdge == null) {
+			return false;
+		}
+		synchronized (this.lock) {
+			this.edges = this.edges.remove(storedEdge.getSlot(), this.edit);
+			if (this.edges.getSlotCount() > COMPACTION_SLACK + 2 * this.edges.size()) {
+				this.edges = this.edges.compact(this.edit);
+				int slot = 0;
+				for (Edge element : this.edges) {
+					element.setSlot(slot++);
+				}
+			}
+			this.modificationCount++;
+			this.snapshot = null;
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the given {@link Vertex} from the list of vertices. The list is
+	 * compacted when more than half of its slots are empty.
+	 * 
+	 * @param vertex
+	 *            the vertex to remove, which is in the list
+	 */
+	private void removeVertexSlot(Vertex vertex) {
+		Vertex storedVertex = this.vertexIndex.remove(vertex);
+		synchronized (this.lock) {
+			this.vertices = this.vertices.remove(storedVertex.getSlot(), this.edit);
+			if (this.vertices.getSlotCount() > COMPACTION_SLACK + 2 * this.vertices.size()) {
+				this.vertices = this.vertices.compact(this.edit);
+				int slot = 0;
+				for (Vertex element : this.vertices) {
+					element.setSlot(slot++);
+				}
+			}
+			this.modificationCount++;
+			this.snapshot = null;
+		}
+	}
+
+	/**
+	 * Notifies the listeners about an added edge.
+	 * 
+	 * @param edge
+	 *            the added edge
+	 */
+	private void fireEdgeAdded(Edge edge) {
+		if (this.listeners != null) {
+			for (int i = 0; i < this.listeners.size(); i++) {
+				this.listeners.get(i).onEdgeAdded(edge);
+			}
+		}
+	}
+
+	/**
+	 * Notifies the listeners about a removed edge.
+	 * 
+	 * @param edge
+	 *            the removed edge
+	 */
+	private void fireEdgeRemoved(Edge edge) {
+		if (this.listeners != null) {
+			for (int i = 0; i < this.listeners.size(); i++) {
+				this.listeners.get(i).onEdgeRemoved(edge);
+			}
+		}
+	}
+
+	/**
+	 * Notifies the listeners about an added vertex.
+	 * 
+	 * @param vertex
+	 *            the added vertex
+	 */
+	private void fireVertexAdded(Vertex vertex) {
+		if (this.listeners != null) {
+			for (int i = 0; i < this.listeners.size(); i++) {
+				this.listeners.get(i).onVertexAdded(vertex);
+			}
+		}
+	}
+
+	/**
+	 * Notifies the listeners about a removed vertex.
+	 * 
+	 * @param vertex
+	 *            the removed vertex
+	 */
+	private void fireVertexRemoved(Vertex vertex) {
+		if (this.listeners != null) {
+			for (int i = 0; i < this.listeners.size(); i++) {
+				this.listeners.get(i).onVertexRemoved(vertex);
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the transient indexes from the serialized lists.
+	 * 
+	 * @param in
+	 *            the stream to read from
+	 * @throws IOException
+	 *             if reading fails
+	 * @throws ClassNotFoundException
+	 *             if a serialized class cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.initializeIndexes();
+		for (Vertex vertex : this.vertexList) {
+			this.appendVertex(vertex);
+			vertex.setGraph(this);
+		}
+		for (Edge edge : this.edgeList) {
+			this.appendEdge(edge);
+		}
+		this.modificationCount = 0;
+	}
+
+	/**
+	 * Brings the lists up to date before they are serialized.
+	 * 
+	 * @param out
+	 *            the stream to write to
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		this.vertexList = this.vertices.toArrayList();
+		this.edgeList = this.edges.toArrayList();
+		out.defaultWriteObject();
+	}
+
 }
@@ -0,0 +1,165 @@
+package de.graphioli.model;
+
+/**
+ * This class represents a single change of a {@link Graph}, as recorded by a
+ * {@link GraphJournal}. An event refers either to a {@link Vertex} or to an
+ * {@link Edge}, depending on its {@link Type}.
+ * 
+ * @author Team Graphioli
+ */
+public final class GraphEvent {
+
+	/**
+	 * The kinds of changes.
+	 */
+	public enum Type {
+
+		/**
+		 * A vertex was added.
+		 */
+		VERTEX_ADDED,
+
+		/**
+		 * A vertex was removed.
+		 */
+		VERTEX_REMOVED,
+
+		/**
+		 * The visual state of a vertex changed.
+		 */
+		VERTEX_CHANGED,
+
+		/**
+		 * An edge was added.
+		 */
+		EDGE_ADDED,
+
+		/**
+		 * An edge was removed.
+		 */
+		EDGE_REMOVED,
+
+		/**
+		 * The visual state of an edge changed.
+		 */
+		EDGE_CHANGED
+	}
+
+	/**
+	 * The kind of this change.
+	 */
+	private final Type type;
+
+	/**
+	 * The changed vertex, {@code null} for edge events.
+	 */
+	private final Vertex vertex;
+
+	/**
+	 * The changed edge, {@code null} for vertex events.
+	 */
+	private final Edge edge;
+
+	/**
+	 * Creates a new vertex event.
+	 * 
+	 * @param type
+	 *            one of the vertex types
+	 * @param vertex
+	 *            the changed vertex
+	 */
+	GraphEvent(Type type, Vertex vertex) {
+		this.type = type;
+		this.vertex = vertex;
+		this.edge = null;
+	}
+
+	/**
+	 * Creates a new edge event.
+	 * 
+	 * @param type
+	 *            one of the edge types
+	 * @param edge
+	 *            the changed edge
+	 */
+	GraphEvent(Type type, Edge edge) {
+		this.type = type;
+		this.vertex = null;
+		this.edge = edge;
+	}
+
+	/**
+	 * Passes this event on to the matching callback of the given
+	 * {@link GraphListener}, e.g. to apply a drained batch of events.
+	 * 
+	 * @param listener
+	 *            the listener to call
+	 */
+	public void dispatch(GraphListener listener) {
+		switch (this.type) {
+			case VERTEX_ADDED:
+				listener.onVertexAdded(this.vertex);
+				break;
+			case VERTEX_REMOVED:
+				listener.onVertexRemoved(this.vertex);
+				break;
+			case VERTEX_CHANGED:
+				listener.onVertexChanged(this.vertex);
+				break;
+			case EDGE_ADDED:
+				listener.onEdgeAdded(this.edge);
+				break;
+			case EDGE_REMOVED:
+				listener.onEdgeRemoved(this.edge);
+				break;
+			default:
+				listener.onEdgeChanged(this.edge);
+				break;
+		}
+	}
+
+	/**
+	 * Returns the changed {@link Edge}.
+	 * 
+	 * @return the edge, or {@code null} if this is a vertex event
+	 */
+	public Edge getEdge() {
+		return this.edge;
+	}
+
+	/**
+	 * Returns the kind of this change.
+	 * 
+	 * @return the type
+	 */
+	public Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Returns the changed {@link Vertex}.
+	 * 
+	 * @return the vertex, or {@code null} if this is an edge event
+	 */
+	public Vertex getVertex() {
+		return this.vertex;
+	}
+
+	/**
+	 * Returns whether this event refers to an {@link Edge}.
+	 * 
+	 * @return {@code true} for edge events, {@code false} for vertex events
+	 */
+	public boolean isEdgeEvent() {
+		return this.edge != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return this.type + " " + (this.edge != null ? this.edge : this.vertex);
+	}
+
+}
@@ -0,0 +1,203 @@
+package de.graphioli.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class records the changes of a {@link Graph} as {@link GraphEvent}s in
+ * a bounded ring buffer, so consumers can process them in batches instead of
+ * reacting to every single change. Register a journal with
+ * {@link Graph#addGraphListener(GraphListener)} or
+ * {@link GameBoard#addGraphListener(GraphListener)}; each consumer uses its own
+ * journal.
+ * 
+ * When more events are recorded than the journal can hold, the oldest ones are
+ * dropped and the journal is marked as overflowed. A consumer should then
+ * rebuild its state from the graph and {@link #clear()} the journal.
+ * 
+ * Recording and draining are synchronized, so the journal may be drained from
+ * another thread than the one changing the graph.
+ * 
+ * @author Team Graphioli
+ */
+public class GraphJournal implements GraphListener {
+
+	/**
+	 * The default number of events a journal can hold.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * The ring buffer of recorded events.
+	 */
+	private final GraphEvent[] events;
+
+	/**
+	 * Position of the oldest recorded event in {@link #events}.
+	 */
+	private int head;
+
+	/**
+	 * Number of recorded events not yet drained.
+	 */
+	private int size;
+
+	/**
+	 * Whether events were dropped since the journal was last cleared.
+	 */
+	private boolean overflowed;
+
+	/**
+	 * Creates a new {@link GraphJournal} with the default capacity.
+	 */
+	public GraphJournal() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@link GraphJournal}.
+	 * 
+	 * @param capacity
+	 *            the number of events the journal can hold
+	 */
+	public GraphJournal(int capacity) {
+		this.events = new GraphEvent[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Drops all recorded events and resets the overflow mark.
+	 */
+	public synchronized void clear() {
+		for (int i = 0; i < this.size; i++) {
+			this.events[(this.head + i) % this.events.length] = null;
+		}
+		this.head = 0;
+		this.size = 0;
+		this.overflowed = false;
+	}
+
+	/**
+	 * Removes all recorded events from the journal.
+	 * 
+	 * @return the events, oldest first
+	 */
+	public List<GraphEvent> drain() {
+		ArrayList<GraphEvent> result = new ArrayList<GraphEvent>();
+		this.drain(result, Integer.MAX_VALUE);
+		return result;
+	}
+
+	/**
+	 * Removes up to the given number of the oldest recorded events from the
+	 * journal and appends them to the given list.
+	 * 
+	 * @param target
+	 *            the list to append the events to
+	 * @param maxEvents
+	 *            the maximum number of events to drain
+	 * @return the number of drained events
+	 */
+	public synchronized int drain(List<GraphEvent> target, int maxEvents) {
+		int count = Math.min(this.size, Math.max(maxEvents, 0));
+		for (int i = 0; i < count; i++) {
+			target.add(this.events[this.head]);
+			this.events[this.head] = null;
+			this.head = (this.head + 1) % this.events.length;
+		}
+		this.size -= count;
+		return count;
+	}
+
+	/**
+	 * Returns the number of events the journal can hold.
+	 * 
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return this.events.length;
+	}
+
+	/**
+	 * Returns whether events were dropped, because more events were recorded
+	 * than the journal can hold, since it was last cleared.
+	 * 
+	 * @return {@code true} if events were lost
+	 */
+	public synchronized boolean isOverflowed() {
+		return this.overflowed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeAdded(Edge edge) {
+		this.record(new GraphEvent(GraphEvent.Type.EDGE_ADDED, edge));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeChanged(Edge edge) {
+		this.record(new GraphEvent(GraphEvent.Type.EDGE_CHANGED, edge));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onEdgeRemoved(Edge edge) {
+		this.record(new GraphEvent(GraphEvent.Type.EDGE_REMOVED, edge));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexAdded(Vertex vertex) {
+		this.record(new GraphEvent(GraphEvent.Type.VERTEX_ADDED, vertex));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexChanged(Vertex vertex) {
+		this.record(new GraphEvent(GraphEvent.Type.VERTEX_CHANGED, vertex));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onVertexRemoved(Vertex vertex) {
+		this.record(new GraphEvent(GraphEvent.Type.VERTEX_REMOVED, vertex));
+	}
+
+	/**
+	 * Returns the number of recorded events not yet drained.
+	 * 
+	 * @return the number of events
+	 */
+	public synchronized int size() {
+		return this.size;
+	}
+
+	/**
+	 * Appends an event, dropping the oldest one if the journal is full.
+	 * 
+	 * @param event
+	 *            the event to record
+	 */
+	private synchronized void record(GraphEvent event) {
+		if (this.size == this.events.length) {
+			this.head = (this.head + 1) % this.events.length;
+			this.size--;
+			this.overflowed = true;
+		}
+		this.events[(this.head + this.size) % this.events.length] = event;
+		this.size++;
+	}
+
+}
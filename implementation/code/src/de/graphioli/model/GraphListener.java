@@ -0,0 +1,64 @@
+package de.graphioli.model;
+
+/**
+ * The GraphListener interface defines the callbacks a {@link Graph} uses to
+ * report structural changes and changes of the visual state of its vertices and
+ * edges. The callbacks are invoked after the change was applied. A
+ * {@link GraphJournal} records them for later processing.
+ * 
+ * @author Team Graphioli
+ */
+public interface GraphListener {
+
+	/**
+	 * Called after an {@link Edge} was added to the graph.
+	 * 
+	 * @param edge
+	 *            the added edge
+	 */
+	void onEdgeAdded(Edge edge);
+
+	/**
+	 * Called after the visual state of an {@link Edge} of the graph changed,
+	 * see {@link VisualEdge#update()}.
+	 * 
+	 * @param edge
+	 *            the changed edge
+	 */
+	void onEdgeChanged(Edge edge);
+
+	/**
+	 * Called after an {@link Edge} was removed from the graph, including edges
+	 * removed together with one of their vertices.
+	 * 
+	 * @param edge
+	 *            the removed edge
+	 */
+	void onEdgeRemoved(Edge edge);
+
+	/**
+	 * Called after a {@link Vertex} was added to the graph.
+	 * 
+	 * @param vertex
+	 *            the added vertex
+	 */
+	void onVertexAdded(Vertex vertex);
+
+	/**
+	 * Called after the visual state of a {@link Vertex} of the graph changed,
+	 * see {@link VisualVertex#update()}.
+	 * 
+	 * @param vertex
+	 *            the changed vertex
+	 */
+	void onVertexChanged(Vertex vertex);
+
+	/**
+	 * Called after a {@link Vertex} was removed from the graph.
+	 * 
+	 * @param vertex
+	 *            the removed vertex
+	 */
+	void onVertexRemoved(Vertex vertex);
+
+}
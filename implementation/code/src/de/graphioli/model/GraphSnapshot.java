@@ -0,0 +1,140 @@
+package de.graphioli.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents an immutable view of the structure of a {@link Graph}
+ * at one point in time, as returned by {@link Graph#getSnapshot()}. Taking a
+ * snapshot costs constant time, because the graph shares the persistent lists
+ * it keeps its vertices and edges in. A snapshot never changes, so it can be
+ * iterated on another thread, e.g. by the renderer or an AI, while the game
+ * keeps modifying the graph.
+ * 
+ * Only the sets of vertices and edges are captured. The vertices and edges
+ * themselves are the live objects of the graph, so their adjacency lists and
+ * visual state may be newer than the snapshot.
+ * 
+ * @author Team Graphioli
+ */
+public final class GraphSnapshot {
+
+	/**
+	 * The vertices of the graph.
+	 */
+	private final PersistentList<Vertex> vertices;
+
+	/**
+	 * The edges of the graph.
+	 */
+	private final PersistentList<Edge> edges;
+
+	/**
+	 * Whether the graph was undirected.
+	 */
+	private final boolean undirected;
+
+	/**
+	 * The modification count of the graph this snapshot was taken from.
+	 */
+	private final int modificationCount;
+
+	/**
+	 * The vertices as list, created on demand.
+	 */
+	private volatile List<Vertex> vertexList;
+
+	/**
+	 * The edges as list, created on demand.
+	 */
+	private volatile List<Edge> edgeList;
+
+	/**
+	 * Creates a new {@link GraphSnapshot}.
+	 * 
+	 * @param vertices
+	 *            the vertices of the graph
+	 * @param edges
+	 *            the edges of the graph
+	 * @param undirected
+	 *            whether the graph is undirected
+	 * @param modificationCount
+	 *            the modification count of the graph
+	 */
+	GraphSnapshot(PersistentList<Vertex> vertices, PersistentList<Edge> edges, boolean undirected,
+			int modificationCount) {
+		this.vertices = vertices;
+		this.edges = edges;
+		this.undirected = undirected;
+		this.modificationCount = modificationCount;
+	}
+
+	/**
+	 * Returns the number of edges.
+	 * 
+	 * @return the number of edges
+	 */
+	public int getEdgeCount() {
+		return this.edges.size();
+	}
+
+	/**
+	 * Returns the edges in the order they were added. The list is created on
+	 * the first call and cannot be modified.
+	 * 
+	 * @return the edges of this snapshot
+	 */
+	public List<Edge> getEdges() {
+		List<Edge> list = this.edgeList;
+		if (list == null) {
+			list = Collections.unmodifiableList(this.edges.toArrayList());
+			this.edgeList = list;
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the modification count of the graph at the time this snapshot
+	 * was taken.
+	 * 
+	 * @return the modification count
+	 * @see Graph#getModificationCount()
+	 */
+	public int getModificationCount() {
+		return this.modificationCount;
+	}
+
+	/**
+	 * Returns the number of vertices.
+	 * 
+	 * @return the number of vertices
+	 */
+	public int getVertexCount() {
+		return this.vertices.size();
+	}
+
+	/**
+	 * Returns the vertices in the order they were added. The list is created
+	 * on the first call and cannot be modified.
+	 * 
+	 * @return the vertices of this snapshot
+	 */
+	public List<Vertex> getVertices() {
+		List<Vertex> list = this.vertexList;
+		if (list == null) {
+			list = Collections.unmodifiableList(this.vertices.toArrayList());
+			this.vertexList = list;
+		}
+		return list;
+	}
+
+	/**
+	 * Returns whether the graph was undirected.
+	 * 
+	 * @return {@code true} if the graph was undirected
+	 */
+	public boolean isUndirected() {
+		return this.undirected;
+	}
+
+}
@@ -2,7 +2,10 @@ package de.graphioli.model;
 
 import de.graphioli.utils.Validation;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 
 /**
  * This class represents the grid, on which the {@link Graph} will be located.
@@ -16,6 +19,24 @@ public class Grid implements Serializable {
 	 */
 	private static final long serialVersionUID = 4066049788478541276L;
 
+	/**
+	 * Boards with up to this many grid points use a {@link DenseGridStorage}.
+	 */
+	static final int DENSE_LIMIT = 1 << 16;
+
+	/**
+	 * Larger boards switch from a {@link SparseGridStorage} to a
+	 * {@link ChunkedGridStorage} once more than one in this many grid points
+	 * is occupied. From there on the hash map needs more memory than the
+	 * tiles.
+	 */
+	static final int SPARSE_OCCUPANCY_DIVISOR = 4;
+
+	/**
+	 * Name of the array field of savegames written before the storages.
+	 */
+	private static final String LEGACY_GRID_FIELD = "grid";
+
 	/**
 	 * The number of horizontal grid points.
 	 */
@@ -27,9 +48,21 @@ public class Grid implements Serializable {
 	private int verticalGridPoints;
 
 	/**
-	 * Array-based representation of the grid.
+	 * The storage of the VisualVertices.
+	 */
+	private GridStorage storage;
+
+	/**
+	 * The occupied grid points, used to skip empty regions in queries.
 	 */
-	private VisualVertex[][] grid;
+	private OccupancyBitmap occupancy;
+
+	/**
+	 * The shared GridPoints of a board with up to {@link #DENSE_LIMIT} grid
+	 * points, indexed by {@code x * verticalGridPoints + y}. Created on first
+	 * use.
+	 */
+	private transient GridPoint[] gridPoints;
 
 	/**
 	 * Creates a new {@link Grid} with the specified parameters.
@@ -43,7 +76,77 @@ public class Grid implements Serializable {
 
 		this.horizontalGridPoints = horizontalGridPoints;
 		this.verticalGridPoints = verticalGridPoints;
-		this.grid = new VisualVertex[horizontalGridPoints][verticalGridPoints];
+		this.storage = this.createStorage();
+		this.occupancy = new OccupancyBitmap(horizontalGridPoints, verticalGridPoints);
+
+	}
+
+	/**
+	 * Removes all {@link VisualVertex VisualVertices} from this grid.
+	 */
+	void clear() {
+		if (this.storage.size() > 0) {
+			this.storage = this.createStorage();
+			this.occupancy = new OccupancyBitmap(this.horizontalGridPoints, this.verticalGridPoints);
+		}
+	}
+
+	/**
+	 * Creates an empty storage suiting the dimensions of this grid.
+	 * 
+	 * @return a {@link DenseGridStorage} for small boards, a
+	 *         {@link SparseGridStorage} otherwise
+	 */
+	private GridStorage createStorage() {
+		if ((long) this.horizontalGridPoints * this.verticalGridPoints <= DENSE_LIMIT) {
+			return new DenseGridStorage(this.horizontalGridPoints, this.verticalGridPoints);
+		}
+		return new SparseGridStorage();
+	}
+
+	/**
+	 * Returns the storage of this grid.
+	 * 
+	 * @return the GridStorage
+	 */
+	GridStorage getStorage() {
+		return this.storage;
+	}
+
+	/**
+	 * Returns a GridPoint with the specified coordinates. On boards with up to
+	 * {@link #DENSE_LIMIT} grid points, every valid GridPoint is created once
+	 * and then shared. On larger boards the GridPoint of the VisualVertex at
+	 * the position is shared, if there is one.
+	 * 
+	 * @param positionX
+	 *            The x coordinate of the GridPoint
+	 * @param positionY
+	 *            The y coordinate of the GridPoint
+	 * @return a GridPoint with the specified coordinates
+	 */
+	public GridPoint getGridPoint(int positionX, int positionY) {
+
+		// Points outside this grid are not cached
+		if (!this.isInBounds(positionX, positionY)) {
+			return GridPoint.valueOf(positionX, positionY);
+		}
+
+		if ((long) this.horizontalGridPoints * this.verticalGridPoints > DENSE_LIMIT) {
+			VisualVertex visualVertex = this.storage.get(positionX, positionY);
+			return visualVertex == null ? GridPoint.valueOf(positionX, positionY) : visualVertex.getGridPoint();
+		}
+
+		if (this.gridPoints == null) {
+			this.gridPoints = new GridPoint[this.horizontalGridPoints * this.verticalGridPoints];
+		}
+		int index = positionX * this.verticalGridPoints + positionY;
+		GridPoint gridPoint = this.gridPoints[index];
+		if (gridPoint == null) {
+			gridPoint = GridPoint.valueOf(positionX, positionY);
+			this.gridPoints[index] = gridPoint;
+		}
+		return gridPoint;
 
 	}
 
@@ -81,12 +184,179 @@ public class Grid implements Serializable {
 		}
 
 		// Get VisualVertex at specified GridPoint
-		VisualVertex visualVertex = this.grid[gridPoint.getPositionX()][gridPoint.getPositionY()];
+		VisualVertex visualVertex = this.storage.get(gridPoint.getPositionX(), gridPoint.getPositionY());
 
 		return visualVertex;
 
 	}
 
+	/**
+	 * Returns the {@link VisualVertex} at the specified coordinates.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @return the VisualVertex at the specified coordinates or
+	 *         <code>null</code> if they are empty or outside of this grid
+	 */
+	public VisualVertex getVisualVertexAt(int positionX, int positionY) {
+		if (!this.isInBounds(positionX, positionY)) {
+			return null;
+		}
+		return this.storage.get(positionX, positionY);
+	}
+
+	/**
+	 * Returns the {@link VisualVertex VisualVertices} within the specified
+	 * rectangle. Parts of the rectangle outside of this grid are ignored.
+	 * 
+	 * @param minX
+	 *            the smallest x coordinate
+	 * @param minY
+	 *            the smallest y coordinate
+	 * @param maxX
+	 *            the largest x coordinate
+	 * @param maxY
+	 *            the largest y coordinate
+	 * @return the VisualVertices, ordered by y and then x coordinate within
+	 *         blocks of 8x8 grid points
+	 */
+	public ArrayList<VisualVertex> getVisualVerticesInRectangle(int minX, int minY, int maxX, int maxY) {
+		return this.collect(minX, minY, maxX, maxY, 0, 0, -1);
+	}
+
+	/**
+	 * Returns the {@link VisualVertex VisualVertices} whose Chebyshev distance
+	 * to the specified GridPoint is at most {@code radius}, i.e. those within
+	 * the square around it. A VisualVertex at the GridPoint itself is
+	 * included.
+	 * 
+	 * @param center
+	 *            the center of the square
+	 * @param radius
+	 *            the largest distance
+	 * @return the VisualVertices within the square
+	 */
+	public ArrayList<VisualVertex> getVisualVerticesWithinChebyshevRadius(GridPoint center, int radius) {
+		int positionX = center.getPositionX();
+		int positionY = center.getPositionY();
+		return this.collect(clip((long) positionX - radius), clip((long) positionY - radius),
+				clip((long) positionX + radius), clip((long) positionY + radius), 0, 0, -1);
+	}
+
+	/**
+	 * Returns the {@link VisualVertex VisualVertices} whose Manhattan distance
+	 * to the specified GridPoint is at most {@code radius}, i.e. those within
+	 * the diamond around it. A VisualVertex at the GridPoint itself is
+	 * included.
+	 * 
+	 * @param center
+	 *            the center of the diamond
+	 * @param radius
+	 *            the largest distance
+	 * @return the VisualVertices within the diamond
+	 */
+	public ArrayList<VisualVertex> getVisualVerticesWithinManhattanRadius(GridPoint center, int radius) {
+		int positionX = center.getPositionX();
+		int positionY = center.getPositionY();
+		return this.collect(clip((long) positionX - radius), clip((long) positionY - radius),
+				clip((long) positionX + radius), clip((long) positionY + radius), positionX, positionY, radius);
+	}
+
+	/**
+	 * Returns the {@link VisualVertex VisualVertices} at the specified offsets
+	 * from a GridPoint, e.g. the knight moves of a board game. Offsets leading
+	 * outside of this grid or to empty grid points are skipped.
+	 * 
+	 * @param origin
+	 *            the GridPoint the offsets are relative to
+	 * @param offsets
+	 *            the offsets, given as GridPoints
+	 * @return the VisualVertices in the order of their offsets
+	 */
+	public ArrayList<VisualVertex> getVisualVerticesAtOffsets(GridPoint origin, GridPoint... offsets) {
+		ArrayList<VisualVertex> result = new ArrayList<VisualVertex>();
+		for (GridPoint offset : offsets) {
+			int positionX = origin.getPositionX() + offset.getPositionX();
+			int positionY = origin.getPositionY() + offset.getPositionY();
+			if (this.isInBounds(positionX, positionY) && this.occupancy.isOccupied(positionX, positionY)) {
+				result.add(this.storage.get(positionX, positionY));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Clips a coordinate to the range of an int.
+	 * 
+	 * @param position
+	 *            the coordinate
+	 * @return the clipped coordinate
+	 */
+	private static int clip(long position) {
+		return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, position));
+	}
+
+	/**
+	 * Collects the {@link VisualVertex VisualVertices} within the specified
+	 * rectangle, optionally only those within a Manhattan distance of a
+	 * center.
+	 * 
+	 * @param minX
+	 *            the smallest x coordinate
+	 * @param minY
+	 *            the smallest y coordinate
+	 * @param maxX
+	 *            the largest x coordinate
+	 * @param maxY
+	 *            the largest y coordinate
+	 * @param centerX
+	 *            the x coordinate of the center
+	 * @param centerY
+	 *            the y coordinate of the center
+	 * @param manhattanRadius
+	 *            the largest Manhattan distance to the center, negative to
+	 *            collect the whole rectangle
+	 * @return the VisualVertices
+	 */
+	private ArrayList<VisualVertex> collect(int minX, int minY, int maxX, int maxY, final int centerX,
+			final int centerY, final int manhattanRadius) {
+		final ArrayList<VisualVertex> result = new ArrayList<VisualVertex>();
+		int fromX = Math.max(minX, 0);
+		int fromY = Math.max(minY, 0);
+		int toX = Math.min(maxX, this.horizontalGridPoints - 1);
+		int toY = Math.min(maxY, this.verticalGridPoints - 1);
+		if (fromX > toX || fromY > toY) {
+			return result;
+		}
+
+		this.occupancy.forEachOccupied(fromX, fromY, toX, toY, new OccupancyBitmap.PointVisitor() {
+			@Override
+			public void visit(int positionX, int positionY) {
+				long distance = Math.abs((long) positionX - centerX) + Math.abs((long) positionY - centerY);
+				if (manhattanRadius < 0 || distance <= manhattanRadius) {
+					result.add(Grid.this.storage.get(positionX, positionY));
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Checks whether the specified coordinates lie on this grid.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @return <code>true</code> if the coordinates are valid
+	 */
+	private boolean isInBounds(int positionX, int positionY) {
+		return positionX >= 0 && positionX < this.horizontalGridPoints && positionY >= 0
+				&& positionY < this.verticalGridPoints;
+	}
+
 	/**
 	 * Adds the specified {@link VisualVertex} to the Grid.
 	 * 
@@ -106,7 +376,7 @@ public class Grid implements Serializable {
 		}
 
 		// Get VisualVertex at specified GridPoint
-		VisualVertex visualVertexAtGridPoint = this.grid[positionX][positionY];
+		VisualVertex visualVertexAtGridPoint = this.storage.get(positionX, positionY);
 
 		// Return false if GridPoint is not empty
 		if (visualVertexAtGridPoint != null) {
@@ -115,7 +385,17 @@ public class Grid implements Serializable {
 
 		// Add VisualVertex
 
-		this.grid[positionX][positionY] = visualVertex;
+		this.storage.set(positionX, positionY, visualVertex);
+		this.occupancy.setOccupied(positionX, positionY, true);
+
+		// Switch to tiles once the occupancy outgrows the hash map
+		if (this.storage instanceof SparseGridStorage
+				&& (long) this.storage.size() * SPARSE_OCCUPANCY_DIVISOR > (long) this.horizontalGridPoints
+						* this.verticalGridPoints) {
+			GridStorage chunked = new ChunkedGridStorage(this.horizontalGridPoints, this.verticalGridPoints);
+			this.storage.copyTo(chunked);
+			this.storage = chunked;
+		}
 
 		return true;
 
@@ -138,7 +418,7 @@ public class Grid implements Serializable {
 		}
 
 		// Get VisualVertex at specified GridPoint
-		VisualVertex visualVertex = this.grid[gridPoint.getPositionX()][gridPoint.getPositionY()];
+		VisualVertex visualVertex = this.storage.get(gridPoint.getPositionX(), gridPoint.getPositionY());
 
 		// Return false if GridPoint is empty
 		if (visualVertex == null) {
@@ -146,10 +426,50 @@ public class Grid implements Serializable {
 		}
 
 		// Remove VisualVertex
-		this.grid[gridPoint.getPositionX()][gridPoint.getPositionY()] = null;
+		this.storage.set(gridPoint.getPositionX(), gridPoint.getPositionY(), null);
+		this.occupancy.setOccupied(gridPoint.getPositionX(), gridPoint.getPositionY(), false);
 
 		return true;
 
 	}
 
+	/**
+	 * Reads this grid from a savegame. Savegames written before the storages
+	 * contain a dense array, whose VisualVertices are moved into a new
+	 * storage. The occupancy bitmap is rebuilt if the savegame lacks it.
+	 * 
+	 * @param in
+	 *            the stream to read from
+	 * @throws IOException
+	 *             if reading fails
+	 * @throws ClassNotFoundException
+	 *             if a serialized class cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.horizontalGridPoints = fields.get("horizontalGridPoints", 0);
+		this.verticalGridPoints = fields.get("verticalGridPoints", 0);
+
+		if (fields.getObjectStreamClass().getField(LEGACY_GRID_FIELD) != null) {
+			VisualVertex[][] legacyGrid = (VisualVertex[][]) fields.get(LEGACY_GRID_FIELD, null);
+			this.storage = this.createStorage();
+			new DenseGridStorage(legacyGrid).copyTo(this.storage);
+		} else {
+			this.storage = (GridStorage) fields.get("storage", null);
+		}
+
+		this.occupancy = (OccupancyBitmap) fields.get("occupancy", null);
+		if (this.occupancy == null) {
+			// Savegames written before the bitmap
+			this.occupancy = new OccupancyBitmap(this.horizontalGridPoints, this.verticalGridPoints);
+			for (int x = 0; x < this.horizontalGridPoints; x++) {
+				for (int y = 0; y < this.verticalGridPoints; y++) {
+					if (this.storage.get(x, y) != null) {
+						this.occupancy.setOccupied(x, y, true);
+					}
+				}
+			}
+		}
+	}
+
 }
@@ -3,26 +3,49 @@ package de.graphioli.model;
 import java.io.Serializable;
 
 /**
- * This class represents the grid, on which the {@link Graph} will be located.
+ * This class represents a point on the grid, on which the {@link Graph} will
+ * be located. GridPoints are immutable values: two GridPoints with the same
+ * coordinates are equal and may be shared freely. Use {@link #valueOf(int, int)}
+ * or {@link Grid#getGridPoint(int, int)} to obtain shared instances.
  * 
  * @author Team Graphioli
  */
-public class GridPoint implements Serializable {
+public final class GridPoint implements Serializable {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = -1424579031573596468L;
 
+	/**
+	 * Coordinates from zero up to this bound (exclusive) are cached by
+	 * {@link #valueOf(int, int)}.
+	 */
+	private static final int CACHE_SIZE = 64;
+
+	/**
+	 * The shared GridPoints of small coordinates, indexed by x and y
+	 * coordinate.
+	 */
+	private static final GridPoint[][] CACHE = new GridPoint[CACHE_SIZE][CACHE_SIZE];
+
+	static {
+		for (int x = 0; x < CACHE_SIZE; x++) {
+			for (int y = 0; y < CACHE_SIZE; y++) {
+				CACHE[x][y] = new GridPoint(x, y);
+			}
+		}
+	}
+
 	/**
 	 * The x coordinate of the GridPoint.
 	 */
-	private int positionX;
+	private final int positionX;
 
 	/**
 	 * The y coordinate of the GridPoint.
 	 */
-	private int positionY;
+	private final int positionY;
 
 	/**
 	 * Creates a new GridPoint with the specified positions positionX and
@@ -38,6 +61,90 @@ public class GridPoint implements Serializable {
 		this.positionY = positionY;
 	}
 
+	/**
+	 * Returns a GridPoint with the specified coordinates. GridPoints of small,
+	 * non-negative coordinates are shared.
+	 * 
+	 * @param positionX
+	 *            The x coordinate of the GridPoint
+	 * @param positionY
+	 *            The y coordinate of the GridPoint
+	 * @return a GridPoint with the specified coordinates
+	 */
+	public static GridPoint valueOf(int positionX, int positionY) {
+		if (positionX >= 0 && positionX < CACHE_SIZE && positionY >= 0 && positionY < CACHE_SIZE) {
+			return CACHE[positionX][positionY];
+		}
+		return new GridPoint(positionX, positionY);
+	}
+
+	/**
+	 * Returns the GridPoint encoded in the given packed coordinates.
+	 * 
+	 * @param packed
+	 *            coordinates packed by {@link #pack(int, int)}
+	 * @return a GridPoint with the encoded coordinates
+	 */
+	public static GridPoint valueOf(long packed) {
+		return valueOf(unpackX(packed), unpackY(packed));
+	}
+
+	/**
+	 * Packs the given coordinates into one long. The x coordinate is stored
+	 * in the upper, the y coordinate in the lower 32 bits.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @return the packed coordinates
+	 */
+	public static long pack(int positionX, int positionY) {
+		return ((long) positionX << 32) | (positionY & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Returns the x coordinate of packed coordinates.
+	 * 
+	 * @param packed
+	 *            coordinates packed by {@link #pack(int, int)}
+	 * @return the x coordinate
+	 */
+	public static int unpackX(long packed) {
+		return (int) (packed >> 32);
+	}
+
+	/**
+	 * Returns the y coordinate of packed coordinates.
+	 * 
+	 * @param packed
+	 *            coordinates packed by {@link #pack(int, int)}
+	 * @return the y coordinate
+	 */
+	public static int unpackY(long packed) {
+		return (int) packed;
+	}
+
+	/**
+	 * Two GridPoints are equal, if their coordinates are equal.
+	 * 
+	 * @param obj
+	 *            the object to compare to
+	 * @return <code>true</code> if the given object is a GridPoint with the
+	 *         same coordinates, <code>false</code> otherwise
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GridPoint)) {
+			return false;
+		}
+		GridPoint other = (GridPoint) obj;
+		return this.positionX == other.positionX && this.positionY == other.positionY;
+	}
+
 	/**
 	 * Returns the x coordinate of the {@link GridPoint}.
 	 * 
@@ -56,6 +163,27 @@ public class GridPoint implements Serializable {
 		return this.positionY;
 	}
 
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + this.positionX;
+		result = prime * result + this.positionY;
+		return result;
+	}
+
+	/**
+	 * Returns the coordinates of this GridPoint packed into one long.
+	 * 
+	 * @return the packed coordinates, see {@link #pack(int, int)}
+	 */
+	public long toPackedLong() {
+		return pack(this.positionX, this.positionY);
+	}
+
 	/**
 	 * Returns a string representation of this grid point in form of
 	 * "(PositionX, PositionY)".
@@ -0,0 +1,53 @@
+package de.graphioli.model;
+
+import java.io.Serializable;
+
+/**
+ * This interface defines how a {@link Grid} stores its
+ * {@link VisualVertex VisualVertices}. Coordinates are validated by the
+ * {@link Grid} before they are passed on.
+ * 
+ * @author Team Graphioli
+ */
+interface GridStorage extends Serializable {
+
+	/**
+	 * Returns the {@link VisualVertex} at the given position.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @return the VisualVertex or {@code null} if the position is empty
+	 */
+	VisualVertex get(int positionX, int positionY);
+
+	/**
+	 * Stores a {@link VisualVertex} at the given position, replacing the
+	 * previous one.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @param visualVertex
+	 *            the VisualVertex to store, {@code null} to empty the position
+	 */
+	void set(int positionX, int positionY, VisualVertex visualVertex);
+
+	/**
+	 * Returns the number of occupied positions.
+	 * 
+	 * @return the number of stored VisualVertices
+	 */
+	int size();
+
+	/**
+	 * Stores all VisualVertices of this storage in the given storage.
+	 * 
+	 * @param target
+	 *            the storage to copy to
+	 */
+	void copyTo(GridStorage target);
+
+}
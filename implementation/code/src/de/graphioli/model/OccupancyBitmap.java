@@ -0,0 +1,196 @@
+package de.graphioli.model;
+
+import java.io.Serializable;
+
+/**
+ * This class records which grid points of a {@link Grid} are occupied. The
+ * grid is divided into blocks of 8x8 grid points, each stored in one long.
+ * Blocks are allocated per row of blocks on demand, and rows without occupied
+ * grid points are skipped as a whole, so region queries cost little on empty
+ * parts of the board.
+ * 
+ * @author Team Graphioli
+ */
+class OccupancyBitmap implements Serializable {
+
+	/**
+	 * Serial UID.
+	 */
+	private static final long serialVersionUID = -6420722190829411876L;
+
+	/**
+	 * Binary logarithm of the side length of a block.
+	 */
+	private static final int BLOCK_SHIFT = 3;
+
+	/**
+	 * Mask of the coordinates within a block.
+	 */
+	private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+
+	/**
+	 * The bits of one row of a block.
+	 */
+	private static final long ROW_BITS = 0xFFL;
+
+	/**
+	 * The number of blocks per row of blocks.
+	 */
+	private final int blockColumns;
+
+	/**
+	 * The blocks, indexed by block row and column. A row is {@code null} while
+	 * none of its grid points is occupied.
+	 */
+	private final long[][] blockRows;
+
+	/**
+	 * The number of occupied grid points per row of blocks.
+	 */
+	private final int[] rowCounts;
+
+	/**
+	 * Creates a new, empty {@link OccupancyBitmap}.
+	 * 
+	 * @param horizontalGridPoints
+	 *            the number of horizontal grid points
+	 * @param verticalGridPoints
+	 *            the number of vertical grid points
+	 */
+	OccupancyBitmap(int horizontalGridPoints, int verticalGridPoints) {
+		this.blockColumns = (horizontalGridPoints + BLOCK_MASK) >>> BLOCK_SHIFT;
+		int rows = (verticalGridPoints + BLOCK_MASK) >>> BLOCK_SHIFT;
+		this.blockRows = new long[rows][];
+		this.rowCounts = new int[rows];
+	}
+
+	/**
+	 * Returns whether the given grid point is occupied.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @return {@code true} if the grid point is occupied
+	 */
+	boolean isOccupied(int positionX, int positionY) {
+		long[] row = this.blockRows[positionY >>> BLOCK_SHIFT];
+		return row != null && (row[positionX >>> BLOCK_SHIFT] & bit(positionX, positionY)) != 0;
+	}
+
+	/**
+	 * Marks the given grid point as occupied or empty.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @param occupied
+	 *            whether the grid point is occupied
+	 */
+	void setOccupied(int positionX, int positionY, boolean occupied) {
+		int rowIndex = positionY >>> BLOCK_SHIFT;
+		int column = positionX >>> BLOCK_SHIFT;
+		long bit = bit(positionX, positionY);
+		long[] row = this.blockRows[rowIndex];
+
+		if (occupied) {
+			if (row == null) {
+				row = new long[this.blockColumns];
+				this.blockRows[rowIndex] = row;
+			}
+			if ((row[column] & bit) == 0) {
+				row[column] |= bit;
+				this.rowCounts[rowIndex]++;
+			}
+		} else if (row != null && (row[column] & bit) != 0) {
+			row[column] &= ~bit;
+			// Release the row once it is empty
+			if (--this.rowCounts[rowIndex] == 0) {
+				this.blockRows[rowIndex] = null;
+			}
+		}
+	}
+
+	/**
+	 * Visits all occupied grid points within the given rectangle, row of
+	 * blocks by row of blocks. The rectangle must lie within the grid.
+	 * 
+	 * @param minX
+	 *            the smallest x coordinate
+	 * @param minY
+	 *            the smallest y coordinate
+	 * @param maxX
+	 *            the largest x coordinate
+	 * @param maxY
+	 *            the largest y coordinate
+	 * @param visitor
+	 *            the callback for each occupied grid point
+	 */
+	void forEachOccupied(int minX, int minY, int maxX, int maxY, PointVisitor visitor) {
+		for (int rowIndex = minY >>> BLOCK_SHIFT; rowIndex <= maxY >>> BLOCK_SHIFT; rowIndex++) {
+			long[] row = this.blockRows[rowIndex];
+			if (row == null) {
+				continue;
+			}
+
+			// Rows of the block within the rectangle
+			int originY = rowIndex << BLOCK_SHIFT;
+			int firstRow = Math.max(minY - originY, 0);
+			int lastRow = Math.min(maxY - originY, BLOCK_MASK);
+
+			for (int column = minX >>> BLOCK_SHIFT; column <= maxX >>> BLOCK_SHIFT; column++) {
+				long block = row[column];
+				if (block == 0) {
+					continue;
+				}
+
+				// Columns of the block within the rectangle
+				int originX = column << BLOCK_SHIFT;
+				int firstColumn = Math.max(minX - originX, 0);
+				int lastColumn = Math.min(maxX - originX, BLOCK_MASK);
+				long rowMask = (ROW_BITS >>> (BLOCK_MASK - lastColumn)) & (ROW_BITS << firstColumn);
+				long mask = 0;
+				for (int blockRow = firstRow; blockRow <= lastRow; blockRow++) {
+					mask |= rowMask << (blockRow << BLOCK_SHIFT);
+				}
+
+				for (long bits = block & mask; bits != 0; bits &= bits - 1) {
+					int index = Long.numberOfTrailingZeros(bits);
+					visitor.visit(originX + (index & BLOCK_MASK), originY + (index >>> BLOCK_SHIFT));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the bit of the given grid point within its block.
+	 * 
+	 * @param positionX
+	 *            the x coordinate
+	 * @param positionY
+	 *            the y coordinate
+	 * @return the bit
+	 */
+	private static long bit(int positionX, int positionY) {
+		return 1L << (((positionY & BLOCK_MASK) << BLOCK_SHIFT) | (positionX & BLOCK_MASK));
+	}
+
+	/**
+	 * Callback for
+	 * {@link OccupancyBitmap#forEachOccupied(int, int, int, int, PointVisitor)}.
+	 */
+	interface PointVisitor {
+
+		/**
+		 * Visits an occupied grid point.
+		 * 
+		 * @param positionX
+		 *            the x coordinate
+		 * @param positionY
+		 *            the y coordinate
+		 */
+		void visit(int positionX, int positionY);
+	}
+
+}
@@ -0,0 +1,329 @@
+package de.graphioli.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is an immutable list of elements in numbered slots, stored in a
+ * tree of arrays of 32 entries each. Appending an element or emptying a slot
+ * returns a new list that shares all arrays with this one except the ones on
+ * the path to the changed slot, so it costs time and space logarithmic to base
+ * 32 in the number of slots. Emptied slots keep their number, so the other
+ * elements keep theirs; they are skipped when iterating.
+ * 
+ * To batch several changes, the writer may pass an edit token: arrays copied
+ * under a token are changed in place by later changes under the same token,
+ * instead of being copied again. A list may only be handed to other threads
+ * after the writer stopped using its token.
+ * 
+ * @param <E>
+ *            the type of the elements
+ * @author Team Graphioli
+ */
+final class PersistentList<E> implements Iterable<E> {
+
+	/**
+	 * Binary logarithm of the number of entries of a node.
+	 */
+	private static final int BITS = 5;
+
+	/**
+	 * The number of entries of a node.
+	 */
+	private static final int WIDTH = 1 << BITS;
+
+	/**
+	 * Mask of the index within a node.
+	 */
+	private static final int MASK = WIDTH - 1;
+
+	/**
+	 * The empty list.
+	 */
+	private static final PersistentList<Object> EMPTY = new PersistentList<Object>(new Object[WIDTH + 1], 0, 0, 0);
+
+	/**
+	 * The root node. Inner nodes hold nodes, leaves hold elements. The extra
+	 * last entry of a node holds the edit token it was copied under.
+	 */
+	private final Object[] root;
+
+	/**
+	 * The shift of a slot number to get the index within the root, zero if the
+	 * root is a leaf.
+	 */
+	private final int shift;
+
+	/**
+	 * The number of slots, including emptied ones.
+	 */
+	private final int slotCount;
+
+	/**
+	 * The number of elements.
+	 */
+	private final int size;
+
+	/**
+	 * Creates a new {@link PersistentList}.
+	 * 
+	 * @param root
+	 *            the root node
+	 * @param shift
+	 *            the shift of the root
+	 * @param slotCount
+	 *            the number of slots
+	 * @param size
+	 *            the number of elements
+	 */
+	private PersistentList(Object[] root, int shift, int slotCount, int size) {
+		this.root = root;
+		this.shift = shift;
+		this.slotCount = slotCount;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the empty list.
+	 * 
+	 * @param <E>
+	 *            the type of the elements
+	 * @return the empty list
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> PersistentList<E> empty() {
+		return (PersistentList<E>) EMPTY;
+	}
+
+	/**
+	 * Returns a list with the given element appended in a new slot, numbered
+	 * {@link #getSlotCount()}.
+	 * 
+	 * @param element
+	 *            the element to append, not {@code null}
+	 * @param edit
+	 *            the edit token, or {@code null} to copy all changed arrays
+	 * @return the new list
+	 */
+	PersistentList<E> append(E element, Object edit) {
+		Object[] newRoot = this.root;
+		int newShift = this.shift;
+		if ((this.slotCount >>> BITS) >= (1 << this.shift)) {
+			// The tree is full, grow by one level
+			newRoot = newNode(edit);
+			newRoot[0] = this.root;
+			newShift += BITS;
+		}
+		return new PersistentList<E>(assoc(newRoot, newShift, this.slotCount, element, edit), newShift,
+				this.slotCount + 1, this.size + 1);
+	}
+
+	/**
+	 * Returns a list of the same elements in the same order without emptied
+	 * slots, so element number {@code i} is in slot {@code i}. The arrays of
+	 * the new list are built bottom up.
+	 * 
+	 * @param edit
+	 *            the edit token of the new arrays, or {@code null}
+	 * @return the new list
+	 */
+	PersistentList<E> compact(Object edit) {
+		int nodeCount = (this.size + MASK) >>> BITS;
+		Object[][] nodes = new Object[Math.max(nodeCount, 1)][];
+		int index = 0;
+		for (E element : this) {
+			if ((index & MASK) == 0) {
+				nodes[index >>> BITS] = newNode(edit);
+			}
+			nodes[index >>> BITS][index & MASK] = element;
+			index++;
+		}
+		if (nodes[0] == null) {
+			nodes[0] = newNode(edit);
+		}
+
+		// Group the nodes of each level under parents until one root is left
+		int newShift = 0;
+		while (nodeCount > 1) {
+			int parentCount = (nodeCount + MASK) >>> BITS;
+			Object[][] parents = new Object[parentCount][];
+			for (int i = 0; i < nodeCount; i++) {
+				if ((i & MASK) == 0) {
+					parents[i >>> BITS] = newNode(edit);
+				}
+				parents[i >>> BITS][i & MASK] = nodes[i];
+			}
+			nodes = parents;
+			nodeCount = parentCount;
+			newShift += BITS;
+		}
+		return new PersistentList<E>(nodes[0], newShift, this.size, this.size);
+	}
+
+	/**
+	 * Returns the number of slots, including emptied ones.
+	 * 
+	 * @return the number of slots
+	 */
+	int getSlotCount() {
+		return this.slotCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private Object[] leaf;
+			private int slot = this.skip(0);
+
+			@Override
+			public boolean hasNext() {
+				return this.slot < PersistentList.this.slotCount;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				E element = (E) this.leaf[this.slot & MASK];
+				this.slot = this.skip(this.slot + 1);
+				return element;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+			/**
+			 * Returns the first used slot from the given one on, and loads its
+			 * leaf.
+			 * 
+			 * @param from
+			 *            the slot to start at
+			 * @return the used slot, or the slot count if there is none
+			 */
+			private int skip(int from) {
+				int next = from;
+				while (next < PersistentList.this.slotCount) {
+					if (this.leaf == null || (next & MASK) == 0) {
+						this.leaf = PersistentList.this.leafOf(next);
+					}
+					if (this.leaf[next & MASK] != null) {
+						break;
+					}
+					next++;
+				}
+				return next;
+			}
+		};
+	}
+
+	/**
+	 * Returns a list with the given slot emptied. The numbers of the other
+	 * slots do not change.
+	 * 
+	 * @param slot
+	 *            the slot to empty, which holds an element
+	 * @param edit
+	 *            the edit token, or {@code null} to copy all changed arrays
+	 * @return the new list
+	 */
+	PersistentList<E> remove(int slot, Object edit) {
+		return new PersistentList<E>(assoc(this.root, this.shift, slot, null, edit), this.shift, this.slotCount,
+				this.size - 1);
+	}
+
+	/**
+	 * Returns the number of elements.
+	 * 
+	 * @return the number of elements
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Copies the elements into a new list, in slot order.
+	 * 
+	 * @return the elements
+	 */
+	ArrayList<E> toArrayList() {
+		ArrayList<E> elements = new ArrayList<E>(this.size);
+		for (E element : this) {
+			elements.add(element);
+		}
+		return elements;
+	}
+
+	/**
+	 * Returns the leaf holding the given slot.
+	 * 
+	 * @param slot
+	 *            the slot number
+	 * @return the leaf
+	 */
+	private Object[] leafOf(int slot) {
+		Object[] node = this.root;
+		for (int level = this.shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(slot >>> level) & MASK];
+		}
+		return node;
+	}
+
+	/**
+	 * Returns a copy of the given node with the given slot set, copying the
+	 * nodes on the path to it. Nodes copied under the given edit token are
+	 * changed in place instead.
+	 * 
+	 * @param node
+	 *            the node, {@code null} for a new one
+	 * @param level
+	 *            the shift of the node
+	 * @param slot
+	 *            the slot number
+	 * @param value
+	 *            the new value of the slot
+	 * @param edit
+	 *            the edit token, or {@code null}
+	 * @return the copy, or the node itself if it was changed in place
+	 */
+	private static Object[] assoc(Object[] node, int level, int slot, Object value, Object edit) {
+		Object[] copy;
+		if (node == null) {
+			copy = newNode(edit);
+		} else if (edit != null && node[WIDTH] == edit) {
+			copy = node;
+		} else {
+			copy = node.clone();
+			copy[WIDTH] = edit;
+		}
+		if (level == 0) {
+			copy[slot & MASK] = value;
+		} else {
+			int index = (slot >>> level) & MASK;
+			copy[index] = assoc((Object[]) copy[index], level - BITS, slot, value, edit);
+		}
+		return copy;
+	}
+
+	/**
+	 * Creates an empty node.
+	 * 
+	 * @param edit
+	 *            the edit token of the node, or {@code null}
+	 * @return the node
+	 */
+	private static Object[] newNode(Object edit) {
+		Object[] node = new Object[WIDTH + 1];
+		node[WIDTH] = edit;
+		return node;
+	}
+
+}
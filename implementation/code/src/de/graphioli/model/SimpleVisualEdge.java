@@ -4,6 +4,8 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * This class represents a simple, undirected edge with a stroke color and
@@ -118,6 +120,16 @@ public class SimpleVisualEdge extends VisualEdge {
 		return this.strokeWeight;
 	}
 
+	/**
+	 * Returns the stroke color and stroke weight.
+	 * 
+	 * @return the visual state
+	 */
+	@Override
+	public Object getVisualState() {
+		return Arrays.asList(this.strokeColor, this.strokeWeight);
+	}
+
 	/**
 	 * Sets the stroke color.
 	 * 
@@ -126,6 +138,7 @@ public class SimpleVisualEdge extends VisualEdge {
 	 */
 	public void setStrokeColor(Color strokeColor) {
 		this.strokeColor = strokeColor;
+		this.update();
 	}
 
 	/**
@@ -137,6 +150,22 @@ public class SimpleVisualEdge extends VisualEdge {
 	public void setStrokeWeight(int strokeWeight) {
 		this.strokeWeight = strokeWeight;
 		this.edgeStroke = new BasicStroke((this.strokeWeight + 2) * WIDTH_SCALE);
+		this.update();
+	}
+
+	/**
+	 * Restores the stroke color and stroke weight.
+	 * 
+	 * @param state
+	 *            a visual state returned by {@link #getVisualState()}
+	 */
+	@Override
+	public void setVisualState(Object state) {
+		List<?> values = (List<?>) state;
+		this.strokeColor = (Color) values.get(0);
+		this.strokeWeight = (Integer) values.get(1);
+		this.edgeStroke = new BasicStroke((this.strokeWeight + 2) * WIDTH_SCALE);
+		this.update();
 	}
 
 	private void drawArrowHead(Graphics2D g2d, int originX, int originY, int targetX, int targetY) {
@@ -4,6 +4,8 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * This class represents a simple {@link VisualVertex} with predefined
@@ -69,6 +71,16 @@ public class SimpleVisualVertex extends VisualVertex {
 		return (this.strokeWeight + 1) / 2;
 	}
 
+	/**
+	 * Returns the fill color, stroke color and stroke weight.
+	 * 
+	 * @return the visual state
+	 */
+	@Override
+	public Object getVisualState() {
+		return Arrays.asList(this.fillColor, this.strokeColor, this.strokeWeight);
+	}
+
 	/**
 	 * @param fillColor
 	 *            the fillColor to set
@@ -99,6 +111,22 @@ public class SimpleVisualVertex extends VisualVertex {
 		this.update();
 	}
 
+	/**
+	 * Restores the fill color, stroke color and stroke weight.
+	 * 
+	 * @param state
+	 *            a visual state returned by {@link #getVisualState()}
+	 */
+	@Override
+	public void setVisualState(Object state) {
+		List<?> values = (List<?>) state;
+		this.fillColor = (Color) values.get(0);
+		this.strokeColor = (Color) values.get(1);
+		this.strokeWeight = (Integer) values.get(2);
+		this.stroke = new BasicStroke(this.strokeWeight);
+		this.update();
+	}
+
 	/**
 	 * Draws this {@code SimpleVisualVertex} according to its fill color, stroke
 	 * color and stroke weight.
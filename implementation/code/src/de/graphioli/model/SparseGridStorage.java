@@ -0,0 +1,179 @@
+package de.graphioli.model;
+
+/**
+ * This {@link GridStorage} keeps the occupied grid points in an open
+ * addressing hash map keyed on the packed coordinates. Its memory use only
+ * depends on the number of VisualVertices, which suits huge, sparsely
+ * occupied boards.
+ * 
+ * @author Team Graphioli
+ */
+class SparseGridStorage implements GridStorage {
+
+	/**
+	 * Serial UID.
+	 */
+	private static final long serialVersionUID = 5094620139914932166L;
+
+	/**
+	 * The initial number of slots, must be a power of two.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Multiplier of the hash function (Fibonacci hashing).
+	 */
+	private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * The packed coordinates of the occupied slots.
+	 */
+	private long[] keys;
+
+	/**
+	 * The VisualVertices, {@code null} marks an empty slot.
+	 */
+	private VisualVertex[] values;
+
+	/**
+	 * The number of occupied slots.
+	 */
+	private int size;
+
+	/**
+	 * Creates a new, empty {@link SparseGridStorage}.
+	 */
+	SparseGridStorage() {
+		this.keys = new long[INITIAL_CAPACITY];
+		this.values = new VisualVertex[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VisualVertex get(int positionX, int positionY) {
+		long key = GridPoint.pack(positionX, positionY);
+		int mask = this.values.length - 1;
+		for (int slot = this.home(key); this.values[slot] != null; slot = (slot + 1) & mask) {
+			if (this.keys[slot] == key) {
+				return this.values[slot];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void set(int positionX, int positionY, VisualVertex visualVertex) {
+		long key = GridPoint.pack(positionX, positionY);
+		int mask = this.values.length - 1;
+		int slot = this.home(key);
+		while (this.values[slot] != null && this.keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+
+		if (visualVertex == null) {
+			if (this.values[slot] != null) {
+				this.delete(slot);
+			}
+			return;
+		}
+
+		if (this.values[slot] == null) {
+			this.size++;
+		}
+		this.keys[slot] = key;
+		this.values[slot] = visualVertex;
+
+		// Keep the load factor at or below one half
+		if (2 * this.size > this.values.length) {
+			this.resize(2 * this.values.length);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void copyTo(GridStorage target) {
+		for (int slot = 0; slot < this.values.length; slot++) {
+			if (this.values[slot] != null) {
+				target.set(GridPoint.unpackX(this.keys[slot]), GridPoint.unpackY(this.keys[slot]), this.values[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Empties the given slot and shifts the following entries of its probe
+	 * sequence back, so no tombstones are needed.
+	 * 
+	 * @param slot
+	 *            the occupied slot to empty
+	 */
+	private void delete(int slot) {
+		int mask = this.values.length - 1;
+		int gap = slot;
+		this.values[gap] = null;
+		this.size--;
+
+		for (int current = (gap + 1) & mask; this.values[current] != null; current = (current + 1) & mask) {
+			int home = this.home(this.keys[current]);
+			// Move the entry if its home is not cyclically within (gap, current]
+			if (((current - home) & mask) >= ((current - gap) & mask)) {
+				this.keys[gap] = this.keys[current];
+				this.values[gap] = this.values[current];
+				this.values[current] = null;
+				gap = current;
+			}
+		}
+	}
+
+	/**
+	 * Returns the first slot of the probe sequence of the given key.
+	 * 
+	 * @param key
+	 *            the packed coordinates
+	 * @return the slot
+	 */
+	private int home(long key) {
+		int shift = Long.numberOfLeadingZeros(this.values.length - 1);
+		return (int) ((key * HASH_MULTIPLIER) >>> shift);
+	}
+
+	/**
+	 * Rehashes all entries into the given number of slots.
+	 * 
+	 * @param capacity
+	 *            the new number of slots, a power of two
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = this.keys;
+		VisualVertex[] oldValues = this.values;
+		this.keys = new long[capacity];
+		this.values = new VisualVertex[capacity];
+		int mask = capacity - 1;
+
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = this.home(oldKeys[i]);
+				while (this.values[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				this.keys[slot] = oldKeys[i];
+				this.values[slot] = oldValues[i];
+			}
+		}
+	}
+
+}
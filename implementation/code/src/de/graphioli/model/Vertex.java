@@ -2,8 +2,11 @@ package de.graphioli.model;
 
 import de.graphioli.utils.UIDManager;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.UUID;
 
 /**
@@ -17,19 +20,54 @@ public class Vertex implements Serializable {
 	 * Serial UID.
 	 */
 	private static final long serialVersionUID = 2932123270606830729L;
-	private UUID uuid;
+
+	/**
+	 * Name of the UUID field of savegames written before the compact ID.
+	 */
+	private static final String LEGACY_UID_FIELD = "uuid";
+
+	/**
+	 * The compact unique ID of this vertex.
+	 */
+	private long id;
 	private ArrayList<Edge> incomingEdges = new ArrayList<Edge>();
 	private ArrayList<Edge> outgoingEdges = new ArrayList<Edge>();
 
+	/**
+	 * Outgoing edges keyed on the vertex at their other end. Rebuilt from
+	 * {@link #outgoingEdges} when {@code null}, e.g. after deserialization.
+	 */
+	private transient HashMap<Vertex, Edge> outgoingByTarget;
+
+	/**
+	 * Incoming edges keyed on the vertex at their other end. Rebuilt from
+	 * {@link #incomingEdges} when {@code null}, e.g. after deserialization.
+	 */
+	private transient HashMap<Vertex, Edge> incomingByOrigin;
+
+	/**
+	 * The graph this vertex is part of, used to report changes of its visual
+	 * state. Set by the {@link Graph}. Everything that references the edges
+	 * or vertices of a graph also reaches the graph through this field, so
+	 * caches must not keep such data in weak maps keyed on the graph.
+	 */
+	private transient Graph graph;
+
+	/**
+	 * The slot of this vertex in the list of vertices of its graph. Set by the
+	 * {@link Graph}.
+	 */
+	private transient int slot;
+
 	/**
 	 * Creates a new {@link Vertex} with an UID.
 	 */
 	public Vertex() {
-		this.uuid = UIDManager.generateUniqueID();
+		this.id = UIDManager.generateCompactID();
 	}
 
 	/**
-	 * Two vertices are equal, if their {@link UUID} is equal.
+	 * Two vertices are equal, if their ID is equal.
 	 * 
 	 * @param obj
 	 *            given {@code Vertex} to compare to
@@ -48,26 +86,20 @@ public class Vertex implements Serializable {
 			return false;
 		}
 		Vertex other = (Vertex) obj;
-		if (this.uuid == null) {
-			if (other.uuid != null) {
-				return false;
-			}
-		} else if (!this.uuid.equals(other.uuid)) {
-			return false;
-		}
-		return true;
+		return this.id == other.id;
 	}
 
 	/**
-	 * Returns all vertices that are reachable from this {@link Vertex}.
+	 * Returns all vertices that are reachable from this {@link Vertex}. In an
+	 * undirected {@link Graph} these are all neighbors.
 	 * 
 	 * @return a list with all adjacent vertices
 	 */
 	public ArrayList<Vertex> getAdjacentVertices() {
-		ArrayList<Vertex> tmpAdjacentVertices = new ArrayList<Vertex>();
+		ArrayList<Vertex> tmpAdjacentVertices = new ArrayList<Vertex>(this.outgoingEdges.size());
 
 		for (Edge edge : this.outgoingEdges) {
-			Vertex tmpVertex = edge.getTargetVertex();
+			Vertex tmpVertex = edge.getOppositeVertex(this);
 			tmpAdjacentVertices.add(tmpVertex);
 		}
 
@@ -75,7 +107,39 @@ public class Vertex implements Serializable {
 	}
 
 	/**
-	 * Returns an iterable list of incoming {@link Edge}s.
+	 * Returns the incoming {@link Edge} starting at the given {@link Vertex}.
+	 * 
+	 * @param origin
+	 *            the origin of the edge
+	 * @return the edge from {@code origin} to this vertex, or {@code null} if
+	 *         there is none
+	 */
+	public Edge getIncomingEdgeFrom(Vertex origin) {
+		if (origin == null) {
+			return null;
+		}
+		return this.getIncomingIndex().get(origin);
+	}
+
+	/**
+	 * Returns the outgoing {@link Edge} pointing to the given {@link Vertex}.
+	 * 
+	 * @param target
+	 *            the target of the edge
+	 * @return the edge from this vertex to {@code target}, or {@code null} if
+	 *         there is none
+	 */
+	public Edge getOutgoingEdgeTo(Vertex target) {
+		if (target == null) {
+			return null;
+		}
+		return this.getOutgoingIndex().get(target);
+	}
+
+	/**
+	 * Returns an iterable list of incoming {@link Edge}s. In an undirected
+	 * {@link Graph} every connected edge is both incoming and outgoing, use
+	 * {@link Edge#getOppositeVertex(Vertex)} to find the neighbor.
 	 * 
 	 * @return the list of incoming {@link Edge}s
 	 */
@@ -84,7 +148,9 @@ public class Vertex implements Serializable {
 	}
 
 	/**
-	 * Returns an iterable list of outgoing {@link Edge}s.
+	 * Returns an iterable list of outgoing {@link Edge}s. In an undirected
+	 * {@link Graph} every connected edge is both incoming and outgoing, use
+	 * {@link Edge#getOppositeVertex(Vertex)} to find the neighbor.
 	 * 
 	 * @return the list of outgoing {@link Edge}s
 	 */
@@ -93,12 +159,23 @@ public class Vertex implements Serializable {
 	}
 
 	/**
-	 * Returns the unique identifier for this {@link Vertex}.
+	 * Returns the compact unique identifier for this {@link Vertex}.
+	 * 
+	 * @return this vertex' ID
+	 */
+	public long getID() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the unique identifier for this {@link Vertex} as {@link UUID}.
+	 * It is derived from {@link #getID()} on every call and kept for
+	 * compatibility.
 	 * 
 	 * @return this vertex' uuid
 	 */
 	public UUID getUID() {
-		return this.uuid;
+		return new UUID(0L, this.id);
 	}
 
 	/* (non-Javadoc)
@@ -108,7 +185,7 @@ public class Vertex implements Serializable {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((this.uuid == null) ? 0 : this.uuid.hashCode());
+		result = prime * result + (int) (this.id ^ (this.id >>> 32));
 		return result;
 	}
 
@@ -121,13 +198,7 @@ public class Vertex implements Serializable {
 	 *         {@link Vertex}, <code>false</code> otherwise.
 	 */
 	public boolean isAdjacentTo(Vertex vertex) {
-		for (Edge edge : this.outgoingEdges) {
-			if (edge.getTargetVertex().equals(vertex)) {
-				return true;
-			}
-		}
-
-		return false;
+		return this.getOutgoingEdgeTo(vertex) != null;
 	}
 
 	/**
@@ -139,11 +210,11 @@ public class Vertex implements Serializable {
 	 *         of incoming {@link Edge}s, <code>false</code> otherwise
 	 */
 	boolean addIncomingEdge(Edge edge) {
-		for (Edge tmpEdge : this.incomingEdges) {
-			if (tmpEdge.equals(edge)) {
-				return false;
-			}
+		Vertex key = edge.getOppositeVertex(this);
+		if (this.getIncomingIndex().containsKey(key)) {
+			return false;
 		}
+		this.incomingByOrigin.put(key, edge);
 		this.incomingEdges.add(edge);
 		return true;
 	}
@@ -157,15 +228,35 @@ public class Vertex implements Serializable {
 	 *         of outgoing {@link Edge}s, <code>false</code> otherwise
 	 */
 	boolean addOutgoingEdge(Edge edge) {
-		for (Edge tmpEdge : this.outgoingEdges) {
-			if (tmpEdge.equals(edge)) {
-				return false;
-			}
+		Vertex key = edge.getOppositeVertex(this);
+		if (this.getOutgoingIndex().containsKey(key)) {
+			return false;
 		}
+		this.outgoingByTarget.put(key, edge);
 		this.outgoingEdges.add(edge);
 		return true;
 	}
 
+	/**
+	 * Drops all incoming and outgoing {@link Edge}s of this vertex, once it
+	 * was removed from its {@link Graph}.
+	 */
+	void clearEdges() {
+		this.incomingEdges.clear();
+		this.outgoingEdges.clear();
+		this.incomingByOrigin = null;
+		this.outgoingByTarget = null;
+	}
+
+	/**
+	 * Returns the {@link Graph} this vertex is part of.
+	 * 
+	 * @return the graph, or {@code null} if this vertex is in no graph
+	 */
+	Graph getGraph() {
+		return this.graph;
+	}
+
 	/**
 	 * Removes an incoming {@link Edge} from the list of incoming {@link Edge}s.
 	 * 
@@ -175,13 +266,14 @@ public class Vertex implements Serializable {
 	 *         incoming {@link Edge}s and removed, <code>false</code> otherwise
 	 */
 	boolean removeIncomingEdge(Edge edge) {
-		for (Edge tmpEdge : this.incomingEdges) {
-			if (tmpEdge.equals(edge)) {
-				this.incomingEdges.remove(tmpEdge);
-				return true;
-			}
+		Vertex key = edge.getOppositeVertex(this);
+		Edge tmpEdge = this.getIncomingIndex().get(key);
+		if (tmpEdge == null || !tmpEdge.equals(edge)) {
+			return false;
 		}
-		return false;
+		this.incomingByOrigin.remove(key);
+		this.incomingEdges.remove(tmpEdge);
+		return true;
 	}
 
 	/**
@@ -193,17 +285,99 @@ public class Vertex implements Serializable {
 	 *         outgoing {@link Edge}s and removed, <code>false</code> otherwise
 	 */
 	boolean removeOutgoingEdge(Edge edge) {
-		for (Edge tmpEdge : this.outgoingEdges) {
-			if (tmpEdge.equals(edge)) {
-				this.outgoingEdges.remove(tmpEdge);
-				return true;
-			}
+		Vertex key = edge.getOppositeVertex(this);
+		Edge tmpEdge = this.getOutgoingIndex().get(key);
+		if (tmpEdge == null || !tmpEdge.equals(edge)) {
+			return false;
 		}
-		return false;
+		this.outgoingByTarget.remove(key);
+		this.outgoingEdges.remove(tmpEdge);
+		return true;
 	}
 
+	/**
+	 * Returns the slot of this vertex in the list of vertices of its
+	 * {@link Graph}.
+	 * 
+	 * @return the slot number
+	 */
+	int getSlot() {
+		return this.slot;
+	}
 
+	/**
+	 * Sets the {@link Graph} this vertex is part of.
+	 * 
+	 * @param graph
+	 *            the graph, or {@code null} if this vertex was removed
+	 */
+	void setGraph(Graph graph) {
+		this.graph = graph;
+	}
 
+	/**
+	 * Sets the slot of this vertex in the list of vertices of its
+	 * {@link Graph}.
+	 * 
+	 * @param slot
+	 *            the slot number
+	 */
+	void setSlot(int slot) {
+		this.slot = slot;
+	}
+
+	/**
+	 * Returns the index of incoming edges, building it if necessary.
+	 * 
+	 * @return the incoming edges keyed on their origin
+	 */
+	private HashMap<Vertex, Edge> getIncomingIndex() {
+		if (this.incomingByOrigin == null) {
+			this.incomingByOrigin = new HashMap<Vertex, Edge>();
+			for (Edge tmpEdge : this.incomingEdges) {
+				this.incomingByOrigin.put(tmpEdge.getOppositeVertex(this), tmpEdge);
+			}
+		}
+		return this.incomingByOrigin;
+	}
 
+	/**
+	 * Returns the index of outgoing edges, building it if necessary.
+	 * 
+	 * @return the outgoing edges keyed on their target
+	 */
+	private HashMap<Vertex, Edge> getOutgoingIndex() {
+		if (this.outgoingByTarget == null) {
+			this.outgoingByTarget = new HashMap<Vertex, Edge>();
+			for (Edge tmpEdge : this.outgoingEdges) {
+				this.outgoingByTarget.put(tmpEdge.getOppositeVertex(this), tmpEdge);
+			}
+		}
+		return this.outgoingByTarget;
+	}
+
+	/**
+	 * Reads this vertex from a savegame. Savegames written before the compact
+	 * ID store a {@link UUID}, which is folded into the ID.
+	 * 
+	 * @param in
+	 *            the stream to read from
+	 * @throws IOException
+	 *             if reading fails
+	 * @throws ClassNotFoundException
+	 *             if a serialized class cannot be found
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.incomingEdges = (ArrayList<Edge>) fields.get("incomingEdges", null);
+		this.outgoingEdges = (ArrayList<Edge>) fields.get("outgoingEdges", null);
+
+		if (fields.getObjectStreamClass().getField(LEGACY_UID_FIELD) != null) {
+			this.id = UIDManager.compact((UUID) fields.get(LEGACY_UID_FIELD, null));
+		} else {
+			this.id = fields.get("id", 0L);
+		}
+	}
 
 }
@@ -160,6 +160,18 @@ public abstract class VisualEdge extends Edge {
 		return (VisualVertex) super.getTargetVertex();
 	}
 
+	/**
+	 * Returns a snapshot of the properties this edge is drawn from, which
+	 * {@link #setVisualState(Object)} accepts to restore them. Snapshots of
+	 * equal states have to be equal. Override both methods to make changes of
+	 * the visualization undoable.
+	 * 
+	 * @return the visual state, {@code null} if it cannot be restored
+	 */
+	public Object getVisualState() {
+		return null;
+	}
+
 	/**
 	 * Returns {@code true} if this edge has an opposing edge.
 	 * 
@@ -185,6 +197,29 @@ public abstract class VisualEdge extends Edge {
 		this.onReload();
 	}
 
+	/**
+	 * Restores a visual state returned by {@link #getVisualState()} and
+	 * updates this edge. Does nothing by default.
+	 * 
+	 * @param state
+	 *            the visual state to restore
+	 */
+	public void setVisualState(Object state) {
+		// Not restorable
+	}
+
+	/**
+	 * Reports a change of the visualization of this edge to the listeners of
+	 * the {@link Graph} containing it. Has to be called to change the
+	 * visualization.
+	 */
+	public final void update() {
+		Graph graph = this.getOriginVertex().getGraph();
+		if (graph != null && graph.getEdge(this.getOriginVertex(), this.getTargetVertex()) == this) {
+			graph.edgeChanged(this);
+		}
+	}
+
 	/**
 	 * Implement this method to recreates the fields, that are not serialized.
 	 */
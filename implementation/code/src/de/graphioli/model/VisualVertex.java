@@ -75,6 +75,18 @@ public abstract class VisualVertex extends Vertex {
 		return this.gridPoint;
 	}
 	
+	/**
+	 * Returns a snapshot of the properties this {@code VisualVertex} is drawn
+	 * from, which {@link #setVisualState(Object)} accepts to restore them.
+	 * Snapshots of equal states have to be equal. Override both methods to
+	 * make changes of the visualization undoable.
+	 * 
+	 * @return the visual state, {@code null} if it cannot be restored
+	 */
+	public Object getVisualState() {
+		return null;
+	}
+
 	/**
 	 * Recreates the fields, that are not serialized.
 	 */
@@ -84,9 +96,21 @@ public abstract class VisualVertex extends Vertex {
 		this.update();
 	}
 
+	/**
+	 * Restores a visual state returned by {@link #getVisualState()} and
+	 * updates this {@code VisualVertex}. Does nothing by default.
+	 * 
+	 * @param state
+	 *            the visual state to restore
+	 */
+	public void setVisualState(Object state) {
+		// Not restorable
+	}
+
 	/**
 	 * Recreates the buffered image of this {@code VisualVertex}. Has to be
-	 * called to change the visualization.
+	 * called to change the visualization. The change is reported to the
+	 * listeners of the {@link Graph} containing this vertex.
 	 * 
 	 * @return {@code true} when updating was successful.
 	 */
@@ -102,7 +126,13 @@ public abstract class VisualVertex extends Vertex {
 		// Use anti-aliasing
 		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-		return this.draw(g2d);
+		boolean drawn = this.draw(g2d);
+
+		Graph graph = this.getGraph();
+		if (graph != null) {
+			graph.vertexChanged(this);
+		}
+		return drawn;
 	}
 
 	/**
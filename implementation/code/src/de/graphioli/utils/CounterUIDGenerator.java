@@ -0,0 +1,49 @@
+package de.graphioli.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This {@link UIDGenerator} combines a random scope, chosen once per instance,
+ * with an atomic 64-bit counter. Generating an ID is lock-free and takes
+ * constant time, and no generated ID is retained.
+ * 
+ * The IDs of one instance are unique by construction. IDs of different
+ * instances, and IDs loaded from savegames, differ in their scope.
+ * 
+ * @author Team Graphioli
+ */
+public class CounterUIDGenerator implements UIDGenerator {
+
+	/**
+	 * Source of the scopes.
+	 */
+	private static final SecureRandom SCOPES = new SecureRandom();
+
+	/**
+	 * The most significant bits of all IDs generated by this instance.
+	 */
+	private final long scope;
+
+	/**
+	 * The least significant bits of the last generated ID.
+	 */
+	private final AtomicLong counter = new AtomicLong();
+
+	/**
+	 * Creates a new {@link CounterUIDGenerator} with a random scope.
+	 */
+	public CounterUIDGenerator() {
+		this.scope = SCOPES.nextLong();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public UUID generateUniqueID() {
+		return new UUID(this.scope, this.counter.incrementAndGet());
+	}
+
+}
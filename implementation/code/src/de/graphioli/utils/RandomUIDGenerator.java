@@ -0,0 +1,21 @@
+package de.graphioli.utils;
+
+import java.util.UUID;
+
+/**
+ * This {@link UIDGenerator} returns {@link UUID#randomUUID()} without keeping a
+ * registry. Uniqueness rests on the 122 random bits of a type 4 UUID.
+ * 
+ * @author Team Graphioli
+ */
+public class RandomUIDGenerator implements UIDGenerator {
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public UUID generateUniqueID() {
+		return UUID.randomUUID();
+	}
+
+}
@@ -0,0 +1,21 @@
+package de.graphioli.utils;
+
+import java.util.UUID;
+
+/**
+ * This interface represents a strategy for generating unique identifications
+ * (IDs). Implementations must be safe to use from several threads.
+ * 
+ * @author Team Graphioli
+ * @see UIDManager#setGenerator(UIDGenerator)
+ */
+public interface UIDGenerator {
+
+	/**
+	 * Generates a unique ID.
+	 * 
+	 * @return the generated unique ID
+	 */
+	UUID generateUniqueID();
+
+}
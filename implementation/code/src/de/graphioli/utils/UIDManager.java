@@ -1,20 +1,31 @@
 package de.graphioli.utils;
 
-import java.util.ArrayList;
 import java.util.UUID;
 
 /**
- * This class is responsible for creating unique identifications (IDs) by using
- * the java.util.UUID package.
+ * This class is responsible for creating unique identifications (IDs). The IDs
+ * are created by an exchangeable {@link UIDGenerator}; by default a
+ * {@link CounterUIDGenerator} is used.
+ * 
+ * There is one generator for the whole process, not one per
+ * {@link de.graphioli.model.GameBoard GameBoard}: vertices and players are
+ * created by game code that does not know the board they will be added to.
+ * To scope the IDs to a board anyway, the
+ * {@link de.graphioli.controller.GameManager GameManager} installs the
+ * generator of its board with {@link #setGenerator(UIDGenerator)} when a game
+ * is started or loaded. Only one board is played at a time, so all IDs of a
+ * game come from its board's scope. IDs created before the swap, or for
+ * another board while it is installed, come from a different scope. They stay
+ * unique, because every {@link CounterUIDGenerator} has its own scope.
  * 
  * @author Team Graphioli
  */
 public final class UIDManager {
 
 	/**
-	 * List of all generated unique IDs.
+	 * The strategy used to generate IDs.
 	 */
-	private static ArrayList<UUID> uuids = new ArrayList<UUID>();
+	private static volatile UIDGenerator generator = new CounterUIDGenerator();
 
 	private UIDManager() {
 	}
@@ -25,39 +36,54 @@ public final class UIDManager {
 	 * @return the generated unique ID
 	 */
 	public static UUID generateUniqueID() {
+		return generator.generateUniqueID();
+	}
 
-		UUID uuid;
-
-		// Generate new unique ID and ensure uniqueness
-		do {
-			uuid = UUID.randomUUID();
-		} while (!isUnique(uuid));
-
-		// Add unique ID to list of generated IDs
-		uuids.add(uuid);
-
-		return uuid;
-
+	/**
+	 * Generates a unique ID folded into 64 bits, see {@link #compact(UUID)}.
+	 * 
+	 * @return the generated compact ID
+	 */
+	public static long generateCompactID() {
+		return compact(generator.generateUniqueID());
 	}
 
 	/**
-	 * Helper method, which ensures that a generated ID is really unique.
+	 * Folds the given ID into 64 bits. IDs of a {@link CounterUIDGenerator}
+	 * stay unique, other IDs keep 64 random bits.
 	 * 
 	 * @param uuid
-	 *            The generated ID to check for uniqueness
-	 * @return <code>true</code> if the ID is really unique, <code>false</code>
-	 *         otherwise
+	 *            the ID to fold
+	 * @return the compact ID
+	 */
+	public static long compact(UUID uuid) {
+		return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+	}
+
+	/**
+	 * Returns the strategy used to generate IDs.
+	 * 
+	 * @return the current {@link UIDGenerator}
 	 */
-	private static boolean isUnique(UUID uuid) {
+	public static UIDGenerator getGenerator() {
+		return generator;
+	}
 
-		for (UUID currentUuid : uuids) {
-			if (currentUuid.equals(uuid)) {
-				return false;
-			}
+	/**
+	 * Sets the strategy used to generate IDs. It applies to all IDs generated
+	 * afterwards, whatever they are created for.
+	 * 
+	 * @param uidGenerator
+	 *            the new {@link UIDGenerator}
+	 * @return {@code true} if the generator was set, {@code false} if it was
+	 *         {@code null}
+	 */
+	public static boolean setGenerator(UIDGenerator uidGenerator) {
+		if (uidGenerator == null) {
+			return false;
 		}
-
+		generator = uidGenerator;
 		return true;
-
 	}
 
 }
@@ -29,18 +29,18 @@ public class CustomKeyDispatcher implements KeyEventDispatcher {
 
 	/**
 	 * Dispatches the {@link KeyEvent} and calls onKeyRelease(int keyCode) in
-	 * the {@link GameWindow}.
+	 * the {@link GameWindow}. The game handles the key release later on the
+	 * input thread, so the event is never consumed here.
 	 * 
 	 * @param event
 	 *            The {@link KeyEvent} containing the code of the key that was
 	 *            released
-	 * @return <code>true</code> if the action was performed successfully,
-	 *         <code>false</code> otherwise
+	 * @return <code>false</code>, so the event is dispatched further
 	 */
 	@Override
 	public boolean dispatchKeyEvent(KeyEvent event) {
 		if (event.getID() == KeyEvent.KEY_RELEASED) {
-			return this.gameWindow.onKeyRelease(event.getKeyCode());
+			this.gameWindow.onKeyRelease(event.getKeyCode());
 		}
 		return false;
 	}
@@ -0,0 +1,178 @@
+package de.graphioli.view;
+
+import de.graphioli.model.Edge;
+import de.graphioli.model.GraphEvent;
+import de.graphioli.model.Vertex;
+import de.graphioli.model.VisualVertex;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class collects the areas of a {@link GraphCanvas} that have to be
+ * redrawn after vertices and edges changed. Overlapping areas are merged, and
+ * too many areas are merged into their bounding rectangle.
+ * 
+ * @author Team Graphioli
+ */
+final class DirtyRegions {
+
+	/**
+	 * The maximum number of separate regions.
+	 */
+	static final int MAX_REGIONS = 16;
+
+	/**
+	 * The distance in pixels between two grid points.
+	 */
+	private final int gridScale;
+
+	/**
+	 * The regions, which do not overlap.
+	 */
+	private final ArrayList<Rectangle> regions;
+
+	/**
+	 * Creates new, empty {@link DirtyRegions}.
+	 * 
+	 * @param gridScale
+	 *            the distance in pixels between two grid points
+	 */
+	DirtyRegions(int gridScale) {
+		this.gridScale = gridScale;
+		this.regions = new ArrayList<Rectangle>();
+	}
+
+	/**
+	 * Returns the area an edge is drawn in. The margin of a whole vertex side
+	 * around the line between the vertices includes the arrow heads, the
+	 * offset of opposing edges and the stroke width.
+	 * 
+	 * @param edge
+	 *            the edge
+	 * @param gridScale
+	 *            the distance in pixels between two grid points
+	 * @return the area in pixels
+	 */
+	static Rectangle getEdgeBounds(Edge edge, int gridScale) {
+		Rectangle bounds = new Rectangle(getCenter((VisualVertex) edge.getOriginVertex(), gridScale));
+		bounds.add(getCenter((VisualVertex) edge.getTargetVertex(), gridScale));
+		bounds.grow(VisualVertex.PIXELS_PER_SIDE, VisualVertex.PIXELS_PER_SIDE);
+		return bounds;
+	}
+
+	/**
+	 * Returns the area a vertex is drawn in.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 * @param gridScale
+	 *            the distance in pixels between two grid points
+	 * @return the area in pixels
+	 */
+	static Rectangle getVertexBounds(VisualVertex vertex, int gridScale) {
+		Rectangle center = getCenter(vertex, gridScale);
+		return new Rectangle(center.x - (VisualVertex.PIXELS_PER_SIDE / 2),
+				center.y - (VisualVertex.PIXELS_PER_SIDE / 2), VisualVertex.PIXELS_PER_SIDE,
+				VisualVertex.PIXELS_PER_SIDE);
+	}
+
+	/**
+	 * Returns the center of a vertex on the canvas.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 * @param gridScale
+	 *            the distance in pixels between two grid points
+	 * @return an empty rectangle at the center
+	 */
+	private static Rectangle getCenter(VisualVertex vertex, int gridScale) {
+		return new Rectangle((vertex.getGridPoint().getPositionX() + 1) * gridScale,
+				(vertex.getGridPoint().getPositionY() + 1) * gridScale, 0, 0);
+	}
+
+	/**
+	 * Adds the area affected by a change of the graph.
+	 * 
+	 * @param event
+	 *            the change
+	 */
+	void add(GraphEvent event) {
+		if (event.isEdgeEvent()) {
+			this.addEdge(event.getEdge());
+		} else {
+			this.addVertex(event.getVertex());
+		}
+	}
+
+	/**
+	 * Adds an area, merging it with the regions it overlaps.
+	 * 
+	 * @param area
+	 *            the area in pixels
+	 */
+	void add(Rectangle area) {
+		Rectangle merged = new Rectangle(area);
+		boolean merging = true;
+		while (merging) {
+			merging = false;
+			for (int i = 0; i < this.regions.size(); i++) {
+				if (this.regions.get(i).intersects(merged)) {
+					merged.add(this.regions.remove(i));
+					merging = true;
+					break;
+				}
+			}
+		}
+		this.regions.add(merged);
+
+		if (this.regions.size() > MAX_REGIONS) {
+			Rectangle bounds = this.regions.get(0);
+			for (Rectangle region : this.regions) {
+				bounds.add(region);
+			}
+			this.regions.clear();
+			this.regions.add(bounds);
+		}
+	}
+
+	/**
+	 * Adds the area of an edge.
+	 * 
+	 * @param edge
+	 *            the edge
+	 */
+	void addEdge(Edge edge) {
+		this.add(getEdgeBounds(edge, this.gridScale));
+	}
+
+	/**
+	 * Adds the area of a vertex.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 */
+	void addVertex(Vertex vertex) {
+		this.add(getVertexBounds((VisualVertex) vertex, this.gridScale));
+	}
+
+	/**
+	 * Returns the regions collected so far. They do not overlap.
+	 * 
+	 * @return the regions in pixels
+	 */
+	List<Rectangle> getRegions() {
+		return this.regions;
+	}
+
+	/**
+	 * Returns whether no region has been added.
+	 * 
+	 * @return {@code true} if nothing has to be redrawn
+	 */
+	boolean isEmpty() {
+		return this.regions.isEmpty();
+	}
+
+}
@@ -0,0 +1,288 @@
+package de.graphioli.view;
+
+import de.graphioli.model.Edge;
+import de.graphioli.model.GraphEvent;
+import de.graphioli.model.GraphSnapshot;
+import de.graphioli.model.Vertex;
+import de.graphioli.model.VisualVertex;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * This class is a uniform grid index over the areas the vertices and edges of
+ * a {@link GraphCanvas} are drawn in, so that redrawing a region only visits
+ * the elements near it. Each element is stored in every cell its area covers,
+ * and its area is computed once when it is added.
+ * 
+ * The index is kept up to date with the events of the canvas' journal, on the
+ * thread drawing the canvas.
+ * 
+ * @author Team Graphioli
+ */
+final class DrawingIndex {
+
+	/**
+	 * The side length of a cell, in grid points.
+	 */
+	static final int CELL_SIZE = 4;
+
+	/**
+	 * The distance in pixels between two grid points.
+	 */
+	private final int gridScale;
+
+	/**
+	 * The side length of a cell, in pixels.
+	 */
+	private final int cellPixels;
+
+	/**
+	 * The edges of each non-empty cell, keyed on the packed cell position.
+	 */
+	private final HashMap<Long, ArrayList<Edge>> edgeCells;
+
+	/**
+	 * The vertices of each non-empty cell, keyed on the packed cell position.
+	 */
+	private final HashMap<Long, ArrayList<VisualVertex>> vertexCells;
+
+	/**
+	 * The area of each indexed edge, in pixels.
+	 */
+	private final HashMap<Edge, Rectangle> edgeBounds;
+
+	/**
+	 * The area of each indexed vertex, in pixels.
+	 */
+	private final HashMap<VisualVertex, Rectangle> vertexBounds;
+
+	/**
+	 * Creates a new {@link DrawingIndex} holding the vertices and edges of a
+	 * snapshot.
+	 * 
+	 * @param gridScale
+	 *            the distance in pixels between two grid points
+	 * @param snapshot
+	 *            the graph to index
+	 */
+	DrawingIndex(int gridScale, GraphSnapshot snapshot) {
+		this.gridScale = gridScale;
+		this.cellPixels = Math.max(CELL_SIZE * gridScale, 1);
+		this.edgeCells = new HashMap<Long, ArrayList<Edge>>();
+		this.vertexCells = new HashMap<Long, ArrayList<VisualVertex>>();
+		this.edgeBounds = new HashMap<Edge, Rectangle>();
+		this.vertexBounds = new HashMap<VisualVertex, Rectangle>();
+		for (Vertex vertex : snapshot.getVertices()) {
+			this.addVertex((VisualVertex) vertex);
+		}
+		for (Edge edge : snapshot.getEdges()) {
+			this.addEdge(edge);
+		}
+	}
+
+	/**
+	 * Adds an edge, unless it is indexed already.
+	 * 
+	 * @param edge
+	 *            the edge
+	 */
+	void addEdge(Edge edge) {
+		if (this.edgeBounds.containsKey(edge)) {
+			return;
+		}
+		Rectangle bounds = DirtyRegions.getEdgeBounds(edge, this.gridScale);
+		this.edgeBounds.put(edge, bounds);
+		this.store(this.edgeCells, edge, bounds, true);
+	}
+
+	/**
+	 * Adds a vertex, unless it is indexed already.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 */
+	void addVertex(VisualVertex vertex) {
+		if (this.vertexBounds.containsKey(vertex)) {
+			return;
+		}
+		Rectangle bounds = DirtyRegions.getVertexBounds(vertex, this.gridScale);
+		this.vertexBounds.put(vertex, bounds);
+		this.store(this.vertexCells, vertex, bounds, true);
+	}
+
+	/**
+	 * Returns the edges whose area intersects the given region.
+	 * 
+	 * @param region
+	 *            the region in pixels
+	 * @return the edges, each once
+	 */
+	ArrayList<Edge> getEdges(Rectangle region) {
+		return this.collect(this.edgeCells, this.edgeBounds, region);
+	}
+
+	/**
+	 * Returns the vertices whose area intersects the given region.
+	 * 
+	 * @param region
+	 *            the region in pixels
+	 * @return the vertices, each once
+	 */
+	ArrayList<VisualVertex> getVertices(Rectangle region) {
+		return this.collect(this.vertexCells, this.vertexBounds, region);
+	}
+
+	/**
+	 * Removes an edge, if it is indexed.
+	 * 
+	 * @param edge
+	 *            the edge
+	 */
+	void removeEdge(Edge edge) {
+		Rectangle bounds = this.edgeBounds.remove(edge);
+		if (bounds != null) {
+			this.store(this.edgeCells, edge, bounds, false);
+		}
+	}
+
+	/**
+	 * Removes a vertex, if it is indexed.
+	 * 
+	 * @param vertex
+	 *            the vertex
+	 */
+	void removeVertex(VisualVertex vertex) {
+		Rectangle bounds = this.vertexBounds.remove(vertex);
+		if (bounds != null) {
+			this.store(this.vertexCells, vertex, bounds, false);
+		}
+	}
+
+	/**
+	 * Applies a change of the graph to this index. Changes of the visual state
+	 * do not move an element.
+	 * 
+	 * @param event
+	 *            the change
+	 */
+	void update(GraphEvent event) {
+		switch (event.getType()) {
+			case VERTEX_ADDED:
+				this.addVertex((VisualVertex) event.getVertex());
+				break;
+			case VERTEX_REMOVED:
+				this.removeVertex((VisualVertex) event.getVertex());
+				break;
+			case EDGE_ADDED:
+				this.addEdge(event.getEdge());
+				break;
+			case EDGE_REMOVED:
+				this.removeEdge(event.getEdge());
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Collects the elements of the cells covered by a region whose area
+	 * intersects the region.
+	 * 
+	 * @param cells
+	 *            the elements of each cell
+	 * @param bounds
+	 *            the area of each element
+	 * @param region
+	 *            the region in pixels
+	 * @param <T>
+	 *            the type of the elements
+	 * @return the elements, each once
+	 */
+	private <T> ArrayList<T> collect(HashMap<Long, ArrayList<T>> cells, HashMap<T, Rectangle> bounds,
+			Rectangle region) {
+		ArrayList<T> result = new ArrayList<T>();
+		HashSet<T> seen = new HashSet<T>();
+		int maxX = this.getCell(region.x + region.width - 1);
+		int maxY = this.getCell(region.y + region.height - 1);
+		for (int cellX = this.getCell(region.x); cellX <= maxX; cellX++) {
+			for (int cellY = this.getCell(region.y); cellY <= maxY; cellY++) {
+				ArrayList<T> bucket = cells.get(getKey(cellX, cellY));
+				if (bucket == null) {
+					continue;
+				}
+				for (int i = 0; i < bucket.size(); i++) {
+					T element = bucket.get(i);
+					if (region.intersects(bounds.get(element)) && seen.add(element)) {
+						result.add(element);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the cell containing a pixel coordinate.
+	 * 
+	 * @param pixel
+	 *            the coordinate in pixels, may be negative
+	 * @return the cell coordinate
+	 */
+	private int getCell(int pixel) {
+		return (int) Math.floor(pixel / (double) this.cellPixels);
+	}
+
+	/**
+	 * Packs a cell position into a key.
+	 * 
+	 * @param cellX
+	 *            the column of the cell
+	 * @param cellY
+	 *            the row of the cell
+	 * @return the key
+	 */
+	private static long getKey(int cellX, int cellY) {
+		return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Adds an element to or removes it from every cell covered by its area.
+	 * 
+	 * @param cells
+	 *            the elements of each cell
+	 * @param element
+	 *            the element
+	 * @param bounds
+	 *            the area of the element in pixels
+	 * @param add
+	 *            {@code true} to add the element, {@code false} to remove it
+	 * @param <T>
+	 *            the type of the elements
+	 */
+	private <T> void store(HashMap<Long, ArrayList<T>> cells, T element, Rectangle bounds, boolean add) {
+		int maxX = this.getCell(bounds.x + bounds.width - 1);
+		int maxY = this.getCell(bounds.y + bounds.height - 1);
+		for (int cellX = this.getCell(bounds.x); cellX <= maxX; cellX++) {
+			for (int cellY = this.getCell(bounds.y); cellY <= maxY; cellY++) {
+				Long key = Long.valueOf(getKey(cellX, cellY));
+				ArrayList<T> bucket = cells.get(key);
+				if (add) {
+					if (bucket == null) {
+						bucket = new ArrayList<T>(2);
+						cells.put(key, bucket);
+					}
+					bucket.add(element);
+				} else if (bucket != null) {
+					bucket.remove(element);
+					if (bucket.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -331,7 +331,7 @@ public class GameWindow extends JFrame implements View {
 	 * 
 	 * @param keyCode
 	 *            The code of the key that was released
-	 * @return <code>true</code> if the action was performed successfully,
+	 * @return <code>true</code> if the key release was queued,
 	 *         <code>false</code> otherwise
 	 */
 	boolean onKeyRelease(int keyCode) {
@@ -2,8 +2,8 @@ package de.graphioli.view;
 
 import de.graphioli.model.Edge;
 import de.graphioli.model.GameBoard;
-import de.graphioli.model.Graph;
-import de.graphioli.model.Vertex;
+import de.graphioli.model.GraphEvent;
+import de.graphioli.model.GraphJournal;
 import de.graphioli.model.VisualEdge;
 import de.graphioli.model.VisualVertex;
 
@@ -12,13 +12,22 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.Stroke;
 import java.awt.image.BufferedImage;
+import java.util.List;
 import java.util.logging.Logger;
 import javax.swing.JPanel;
 
 /**
- * This class represents the canvas where the {@link Graph} will be drawn on.
+ * This class represents the canvas where the
+ * {@link de.graphioli.model.Graph Graph} will be drawn on.
+ * 
+ * The canvas keeps the drawn board in an image. A {@link GraphJournal} records
+ * which vertices and edges changed, so an update only redraws and repaints
+ * the areas they cover. A {@link DrawingIndex} finds the vertices and edges
+ * within these areas. The whole board is redrawn when the game board is
+ * replaced or more changes happened than the journal holds.
  * 
  * @author Team Graphioli
  */
@@ -57,6 +66,23 @@ public class GraphCanvas extends JPanel {
 	 */
 	private Dimension canvasSize;
 
+	/**
+	 * Records the changes of the graph since the last update.
+	 */
+	private final GraphJournal journal;
+
+	/**
+	 * The {@link GameBoard} the journal listens to, {@code null} before the
+	 * first update.
+	 */
+	private GameBoard board;
+
+	/**
+	 * Finds the vertices and edges to redraw, {@code null} before the first
+	 * update.
+	 */
+	private DrawingIndex index;
+
 	/**
 	 * Creates a {@link GraphCanvas} with a {@link VisualGrid} and registers its
 	 * parent {@link GameWindow}.
@@ -70,6 +96,7 @@ public class GraphCanvas extends JPanel {
 		LOG.fine("GraphCanvas instantiated");
 		this.parentGameWindow = parentGameWindow;
 		this.gridStroke = new BasicStroke(1);
+		this.journal = new GraphJournal();
 
 		// Register grid
 		this.visualGrid = grid;
@@ -120,20 +147,51 @@ public class GraphCanvas extends JPanel {
 	}
 	
 	/**
-	 * Resets the buffered image of this {@code VisualVertex} to a completely
-	 * transparent state.
+	 * Returns the areas changed since the last update and binds the journal to
+	 * the current {@link GameBoard}. The changes are applied to the index.
+	 * 
+	 * @param current
+	 *            the current game board
+	 * @return the changed areas, or {@code null} if the whole board has to be
+	 *         redrawn
 	 */
-	private void clearBufferedImage() {
-		Graphics2D g2d = this.bufferedImage.createGraphics();
-		g2d.setBackground(new Color(255, 255, 255, 0));
-		g2d.clearRect(0, 0, (int) this.canvasSize.getWidth(), (int) this.canvasSize.getHeight());
+	private DirtyRegions collectDirtyRegions(GameBoard current) {
+		if (current != this.board) {
+			if (this.board != null) {
+				this.board.removeGraphListener(this.journal);
+			}
+			this.journal.clear();
+			current.addGraphListener(this.journal);
+			this.board = current;
+			return null;
+		}
+		if (this.journal.isOverflowed()) {
+			this.journal.clear();
+			return null;
+		}
+
+		DirtyRegions dirty = new DirtyRegions(this.visualGrid.getGridScale());
+		for (GraphEvent event : this.journal.drain()) {
+			dirty.add(event);
+			this.index.update(event);
+		}
+		return dirty;
 	}
 
-	private void drawBoard() {
+	/**
+	 * Clears an area of the buffered image and draws the grid, edges and
+	 * vertices within it again.
+	 * 
+	 * @param region
+	 *            the area to redraw
+	 * @param isDirected
+	 *            whether the graph is directed
+	 */
+	private void drawRegion(Rectangle region, boolean isDirected) {
 		Graphics2D g2d = this.bufferedImage.createGraphics();
-
-		GameBoard board = this.parentGameWindow.getViewManager().getGameManager().getGameBoard();
-		Graph graph = board.getGraph();
+		g2d.clip(region);
+		g2d.setBackground(new Color(255, 255, 255, 0));
+		g2d.clearRect(region.x, region.y, region.width, region.height);
 
 		/*
 		 * visualGrid in GameWindow after Canvas initiated but paintComponent
@@ -148,29 +206,20 @@ public class GraphCanvas extends JPanel {
 		this.visualGrid.draw(g2d);
 
 		// Drawing edges of the graph from the canvas
-		if (board.isDirectedGraph()) {
-			for (Edge edge : graph.getEdges()) {
+		for (Edge edge : this.index.getEdges(region)) {
+			if (isDirected) {
 				drawEdgeDirected(g2d, edge, gridScale);
-			}
-		} else {
-			for (Edge edge : graph.getEdges()) {
+			} else {
 				drawEdgeUndirected(g2d, edge, gridScale);
 			}
 		}
 
 		// Drawing vertices
-		for (Vertex v : graph.getVertices()) {
-
-			VisualVertex vertex = (VisualVertex) v;
-			g2d.drawImage(
-					vertex.getBufferedImage(),
-					((1 + vertex.getGridPoint().getPositionX()) * gridScale) - (VisualVertex.PIXELS_PER_SIDE / 2),
-					((1 + vertex.getGridPoint().getPositionY()) * gridScale) - (VisualVertex.PIXELS_PER_SIDE / 2),
-					VisualVertex.PIXELS_PER_SIDE,
-					VisualVertex.PIXELS_PER_SIDE,
-					null);
-
+		for (VisualVertex vertex : this.index.getVertices(region)) {
+			Rectangle bounds = DirtyRegions.getVertexBounds(vertex, gridScale);
+			g2d.drawImage(vertex.getBufferedImage(), bounds.x, bounds.y, bounds.width, bounds.height, null);
 		}
+		g2d.dispose();
 	}
 
 	@Override
@@ -182,15 +231,29 @@ public class GraphCanvas extends JPanel {
 	}
 
 	/**
-	 * Updates and redraws the {@link GraphCanvas}.
+	 * Updates and redraws the {@link GraphCanvas}. Only the areas of the
+	 * vertices and edges changed since the last update are redrawn.
 	 * 
 	 * @return <code>true</code> if the action was performed successfully,
 	 *         <code>false</code> otherwise
 	 */
 	boolean updateCanvas() {
-		this.clearBufferedImage();
-		this.drawBoard();
-		this.repaint();
+		GameBoard current = this.parentGameWindow.getViewManager().getGameManager().getGameBoard();
+		DirtyRegions dirty = this.collectDirtyRegions(current);
+
+		if (dirty == null) {
+			this.index = new DrawingIndex(this.visualGrid.getGridScale(), current.getSnapshot());
+			this.drawRegion(new Rectangle(this.canvasSize), current.isDirectedGraph());
+			this.repaint();
+			return true;
+		}
+
+		List<Rectangle> regions = dirty.getRegions();
+		for (Rectangle region : regions) {
+			this.drawRegion(region, current.isDirectedGraph());
+			this.repaint(region);
+		}
+		LOG.finer("Redrew " + regions.size() + " regions.");
 		return true;
 	}
 
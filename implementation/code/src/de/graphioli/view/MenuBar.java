@@ -6,6 +6,8 @@ import de.graphioli.utils.GameFileDialog;
 import de.graphioli.utils.Localization;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +15,7 @@ import java.util.logging.Logger;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.KeyStroke;
 
 /**
  * The {@link MenuBar} contains the game menu, options menu and help menu. It is
@@ -63,6 +66,8 @@ public class MenuBar extends JMenuBar implements ActionListener {
 	private JMenuItem quitItem;
 	private JMenuItem helpItem;
 	private JMenuItem restartItem;
+	private JMenuItem undoItem;
+	private JMenuItem redoItem;
 
 	/**
 	 * Creates the {@link MenuBar} and registers its parent {@link GameWindow}.
@@ -96,7 +101,26 @@ public class MenuBar extends JMenuBar implements ActionListener {
 		} else if (sourceItem.equals(this.helpItem)) {
 			this.parentGameWindow.getViewManager().getGameManager().openHelpFile();
 		} else if (sourceItem.equals(this.restartItem)) {
-			this.parentGameWindow.getViewManager().getGameManager().restartGame();
+			this.parentGameWindow.getViewManager().postInput(new Runnable() {
+				@Override
+				public void run() {
+					MenuBar.this.parentGameWindow.getViewManager().getGameManager().restartGame();
+				}
+			});
+		} else if (sourceItem.equals(this.undoItem)) {
+			this.parentGameWindow.getViewManager().postInput(new Runnable() {
+				@Override
+				public void run() {
+					MenuBar.this.parentGameWindow.getViewManager().getGameManager().undo();
+				}
+			});
+		} else if (sourceItem.equals(this.redoItem)) {
+			this.parentGameWindow.getViewManager().postInput(new Runnable() {
+				@Override
+				public void run() {
+					MenuBar.this.parentGameWindow.getViewManager().getGameManager().redo();
+				}
+			});
 		} else if (this.customItems.contains(sourceItem)) {
 			OptionsMenuItem optItem = (OptionsMenuItem) sourceItem;
 			this.parentGameWindow.getViewManager().onCustomMenuItemClick(optItem.getCustomItem());
@@ -131,13 +155,23 @@ public class MenuBar extends JMenuBar implements ActionListener {
 		this.quitItem = new JMenuItem(Localization.getLanguageString("menu_item_quit"));
 		this.helpItem = new JMenuItem(Localization.getLanguageString("menu_item_help"));
 		this.restartItem = new JMenuItem(Localization.getLanguageString("menu_item_restart"));
+		this.undoItem = new JMenuItem(Localization.getLanguageString("menu_item_undo"));
+		this.redoItem = new JMenuItem(Localization.getLanguageString("menu_item_redo"));
+
+		this.undoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+		this.redoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK));
 
 		this.saveItem.addActionListener(this);
 		this.loadItem.addActionListener(this);
 		this.quitItem.addActionListener(this);
 		this.helpItem.addActionListener(this);
 		this.restartItem.addActionListener(this);
+		this.undoItem.addActionListener(this);
+		this.redoItem.addActionListener(this);
 
+		this.gameMenu.add(this.undoItem);
+		this.gameMenu.add(this.redoItem);
+		this.gameMenu.addSeparator();
 		this.gameMenu.add(this.restartItem);
 		this.gameMenu.addSeparator();
 		this.gameMenu.add(this.saveItem);
@@ -163,10 +197,15 @@ public class MenuBar extends JMenuBar implements ActionListener {
 		String gameName = this.parentGameWindow.getViewManager().getGameManager().getGame().getClass().getName();
 		gameName = gameName.substring(gameName.indexOf('.') + 1, gameName.length());
 
-		File fileToLoad = GameFileDialog.loadGame(gameName, this.parentGameWindow);
+		final File fileToLoad = GameFileDialog.loadGame(gameName, this.parentGameWindow);
 
 		if (fileToLoad != null) {
-			this.parentGameWindow.getViewManager().getGameManager().loadGame(fileToLoad);
+			this.parentGameWindow.getViewManager().postInput(new Runnable() {
+				@Override
+				public void run() {
+					MenuBar.this.parentGameWindow.getViewManager().getGameManager().loadGame(fileToLoad);
+				}
+			});
 		}
 	}
 
@@ -177,10 +216,15 @@ public class MenuBar extends JMenuBar implements ActionListener {
 		String gameName = this.parentGameWindow.getViewManager().getGameManager().getGame().getClass().getName();
 		gameName = gameName.substring(gameName.indexOf('.') + 1, gameName.length());
 
-		File fileToSave = GameFileDialog.saveGame(gameName, this.parentGameWindow);
+		final File fileToSave = GameFileDialog.saveGame(gameName, this.parentGameWindow);
 
 		if (fileToSave != null) {
-			this.parentGameWindow.getViewManager().getGameManager().saveGame(fileToSave);
+			this.parentGameWindow.getViewManager().postInput(new Runnable() {
+				@Override
+				public void run() {
+					MenuBar.this.parentGameWindow.getViewManager().getGameManager().saveGame(fileToSave);
+				}
+			});
 		}
 	}
 
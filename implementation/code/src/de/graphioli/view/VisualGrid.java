@@ -156,7 +156,7 @@ public class VisualGrid implements MouseListener {
 				&& ((xpos * this.gridScale - VisualVertex.PIXELS_PER_SIDE / 2) < xCoord)
 				&& ((ypos * this.gridScale + VisualVertex.PIXELS_PER_SIDE / 2) > yCoord)
 				&& ((ypos * this.gridScale - VisualVertex.PIXELS_PER_SIDE / 2) < yCoord)) {
-			return new GridPoint(xpos - 1, ypos - 1);
+			return this.grid.getGridPoint(xpos - 1, ypos - 1);
 		}
 		return null;
 	}
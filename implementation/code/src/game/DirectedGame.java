@@ -3,6 +3,7 @@ package game;
 import java.awt.Color;
 import java.awt.event.KeyEvent;
 import de.graphioli.controller.Game;
+import de.graphioli.controller.UndoManager;
 import de.graphioli.model.GridPoint;
 import de.graphioli.model.MenuItem;
 import de.graphioli.model.SimpleVisualEdge;
@@ -23,11 +24,11 @@ public class DirectedGame extends Game {
 	protected boolean onVertexClick(VisualVertex vertex) {
 		SimpleVisualVertex cVtex = (SimpleVisualVertex) vertex;
 		if (selectedVertex == null) {
-			cVtex.setFillColor(Color.RED);
+			highlight(cVtex, Color.RED);
 			selectedVertex = cVtex;
 		} else {
 			if (selectedVertex == cVtex) {
-				selectedVertex.setFillColor(Color.ORANGE);
+				highlight(selectedVertex, Color.ORANGE);
 				selectedVertex = null;
 				return true;
 			}
@@ -39,7 +40,7 @@ public class DirectedGame extends Game {
 			} else {
 				getGameManager().getGameBoard().removeVisualEdge(oldEdge);
 			}
-			selectedVertex.setFillColor(vCol);
+			highlight(selectedVertex, vCol);
 			selectedVertex = null;
 
 		}
@@ -68,6 +69,7 @@ public class DirectedGame extends Game {
 	@Override
 	protected boolean onKeyRelease(int keyCode) {
 		if (keyCode == KeyEvent.VK_DELETE && selectedVertex != null) {
+			highlight(selectedVertex, vCol);
 			getGameManager().getGameBoard().removeVisualVertex(selectedVertex);
 			selectedVertex = null;
 		}
@@ -79,6 +81,9 @@ public class DirectedGame extends Game {
 
 		switch (item.getId()) {
 		case MENU_FLUSH:
+			if (this.selectedVertex != null) {
+				highlight(this.selectedVertex, vCol);
+			}
 			this.getGameManager().getGameBoard().flush();
 			this.selectedVertex = null;
 			break;
@@ -92,4 +97,25 @@ public class DirectedGame extends Game {
 		return true;
 	}
 
+	@Override
+	protected boolean onRedo() {
+		return onUndo();
+	}
+
+	@Override
+	protected boolean onUndo() {
+		if (selectedVertex != null && !getGameManager().getGameBoard().getGraph().containsVertex(selectedVertex)) {
+			selectedVertex = null;
+		}
+		return true;
+	}
+
+	// Selecting is no move, so it is not recorded for undoing
+	private void highlight(SimpleVisualVertex vtex, Color color) {
+		UndoManager undoManager = getGameManager().getUndoManager();
+		undoManager.setRecording(false);
+		vtex.setFillColor(color);
+		undoManager.setRecording(true);
+	}
+
 }
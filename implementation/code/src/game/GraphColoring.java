@@ -1,7 +1,9 @@
 package game;
 
 import de.graphioli.controller.Game;
+import de.graphioli.controller.UndoManager;
 import de.graphioli.controller.ViewManager;
+import de.graphioli.model.BoardTransaction;
 import de.graphioli.model.GameBoard;
 import de.graphioli.model.GridPoint;
 import de.graphioli.model.MenuItem;
@@ -89,10 +91,7 @@ public class GraphColoring extends Game {
 	@Override
 	protected boolean onVertexClick(VisualVertex vertex) {
 		if (vertex instanceof GraphColoringButtonVertex) {
-			GraphColoringButtonVertex btn = (GraphColoringButtonVertex) vertex;
-			this.selectedButton.setHighlighted(false);
-			this.selectedButton = btn;
-			btn.setHighlighted(true);
+			this.selectButton((GraphColoringButtonVertex) vertex);
 		} else {
 			GraphColoringVertex vtex = (GraphColoringVertex) vertex;
 
@@ -175,13 +174,15 @@ public class GraphColoring extends Game {
 		this.vertices = level.getVertices();
 		this.graphColored = false;
 
+		BoardTransaction transaction = mBoard.beginTransaction();
 		for (int i = 0; i < this.vertices.length; i++) {
-			mBoard.addVisualVertex(this.vertices[i]);
+			transaction.addVisualVertex(this.vertices[i]);
 		}
 
 		for (int i = 0; i < level.getEdges().length; i++) {
-			mBoard.addVisualEdge(level.getEdges()[i]);
+			transaction.addVisualEdge(level.getEdges()[i]);
 		}
+		transaction.commit();
 
 	}
 
@@ -384,9 +385,7 @@ public class GraphColoring extends Game {
 	@Override
 	protected boolean onKeyRelease(int keyCode) {
 		if (this.colorCount > (keyCode - KeyEvent.VK_F1) && (keyCode - KeyEvent.VK_F1) >= 0) {
-			this.selectedButton.setHighlighted(false);
-			this.selectedButton = this.buttons[keyCode - KeyEvent.VK_F1];
-			this.selectedButton.setHighlighted(true);
+			this.selectButton(this.buttons[keyCode - KeyEvent.VK_F1]);
 		}
 
 		if (keyCode == KeyEvent.VK_SPACE && singleplayer) {
@@ -397,6 +396,50 @@ public class GraphColoring extends Game {
 		return true;
 	}
 
+	/**
+	 * Recomputes whether the graph is colored after a move was undone or
+	 * redone. Only moves of singleplayer games can be undone, as the turns of
+	 * the players are not.
+	 * 
+	 * @return <code>true</code> in singleplayer mode
+	 */
+	@Override
+	protected boolean onRedo() {
+		return this.onUndo();
+	}
+
+	/**
+	 * Recomputes whether the graph is colored after a move was undone or
+	 * redone. Only moves of singleplayer games can be undone, as the turns of
+	 * the players are not.
+	 * 
+	 * @return <code>true</code> in singleplayer mode
+	 */
+	@Override
+	protected boolean onUndo() {
+		if (!this.singleplayer) {
+			return false;
+		}
+		this.graphColored = this.isGraphColored();
+		return true;
+	}
+
+	/**
+	 * Highlights the given button and selects its color. Selecting a color is
+	 * no move, so it is not recorded for undoing.
+	 * 
+	 * @param button
+	 *            the button to select
+	 */
+	private void selectButton(GraphColoringButtonVertex button) {
+		UndoManager undoManager = this.getGameManager().getUndoManager();
+		undoManager.setRecording(false);
+		this.selectedButton.setHighlighted(false);
+		this.selectedButton = button;
+		button.setHighlighted(true);
+		undoManager.setRecording(true);
+	}
+
 	/**
 	 * Initializes the following level.
 	 */
@@ -407,6 +450,7 @@ public class GraphColoring extends Game {
 		this.selectedLevel %= GraphColoringLevel.IMPLEMENTED_LEVEL_COUNT;
 		this.generateLevel();
 		this.generateButtons();
+		this.getGameManager().getUndoManager().clear();
 	}
 
 	/**
@@ -420,5 +464,6 @@ public class GraphColoring extends Game {
 		this.selectedLevel %= GraphColoringLevel.IMPLEMENTED_LEVEL_COUNT;
 		this.generateLevel();
 		this.generateButtons();
+		this.getGameManager().getUndoManager().clear();
 	}
 }
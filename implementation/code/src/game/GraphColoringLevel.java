@@ -91,7 +91,7 @@ public final class GraphColoringLevel {
 		GridPoint tmpPoint;
 
 		for (int i = 0; i < 4; i++) {
-			tmpPoint = new GridPoint((i / 2) * 3 + 2, (i % 2) * 3 + 2);
+			tmpPoint = GridPoint.valueOf((i / 2) * 3 + 2, (i % 2) * 3 + 2);
 			vertices[i] = new GraphColoringVertex(tmpPoint);
 		}
 		for (int i = 0; i < 4; i++) {
@@ -112,12 +112,12 @@ public final class GraphColoringLevel {
 		GraphColoringVertex[] vertices = new GraphColoringVertex[6];
 		VisualEdge[] edges = new VisualEdge[10];
 
-		vertices[0] = new GraphColoringVertex(new GridPoint(1, 4));
-		vertices[1] = new GraphColoringVertex(new GridPoint(3, 2));
-		vertices[2] = new GraphColoringVertex(new GridPoint(5, 2));
-		vertices[3] = new GraphColoringVertex(new GridPoint(7, 4));
-		vertices[4] = new GraphColoringVertex(new GridPoint(5, 6));
-		vertices[5] = new GraphColoringVertex(new GridPoint(3, 6));
+		vertices[0] = new GraphColoringVertex(GridPoint.valueOf(1, 4));
+		vertices[1] = new GraphColoringVertex(GridPoint.valueOf(3, 2));
+		vertices[2] = new GraphColoringVertex(GridPoint.valueOf(5, 2));
+		vertices[3] = new GraphColoringVertex(GridPoint.valueOf(7, 4));
+		vertices[4] = new GraphColoringVertex(GridPoint.valueOf(5, 6));
+		vertices[5] = new GraphColoringVertex(GridPoint.valueOf(3, 6));
 
 		for (int i = 0; i < 6; i++) {
 			edges[i] = new SimpleVisualEdge(vertices[i], vertices[(i + 1) % 6]);
@@ -140,19 +140,19 @@ public final class GraphColoringLevel {
 		GraphColoringVertex[] vertices = new GraphColoringVertex[13];
 		VisualEdge[] edges = new VisualEdge[14];
 
-		vertices[0] = new GraphColoringVertex(new GridPoint(1, 3));
-		vertices[1] = new GraphColoringVertex(new GridPoint(2, 4));
-		vertices[2] = new GraphColoringVertex(new GridPoint(3, 3));
-		vertices[3] = new GraphColoringVertex(new GridPoint(4, 3));
-		vertices[4] = new GraphColoringVertex(new GridPoint(5, 3));
-		vertices[5] = new GraphColoringVertex(new GridPoint(6, 3));
-		vertices[6] = new GraphColoringVertex(new GridPoint(4, 2));
-		vertices[7] = new GraphColoringVertex(new GridPoint(5, 4));
-		vertices[8] = new GraphColoringVertex(new GridPoint(4, 5));
-		vertices[9] = new GraphColoringVertex(new GridPoint(3, 6));
-		vertices[10] = new GraphColoringVertex(new GridPoint(5, 6));
-		vertices[11] = new GraphColoringVertex(new GridPoint(6, 5));
-		vertices[12] = new GraphColoringVertex(new GridPoint(3, 7));
+		vertices[0] = new GraphColoringVertex(GridPoint.valueOf(1, 3));
+		vertices[1] = new GraphColoringVertex(GridPoint.valueOf(2, 4));
+		vertices[2] = new GraphColoringVertex(GridPoint.valueOf(3, 3));
+		vertices[3] = new GraphColoringVertex(GridPoint.valueOf(4, 3));
+		vertices[4] = new GraphColoringVertex(GridPoint.valueOf(5, 3));
+		vertices[5] = new GraphColoringVertex(GridPoint.valueOf(6, 3));
+		vertices[6] = new GraphColoringVertex(GridPoint.valueOf(4, 2));
+		vertices[7] = new GraphColoringVertex(GridPoint.valueOf(5, 4));
+		vertices[8] = new GraphColoringVertex(GridPoint.valueOf(4, 5));
+		vertices[9] = new GraphColoringVertex(GridPoint.valueOf(3, 6));
+		vertices[10] = new GraphColoringVertex(GridPoint.valueOf(5, 6));
+		vertices[11] = new GraphColoringVertex(GridPoint.valueOf(6, 5));
+		vertices[12] = new GraphColoringVertex(GridPoint.valueOf(3, 7));
 
 		for (int i = 0; i < 5; i++) {
 			edges[i] = new SimpleVisualEdge(vertices[i], vertices[i + 1]);
@@ -179,16 +179,16 @@ public final class GraphColoringLevel {
 		GraphColoringVertex[] vertices = new GraphColoringVertex[10];
 		VisualEdge[] edges = new VisualEdge[15];
 		
-		vertices[0] = new GraphColoringVertex(new GridPoint(4, 1));
-		vertices[1] = new GraphColoringVertex(new GridPoint(4, 2));
-		vertices[2] = new GraphColoringVertex(new GridPoint(1, 3));
-		vertices[3] = new GraphColoringVertex(new GridPoint(7, 3));
-		vertices[4] = new GraphColoringVertex(new GridPoint(2, 4));
-		vertices[5] = new GraphColoringVertex(new GridPoint(6, 4));
-		vertices[6] = new GraphColoringVertex(new GridPoint(3, 6));
-		vertices[7] = new GraphColoringVertex(new GridPoint(5, 6));
-		vertices[8] = new GraphColoringVertex(new GridPoint(2, 7));
-		vertices[9] = new GraphColoringVertex(new GridPoint(6, 7));
+		vertices[0] = new GraphColoringVertex(GridPoint.valueOf(4, 1));
+		vertices[1] = new GraphColoringVertex(GridPoint.valueOf(4, 2));
+		vertices[2] = new GraphColoringVertex(GridPoint.valueOf(1, 3));
+		vertices[3] = new GraphColoringVertex(GridPoint.valueOf(7, 3));
+		vertices[4] = new GraphColoringVertex(GridPoint.valueOf(2, 4));
+		vertices[5] = new GraphColoringVertex(GridPoint.valueOf(6, 4));
+		vertices[6] = new GraphColoringVertex(GridPoint.valueOf(3, 6));
+		vertices[7] = new GraphColoringVertex(GridPoint.valueOf(5, 6));
+		vertices[8] = new GraphColoringVertex(GridPoint.valueOf(2, 7));
+		vertices[9] = new GraphColoringVertex(GridPoint.valueOf(6, 7));
 		
 		edges[0] = new SimpleVisualEdge(vertices[0], vertices[1]);
 		edges[1] = new SimpleVisualEdge(vertices[0], vertices[2]);
@@ -219,20 +219,20 @@ public final class GraphColoringLevel {
 		GraphColoringVertex[] vertices = new GraphColoringVertex[14];
 		VisualEdge[] edges = new VisualEdge[29];
 
-		vertices[0] = new GraphColoringVertex(new GridPoint(2, 3));
-		vertices[1] = new GraphColoringVertex(new GridPoint(4, 2));
-		vertices[2] = new GraphColoringVertex(new GridPoint(7, 2));
-		vertices[3] = new GraphColoringVertex(new GridPoint(10, 3));
-		vertices[4] = new GraphColoringVertex(new GridPoint(6, 4));
-		vertices[5] = new GraphColoringVertex(new GridPoint(1, 5));
-		vertices[6] = new GraphColoringVertex(new GridPoint(4, 5));
-		vertices[7] = new GraphColoringVertex(new GridPoint(6, 6));
-		vertices[8] = new GraphColoringVertex(new GridPoint(9, 5));
-		vertices[9] = new GraphColoringVertex(new GridPoint(3, 8));
-		vertices[10] = new GraphColoringVertex(new GridPoint(8, 7));
-		vertices[11] = new GraphColoringVertex(new GridPoint(2, 9));
-		vertices[12] = new GraphColoringVertex(new GridPoint(6, 10));
-		vertices[13] = new GraphColoringVertex(new GridPoint(8, 9));
+		vertices[0] = new GraphColoringVertex(GridPoint.valueOf(2, 3));
+		vertices[1] = new GraphColoringVertex(GridPoint.valueOf(4, 2));
+		vertices[2] = new GraphColoringVertex(GridPoint.valueOf(7, 2));
+		vertices[3] = new GraphColoringVertex(GridPoint.valueOf(10, 3));
+		vertices[4] = new GraphColoringVertex(GridPoint.valueOf(6, 4));
+		vertices[5] = new GraphColoringVertex(GridPoint.valueOf(1, 5));
+		vertices[6] = new GraphColoringVertex(GridPoint.valueOf(4, 5));
+		vertices[7] = new GraphColoringVertex(GridPoint.valueOf(6, 6));
+		vertices[8] = new GraphColoringVertex(GridPoint.valueOf(9, 5));
+		vertices[9] = new GraphColoringVertex(GridPoint.valueOf(3, 8));
+		vertices[10] = new GraphColoringVertex(GridPoint.valueOf(8, 7));
+		vertices[11] = new GraphColoringVertex(GridPoint.valueOf(2, 9));
+		vertices[12] = new GraphColoringVertex(GridPoint.valueOf(6, 10));
+		vertices[13] = new GraphColoringVertex(GridPoint.valueOf(8, 9));
 
 		edges[0] = new SimpleVisualEdge(vertices[0], vertices[1]);
 		edges[1] = new SimpleVisualEdge(vertices[0], vertices[4]);
@@ -277,35 +277,35 @@ public final class GraphColoringLevel {
 		GraphColoringVertex[] vertices = new GraphColoringVertex[29];
 		VisualEdge[] edges = new VisualEdge[74];
 
-		vertices[0] = new GraphColoringVertex(new GridPoint(1, 2));
-		vertices[1] = new GraphColoringVertex(new GridPoint(3, 2));
-		vertices[2] = new GraphColoringVertex(new GridPoint(5, 2));
-		vertices[3] = new GraphColoringVertex(new GridPoint(7, 2));
-		vertices[4] = new GraphColoringVertex(new GridPoint(9, 2));
-		vertices[5] = new GraphColoringVertex(new GridPoint(8, 3));
-		vertices[6] = new GraphColoringVertex(new GridPoint(6, 3));
-		vertices[7] = new GraphColoringVertex(new GridPoint(4, 3));
-		vertices[8] = new GraphColoringVertex(new GridPoint(2, 3));
-		vertices[9] = new GraphColoringVertex(new GridPoint(3, 4));
-		vertices[10] = new GraphColoringVertex(new GridPoint(5, 4));
-		vertices[11] = new GraphColoringVertex(new GridPoint(7, 4));
-		vertices[12] = new GraphColoringVertex(new GridPoint(6, 5));
-		vertices[13] = new GraphColoringVertex(new GridPoint(4, 5));
-		vertices[14] = new GraphColoringVertex(new GridPoint(5, 6));
-		vertices[15] = new GraphColoringVertex(new GridPoint(1, 10));
-		vertices[16] = new GraphColoringVertex(new GridPoint(3, 10));
-		vertices[17] = new GraphColoringVertex(new GridPoint(5, 10));
-		vertices[18] = new GraphColoringVertex(new GridPoint(7, 10));
-		vertices[19] = new GraphColoringVertex(new GridPoint(9, 10));
-		vertices[20] = new GraphColoringVertex(new GridPoint(8, 9));
-		vertices[21] = new GraphColoringVertex(new GridPoint(6, 9));
-		vertices[22] = new GraphColoringVertex(new GridPoint(4, 9));
-		vertices[23] = new GraphColoringVertex(new GridPoint(2, 9));
-		vertices[24] = new GraphColoringVertex(new GridPoint(3, 8));
-		vertices[25] = new GraphColoringVertex(new GridPoint(5, 8));
-		vertices[26] = new GraphColoringVertex(new GridPoint(7, 8));
-		vertices[27] = new GraphColoringVertex(new GridPoint(6, 7));
-		vertices[28] = new GraphColoringVertex(new GridPoint(4, 7));
+		vertices[0] = new GraphColoringVertex(GridPoint.valueOf(1, 2));
+		vertices[1] = new GraphColoringVertex(GridPoint.valueOf(3, 2));
+		vertices[2] = new GraphColoringVertex(GridPoint.valueOf(5, 2));
+		vertices[3] = new GraphColoringVertex(GridPoint.valueOf(7, 2));
+		vertices[4] = new GraphColoringVertex(GridPoint.valueOf(9, 2));
+		vertices[5] = new GraphColoringVertex(GridPoint.valueOf(8, 3));
+		vertices[6] = new GraphColoringVertex(GridPoint.valueOf(6, 3));
+		vertices[7] = new GraphColoringVertex(GridPoint.valueOf(4, 3));
+		vertices[8] = new GraphColoringVertex(GridPoint.valueOf(2, 3));
+		vertices[9] = new GraphColoringVertex(GridPoint.valueOf(3, 4));
+		vertices[10] = new GraphColoringVertex(GridPoint.valueOf(5, 4));
+		vertices[11] = new GraphColoringVertex(GridPoint.valueOf(7, 4));
+		vertices[12] = new GraphColoringVertex(GridPoint.valueOf(6, 5));
+		vertices[13] = new GraphColoringVertex(GridPoint.valueOf(4, 5));
+		vertices[14] = new GraphColoringVertex(GridPoint.valueOf(5, 6));
+		vertices[15] = new GraphColoringVertex(GridPoint.valueOf(1, 10));
+		vertices[16] = new GraphColoringVertex(GridPoint.valueOf(3, 10));
+		vertices[17] = new GraphColoringVertex(GridPoint.valueOf(5, 10));
+		vertices[18] = new GraphColoringVertex(GridPoint.valueOf(7, 10));
+		vertices[19] = new GraphColoringVertex(GridPoint.valueOf(9, 10));
+		vertices[20] = new GraphColoringVertex(GridPoint.valueOf(8, 9));
+		vertices[21] = new GraphColoringVertex(GridPoint.valueOf(6, 9));
+		vertices[22] = new GraphColoringVertex(GridPoint.valueOf(4, 9));
+		vertices[23] = new GraphColoringVertex(GridPoint.valueOf(2, 9));
+		vertices[24] = new GraphColoringVertex(GridPoint.valueOf(3, 8));
+		vertices[25] = new GraphColoringVertex(GridPoint.valueOf(5, 8));
+		vertices[26] = new GraphColoringVertex(GridPoint.valueOf(7, 8));
+		vertices[27] = new GraphColoringVertex(GridPoint.valueOf(6, 7));
+		vertices[28] = new GraphColoringVertex(GridPoint.valueOf(4, 7));
 
 		for (int i = 0; i < 14; i++) {
 			edges[i] = new SimpleVisualEdge(vertices[i], vertices[i + 1]);
@@ -374,7 +374,7 @@ public final class GraphColoringLevel {
 		VisualEdge[] edges = new VisualEdge[37];
 		
 		for (int i = 0; i < 25; i++) {
-			vertices[i] = new GraphColoringVertex(new GridPoint(i % 5 + 3, i / 5 + 3));
+			vertices[i] = new GraphColoringVertex(GridPoint.valueOf(i % 5 + 3, i / 5 + 3));
 		}
 		
 		edges[0] = new SimpleVisualEdge(vertices[0], vertices[1]);
@@ -427,32 +427,32 @@ public final class GraphColoringLevel {
 		GraphColoringVertex[] vertices = new GraphColoringVertex[26];
 		VisualEdge[] edges = new VisualEdge[52]; 
 		
-		vertices[0] = new GraphColoringVertex(new GridPoint(4, 1));
-		vertices[1] = new GraphColoringVertex(new GridPoint(6, 1));
-		vertices[2] = new GraphColoringVertex(new GridPoint(1, 2));
-		vertices[3] = new GraphColoringVertex(new GridPoint(9, 2));
-		vertices[4] = new GraphColoringVertex(new GridPoint(2, 4));
-		vertices[5] = new GraphColoringVertex(new GridPoint(5, 4));
-		vertices[6] = new GraphColoringVertex(new GridPoint(8, 4));
-		vertices[7] = new GraphColoringVertex(new GridPoint(1, 5));
-		vertices[8] = new GraphColoringVertex(new GridPoint(4, 5));
-		vertices[9] = new GraphColoringVertex(new GridPoint(6, 5));
-		vertices[10] = new GraphColoringVertex(new GridPoint(9, 5));
-		vertices[11] = new GraphColoringVertex(new GridPoint(0, 6));
-		vertices[12] = new GraphColoringVertex(new GridPoint(3, 6));
-		vertices[13] = new GraphColoringVertex(new GridPoint(7, 6));
-		vertices[14] = new GraphColoringVertex(new GridPoint(10, 6));
-		vertices[15] = new GraphColoringVertex(new GridPoint(4, 7));
-		vertices[16] = new GraphColoringVertex(new GridPoint(6, 7));
-		vertices[17] = new GraphColoringVertex(new GridPoint(2, 8));
-		vertices[18] = new GraphColoringVertex(new GridPoint(4, 8));
-		vertices[19] = new GraphColoringVertex(new GridPoint(6, 8));
-		vertices[20] = new GraphColoringVertex(new GridPoint(8, 8));
-		vertices[21] = new GraphColoringVertex(new GridPoint(3, 10));
-		vertices[22] = new GraphColoringVertex(new GridPoint(5, 10));
-		vertices[23] = new GraphColoringVertex(new GridPoint(7, 10));
-		vertices[24] = new GraphColoringVertex(new GridPoint(2, 11));
-		vertices[25] = new GraphColoringVertex(new GridPoint(8, 11));
+		vertices[0] = new GraphColoringVertex(GridPoint.valueOf(4, 1));
+		vertices[1] = new GraphColoringVertex(GridPoint.valueOf(6, 1));
+		vertices[2] = new GraphColoringVertex(GridPoint.valueOf(1, 2));
+		vertices[3] = new GraphColoringVertex(GridPoint.valueOf(9, 2));
+		vertices[4] = new GraphColoringVertex(GridPoint.valueOf(2, 4));
+		vertices[5] = new GraphColoringVertex(GridPoint.valueOf(5, 4));
+		vertices[6] = new GraphColoringVertex(GridPoint.valueOf(8, 4));
+		vertices[7] = new GraphColoringVertex(GridPoint.valueOf(1, 5));
+		vertices[8] = new GraphColoringVertex(GridPoint.valueOf(4, 5));
+		vertices[9] = new GraphColoringVertex(GridPoint.valueOf(6, 5));
+		vertices[10] = new GraphColoringVertex(GridPoint.valueOf(9, 5));
+		vertices[11] = new GraphColoringVertex(GridPoint.valueOf(0, 6));
+		vertices[12] = new GraphColoringVertex(GridPoint.valueOf(3, 6));
+		vertices[13] = new GraphColoringVertex(GridPoint.valueOf(7, 6));
+		vertices[14] = new GraphColoringVertex(GridPoint.valueOf(10, 6));
+		vertices[15] = new GraphColoringVertex(GridPoint.valueOf(4, 7));
+		vertices[16] = new GraphColoringVertex(GridPoint.valueOf(6, 7));
+		vertices[17] = new GraphColoringVertex(GridPoint.valueOf(2, 8));
+		vertices[18] = new GraphColoringVertex(GridPoint.valueOf(4, 8));
+		vertices[19] = new GraphColoringVertex(GridPoint.valueOf(6, 8));
+		vertices[20] = new GraphColoringVertex(GridPoint.valueOf(8, 8));
+		vertices[21] = new GraphColoringVertex(GridPoint.valueOf(3, 10));
+		vertices[22] = new GraphColoringVertex(GridPoint.valueOf(5, 10));
+		vertices[23] = new GraphColoringVertex(GridPoint.valueOf(7, 10));
+		vertices[24] = new GraphColoringVertex(GridPoint.valueOf(2, 11));
+		vertices[25] = new GraphColoringVertex(GridPoint.valueOf(8, 11));
 		
 		edges[0] = new SimpleVisualEdge(vertices[0], vertices[5]);
 		edges[1] = new SimpleVisualEdge(vertices[1], vertices[5]);
@@ -518,10 +518,10 @@ public final class GraphColoringLevel {
 		GraphColoringVertex[] vertices = new GraphColoringVertex[4];
 		VisualEdge[] edges = new VisualEdge[4];
 
-		vertices[0] = new GraphColoringVertex(new GridPoint(2, 2));
-		vertices[1] = new GraphColoringVertex(new GridPoint(2, 5));
-		vertices[2] = new GraphColoringVertex(new GridPoint(5, 2));
-		vertices[3] = new GraphColoringVertex(new GridPoint(5, 5));
+		vertices[0] = new GraphColoringVertex(GridPoint.valueOf(2, 2));
+		vertices[1] = new GraphColoringVertex(GridPoint.valueOf(2, 5));
+		vertices[2] = new GraphColoringVertex(GridPoint.valueOf(5, 2));
+		vertices[3] = new GraphColoringVertex(GridPoint.valueOf(5, 5));
 		
 		edges[0] = new SimpleVisualEdge(vertices[0], vertices[1]);
 		edges[1] = new SimpleVisualEdge(vertices[0], vertices[2]);
@@ -4,6 +4,8 @@ package game;
 import de.graphioli.model.GridPoint;
 import de.graphioli.model.SimpleVisualVertex;
 import java.awt.Color;
+import java.util.Arrays;
+import java.util.List;
 
 
 
@@ -52,6 +54,17 @@ public class GraphColoringVertex extends SimpleVisualVertex {
 		return this.colorID;
 	}
 
+	/**
+	 * Returns the color ID along with the visual state of a
+	 * {@link SimpleVisualVertex}.
+	 * 
+	 * @return the visual state
+	 */
+	@Override
+	public Object getVisualState() {
+		return Arrays.asList(this.colorID, super.getVisualState());
+	}
+
 	/**
 	 * Sets the color ID of this vertex and the color accordingly.
 	 * 
@@ -77,4 +90,18 @@ public class GraphColoringVertex extends SimpleVisualVertex {
 				setFillColor(Color.WHITE);
 		}
 	}
+
+	/**
+	 * Restores the color ID along with the visual state of a
+	 * {@link SimpleVisualVertex}.
+	 * 
+	 * @param state
+	 *            a visual state returned by {@link #getVisualState()}
+	 */
+	@Override
+	public void setVisualState(Object state) {
+		List<?> values = (List<?>) state;
+		this.colorID = (Integer) values.get(0);
+		super.setVisualState(values.get(1));
+	}
 }
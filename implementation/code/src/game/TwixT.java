@@ -1,11 +1,12 @@
 package game;
 
-import de.graphioli.algorithms.FindPath;
+import de.graphioli.algorithms.ConnectivityIndex;
 import de.graphioli.algorithms.PlanarityCheck;
 import de.graphioli.controller.Game;
 import de.graphioli.controller.PlayerManager;
 import de.graphioli.model.GameBoard;
 import de.graphioli.model.Graph;
+import de.graphioli.model.Grid;
 import de.graphioli.model.GridPoint;
 import de.graphioli.model.Player;
 import de.graphioli.model.SimpleVisualEdge;
@@ -42,6 +43,8 @@ public class TwixT extends Game {
 
 	private TwixTVertex originVertex;
 
+	private ConnectivityIndex connectivity;
+
 	/**
 	 * Selects a tower on the {@link GameBoard} and creates an {@link Edge}
 	 * between this {@link Vertex} and the one previously selected if they
@@ -104,7 +107,7 @@ public class TwixT extends Game {
 					// Checks if Player One has a path connecting his two
 					// sides
 
-					if (FindPath.performAlgorithm(graph, this.startVertexOne, this.endVertexOne)) {
+					if (this.connectivity.isConnected(this.startVertexOne, this.endVertexOne)) {
 						this.playerManager.setActivePlayerAsWinning();
 						this.getGameManager().finishGame();
 						return true;
@@ -113,7 +116,7 @@ public class TwixT extends Game {
 					edge.setStrokeColor(playerTwoColor);
 					// Checks if Player Two has a path connecting his two
 					// sides
-					if (FindPath.performAlgorithm(graph, this.startVertexTwo, this.endVertexTwo)) {
+					if (this.connectivity.isConnected(this.startVertexTwo, this.endVertexTwo)) {
 						this.playerManager.setActivePlayerAsWinning();
 						this.getGameManager().finishGame();
 						return true;
@@ -186,7 +189,7 @@ public class TwixT extends Game {
 		TwixTVertex tmpVertex;
 
 		for (int i = 1; i < this.gridSize - 1; i++) {
-			tmpGridPoint = new GridPoint(i, 0);
+			tmpGridPoint = this.board.getGrid().getGridPoint(i, 0);
 			tmpVertex = new TwixTVertex(tmpGridPoint);
 			tmpVertex.setPlayer(this.playerOne);
 			this.board.addVisualVertex(tmpVertex);
@@ -202,7 +205,7 @@ public class TwixT extends Game {
 		prevVertex = null;
 
 		for (int i = 1; i < this.gridSize - 1; i++) {
-			tmpGridPoint = new GridPoint(i, this.gridSize - 1);
+			tmpGridPoint = this.board.getGrid().getGridPoint(i, this.gridSize - 1);
 			tmpVertex = new TwixTVertex(tmpGridPoint);
 			tmpVertex.setPlayer(this.playerOne);
 			this.board.addVisualVertex(tmpVertex);
@@ -218,7 +221,7 @@ public class TwixT extends Game {
 		prevVertex = null;
 
 		for (int i = 1; i < this.gridSize - 1; i++) {
-			tmpGridPoint = new GridPoint(0, i);
+			tmpGridPoint = this.board.getGrid().getGridPoint(0, i);
 			tmpVertex = new TwixTVertex(tmpGridPoint);
 			tmpVertex.setPlayer(this.playerTwo);
 			this.board.addVisualVertex(tmpVertex);
@@ -234,7 +237,7 @@ public class TwixT extends Game {
 		prevVertex = null;
 
 		for (int i = 1; i < this.gridSize - 1; i++) {
-			tmpGridPoint = new GridPoint(this.gridSize - 1, i);
+			tmpGridPoint = this.board.getGrid().getGridPoint(this.gridSize - 1, i);
 			tmpVertex = new TwixTVertex(tmpGridPoint);
 			tmpVertex.setPlayer(this.playerTwo);
 			this.board.addVisualVertex(tmpVertex);
@@ -275,14 +278,11 @@ public class TwixT extends Game {
 	protected boolean onGameLoad(HashMap<Integer, Object> customValues) {
 		this.initFields();
 
-		this.startVertexOne = (TwixTVertex) this.board.getGrid().getVisualVertexAtGridPoint(
-				new GridPoint(this.gridSize - 2, 0));
-		this.endVertexOne = (TwixTVertex) this.board.getGrid().getVisualVertexAtGridPoint(
-				new GridPoint(this.gridSize - 2, this.gridSize - 1));
-		this.startVertexTwo = (TwixTVertex) this.board.getGrid().getVisualVertexAtGridPoint(
-				new GridPoint(0, this.gridSize - 2));
-		this.endVertexTwo = (TwixTVertex) this.board.getGrid().getVisualVertexAtGridPoint(
-				new GridPoint(this.gridSize - 1, this.gridSize - 2));
+		Grid grid = this.board.getGrid();
+		this.startVertexOne = (TwixTVertex) grid.getVisualVertexAt(this.gridSize - 2, 0);
+		this.endVertexOne = (TwixTVertex) grid.getVisualVertexAt(this.gridSize - 2, this.gridSize - 1);
+		this.startVertexTwo = (TwixTVertex) grid.getVisualVertexAt(0, this.gridSize - 2);
+		this.endVertexTwo = (TwixTVertex) grid.getVisualVertexAt(this.gridSize - 1, this.gridSize - 2);
 
 		// Refresh vertices... -.-"
 		for (Vertex vtex : this.board.getGraph().getVertices()) {
@@ -302,6 +302,7 @@ public class TwixT extends Game {
 				this.playerTwo, this.getGameResources().getImageRessource(playerTwoImgFile));
 
 		this.board = this.getGameManager().getGameBoard();
+		this.connectivity = new ConnectivityIndex(this.board.getGraph());
 
 		this.gridSize = Math.min(this.board.getGrid().getHorizontalGridPoints(), this.board.getGrid()
 				.getVerticalGridPoints());
@@ -0,0 +1,93 @@
+package de.graphioli.benchmark;
+
+/**
+ * This class represents a single micro benchmark. An invocation consists of
+ * {@link #prepare()}, {@link #run()} and {@link #cleanUp()}, of which only
+ * {@link #run()} is measured.
+ * 
+ * @author Team Graphioli
+ */
+public abstract class Benchmark {
+
+	/**
+	 * The name of this benchmark.
+	 */
+	private final String name;
+
+	/**
+	 * Whether this benchmark depends on the {@link GraphFixture}.
+	 */
+	private final boolean parameterised;
+
+	/**
+	 * Creates a new {@link Benchmark}.
+	 * 
+	 * @param name
+	 *            the name of the benchmark
+	 * @param parameterised
+	 *            {@code true} if the benchmark is run once per graph shape
+	 *            and size, {@code false} if it is run only once
+	 */
+	protected Benchmark(String name, boolean parameterised) {
+		this.name = name;
+		this.parameterised = parameterised;
+	}
+
+	/**
+	 * Returns the name of this benchmark.
+	 * 
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns whether this benchmark is run once per graph shape and size.
+	 * 
+	 * @return {@code true} if the benchmark uses the graph fixture
+	 */
+	public boolean isParameterised() {
+		return this.parameterised;
+	}
+
+	/**
+	 * Sets up the state shared by all invocations of a trial.
+	 * 
+	 * @param fixture
+	 *            the graph fixture of the trial, {@code null} if the
+	 *            benchmark is not parameterised
+	 */
+	public void setUp(GraphFixture fixture) {
+	}
+
+	/**
+	 * Prepares a single invocation. Not measured.
+	 */
+	public void prepare() {
+	}
+
+	/**
+	 * Runs a single invocation. Only this method is measured.
+	 * 
+	 * @return a result that is consumed, so the work cannot be optimized away
+	 */
+	public abstract Object run();
+
+	/**
+	 * Cleans up after a single invocation. Not measured.
+	 */
+	public void cleanUp() {
+	}
+
+	/**
+	 * Returns the number of operations performed by one invocation, used to
+	 * report the time per operation.
+	 * 
+	 * @return the number of operations per invocation
+	 */
+	public int getOperations() {
+		return 1;
+	}
+
+}
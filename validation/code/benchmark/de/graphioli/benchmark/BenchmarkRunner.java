@@ -0,0 +1,233 @@
+package de.graphioli.benchmark;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * This class runs the {@link Benchmarks}. Every benchmark is run once per
+ * graph shape and size: first some warm-up iterations, then the measured
+ * iterations. Each iteration repeats invocations until it has measured for a
+ * fixed time, and reports the mean time per operation.
+ * 
+ * The benchmarks are a separate source folder and build target next to the
+ * tests. {@code validation/code/build-benchmarks.sh} builds them into a
+ * runnable jar, with gson on its class path:
+ * 
+ * <pre>
+ * ./build-benchmarks.sh
+ * java -jar build/benchmarks.jar [options] [regex]
+ * </pre>
+ * 
+ * Options are {@code -wi <count>} (warm-up iterations), {@code -i <count>}
+ * (measured iterations), {@code -t <ms>} (time per iteration),
+ * {@code -shapes GRID,SPARSE,DENSE} and {@code -sizes 64,512}. Only benchmarks
+ * whose name contains a match of the regular expression are run.
+ * 
+ * @author Team Graphioli
+ */
+public final class BenchmarkRunner {
+
+	/**
+	 * The seed used for all graph fixtures.
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * Nanoseconds per millisecond.
+	 */
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	/**
+	 * An iteration ends after this multiple of its measuring time, even if
+	 * most of the time was spent preparing invocations.
+	 */
+	private static final int MAX_WALL_TIME_FACTOR = 5;
+
+	/**
+	 * Results are written here, so the JIT cannot drop the benchmarked code.
+	 */
+	private static volatile Object sink;
+
+	/**
+	 * Number of warm-up iterations.
+	 */
+	private int warmupIterations = 3;
+
+	/**
+	 * Number of measured iterations.
+	 */
+	private int iterations = 5;
+
+	/**
+	 * Measuring time per iteration in milliseconds.
+	 */
+	private long iterationTime = 200;
+
+	/**
+	 * The graph shapes to run.
+	 */
+	private GraphFixture.Shape[] shapes = GraphFixture.Shape.values();
+
+	/**
+	 * The graph sizes to run.
+	 */
+	private int[] sizes = { 64, 512 };
+
+	/**
+	 * Only benchmarks whose name contains a match are run.
+	 */
+	private Pattern filter = Pattern.compile("");
+
+	/**
+	 * Private constructor, instances are only created by {@link #main}.
+	 */
+	private BenchmarkRunner() {
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 * 
+	 * @param args
+	 *            the options, see {@link BenchmarkRunner}
+	 */
+	public static void main(String[] args) {
+		BenchmarkRunner runner = new BenchmarkRunner();
+		if (!runner.parseArguments(args)) {
+			System.err.println("Usage: BenchmarkRunner [-wi count] [-i count] [-t ms] [-shapes GRID,SPARSE,DENSE]"
+					+ " [-sizes 64,512] [regex]");
+			System.exit(1);
+		}
+		runner.runAll();
+	}
+
+	/**
+	 * Parses the command line arguments.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @return {@code false} if the arguments are invalid
+	 */
+	private boolean parseArguments(String[] args) {
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String argument = args[i];
+				if (argument.equals("-wi")) {
+					this.warmupIterations = Integer.parseInt(args[++i]);
+				} else if (argument.equals("-i")) {
+					this.iterations = Integer.parseInt(args[++i]);
+				} else if (argument.equals("-t")) {
+					this.iterationTime = Long.parseLong(args[++i]);
+				} else if (argument.equals("-shapes")) {
+					String[] names = args[++i].split(",");
+					this.shapes = new GraphFixture.Shape[names.length];
+					for (int j = 0; j < names.length; j++) {
+						this.shapes[j] = GraphFixture.Shape.valueOf(names[j].trim().toUpperCase(Locale.ENGLISH));
+					}
+				} else if (argument.equals("-sizes")) {
+					String[] values = args[++i].split(",");
+					this.sizes = new int[values.length];
+					for (int j = 0; j < values.length; j++) {
+						this.sizes[j] = Integer.parseInt(values[j].trim());
+					}
+				} else if (argument.startsWith("-")) {
+					return false;
+				} else {
+					this.filter = Pattern.compile(argument);
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			return false;
+		} catch (ArrayIndexOutOfBoundsException e) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Runs all selected benchmarks and prints a line per trial.
+	 */
+	private void runAll() {
+		System.out.println(String.format(Locale.ENGLISH, "%-40s %-12s %14s %12s", "Benchmark", "Graph", "ns/op",
+				"error"));
+
+		for (Benchmark benchmark : Benchmarks.createAll()) {
+			if (!this.filter.matcher(benchmark.getName()).find()) {
+				continue;
+			}
+			if (!benchmark.isParameterised()) {
+				this.runTrial(benchmark, null);
+				continue;
+			}
+			for (GraphFixture.Shape shape : this.shapes) {
+				for (int size : this.sizes) {
+					this.runTrial(benchmark, new GraphFixture(shape, size, SEED));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the warm-up and measured iterations of a benchmark on one fixture.
+	 * 
+	 * @param benchmark
+	 *            the benchmark
+	 * @param fixture
+	 *            the graph fixture, {@code null} if the benchmark is not
+	 *            parameterised
+	 */
+	private void runTrial(Benchmark benchmark, GraphFixture fixture) {
+		benchmark.setUp(fixture);
+
+		for (int i = 0; i < this.warmupIterations; i++) {
+			this.runIteration(benchmark);
+		}
+
+		ArrayList<Double> results = new ArrayList<Double>();
+		for (int i = 0; i < this.iterations; i++) {
+			results.add(this.runIteration(benchmark));
+		}
+
+		double mean = 0;
+		for (double result : results) {
+			mean += result;
+		}
+		mean /= results.size();
+
+		double variance = 0;
+		for (double result : results) {
+			variance += (result - mean) * (result - mean);
+		}
+		double error = results.size() > 1 ? Math.sqrt(variance / (results.size() - 1)) : 0;
+
+		System.out.println(String.format(Locale.ENGLISH, "%-40s %-12s %14.1f %12.1f", benchmark.getName(),
+				fixture == null ? "-" : fixture.toString(), mean, error));
+	}
+
+	/**
+	 * Runs invocations of the benchmark until the measuring time of an
+	 * iteration is used up.
+	 * 
+	 * @param benchmark
+	 *            the benchmark
+	 * @return the mean time per operation in nanoseconds
+	 */
+	private double runIteration(Benchmark benchmark) {
+		long budget = this.iterationTime * NANOS_PER_MILLI;
+		long deadline = System.nanoTime() + budget * MAX_WALL_TIME_FACTOR;
+		long measured = 0;
+		long operations = 0;
+
+		do {
+			benchmark.prepare();
+			long start = System.nanoTime();
+			sink = benchmark.run();
+			measured += System.nanoTime() - start;
+			benchmark.cleanUp();
+			operations += benchmark.getOperations();
+		} while (measured < budget && System.nanoTime() < deadline);
+
+		return (double) measured / operations;
+	}
+
+}
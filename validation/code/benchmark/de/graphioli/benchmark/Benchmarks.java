@@ -0,0 +1,540 @@
+package de.graphioli.benchmark;
+
+import de.graphioli.algorithms.BreadthFirstSearch;
+import de.graphioli.algorithms.FindPath;
+import de.graphioli.algorithms.PlanarityCheck;
+import de.graphioli.model.Edge;
+import de.graphioli.model.GameBoard;
+import de.graphioli.model.Graph;
+import de.graphioli.model.SimpleVisualEdge;
+import de.graphioli.model.SimpleVisualVertex;
+import de.graphioli.model.Vertex;
+import de.graphioli.model.VisualVertex;
+import de.graphioli.utils.UIDManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class contains the benchmarks of the hot paths in the model and
+ * algorithms packages.
+ * 
+ * @author Team Graphioli
+ */
+public final class Benchmarks {
+
+	/**
+	 * Number of candidate edges checked by one invocation of the planarity
+	 * benchmarks.
+	 */
+	private static final int PLANARITY_CANDIDATES = 64;
+
+	/**
+	 * Number of IDs generated by one invocation of the UID benchmark.
+	 */
+	private static final int UID_BATCH = 256;
+
+	/**
+	 * Private empty constructor, to ensure that no instance is being created.
+	 */
+	private Benchmarks() {
+	}
+
+	/**
+	 * Creates all benchmarks.
+	 * 
+	 * @return the benchmarks
+	 */
+	public static ArrayList<Benchmark> createAll() {
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new AddVertex());
+		benchmarks.add(new AddEdge());
+		benchmarks.add(new RemoveVertex());
+		benchmarks.add(new AddVisualEdge(true));
+		benchmarks.add(new AddVisualEdge(false));
+		benchmarks.add(new Search());
+		benchmarks.add(new ShortestPath());
+		benchmarks.add(new Planarity(false));
+		benchmarks.add(new Planarity(true));
+		benchmarks.add(new GenerateUniqueID());
+		return benchmarks;
+	}
+
+	/**
+	 * Adds all vertices to an empty {@link Graph}.
+	 */
+	private static final class AddVertex extends Benchmark {
+
+		/**
+		 * The vertices to add.
+		 */
+		private SimpleVisualVertex[] vertices;
+
+		/**
+		 * Creates the benchmark.
+		 */
+		AddVertex() {
+			super("Graph.addVertex", true);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setUp(GraphFixture fixture) {
+			this.vertices = fixture.createVertices();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object run() {
+			Graph graph = new Graph();
+			for (SimpleVisualVertex vertex : this.vertices) {
+				graph.addVertex(vertex);
+			}
+			return graph;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getOperations() {
+			return this.vertices.length;
+		}
+	}
+
+	/**
+	 * Adds all edges to a {@link Graph} containing all vertices.
+	 */
+	private static final class AddEdge extends Benchmark {
+
+		/**
+		 * The vertices of the graph.
+		 */
+		private SimpleVisualVertex[] vertices;
+
+		/**
+		 * The edges to add.
+		 */
+		private SimpleVisualEdge[] edges;
+
+		/**
+		 * The graph of the current invocation.
+		 */
+		private Graph graph;
+
+		/**
+		 * Creates the benchmark.
+		 */
+		AddEdge() {
+			super("Graph.addEdge", true);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setUp(GraphFixture fixture) {
+			this.vertices = fixture.createVertices();
+			this.edges = fixture.createEdges(this.vertices);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void prepare() {
+			this.graph = new Graph();
+			for (SimpleVisualVertex vertex : this.vertices) {
+				this.graph.addVertex(vertex);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object run() {
+			for (SimpleVisualEdge edge : this.edges) {
+				this.graph.addEdge(edge);
+			}
+			return this.graph;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void cleanUp() {
+			// Detach the edges from the vertices again
+			for (SimpleVisualEdge edge : this.edges) {
+				this.graph.removeEdge(edge);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getOperations() {
+			return Math.max(this.edges.length, 1);
+		}
+	}
+
+	/**
+	 * Removes all vertices of a complete {@link Graph}.
+	 */
+	private static final class RemoveVertex extends Benchmark {
+
+		/**
+		 * The fixture to create the graphs from.
+		 */
+		private GraphFixture fixture;
+
+		/**
+		 * The graph of the current invocation.
+		 */
+		private Graph graph;
+
+		/**
+		 * The vertices of the current graph.
+		 */
+		private ArrayList<Vertex> vertices;
+
+		/**
+		 * Creates the benchmark.
+		 */
+		RemoveVertex() {
+			super("Graph.removeVertex", true);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setUp(GraphFixture graphFixture) {
+			this.fixture = graphFixture;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void prepare() {
+			this.graph = this.fixture.createGraph();
+			this.vertices = new ArrayList<Vertex>(this.graph.getVertices());
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object run() {
+			for (Vertex vertex : this.vertices) {
+				this.graph.removeVertex(vertex);
+			}
+			return this.graph;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getOperations() {
+			return this.fixture.getSize();
+		}
+	}
+
+	/**
+	 * Adds all edges to a {@link GameBoard} containing all vertices.
+	 */
+	private static final class AddVisualEdge extends Benchmark {
+
+		/**
+		 * Whether the board is directed.
+		 */
+		private final boolean directed;
+
+		/**
+		 * The fixture of the trial.
+		 */
+		private GraphFixture fixture;
+
+		/**
+		 * The vertices of the board.
+		 */
+		private SimpleVisualVertex[] vertices;
+
+		/**
+		 * The edges to add.
+		 */
+		private SimpleVisualEdge[] edges;
+
+		/**
+		 * The board of the current invocation.
+		 */
+		private GameBoard board;
+
+		/**
+		 * Creates the benchmark.
+		 * 
+		 * @param directed
+		 *            whether the board is directed
+		 */
+		AddVisualEdge(boolean directed) {
+			super(directed ? "GameBoard.addVisualEdge(directed)" : "GameBoard.addVisualEdge(undirected)", true);
+			this.directed = directed;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setUp(GraphFixture graphFixture) {
+			this.fixture = graphFixture;
+			this.vertices = graphFixture.createVertices();
+			this.edges = graphFixture.createEdges(this.vertices);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void prepare() {
+			this.board = new GameBoard(this.directed, this.fixture.getSide(), this.fixture.getSide());
+			for (SimpleVisualVertex vertex : this.vertices) {
+				this.board.addVisualVertex(vertex);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object run() {
+			for (SimpleVisualEdge edge : this.edges) {
+				this.board.addVisualEdge(edge);
+			}
+			return this.board;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void cleanUp() {
+			// Detach the edges from the vertices again
+			for (SimpleVisualEdge edge : this.edges) {
+				this.board.removeVisualEdge(edge);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getOperations() {
+			return Math.max(this.edges.length, 1);
+		}
+	}
+
+	/**
+	 * Runs a {@link BreadthFirstSearch} from the first vertex.
+	 */
+	private static final class Search extends Benchmark {
+
+		/**
+		 * The searched graph.
+		 */
+		private Graph graph;
+
+		/**
+		 * The start vertex.
+		 */
+		private Vertex start;
+
+		/**
+		 * Creates the benchmark.
+		 */
+		Search() {
+			super("BreadthFirstSearch", true);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setUp(GraphFixture fixture) {
+			this.graph = fixture.createGraph();
+			this.start = this.graph.getVertices().get(0);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object run() {
+			return BreadthFirstSearch.performAlgorithm(this.graph, this.start, FindPath.MAX_DEPTH);
+		}
+	}
+
+	/**
+	 * Finds a shortest path from the first to the last vertex.
+	 */
+	private static final class ShortestPath extends Benchmark {
+
+		/**
+		 * The searched graph.
+		 */
+		private Graph graph;
+
+		/**
+		 * The start vertex.
+		 */
+		private Vertex start;
+
+		/**
+		 * The target vertex.
+		 */
+		private Vertex target;
+
+		/**
+		 * Creates the benchmark.
+		 */
+		ShortestPath() {
+			super("FindPath", true);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setUp(GraphFixture fixture) {
+			this.graph = fixture.createGraph();
+			List<Vertex> vertices = this.graph.getVertices();
+			this.start = vertices.get(0);
+			this.target = vertices.get(vertices.size() - 1);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object run() {
+			return FindPath.findPath(this.graph, this.start, this.target);
+		}
+	}
+
+	/**
+	 * Checks random candidate edges for planarity, either with
+	 * {@link PlanarityCheck} or with the former full scan.
+	 */
+	private static final class Planarity extends Benchmark {
+
+		/**
+		 * Whether the former full scan is measured.
+		 */
+		private final boolean legacy;
+
+		/**
+		 * The graph the candidates are checked against.
+		 */
+		private Graph graph;
+
+		/**
+		 * The candidate edges.
+		 */
+		private ArrayList<Edge> candidates;
+
+		/**
+		 * Creates the benchmark.
+		 * 
+		 * @param legacy
+		 *            whether the former full scan is measured
+		 */
+		Planarity(boolean legacy) {
+			super(legacy ? "PlanarityCheck(legacy scan)" : "PlanarityCheck", true);
+			this.legacy = legacy;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setUp(GraphFixture fixture) {
+			this.graph = fixture.createGraph();
+			List<Vertex> vertices = this.graph.getVertices();
+			Random random = new Random(fixture.getSize());
+			this.candidates = new ArrayList<Edge>();
+			while (this.candidates.size() < PLANARITY_CANDIDATES && vertices.size() > 1) {
+				Vertex origin = vertices.get(random.nextInt(vertices.size()));
+				Vertex target = vertices.get(random.nextInt(vertices.size()));
+				if (origin != target) {
+					this.candidates.add(new SimpleVisualEdge((VisualVertex) origin, (VisualVertex) target));
+				}
+			}
+			// Build the segment index outside the measurement
+			PlanarityCheck.getSegmentIndex(this.graph);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object run() {
+			int planar = 0;
+			for (Edge candidate : this.candidates) {
+				if (this.legacy ? LegacyPlanarityCheck.performAlgorithm(this.graph, candidate) : PlanarityCheck
+						.performAlgorithm(this.graph, candidate)) {
+					planar++;
+				}
+			}
+			return planar;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getOperations() {
+			return Math.max(this.candidates.size(), 1);
+		}
+	}
+
+	/**
+	 * Generates unique IDs.
+	 */
+	private static final class GenerateUniqueID extends Benchmark {
+
+		/**
+		 * Creates the benchmark.
+		 */
+		GenerateUniqueID() {
+			super("UIDManager.generateUniqueID", false);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Object run() {
+			Object last = null;
+			for (int i = 0; i < UID_BATCH; i++) {
+				last = UIDManager.generateUniqueID();
+			}
+			return last;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getOperations() {
+			return UID_BATCH;
+		}
+	}
+
+}
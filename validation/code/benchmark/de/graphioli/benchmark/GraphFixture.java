@@ -0,0 +1,244 @@
+package de.graphioli.benchmark;
+
+import de.graphioli.model.Graph;
+import de.graphioli.model.GridPoint;
+import de.graphioli.model.SimpleVisualEdge;
+import de.graphioli.model.SimpleVisualVertex;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * This class describes the graph a parameterised {@link Benchmark} works on.
+ * The layout is generated once from a seed; vertices, edges and graphs can then
+ * be created from it as often as needed.
+ * 
+ * @author Team Graphioli
+ */
+public final class GraphFixture {
+
+	/**
+	 * The available graph shapes.
+	 */
+	public enum Shape {
+
+		/**
+		 * Square grid, every vertex is connected to its right and lower
+		 * neighbor.
+		 */
+		GRID,
+
+		/**
+		 * Randomly placed vertices, every vertex has three random outgoing
+		 * edges.
+		 */
+		SPARSE,
+
+		/**
+		 * Randomly placed vertices, every pair of vertices is connected with a
+		 * probability of one half.
+		 */
+		DENSE
+	}
+
+	/**
+	 * Number of outgoing edges per vertex of a {@link Shape#SPARSE} graph.
+	 */
+	private static final int SPARSE_DEGREE = 3;
+
+	/**
+	 * The shape of the graph.
+	 */
+	private final Shape shape;
+
+	/**
+	 * The number of vertices.
+	 */
+	private final int size;
+
+	/**
+	 * The side length of the square the vertices are placed in.
+	 */
+	private final int side;
+
+	/**
+	 * The grid positions of the vertices.
+	 */
+	private final int[] positions;
+
+	/**
+	 * Origin and target index of every edge, stored alternately.
+	 */
+	private final int[] edges;
+
+	/**
+	 * Creates a new {@link GraphFixture}.
+	 * 
+	 * @param shape
+	 *            the shape of the graph
+	 * @param size
+	 *            the number of vertices
+	 * @param seed
+	 *            the seed of the random layout
+	 */
+	public GraphFixture(Shape shape, int size, long seed) {
+		this.shape = shape;
+		this.size = size;
+		Random random = new Random(seed);
+
+		if (shape == Shape.GRID) {
+			this.side = (int) Math.ceil(Math.sqrt(size));
+		} else {
+			this.side = 2 * (int) Math.ceil(Math.sqrt(size));
+		}
+
+		// Distinct positions, in grid order for the grid shape
+		this.positions = new int[size];
+		HashSet<Integer> used = new HashSet<Integer>();
+		for (int i = 0; i < size; i++) {
+			int position = i;
+			if (shape != Shape.GRID) {
+				do {
+					position = random.nextInt(this.side * this.side);
+				} while (!used.add(position));
+			}
+			this.positions[i] = position;
+		}
+
+		ArrayList<Integer> edgeList = new ArrayList<Integer>();
+		switch (shape) {
+			case GRID:
+				for (int i = 0; i < size; i++) {
+					if ((i + 1) % this.side != 0 && i + 1 < size) {
+						edgeList.add(i);
+						edgeList.add(i + 1);
+					}
+					if (i + this.side < size) {
+						edgeList.add(i);
+						edgeList.add(i + this.side);
+					}
+				}
+				break;
+			case SPARSE:
+				HashSet<Long> pairs = new HashSet<Long>();
+				for (int i = 0; i < size && size > SPARSE_DEGREE; i++) {
+					int added = 0;
+					while (added < SPARSE_DEGREE) {
+						int target = random.nextInt(size);
+						if (target != i && pairs.add((long) i * size + target)) {
+							edgeList.add(i);
+							edgeList.add(target);
+							added++;
+						}
+					}
+				}
+				break;
+			default:
+				for (int i = 0; i < size; i++) {
+					for (int j = i + 1; j < size; j++) {
+						if (random.nextBoolean()) {
+							edgeList.add(i);
+							edgeList.add(j);
+						}
+					}
+				}
+				break;
+		}
+
+		this.edges = new int[edgeList.size()];
+		for (int i = 0; i < this.edges.length; i++) {
+			this.edges[i] = edgeList.get(i);
+		}
+	}
+
+	/**
+	 * Creates a new graph containing new vertices and edges.
+	 * 
+	 * @return the new graph
+	 */
+	public Graph createGraph() {
+		Graph graph = new Graph();
+		SimpleVisualVertex[] vertices = this.createVertices();
+		for (SimpleVisualVertex vertex : vertices) {
+			graph.addVertex(vertex);
+		}
+		for (SimpleVisualEdge edge : this.createEdges(vertices)) {
+			graph.addEdge(edge);
+		}
+		return graph;
+	}
+
+	/**
+	 * Creates new edges between the given vertices.
+	 * 
+	 * @param vertices
+	 *            vertices created by {@link #createVertices()}
+	 * @return the new edges
+	 */
+	public SimpleVisualEdge[] createEdges(SimpleVisualVertex[] vertices) {
+		SimpleVisualEdge[] result = new SimpleVisualEdge[this.getEdgeCount()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = new SimpleVisualEdge(vertices[this.edges[2 * i]], vertices[this.edges[2 * i + 1]]);
+		}
+		return result;
+	}
+
+	/**
+	 * Creates new vertices at the positions of this fixture.
+	 * 
+	 * @return the new vertices
+	 */
+	public SimpleVisualVertex[] createVertices() {
+		SimpleVisualVertex[] result = new SimpleVisualVertex[this.size];
+		for (int i = 0; i < this.size; i++) {
+			result[i] = new SimpleVisualVertex(new GridPoint(this.positions[i] % this.side, this.positions[i]
+					/ this.side));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of edges.
+	 * 
+	 * @return the number of edges
+	 */
+	public int getEdgeCount() {
+		return this.edges.length / 2;
+	}
+
+	/**
+	 * Returns the shape of the graph.
+	 * 
+	 * @return the shape
+	 */
+	public Shape getShape() {
+		return this.shape;
+	}
+
+	/**
+	 * Returns the side length of the square the vertices are placed in.
+	 * 
+	 * @return the side length in grid points
+	 */
+	public int getSide() {
+		return this.side;
+	}
+
+	/**
+	 * Returns the number of vertices.
+	 * 
+	 * @return the number of vertices
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return this.shape + "/" + this.size;
+	}
+
+}
@@ -0,0 +1,78 @@
+package de.graphioli.benchmark;
+
+import de.graphioli.model.Edge;
+import de.graphioli.model.Graph;
+import de.graphioli.model.VisualVertex;
+
+/**
+ * This class is the former planarity check, which scans all edges and uses a
+ * floating point intersection test. It is kept as baseline for
+ * {@link Benchmarks}.
+ * 
+ * @author Team Graphioli
+ */
+final class LegacyPlanarityCheck {
+
+	/**
+	 * Private empty constructor, to ensure that no instance is being created.
+	 */
+	private LegacyPlanarityCheck() {
+	}
+
+	/**
+	 * Checks all edges of the graph for an intersection with the new edge.
+	 * 
+	 * @param graph
+	 *            the graph
+	 * @param newEdge
+	 *            the new edge
+	 * @return <code>true</code> if no edge intersects the new edge
+	 */
+	static boolean performAlgorithm(Graph graph, Edge newEdge) {
+		for (Edge edge : graph.getEdges()) {
+			if (intersectionBetween(edge, newEdge)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the given edges intersect.
+	 * 
+	 * @param edgeA
+	 *            the one edge
+	 * @param edgeB
+	 *            the other edge
+	 * @return <code>true</code> if the edges intersect
+	 */
+	static boolean intersectionBetween(Edge edgeA, Edge edgeB) {
+		VisualVertex vertexA1 = (VisualVertex) edgeA.getOriginVertex();
+		VisualVertex vertexA2 = (VisualVertex) edgeA.getTargetVertex();
+		VisualVertex vertexB1 = (VisualVertex) edgeB.getOriginVertex();
+		VisualVertex vertexB2 = (VisualVertex) edgeB.getTargetVertex();
+
+		double xA1 = vertexA1.getGridPoint().getPositionX();
+		double yA1 = vertexA1.getGridPoint().getPositionY();
+		double xA2 = vertexA2.getGridPoint().getPositionX();
+		double yA2 = vertexA2.getGridPoint().getPositionY();
+		double xB1 = vertexB1.getGridPoint().getPositionX();
+		double yB1 = vertexB1.getGridPoint().getPositionY();
+		double xB2 = vertexB2.getGridPoint().getPositionX();
+		double yB2 = vertexB2.getGridPoint().getPositionY();
+
+		double nx = (xA1 * yA2 - yA1 * xA2) * (xB1 - xB2) - (xA1 - xA2) * (xB1 * yB2 - yB1 * xB2);
+		double d = (xA1 - xA2) * (yB1 - yB2) - (yA1 - yA2) * (xB1 - xB2);
+		if (d == 0) {
+			return false;
+		}
+		double x = nx / d;
+
+		double minA = Math.min(xA1, xA2);
+		double maxA = Math.max(xA1, xA2);
+		double minB = Math.min(xB1, xB2);
+		double maxB = Math.max(xB1, xB2);
+		return minA < x && minB < x && x < maxA && x < maxB;
+	}
+
+}
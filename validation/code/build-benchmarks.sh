@@ -0,0 +1,24 @@
+#!/bin/sh
+# Builds the benchmarks into a runnable jar, build/benchmarks.jar.
+# Run it with: java -jar build/benchmarks.jar [options] [regex]
+set -e
+
+cd "$(dirname "$0")"
+
+IMPLEMENTATION=../../implementation/code
+GSON=gson-2.2.1.jar
+BUILD=build
+
+rm -rf "$BUILD/benchmark"
+mkdir -p "$BUILD/benchmark"
+
+javac -encoding UTF-8 -d "$BUILD/benchmark" -cp "$IMPLEMENTATION/lib/$GSON" \
+	$(find "$IMPLEMENTATION/src" benchmark -name '*.java')
+
+# The jar finds gson next to itself
+cp "$IMPLEMENTATION/lib/$GSON" "$BUILD/$GSON"
+printf 'Class-Path: %s\n' "$GSON" > "$BUILD/manifest.txt"
+jar cfme "$BUILD/benchmarks.jar" "$BUILD/manifest.txt" de.graphioli.benchmark.BenchmarkRunner \
+	-C "$BUILD/benchmark" .
+
+echo "Built $BUILD/benchmarks.jar"
@@ -3,28 +3,54 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import de.graphioli.algorithms.BreadthFirstSearchTest;
+import de.graphioli.algorithms.ConnectivityIndexTest;
 import de.graphioli.algorithms.FindPathTest;
 import de.graphioli.algorithms.PlanarityCheckTest;
+import de.graphioli.controller.CallWatchdogTest;
+import de.graphioli.controller.GameCallExecutorTest;
+import de.graphioli.controller.InputQueueTest;
+import de.graphioli.controller.UndoManagerTest;
 import de.graphioli.gui.*;
 import de.graphioli.model.EdgeTest;
 import de.graphioli.model.GameBoardTest;
 import de.graphioli.model.GraphConsistencyTest;
+import de.graphioli.model.GraphJournalTest;
+import de.graphioli.model.GraphSnapshotTest;
 import de.graphioli.model.GridTest;
 import de.graphioli.model.PlayerTests;
+import de.graphioli.utils.UIDManagerTest;
+import de.graphioli.view.DirtyRegionsTest;
+import de.graphioli.view.DrawingIndexTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
 	// algorithms
 	BreadthFirstSearchTest.class,
+	ConnectivityIndexTest.class,
 	FindPathTest.class,
 	PlanarityCheckTest.class,
 
+	// controller
+	CallWatchdogTest.class,
+	GameCallExecutorTest.class,
+	InputQueueTest.class,
+	UndoManagerTest.class,
+
 	// model
 	GameBoardTest.class,
 	GraphConsistencyTest.class,
+	GraphJournalTest.class,
+	GraphSnapshotTest.class,
 	GridTest.class,
 	EdgeTest.class,
 	PlayerTests.class,
+
+	// utils
+	UIDManagerTest.class,
+
+	// view
+	DirtyRegionsTest.class,
+	DrawingIndexTest.class,
 	
 	// gui
 	DirectedEdgeTest.class,
@@ -130,6 +130,42 @@ public class BreadthFirstSearchTest {
 		assertEquals(expectedListOfVertices, actualListOfVertices);
 	}
 
+	@Test
+	public void testEngineDistancesAndParents() {
+		/*
+		 * Setting up graph with 4 vertices. edge: (1,2), (2,3), (1,3), (3,4)
+		 */
+		graph = new Graph();
+		Vertex vertex1 = new Vertex();
+		Vertex vertex2 = new Vertex();
+		Vertex vertex3 = new Vertex();
+		Vertex vertex4 = new Vertex();
+		graph.addVertex(vertex1);
+		graph.addVertex(vertex2);
+		graph.addVertex(vertex3);
+		graph.addVertex(vertex4);
+		graph.addEdge(new Edge(vertex1, vertex2));
+		graph.addEdge(new Edge(vertex2, vertex3));
+		graph.addEdge(new Edge(vertex1, vertex3));
+		graph.addEdge(new Edge(vertex3, vertex4));
+
+		BreadthFirstSearchEngine engine = new BreadthFirstSearchEngine();
+		assertTrue(engine.search(graph, vertex1, 5));
+		assertEquals(0, engine.getDistance(vertex1));
+		assertEquals(1, engine.getDistance(vertex3));
+		assertEquals(2, engine.getDistance(vertex4));
+		assertEquals(vertex3, engine.getParent(vertex4));
+		assertEquals(null, engine.getParent(vertex1));
+		assertEquals(-1, engine.getCycleLength());
+
+		// Second search reuses the engine
+		assertTrue(engine.search(graph, vertex2, 1));
+		assertTrue(engine.isVisited(vertex3));
+		assertFalse(engine.isVisited(vertex4));
+		assertFalse(engine.isVisited(vertex1));
+		assertEquals(-1, engine.getDistance(vertex4));
+	}
+
 	/**
 	 * Run the ArrayList<Vertex> performAlgorithm(Graph,Vertex,int) method test.
 	 * 
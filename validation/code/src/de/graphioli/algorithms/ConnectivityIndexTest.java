@@ -0,0 +1,76 @@
+package de.graphioli.algorithms;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import de.graphioli.model.Edge;
+import de.graphioli.model.Graph;
+import de.graphioli.model.Vertex;
+
+public class ConnectivityIndexTest {
+
+	private int notifications;
+
+	@Test
+	public void testIncrementalUnion() {
+		Graph graph = new Graph();
+		Vertex vertex1 = new Vertex();
+		Vertex vertex2 = new Vertex();
+		Vertex vertex3 = new Vertex();
+		graph.addVertex(vertex1);
+
+		ConnectivityIndex index = new ConnectivityIndex(graph);
+		graph.addVertex(vertex2);
+		graph.addVertex(vertex3);
+		assertFalse(index.isConnected(vertex1, vertex3));
+
+		graph.addEdge(new Edge(vertex1, vertex2));
+		assertTrue(index.isConnected(vertex1, vertex2));
+		assertFalse(index.isConnected(vertex1, vertex3));
+
+		// Directions are ignored
+		graph.addEdge(new Edge(vertex3, vertex2));
+		assertTrue(index.isConnected(vertex1, vertex3));
+	}
+
+	@Test
+	public void testRemovalAndWatch() {
+		Graph graph = new Graph();
+		final Vertex vertex1 = new Vertex();
+		final Vertex vertex2 = new Vertex();
+		Vertex vertex3 = new Vertex();
+		graph.addVertex(vertex1);
+		graph.addVertex(vertex2);
+		graph.addVertex(vertex3);
+
+		ConnectivityIndex index = new ConnectivityIndex(graph);
+		this.notifications = 0;
+		index.watch(vertex1, vertex2, new ConnectivityIndex.ConnectionListener() {
+			@Override
+			public void onConnected(Vertex vertexA, Vertex vertexB) {
+				assertEquals(vertex1, vertexA);
+				assertEquals(vertex2, vertexB);
+				ConnectivityIndexTest.this.notifications++;
+			}
+		});
+		assertEquals(0, this.notifications);
+
+		Edge edge1 = new Edge(vertex1, vertex3);
+		graph.addEdge(edge1);
+		graph.addEdge(new Edge(vertex3, vertex2));
+		assertEquals(1, this.notifications);
+
+		graph.removeEdge(edge1);
+		assertFalse(index.isConnected(vertex1, vertex2));
+
+		graph.addEdge(new Edge(vertex2, vertex1));
+		assertTrue(index.isConnected(vertex1, vertex2));
+		assertEquals(2, this.notifications);
+
+		graph.removeVertex(vertex3);
+		assertFalse(index.isConnected(vertex1, vertex3));
+		assertTrue(index.isConnected(vertex1, vertex2));
+	}
+
+}
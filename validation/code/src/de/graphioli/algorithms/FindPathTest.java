@@ -2,6 +2,8 @@ package de.graphioli.algorithms;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+
 import org.junit.Test;
 
 import de.graphioli.model.Edge;
@@ -35,4 +37,40 @@ public class FindPathTest {
 		assertTrue(FindPath.performAlgorithm(graph, vertex1, vertex3));
 	}
 
+	@Test
+	public void testFindPath() {
+		/*
+		 * Setting up graph with a shortcut: (1,2), (2,3), (3,4), (1,3)
+		 */
+		Graph graph = new Graph();
+		Vertex vertex1 = new Vertex();
+		Vertex vertex2 = new Vertex();
+		Vertex vertex3 = new Vertex();
+		Vertex vertex4 = new Vertex();
+		graph.addVertex(vertex1);
+		graph.addVertex(vertex2);
+		graph.addVertex(vertex3);
+		graph.addVertex(vertex4);
+		graph.addEdge(new Edge(vertex1, vertex2));
+		graph.addEdge(new Edge(vertex2, vertex3));
+		graph.addEdge(new Edge(vertex3, vertex4));
+		graph.addEdge(new Edge(vertex1, vertex3));
+
+		ArrayList<Vertex> path = FindPath.findPath(graph, vertex1, vertex4);
+		assertEquals(3, path.size());
+		assertEquals(vertex1, path.get(0));
+		assertEquals(vertex3, path.get(1));
+		assertEquals(vertex4, path.get(2));
+
+		assertNull(FindPath.findPath(graph, vertex4, vertex1));
+		assertNull(FindPath.findPath(graph, vertex1, vertex4, 1));
+		assertNull(FindPath.findPath(graph, vertex1, vertex1));
+
+		graph.addEdge(new Edge(vertex4, vertex1));
+		path = FindPath.findPath(graph, vertex1, vertex1);
+		assertEquals(4, path.size());
+		assertEquals(vertex1, path.get(0));
+		assertEquals(vertex1, path.get(3));
+	}
+
 }
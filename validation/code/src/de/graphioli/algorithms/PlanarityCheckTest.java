@@ -1,6 +1,8 @@
 package de.graphioli.algorithms;
 
 import static org.junit.Assert.*;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import org.junit.Test;
 import de.graphioli.model.*;
 
@@ -151,4 +153,144 @@ public class PlanarityCheckTest {
 		 
 		 assertTrue(res);
 	}
+
+	@Test
+	public void testSegmentIndexUpdates() {
+		SimpleVisualVertex v1 = new SimpleVisualVertex(new GridPoint(0, 0));
+		SimpleVisualVertex v2 = new SimpleVisualVertex(new GridPoint(20, 13));
+		SimpleVisualVertex v3 = new SimpleVisualVertex(new GridPoint(0, 13));
+		SimpleVisualVertex v4 = new SimpleVisualVertex(new GridPoint(20, 0));
+		SimpleVisualEdge e12 = new SimpleVisualEdge(v1, v2);
+		SimpleVisualEdge e21 = new SimpleVisualEdge(v2, v1);
+
+		graph = new Graph();
+		graph.addVertex(v1);
+		graph.addVertex(v2);
+		graph.addVertex(v3);
+		graph.addVertex(v4);
+
+		newEdge = new SimpleVisualEdge(v3, v4);
+		assertTrue(PlanarityCheck.performAlgorithm(graph, newEdge));
+
+		// Edges added after the first check are found
+		graph.addEdge(e12);
+		graph.addEdge(e21);
+		assertFalse(PlanarityCheck.performAlgorithm(graph, newEdge));
+
+		// Opposing edges share a segment until both are removed
+		graph.removeEdge(e12);
+		assertFalse(PlanarityCheck.performAlgorithm(graph, newEdge));
+		graph.removeVertex(v2);
+		assertTrue(PlanarityCheck.performAlgorithm(graph, newEdge));
+	}
+
+	@Test
+	public void testClassify() {
+		// Vertical edges were never reported before
+		assertEquals(PlanarityCheck.Intersection.CROSSING, PlanarityCheck.classify(1, 0, 1, 4, 0, 2, 3, 2));
+		assertEquals(PlanarityCheck.Intersection.CROSSING, PlanarityCheck.classify(0, 0, 2, 2, 0, 2, 2, 0));
+		assertEquals(PlanarityCheck.Intersection.NONE, PlanarityCheck.classify(0, 0, 1, 0, 0, 1, 1, 1));
+		assertEquals(PlanarityCheck.Intersection.NONE, PlanarityCheck.classify(0, 0, 1, 1, 2, 1, 3, 0));
+
+		// Shared end point and end point on the other edge
+		assertEquals(PlanarityCheck.Intersection.TOUCHING, PlanarityCheck.classify(0, 0, 2, 1, 2, 1, 3, 5));
+		assertEquals(PlanarityCheck.Intersection.TOUCHING, PlanarityCheck.classify(0, 0, 4, 0, 2, 0, 2, 3));
+
+		// Collinear edges
+		assertEquals(PlanarityCheck.Intersection.TOUCHING, PlanarityCheck.classify(0, 0, 2, 1, 2, 1, 4, 2));
+		assertEquals(PlanarityCheck.Intersection.OVERLAPPING, PlanarityCheck.classify(0, 0, 4, 2, 2, 1, 6, 3));
+		assertEquals(PlanarityCheck.Intersection.OVERLAPPING, PlanarityCheck.classify(0, 0, 0, 4, 0, 3, 0, 1));
+		assertEquals(PlanarityCheck.Intersection.NONE, PlanarityCheck.classify(0, 0, 2, 1, 4, 2, 6, 3));
+
+		// Coordinates near the int range are still exact
+		int max = Integer.MAX_VALUE;
+		int min = Integer.MIN_VALUE;
+		assertEquals(PlanarityCheck.Intersection.CROSSING, PlanarityCheck.classify(min, min, max, max, min, max, max, min));
+		assertEquals(PlanarityCheck.Intersection.NONE, PlanarityCheck.classify(min, min, max, max - 1, 0, 1, 1, 2));
+		assertEquals(PlanarityCheck.Intersection.OVERLAPPING, PlanarityCheck.classify(min, min, max, max, 0, 0, 1, 1));
+
+		// Touching and overlapping edges only count if requested
+		assertFalse(PlanarityCheck.intersectionBetween(0, 0, 2, 1, 2, 1, 3, 5, false, false));
+		assertTrue(PlanarityCheck.intersectionBetween(0, 0, 2, 1, 2, 1, 3, 5, true, false));
+		assertFalse(PlanarityCheck.intersectionBetween(0, 0, 4, 2, 2, 1, 6, 3, true, false));
+		assertTrue(PlanarityCheck.intersectionBetween(0, 0, 4, 2, 2, 1, 6, 3, false, true));
+	}
+
+	@Test
+	public void testFindConflicts() {
+		SimpleVisualVertex v1 = new SimpleVisualVertex(new GridPoint(0, 0));
+		SimpleVisualVertex v2 = new SimpleVisualVertex(new GridPoint(4, 4));
+		SimpleVisualVertex v3 = new SimpleVisualVertex(new GridPoint(0, 4));
+		SimpleVisualVertex v4 = new SimpleVisualVertex(new GridPoint(4, 0));
+		SimpleVisualVertex v5 = new SimpleVisualVertex(new GridPoint(2, 0));
+		SimpleVisualVertex v6 = new SimpleVisualVertex(new GridPoint(2, 4));
+		SimpleVisualEdge e12 = new SimpleVisualEdge(v1, v2);
+		SimpleVisualEdge e34 = new SimpleVisualEdge(v3, v4);
+
+		graph = new Graph();
+		graph.addVertex(v1);
+		graph.addVertex(v2);
+		graph.addVertex(v3);
+		graph.addVertex(v4);
+		graph.addEdge(e12);
+		graph.addEdge(e34);
+
+		// Both graph edges cross in (2, 2), which is not reported
+		ArrayList<SimpleVisualEdge> batch = new ArrayList<SimpleVisualEdge>();
+		assertTrue(PlanarityCheck.findConflicts(graph, batch).isEmpty());
+
+		// A vertical edge through the same point crosses both
+		SimpleVisualEdge e56 = new SimpleVisualEdge(v5, v6);
+		SimpleVisualEdge e14 = new SimpleVisualEdge(v1, v4);
+		batch.add(e56);
+		batch.add(e14);
+		ArrayList<PlanarityCheck.Conflict> conflicts = PlanarityCheck.findConflicts(graph, batch);
+		assertEquals(2, conflicts.size());
+		for (PlanarityCheck.Conflict conflict : conflicts) {
+			assertEquals(PlanarityCheck.Intersection.CROSSING, conflict.getIntersection());
+			assertTrue(conflict.getEdgeA() == e56 || conflict.getEdgeB() == e56);
+		}
+
+		// The bottom edge touches e56 and shares end points with the graph
+		conflicts = PlanarityCheck.findConflicts(graph, batch, true, false);
+		assertEquals(5, conflicts.size());
+
+		// Within the batch only
+		conflicts = PlanarityCheck.findConflicts(null, batch, true, true);
+		assertEquals(1, conflicts.size());
+		assertEquals(PlanarityCheck.Intersection.TOUCHING, conflicts.get(0).getIntersection());
+	}
+
+	@Test
+	public void testIndexIsOwnedByGraph() throws InterruptedException {
+		ArrayList<WeakReference<Graph>> graphs = new ArrayList<WeakReference<Graph>>();
+		for (int i = 0; i < 50; i++) {
+			GameBoard board = new GameBoard(false, 5, 5);
+			SimpleVisualVertex v1 = new SimpleVisualVertex(new GridPoint(0, 0));
+			SimpleVisualVertex v2 = new SimpleVisualVertex(new GridPoint(2, 2));
+			board.addVisualVertex(v1);
+			board.addVisualVertex(v2);
+			board.addVisualEdge(new SimpleVisualEdge(v1, v2));
+			Graph checked = board.getGraph();
+			assertTrue(PlanarityCheck.performAlgorithm(checked, new SimpleVisualEdge(v2, v1)));
+			assertSame(PlanarityCheck.getSegmentIndex(checked), PlanarityCheck.getSegmentIndex(checked));
+			graphs.add(new WeakReference<Graph>(checked));
+		}
+
+		// The indexes do not keep the dropped graphs alive
+		for (int attempt = 0; attempt < 100 && !isCleared(graphs); attempt++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertTrue(isCleared(graphs));
+	}
+
+	private static boolean isCleared(ArrayList<WeakReference<Graph>> graphs) {
+		for (WeakReference<Graph> reference : graphs) {
+			if (reference.get() != null) {
+				return false;
+			}
+		}
+		return true;
+	}
 }
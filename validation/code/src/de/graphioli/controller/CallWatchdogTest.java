@@ -0,0 +1,130 @@
+package de.graphioli.controller;
+
+import static org.junit.Assert.*;
+
+import com.google.gson.Gson;
+import de.graphioli.gameexplorer.GameDefinition;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CallWatchdogTest {
+
+	private CallWatchdog watchdog;
+
+	@Before
+	public void setUp() {
+		this.watchdog = new CallWatchdog();
+	}
+
+	@Test
+	public void testHistogram() throws Exception {
+		assertTrue(this.watchdog.watch("onVertexClick", this.sleep(0), 2000).call().booleanValue());
+		for (int i = 0; i < 2; i++) {
+			this.watchdog.record("onVertexClick", 0, 2000);
+		}
+		this.watchdog.record("onGameInit", 30, 2000);
+
+		assertEquals(3, this.watchdog.getCallCount("onVertexClick"));
+		assertEquals(1, this.watchdog.getCallCount("onGameInit"));
+		assertEquals(0, this.watchdog.getCallCount("onUndo"));
+		assertEquals(2, this.watchdog.getCallbackNames().size());
+		assertEquals("onGameInit", this.watchdog.getCallbackNames().get(0));
+
+		long[] histogram = this.watchdog.getHistogram("onGameInit");
+		assertEquals(CallWatchdog.getBucketBounds().length + 1, histogram.length);
+		long[] bounds = CallWatchdog.getBucketBounds();
+		long latency = this.watchdog.getMaxLatency("onGameInit");
+		assertEquals(30, latency);
+		for (int i = 0; i < histogram.length; i++) {
+			boolean inBucket = (i == bounds.length || latency <= bounds[i]) && (i == 0 || latency > bounds[i - 1]);
+			assertEquals(inBucket ? 1 : 0, histogram[i]);
+		}
+
+		this.watchdog.reset();
+		assertEquals(0, this.watchdog.getCallCount("onVertexClick"));
+		assertTrue(this.watchdog.getCallbackNames().isEmpty());
+	}
+
+	@Test
+	public void testNearTimeouts() {
+		this.watchdog.record("onGameStart", 1600, 2000);
+		this.watchdog.record("onGameStart", 1400, 2000);
+		// Finishing late is not a timeout, only cancelling is
+		this.watchdog.record("onGameStart", 400, 100);
+
+		assertEquals(3, this.watchdog.getCallCount("onGameStart"));
+		assertEquals(1, this.watchdog.getNearTimeoutCount("onGameStart"));
+		assertEquals(0, this.watchdog.getTimeoutCount("onGameStart"));
+		assertEquals(1600, this.watchdog.getMaxLatency("onGameStart"));
+		assertTrue(this.watchdog.toString().startsWith("onGameStart: 3 calls"));
+	}
+
+	@Test
+	public void testStackSamples() throws Exception {
+		// Would be sampled after 50 ms, while the slow call below still runs
+		this.watchdog.watch("onKeyRelease", this.sleep(0), 100).call();
+		this.watchdog.watch("onGameStart", this.sleep(300), 100).call();
+
+		assertTrue(this.watchdog.getStackSamples("onKeyRelease").isEmpty());
+		assertEquals(1, this.watchdog.getStackSamples("onGameStart").size());
+		boolean sleeping = false;
+		for (StackTraceElement frame : this.watchdog.getStackSamples("onGameStart").get(0)) {
+			sleeping |= frame.getMethodName().equals("sleep");
+		}
+		assertTrue(sleeping);
+	}
+
+	@Test
+	public void testCancelledCalls() throws Exception {
+		GameCallExecutor executor = new GameCallExecutor("Test callback", this.watchdog);
+		final AtomicBoolean release = new AtomicBoolean();
+		Callable<Boolean> stuck = new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				while (!release.get()) {
+					Thread.yield();
+				}
+				return Boolean.TRUE;
+			}
+		};
+		try {
+			executor.call("onVertexClick", this.watchdog.watch("onVertexClick", stuck, 50), 50);
+			fail();
+		} catch (TimeoutException e) {
+			// expected
+		}
+
+		// Counted although the call has not returned
+		assertEquals(1, this.watchdog.getTimeoutCount("onVertexClick"));
+		assertEquals(0, this.watchdog.getCallCount("onVertexClick"));
+		release.set(true);
+	}
+
+	@Test
+	public void testDeclaredTimeouts() {
+		GameDefinition definition = new Gson().fromJson(
+				"{\"name\": \"Test\", \"callTimeouts\": {\"onGameInit\": 10000, \"onUndo\": 0}}",
+				GameDefinition.class);
+		assertEquals(10000, definition.getCallTimeout("onGameInit", 2000));
+		assertEquals(2000, definition.getCallTimeout("onUndo", 2000));
+		assertEquals(2000, definition.getCallTimeout("onVertexClick", 2000));
+
+		GameDefinition plain = new Gson().fromJson("{\"name\": \"Test\"}", GameDefinition.class);
+		assertEquals(2000, plain.getCallTimeout("onGameInit", 2000));
+		assertFalse(plain.equals(definition));
+	}
+
+	private Callable<Boolean> sleep(final long millis) {
+		return new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws InterruptedException {
+				Thread.sleep(millis);
+				return Boolean.TRUE;
+			}
+		};
+	}
+}
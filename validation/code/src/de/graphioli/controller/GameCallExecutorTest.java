@@ -0,0 +1,112 @@
+package de.graphioli.controller;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GameCallExecutorTest {
+
+	private GameCallExecutor executor;
+
+	@Before
+	public void setUp() {
+		this.executor = new GameCallExecutor("Test callback");
+	}
+
+	@Test
+	public void testReusesWorker() throws Exception {
+		final Thread[] threads = new Thread[2];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			assertTrue(this.executor.call("test", new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					threads[index] = Thread.currentThread();
+					return Boolean.TRUE;
+				}
+			}, 2000));
+		}
+		assertNotSame(Thread.currentThread(), threads[0]);
+		assertSame(threads[0], threads[1]);
+		assertFalse(this.executor.isWorkerThread());
+	}
+
+	@Test
+	public void testNestedCall() throws Exception {
+		assertTrue(this.executor.call("outer", new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return Boolean.valueOf(GameCallExecutorTest.this.executor.isWorkerThread()
+						&& GameCallExecutorTest.this.executor.call("inner", new Callable<Boolean>() {
+							@Override
+							public Boolean call() {
+								return Boolean.TRUE;
+							}
+						}, 2000));
+			}
+		}, 2000));
+	}
+
+	@Test
+	public void testTimeoutInterrupts() throws Exception {
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		try {
+			this.executor.call("slow", new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					try {
+						Thread.sleep(10000);
+					} catch (InterruptedException e) {
+						interrupted.countDown();
+					}
+					return Boolean.TRUE;
+				}
+			}, 50);
+			fail();
+		} catch (TimeoutException e) {
+			// expected
+		}
+		assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+
+		// A stuck worker does not block the next call
+		final AtomicBoolean release = new AtomicBoolean();
+		try {
+			this.executor.call("stuck", new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					while (!release.get()) {
+						Thread.yield();
+					}
+					return Boolean.TRUE;
+				}
+			}, 50);
+			fail();
+		} catch (TimeoutException e) {
+			// expected
+		}
+		assertTrue(this.executor.call("next", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return Boolean.TRUE;
+			}
+		}, 2000));
+		release.set(true);
+	}
+
+	@Test(expected = TimeoutException.class)
+	public void testFailure() throws Exception {
+		this.executor.call("failing", new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				throw new IllegalStateException("test");
+			}
+		}, 2000);
+	}
+}
@@ -0,0 +1,239 @@
+package de.graphioli.controller;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InputQueueTest {
+
+	private InputQueue queue;
+
+	private final List<Integer> frames = Collections.synchronizedList(new ArrayList<Integer>());
+
+	private final AtomicInteger dispatchedInFrame = new AtomicInteger();
+
+	private final CountDownLatch threeFrames = new CountDownLatch(3);
+
+	@Before
+	public void setUp() {
+		this.queue = new InputQueue("Test input", new Runnable() {
+			@Override
+			public void run() {
+				InputQueueTest.this.frames.add(Integer.valueOf(InputQueueTest.this.dispatchedInFrame.getAndSet(0)));
+				InputQueueTest.this.threeFrames.countDown();
+			}
+		});
+	}
+
+	@After
+	public void tearDown() {
+		this.queue.close();
+	}
+
+	@Test
+	public void testOrder() throws Exception {
+		final List<Integer> dispatched = Collections.synchronizedList(new ArrayList<Integer>());
+		final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+		final CountDownLatch done = new CountDownLatch(1);
+		for (int i = 0; i < 100; i++) {
+			final int index = i;
+			assertTrue(this.queue.post(new Runnable() {
+				@Override
+				public void run() {
+					dispatched.add(Integer.valueOf(index));
+					threads.add(Thread.currentThread());
+					if (InputQueueTest.this.queue.isInputThread() && index == 99) {
+						done.countDown();
+					}
+				}
+			}));
+		}
+		assertTrue(done.await(2, TimeUnit.SECONDS));
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, dispatched.get(i).intValue());
+			assertSame(threads.get(0), threads.get(i));
+		}
+		assertNotSame(Thread.currentThread(), threads.get(0));
+		assertFalse(this.queue.isInputThread());
+	}
+
+	@Test
+	public void testPostDoesNotWait() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		long start = System.nanoTime();
+		assertTrue(this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		}));
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+		assertEquals(1, done.getCount());
+
+		release.countDown();
+		assertTrue(done.await(2, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testFailureKeepsDispatching() throws Exception {
+		final CountDownLatch done = new CountDownLatch(1);
+		this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				throw new IllegalStateException("test");
+			}
+		});
+		this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		});
+		assertTrue(done.await(2, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testCloseDropsPendingInput() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch dropped = new CountDownLatch(1);
+		this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				dropped.countDown();
+			}
+		});
+		assertTrue(started.await(2, TimeUnit.SECONDS));
+
+		this.queue.close();
+		assertTrue(this.queue.isClosed());
+		release.countDown();
+		assertFalse(this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				fail();
+			}
+		}));
+		assertFalse(dropped.await(200, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testRepeatedInputIsDropped() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		final AtomicInteger clicks = new AtomicInteger();
+		Runnable click = new Runnable() {
+			@Override
+			public void run() {
+				clicks.incrementAndGet();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		assertTrue(this.queue.post("a", click));
+		assertFalse(this.queue.post("a", click));
+		assertTrue(this.queue.post("b", click));
+		assertFalse(this.queue.post("b", click));
+		assertTrue(this.queue.post(null, click));
+		assertTrue(this.queue.post(null, new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		}));
+		release.countDown();
+		assertTrue(done.await(2, TimeUnit.SECONDS));
+		assertEquals(3, clicks.get());
+
+		// Once handled, the same input is accepted again
+		final CountDownLatch again = new CountDownLatch(1);
+		assertTrue(this.queue.post("a", new Runnable() {
+			@Override
+			public void run() {
+				again.countDown();
+			}
+		}));
+		assertTrue(again.await(2, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testFrames() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		this.queue.setBatchSize(3);
+		assertEquals(3, this.queue.getBatchSize());
+		this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				InputQueueTest.this.dispatchedInFrame.incrementAndGet();
+			}
+		});
+		for (int i = 0; i < 6; i++) {
+			this.queue.post(new Runnable() {
+				@Override
+				public void run() {
+					InputQueueTest.this.dispatchedInFrame.incrementAndGet();
+				}
+			});
+		}
+		this.queue.post(new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		});
+		release.countDown();
+		assertTrue(done.await(2, TimeUnit.SECONDS));
+		assertTrue(this.threeFrames.await(2, TimeUnit.SECONDS));
+
+		// 8 events in frames of at most 3, the last one not counted
+		assertEquals(3, this.frames.size());
+		assertEquals(3, this.frames.get(0).intValue());
+		assertEquals(3, this.frames.get(1).intValue());
+		assertEquals(1, this.frames.get(2).intValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidBatchSize() {
+		this.queue.setBatchSize(0);
+	}
+}
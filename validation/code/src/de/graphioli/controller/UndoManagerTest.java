@@ -0,0 +1,167 @@
+package de.graphioli.controller;
+
+import static org.junit.Assert.*;
+
+import de.graphioli.model.GameBoard;
+import de.graphioli.model.GridPoint;
+import de.graphioli.model.SimpleVisualEdge;
+import de.graphioli.model.SimpleVisualVertex;
+import de.graphioli.model.VisualEdge;
+
+import java.awt.Color;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class UndoManagerTest {
+
+	private GameBoard board;
+	private UndoManager undoManager;
+	private SimpleVisualVertex vtexOne;
+	private SimpleVisualVertex vtexTwo;
+	private SimpleVisualEdge edge;
+
+	@Before
+	public void setUp() throws Exception {
+		board = new GameBoard(false, 5, 5);
+		vtexOne = new SimpleVisualVertex(new GridPoint(1, 1));
+		vtexTwo = new SimpleVisualVertex(new GridPoint(2, 2));
+		edge = new SimpleVisualEdge(vtexOne, vtexTwo);
+		board.addVisualVertex(vtexOne);
+		undoManager = new UndoManager(board);
+	}
+
+	@Test
+	public void testUndoRedo() {
+		assertFalse(undoManager.canUndo());
+		board.addVisualVertex(vtexTwo);
+		board.addVisualEdge(edge);
+		undoManager.endStep();
+		board.removeVisualVertex(vtexTwo);
+		undoManager.endStep();
+		assertEquals(1, board.getGraph().getVertices().size());
+
+		// Removing the vertex with its edge is undone
+		assertTrue(undoManager.undo());
+		assertSame(vtexTwo, board.getGrid().getVisualVertexAtGridPoint(new GridPoint(2, 2)));
+		assertSame(edge, board.getVisualEdge(vtexTwo, vtexOne));
+		assertTrue(vtexOne.isAdjacentTo(vtexTwo));
+
+		assertTrue(undoManager.undo());
+		assertFalse(undoManager.canUndo());
+		assertEquals(1, board.getGraph().getVertices().size());
+		assertEquals(0, board.getGraph().getEdges().size());
+		assertNull(board.getGrid().getVisualVertexAtGridPoint(new GridPoint(2, 2)));
+
+		assertTrue(undoManager.redo());
+		assertEquals(1, board.getGraph().getEdges().size());
+		assertTrue(undoManager.redo());
+		assertFalse(undoManager.canRedo());
+		assertFalse(undoManager.redo());
+		assertEquals(0, board.getGraph().getEdges().size());
+		assertFalse(board.getGraph().containsVertex(vtexTwo));
+	}
+
+	@Test
+	public void testVisualState() {
+		board.addVisualVertex(vtexTwo);
+		board.addVisualEdge(edge);
+		undoManager.endStep();
+
+		vtexOne.setFillColor(Color.RED);
+		vtexOne.setStrokeWeight(3);
+		edge.setStrokeColor(Color.BLUE);
+		undoManager.endStep();
+		vtexOne.setFillColor(Color.GREEN);
+		undoManager.endStep();
+
+		assertTrue(undoManager.undo());
+		assertEquals(Color.RED, vtexOne.getFillColor());
+		assertTrue(undoManager.undo());
+		assertEquals(Color.WHITE, vtexOne.getFillColor());
+		assertEquals(1, vtexOne.getStrokeWeight());
+		assertEquals(Color.BLACK, edge.getStrokeColor());
+
+		assertTrue(undoManager.redo());
+		assertEquals(Color.RED, vtexOne.getFillColor());
+		assertEquals(3, vtexOne.getStrokeWeight());
+		assertEquals(Color.BLUE, edge.getStrokeColor());
+
+		// A new change cannot be followed by the undone steps
+		vtexTwo.setFillColor(Color.YELLOW);
+		assertFalse(undoManager.canRedo());
+		assertTrue(undoManager.undo());
+		assertEquals(Color.WHITE, vtexTwo.getFillColor());
+		assertEquals(Color.RED, vtexOne.getFillColor());
+	}
+
+	@Test
+	public void testRecordingAndLimit() {
+		undoManager.setRecording(false);
+		vtexOne.setFillColor(Color.RED);
+		undoManager.setRecording(true);
+		assertFalse(undoManager.canUndo());
+
+		undoManager.setLimit(2);
+		Color[] colors = { Color.BLUE, Color.GREEN, Color.YELLOW };
+		for (Color color : colors) {
+			vtexOne.setFillColor(color);
+			undoManager.endStep();
+		}
+		assertTrue(undoManager.undo());
+		assertTrue(undoManager.undo());
+		assertFalse(undoManager.undo());
+		assertEquals(Color.BLUE, vtexOne.getFillColor());
+	}
+
+	@Test
+	public void testRejectedStep() {
+		board.addVisualVertex(vtexTwo);
+		undoManager.endStep();
+		vtexOne.setFillColor(Color.RED);
+		board.addVisualEdge(edge);
+		undoManager.endStep();
+
+		// The edge cannot be removed again, so nothing is undone
+		undoManager.setRecording(false);
+		board.removeVisualEdge(edge);
+		undoManager.setRecording(true);
+		assertFalse(undoManager.undo());
+		assertFalse(undoManager.canUndo());
+		assertEquals(Color.RED, vtexOne.getFillColor());
+		assertEquals(0, board.getGraph().getEdges().size());
+	}
+
+	@Test
+	public void testFlush() {
+		GameBoard directedBoard = new GameBoard(true, 5, 5);
+		directedBoard.addVisualVertex(vtexTwo);
+		SimpleVisualVertex vtexThree = new SimpleVisualVertex(new GridPoint(3, 3));
+		directedBoard.addVisualVertex(vtexThree);
+		VisualEdge forward = new SimpleVisualEdge(vtexTwo, vtexThree);
+		VisualEdge backward = new SimpleVisualEdge(vtexThree, vtexTwo);
+		directedBoard.addVisualEdge(forward);
+		directedBoard.addVisualEdge(backward);
+
+		UndoManager manager = new UndoManager(directedBoard);
+		directedBoard.flush();
+		assertTrue(manager.undo());
+		assertEquals(2, directedBoard.getGraph().getVertices().size());
+		assertSame(forward, directedBoard.getVisualEdge(vtexTwo, vtexThree));
+		assertSame(backward, directedBoard.getVisualEdge(vtexThree, vtexTwo));
+		assertTrue(forward.hasOpposingEdge() != backward.hasOpposingEdge());
+		assertSame(vtexThree, directedBoard.getGrid().getVisualVertexAtGridPoint(new GridPoint(3, 3)));
+
+		assertTrue(manager.redo());
+		assertTrue(directedBoard.getGraph().getVertices().isEmpty());
+		assertTrue(vtexTwo.getOutgoingEdges().isEmpty());
+
+		// Re-adding the same vertex within one step
+		assertTrue(manager.undo());
+		directedBoard.removeVisualVertex(vtexTwo);
+		assertTrue(directedBoard.addVisualVertex(vtexTwo));
+		assertTrue(manager.undo());
+		assertEquals(2, directedBoard.getGraph().getEdges().size());
+	}
+
+}
@@ -3,6 +3,7 @@ package de.graphioli.model;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -68,7 +69,8 @@ public class GameBoardTest {
 		assertFalse(undirectedBoard.addVisualEdge(edge));
 		
 		assertFalse(edge.isOpposingEdge());
-		assertTrue(edge.hasOpposingEdge());
+		assertFalse(edge.hasOpposingEdge());
+		assertEquals(undirectedBoard.getGraph().getEdges().size(), 1);
 		
 		assertEquals(vtexOne.getOutgoingEdges().get(0), edge);
 		assertEquals(vtexOne.getIncomingEdges().size(), 1);
@@ -97,13 +99,16 @@ public class GameBoardTest {
 		vtexOne = new SimpleVisualVertex(new GridPoint(3, 0));
 		assertTrue(directedBoard.addVisualVertex(vtexOne));
 		assertFalse(directedBoard.addVisualVertex(vtexOne));
-		assertTrue(undirectedBoard.addVisualVertex(vtexOne));
+		// A vertex is part of one board at a time
 		assertFalse(undirectedBoard.addVisualVertex(vtexOne));
+		VisualVertex vtexTwo = new SimpleVisualVertex(new GridPoint(3, 0));
+		assertTrue(undirectedBoard.addVisualVertex(vtexTwo));
+		assertFalse(undirectedBoard.addVisualVertex(vtexTwo));
 		
 		assertEquals(directedBoard.getGraph().getVertices().get(0), vtexOne);
 		assertEquals(directedBoard.getGrid().getVisualVertexAtGridPoint(vtexOne.getGridPoint()), vtexOne);
-		assertEquals(undirectedBoard.getGraph().getVertices().get(0), vtexOne);
-		assertEquals(undirectedBoard.getGrid().getVisualVertexAtGridPoint(vtexOne.getGridPoint()), vtexOne);
+		assertEquals(undirectedBoard.getGraph().getVertices().get(0), vtexTwo);
+		assertEquals(undirectedBoard.getGrid().getVisualVertexAtGridPoint(vtexTwo.getGridPoint()), vtexTwo);
 		
 		directedBoard.flush();
 		undirectedBoard.flush();
@@ -306,4 +311,91 @@ public class GameBoardTest {
 		directedBoard.flush();
 	}
 
+	@Test
+	public void testTransactionCommit() {
+		final AtomicInteger changes = new AtomicInteger();
+		GameBoardListener listener = new GameBoardListener() {
+			@Override
+			public void onGameBoardChanged(GameBoard gameBoard) {
+				changes.incrementAndGet();
+			}
+		};
+		undirectedBoard.addGameBoardListener(listener);
+		VisualVertex vtexOne = new SimpleVisualVertex(new GridPoint(1, 1));
+		VisualVertex vtexTwo = new SimpleVisualVertex(new GridPoint(2, 2));
+		VisualVertex vtexThree = new SimpleVisualVertex(new GridPoint(3, 3));
+
+		BoardTransaction transaction = undirectedBoard.beginTransaction();
+		assertTrue(transaction.addVisualVertex(vtexOne));
+		assertTrue(transaction.addVisualVertex(vtexTwo));
+		assertTrue(transaction.addVisualVertex(vtexThree));
+		assertTrue(transaction.addVisualEdge(new SimpleVisualEdge(vtexOne, vtexTwo)));
+		assertTrue(transaction.addVisualEdge(new SimpleVisualEdge(vtexTwo, vtexThree)));
+		assertTrue(transaction.removeVisualVertex(vtexThree));
+		assertFalse(transaction.addVisualEdge(null));
+		assertEquals(6, transaction.size());
+		assertEquals(0, undirectedBoard.getGraph().getVertices().size());
+
+		assertTrue(transaction.commit());
+		assertEquals(1, changes.get());
+		assertEquals(0, transaction.size());
+		assertEquals(2, undirectedBoard.getGraph().getVertices().size());
+		assertEquals(1, undirectedBoard.getGraph().getEdges().size());
+		assertNull(undirectedBoard.getGrid().getVisualVertexAtGridPoint(new GridPoint(3, 3)));
+
+		undirectedBoard.removeGameBoardListener(listener);
+		assertTrue(undirectedBoard.addVisualVertex(new SimpleVisualVertex(new GridPoint(4, 4))));
+		assertEquals(1, changes.get());
+	}
+
+	@Test
+	public void testTransactionRejected() {
+		VisualVertex vtexOne = new SimpleVisualVertex(new GridPoint(1, 1));
+		VisualVertex vtexTwo = new SimpleVisualVertex(new GridPoint(2, 2));
+		undirectedBoard.addVisualVertex(vtexOne);
+		undirectedBoard.addVisualVertex(vtexTwo);
+		undirectedBoard.addVisualEdge(new SimpleVisualEdge(vtexOne, vtexTwo));
+
+		// The opposing edge exists already
+		BoardTransaction transaction = undirectedBoard.beginTransaction();
+		transaction.addVisualVertex(new SimpleVisualVertex(new GridPoint(0, 0)));
+		transaction.addVisualEdge(new SimpleVisualEdge(vtexTwo, vtexOne));
+		assertFalse(transaction.commit());
+		assertNull(undirectedBoard.getGrid().getVisualVertexAtGridPoint(new GridPoint(0, 0)));
+
+		// The grid point is occupied by a vertex of the same transaction
+		transaction.addVisualVertex(new SimpleVisualVertex(new GridPoint(0, 0)));
+		transaction.addVisualVertex(new SimpleVisualVertex(new GridPoint(0, 0)));
+		assertFalse(transaction.commit());
+
+		// The edge is removed together with its vertex
+		transaction.removeVisualVertex(vtexTwo);
+		transaction.removeVisualEdge(new SimpleVisualEdge(vtexOne, vtexTwo));
+		assertFalse(transaction.commit());
+		assertEquals(1, undirectedBoard.getGraph().getEdges().size());
+
+		ArrayList<VisualVertex> vertices = new ArrayList<VisualVertex>();
+		vertices.add(new SimpleVisualVertex(new GridPoint(4, 0)));
+		vertices.add(new SimpleVisualVertex(new GridPoint(1, 1)));
+		assertFalse(undirectedBoard.addVisualVertices(vertices));
+		assertNull(undirectedBoard.getGrid().getVisualVertexAtGridPoint(new GridPoint(4, 0)));
+	}
+
+	@Test
+	public void testRemoveVisualEdgeReversed() {
+		VisualVertex vtexOne = new SimpleVisualVertex(new GridPoint(1, 1));
+		VisualVertex vtexTwo = new SimpleVisualVertex(new GridPoint(2, 2));
+		undirectedBoard.addVisualVertex(vtexOne);
+		undirectedBoard.addVisualVertex(vtexTwo);
+		VisualEdge edge = new SimpleVisualEdge(vtexOne, vtexTwo);
+		undirectedBoard.addVisualEdge(edge);
+
+		// The single undirected edge is found from either end
+		assertSame(edge, undirectedBoard.getVisualEdge(vtexTwo, vtexOne));
+		assertTrue(undirectedBoard.removeVisualEdge(new SimpleVisualEdge(vtexTwo, vtexOne)));
+		assertFalse(undirectedBoard.getGraph().containsEdge(edge));
+		assertEquals(0, vtexOne.getOutgoingEdges().size());
+		assertEquals(0, vtexTwo.getOutgoingEdges().size());
+	}
+
 }
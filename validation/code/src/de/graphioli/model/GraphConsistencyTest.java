@@ -2,6 +2,11 @@ package de.graphioli.model;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.Test;
 
 import de.graphioli.model.Graph;
@@ -129,4 +134,182 @@ public class GraphConsistencyTest {
 		assertEquals(graph.getVertices().size(), 1);
 		assertEquals(graph.getEdges().size(), 0);
 	}
+
+	@Test
+	public void testIterationOrderAfterRemoval() {
+		Graph graph = new Graph();
+		Vertex[] vtecies = new Vertex[4];
+		for (int i = 0; i < vtecies.length; i++) {
+			vtecies[i] = new Vertex();
+			assertTrue(graph.addVertex(vtecies[i]));
+		}
+		Edge edgeOne = new Edge(vtecies[0], vtecies[1]);
+		Edge edgeTwo = new Edge(vtecies[1], vtecies[2]);
+		Edge edgeThree = new Edge(vtecies[2], vtecies[3]);
+		graph.addEdge(edgeOne);
+		graph.addEdge(edgeTwo);
+		graph.addEdge(edgeThree);
+
+		assertTrue(graph.containsVertex(vtecies[2]));
+		assertTrue(graph.containsEdge(new Edge(vtecies[1], vtecies[2])));
+		assertFalse(graph.containsEdge(new Edge(vtecies[2], vtecies[1])));
+
+		assertTrue(graph.removeEdge(edgeTwo));
+		assertEquals(graph.getEdges().get(0), edgeOne);
+		assertEquals(graph.getEdges().get(1), edgeThree);
+
+		assertTrue(graph.removeVertex(vtecies[1]));
+		assertFalse(graph.containsVertex(vtecies[1]));
+		assertEquals(graph.getVertices().size(), 3);
+		assertEquals(graph.getVertices().get(0), vtecies[0]);
+		assertEquals(graph.getVertices().get(1), vtecies[2]);
+		assertEquals(graph.getVertices().get(2), vtecies[3]);
+		assertEquals(graph.getEdges().size(), 1);
+	}
+
+	@Test
+	public void testEdgeLookup() {
+		Graph graph = new Graph();
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		Edge edgeOne = new Edge(vtexOne, vtexTwo);
+
+		assertNull(graph.getEdge(vtexOne, vtexTwo));
+		assertFalse(vtexOne.isAdjacentTo(vtexTwo));
+
+		graph.addEdge(edgeOne);
+		assertSame(graph.getEdge(vtexOne, vtexTwo), edgeOne);
+		assertNull(graph.getEdge(vtexTwo, vtexOne));
+		assertSame(vtexTwo.getIncomingEdgeFrom(vtexOne), edgeOne);
+		assertTrue(vtexOne.isAdjacentTo(vtexTwo));
+		assertFalse(vtexTwo.isAdjacentTo(vtexOne));
+
+		graph.removeEdge(new Edge(vtexOne, vtexTwo));
+		assertNull(graph.getEdge(vtexOne, vtexTwo));
+		assertNull(vtexTwo.getIncomingEdgeFrom(vtexOne));
+		assertFalse(vtexOne.isAdjacentTo(vtexTwo));
+	}
+
+	@Test
+	public void testCompactGraph() {
+		Graph graph = new Graph();
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		Vertex vtexThree = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		graph.addVertex(vtexThree);
+		graph.addEdge(new Edge(vtexOne, vtexTwo));
+		graph.addEdge(new Edge(vtexOne, vtexThree));
+
+		CompactGraph compact = graph.getCompactGraph();
+		assertSame(compact, graph.getCompactGraph());
+		assertEquals(compact.getVertexCount(), 3);
+		assertEquals(compact.getEdgeCount(), 2);
+
+		int one = compact.getId(vtexOne);
+		int two = compact.getId(vtexTwo);
+		assertEquals(compact.getOffsets()[one + 1] - compact.getOffsets()[one], 2);
+		assertEquals(compact.getInOffsets()[two + 1] - compact.getInOffsets()[two], 1);
+		assertEquals(compact.getSources()[compact.getInOffsets()[two]], one);
+
+		// Weights are read from the edges, not cached with the snapshot
+		int position = compact.getOffsets()[one];
+		while (compact.getTargets()[position] != two) {
+			position++;
+		}
+		assertEquals(compact.getWeights()[position], graph.getEdge(vtexOne, vtexTwo).getWeight());
+		graph.getEdge(vtexOne, vtexTwo).setWeight(7);
+		assertSame(compact, graph.getCompactGraph());
+		assertEquals(compact.getWeights()[position], 7);
+
+		graph.addEdge(new Edge(vtexTwo, vtexThree));
+		assertNotSame(compact, graph.getCompactGraph());
+		assertEquals(graph.getCompactGraph().getEdgeCount(), 3);
+	}
+
+	@Test
+	public void testCompactIDs() throws Exception {
+		Graph graph = new Graph();
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		graph.addEdge(new Edge(vtexOne, vtexTwo));
+		assertFalse(vtexOne.getID() == vtexTwo.getID());
+		assertEquals(vtexOne.getUID(), vtexOne.getUID());
+		assertFalse(vtexOne.getUID().equals(vtexTwo.getUID()));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(graph);
+		out.close();
+		Graph copy = (Graph) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		Vertex copyOne = copy.getVertices().get(0);
+		Vertex copyTwo = copy.getVertices().get(1);
+		assertEquals(vtexOne.getID(), copyOne.getID());
+		assertEquals(vtexOne, copyOne);
+		assertEquals(vtexOne.hashCode(), copyOne.hashCode());
+		assertTrue(copy.containsVertex(vtexTwo));
+		assertTrue(copyOne.isAdjacentTo(copyTwo));
+		assertSame(copyTwo.getIncomingEdgeFrom(copyOne), copyOne.getOutgoingEdgeTo(copyTwo));
+	}
+
+	@Test
+	public void testUndirectedGraph() {
+		Graph graph = new Graph(true);
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		Vertex vtexThree = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		graph.addVertex(vtexThree);
+		Edge edgeOne = new Edge(vtexOne, vtexTwo);
+		Edge edgeTwo = new Edge(vtexThree, vtexOne);
+		assertTrue(graph.isUndirected());
+		assertTrue(graph.addEdge(edgeOne));
+		assertFalse(graph.addEdge(new Edge(vtexTwo, vtexOne)));
+		assertTrue(graph.addEdge(edgeTwo));
+		assertEquals(graph.getEdges().size(), 2);
+
+		assertTrue(graph.containsEdge(new Edge(vtexTwo, vtexOne)));
+		assertSame(graph.getEdge(vtexTwo, vtexOne), edgeOne);
+		assertSame(graph.getEdge(vtexOne, vtexThree), edgeTwo);
+		assertTrue(vtexTwo.isAdjacentTo(vtexOne));
+		assertEquals(vtexOne.getAdjacentVertices().size(), 2);
+		assertTrue(vtexOne.getAdjacentVertices().contains(vtexThree));
+		assertEquals(graph.getCompactGraph().getEdgeCount(), 4);
+
+		assertTrue(graph.removeEdge(new Edge(vtexTwo, vtexOne)));
+		assertFalse(graph.containsEdge(edgeOne));
+		assertEquals(vtexOne.getOutgoingEdges().size(), 1);
+		assertEquals(vtexTwo.getIncomingEdges().size(), 0);
+
+		assertTrue(graph.removeVertex(vtexOne));
+		assertEquals(graph.getEdges().size(), 0);
+		assertEquals(vtexThree.getOutgoingEdges().size(), 0);
+		assertEquals(vtexThree.getIncomingEdges().size(), 0);
+	}
+
+	@Test
+	public void testConvertToUndirected() {
+		Graph graph = new Graph();
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		Edge edge = new Edge(vtexOne, vtexTwo);
+		graph.addEdge(edge);
+		graph.addEdge(new Edge(vtexTwo, vtexOne));
+
+		assertEquals(graph.convertToUndirected(), 1);
+		assertTrue(graph.isUndirected());
+		assertEquals(graph.getEdges().size(), 1);
+		assertSame(graph.getEdges().get(0), edge);
+		assertSame(vtexTwo.getOutgoingEdgeTo(vtexOne), edge);
+		assertEquals(vtexOne.getIncomingEdges().size(), 1);
+	}
 }
@@ -0,0 +1,129 @@
+package de.graphioli.model;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class GraphJournalTest {
+
+	@Test
+	public void testRecordAndDrain() {
+		Graph graph = new Graph();
+		GraphJournal journal = new GraphJournal();
+		graph.addGraphListener(journal);
+
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		Edge edge = new Edge(vtexOne, vtexTwo);
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		graph.addEdge(edge);
+		assertEquals(3, journal.size());
+
+		ArrayList<GraphEvent> batch = new ArrayList<GraphEvent>();
+		assertEquals(2, journal.drain(batch, 2));
+		assertEquals(GraphEvent.Type.VERTEX_ADDED, batch.get(0).getType());
+		assertSame(vtexTwo, batch.get(1).getVertex());
+		assertFalse(batch.get(1).isEdgeEvent());
+
+		graph.removeVertex(vtexOne);
+		List<GraphEvent> rest = journal.drain();
+		assertEquals(3, rest.size());
+		assertEquals(GraphEvent.Type.EDGE_ADDED, rest.get(0).getType());
+		assertEquals(GraphEvent.Type.EDGE_REMOVED, rest.get(1).getType());
+		assertSame(edge, rest.get(1).getEdge());
+		assertEquals(GraphEvent.Type.VERTEX_REMOVED, rest.get(2).getType());
+		assertEquals(0, journal.size());
+		assertFalse(journal.isOverflowed());
+	}
+
+	@Test
+	public void testOverflow() {
+		Graph graph = new Graph();
+		GraphJournal journal = new GraphJournal(4);
+		graph.addGraphListener(journal);
+
+		Vertex[] vertices = new Vertex[6];
+		for (int i = 0; i < vertices.length; i++) {
+			vertices[i] = new Vertex();
+			graph.addVertex(vertices[i]);
+		}
+		assertTrue(journal.isOverflowed());
+		assertEquals(4, journal.size());
+
+		// The oldest events were dropped
+		List<GraphEvent> events = journal.drain();
+		assertSame(vertices[2], events.get(0).getVertex());
+		assertSame(vertices[5], events.get(3).getVertex());
+
+		journal.clear();
+		assertFalse(journal.isOverflowed());
+		graph.removeVertex(vertices[0]);
+		assertEquals(1, journal.size());
+	}
+
+	@Test
+	public void testVisualStateChanged() {
+		GameBoard board = new GameBoard(false, 5, 5);
+		GraphJournal journal = new GraphJournal();
+		board.addGraphListener(journal);
+
+		SimpleVisualVertex vtexOne = new SimpleVisualVertex(new GridPoint(1, 1));
+		SimpleVisualVertex vtexTwo = new SimpleVisualVertex(new GridPoint(2, 2));
+		SimpleVisualEdge edge = new SimpleVisualEdge(vtexOne, vtexTwo);
+		board.addVisualVertex(vtexOne);
+		board.addVisualVertex(vtexTwo);
+		edge.setStrokeColor(Color.RED);
+		board.addVisualEdge(edge);
+		journal.clear();
+
+		vtexOne.setFillColor(Color.BLUE);
+		edge.setStrokeColor(Color.GREEN);
+		new SimpleVisualEdge(vtexTwo, vtexOne).setStrokeColor(Color.RED);
+		List<GraphEvent> events = journal.drain();
+		assertEquals(2, events.size());
+		assertEquals(GraphEvent.Type.VERTEX_CHANGED, events.get(0).getType());
+		assertSame(vtexOne, events.get(0).getVertex());
+		assertEquals(GraphEvent.Type.EDGE_CHANGED, events.get(1).getType());
+		assertSame(edge, events.get(1).getEdge());
+
+		// Listeners registered at the board survive a flush
+		board.flush();
+		assertEquals(3, journal.size());
+		board.removeVisualVertex(vtexOne);
+		vtexOne.setFillColor(Color.RED);
+		assertEquals(3, journal.size());
+		board.addVisualVertex(new SimpleVisualVertex(new GridPoint(3, 3)));
+		assertEquals(4, journal.size());
+
+		assertTrue(board.removeGraphListener(journal));
+		assertFalse(board.removeGraphListener(journal));
+	}
+
+	@Test
+	public void testDispatch() {
+		Graph graph = new Graph();
+		GraphJournal journal = new GraphJournal();
+		graph.addGraphListener(journal);
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		graph.addEdge(new Edge(vtexOne, vtexTwo));
+		graph.removeVertex(vtexTwo);
+
+		// Replaying the events into a second journal reproduces them
+		GraphJournal copy = new GraphJournal();
+		for (GraphEvent event : journal.drain()) {
+			event.dispatch(copy);
+		}
+		List<GraphEvent> events = copy.drain();
+		assertEquals(5, events.size());
+		assertEquals(GraphEvent.Type.EDGE_REMOVED, events.get(3).getType());
+		assertSame(vtexTwo, events.get(4).getVertex());
+	}
+}
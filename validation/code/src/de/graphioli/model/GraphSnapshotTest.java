@@ -0,0 +1,172 @@
+package de.graphioli.model;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class GraphSnapshotTest {
+
+	@Test
+	public void testSnapshotIsImmutable() {
+		Graph graph = new Graph();
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		graph.addEdge(new Edge(vtexOne, vtexTwo));
+
+		GraphSnapshot snapshot = graph.getSnapshot();
+		assertSame(snapshot, graph.getSnapshot());
+		assertEquals(2, snapshot.getVertexCount());
+		assertEquals(1, snapshot.getEdgeCount());
+		assertEquals(graph.getModificationCount(), snapshot.getModificationCount());
+
+		graph.removeVertex(vtexOne);
+		graph.addVertex(new Vertex());
+		assertEquals(2, snapshot.getVertices().size());
+		assertSame(vtexOne, snapshot.getVertices().get(0));
+		assertEquals(1, snapshot.getEdges().size());
+
+		GraphSnapshot current = graph.getSnapshot();
+		assertNotSame(snapshot, current);
+		assertEquals(2, current.getVertexCount());
+		assertSame(vtexTwo, current.getVertices().get(0));
+		assertEquals(0, current.getEdgeCount());
+
+		try {
+			current.getVertices().add(vtexOne);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCompaction() {
+		Graph graph = new Graph(true);
+		Vertex[] vertices = new Vertex[200];
+		for (int i = 0; i < vertices.length; i++) {
+			vertices[i] = new Vertex();
+			graph.addVertex(vertices[i]);
+			if (i > 0) {
+				graph.addEdge(new Edge(vertices[i - 1], vertices[i]));
+			}
+		}
+
+		// Remove all but every tenth vertex, so the lists are compacted
+		for (int i = 0; i < vertices.length; i++) {
+			if (i % 10 != 0) {
+				assertTrue(graph.removeVertex(vertices[i]));
+			}
+		}
+		List<Vertex> remaining = graph.getVertices();
+		assertEquals(20, remaining.size());
+		for (int i = 0; i < remaining.size(); i++) {
+			assertSame(vertices[i * 10], remaining.get(i));
+			assertTrue(graph.containsVertex(vertices[i * 10]));
+		}
+		assertEquals(0, graph.getEdges().size());
+
+		// Slots stay consistent after compaction
+		assertTrue(graph.addEdge(new Edge(vertices[0], vertices[10])));
+		assertTrue(graph.containsEdge(new Edge(vertices[10], vertices[0])));
+		assertTrue(graph.removeEdge(new Edge(vertices[10], vertices[0])));
+		assertTrue(graph.removeVertex(vertices[190]));
+		assertFalse(graph.containsVertex(vertices[190]));
+		assertEquals(19, graph.getSnapshot().getVertexCount());
+	}
+
+	@Test
+	public void testVertexInOneGraphOnly() {
+		Graph graph = new Graph();
+		Graph other = new Graph();
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+
+		// Adding it elsewhere would overwrite its slot in the first graph
+		assertFalse(other.addVertex(vtexTwo));
+		assertEquals(0, other.getSnapshot().getVertexCount());
+		other.addVertex(new Vertex());
+		assertFalse(other.addEdge(new Edge(vtexOne, vtexTwo)));
+
+		assertTrue(graph.removeVertex(vtexTwo));
+		assertFalse(graph.getVertices().contains(vtexTwo));
+		assertEquals(1, graph.getSnapshot().getVertexCount());
+
+		// Once removed, it can be added to another graph
+		assertTrue(other.addVertex(vtexTwo));
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		Graph graph = new Graph();
+		Vertex vtexOne = new Vertex();
+		Vertex vtexTwo = new Vertex();
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		graph.addEdge(new Edge(vtexTwo, vtexOne));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(graph);
+		out.close();
+		Graph copy = (Graph) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		assertEquals(2, copy.getSnapshot().getVertexCount());
+		assertEquals(1, copy.getSnapshot().getEdgeCount());
+		Edge edge = copy.getEdges().get(0);
+		assertTrue(copy.containsEdge(edge));
+		assertTrue(copy.removeVertex(edge.getOriginVertex()));
+		assertEquals(0, copy.getEdges().size());
+	}
+
+	@Test
+	public void testConcurrentReader() throws Exception {
+		final Graph graph = new Graph(true);
+		final Vertex hub = new Vertex();
+		graph.addVertex(hub);
+		final AtomicBoolean failed = new AtomicBoolean();
+		final AtomicBoolean done = new AtomicBoolean();
+
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				while (!done.get()) {
+					GraphSnapshot snapshot = graph.getSnapshot();
+					int count = 0;
+					for (Vertex vertex : snapshot.getVertices()) {
+						if (vertex == null) {
+							failed.set(true);
+						}
+						count++;
+					}
+					if (count != snapshot.getVertexCount() || snapshot.getEdges().size() != snapshot.getEdgeCount()) {
+						failed.set(true);
+					}
+				}
+			}
+		};
+		reader.start();
+
+		for (int i = 0; i < 2000; i++) {
+			Vertex vertex = new Vertex();
+			graph.addVertex(vertex);
+			graph.addEdge(new Edge(hub, vertex));
+			if (i % 3 == 0) {
+				graph.removeVertex(vertex);
+			}
+		}
+		done.set(true);
+		reader.join();
+		assertFalse(failed.get());
+	}
+}
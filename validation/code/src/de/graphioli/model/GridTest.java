@@ -3,6 +3,9 @@ package de.graphioli.model;
 import static org.junit.Assert.*;
 
 import de.graphioli.model.GridPoint;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
 import org.junit.Test;
 
 public class GridTest {
@@ -52,4 +55,173 @@ public class GridTest {
 		
 	}
 
+	@Test
+	public void testStoragesAgree() {
+		int side = 100;
+		GridStorage[] storages = { new DenseGridStorage(side, side), new SparseGridStorage(),
+				new ChunkedGridStorage(side, side) };
+		VisualVertex[][] expected = new VisualVertex[side][side];
+		VisualVertex vertex = new SimpleVisualVertex(new GridPoint(0, 0));
+		Random random = new Random(7);
+
+		for (int i = 0; i < 20000; i++) {
+			int x = random.nextInt(side);
+			int y = random.nextInt(side);
+			VisualVertex value = random.nextInt(3) == 0 ? vertex : null;
+			expected[x][y] = value;
+			for (GridStorage storage : storages) {
+				storage.set(x, y, value);
+			}
+		}
+
+		int size = 0;
+		for (int x = 0; x < side; x++) {
+			for (int y = 0; y < side; y++) {
+				if (expected[x][y] != null) {
+					size++;
+				}
+				for (GridStorage storage : storages) {
+					assertSame(expected[x][y], storage.get(x, y));
+				}
+			}
+		}
+		for (GridStorage storage : storages) {
+			assertEquals(size, storage.size());
+			GridStorage copy = new SparseGridStorage();
+			storage.copyTo(copy);
+			assertEquals(size, copy.size());
+		}
+	}
+
+	@Test
+	public void testStorageSelection() {
+		assertTrue(new Grid(20, 30).getStorage() instanceof DenseGridStorage);
+
+		int side = 260;
+		Grid grid = new Grid(side, side);
+		assertTrue(grid.getStorage() instanceof SparseGridStorage);
+
+		VisualVertex corner = new SimpleVisualVertex(new GridPoint(side - 1, side - 1));
+		assertTrue(grid.addVisualVertexToGrid(corner));
+		int count = side * side / Grid.SPARSE_OCCUPANCY_DIVISOR;
+		for (int i = 0; i < count; i++) {
+			grid.addVisualVertexToGrid(new SimpleVisualVertex(new GridPoint(i % side, i / side)));
+		}
+		assertTrue(grid.getStorage() instanceof ChunkedGridStorage);
+		assertSame(corner, grid.getVisualVertexAtGridPoint(new GridPoint(side - 1, side - 1)));
+		assertNotNull(grid.getVisualVertexAtGridPoint(new GridPoint(3, 0)));
+		assertNull(grid.getVisualVertexAtGridPoint(new GridPoint(side, 0)));
+
+		grid.clear();
+		assertTrue(grid.getStorage() instanceof SparseGridStorage);
+		assertNull(grid.getVisualVertexAtGridPoint(new GridPoint(3, 0)));
+	}
+
+	@Test
+	public void testGridPointValues() {
+		GridPoint point = new GridPoint(3, -7);
+		assertEquals(point, new GridPoint(3, -7));
+		assertEquals(point.hashCode(), new GridPoint(3, -7).hashCode());
+		assertFalse(point.equals(new GridPoint(-7, 3)));
+		assertSame(GridPoint.valueOf(2, 5), GridPoint.valueOf(2, 5));
+
+		long packed = point.toPackedLong();
+		assertEquals(3, GridPoint.unpackX(packed));
+		assertEquals(-7, GridPoint.unpackY(packed));
+		assertEquals(point, GridPoint.valueOf(packed));
+		assertFalse(packed == GridPoint.pack(-7, 3));
+	}
+
+	@Test
+	public void testGridPointCache() {
+		Grid grid = new Grid(100, 100);
+		GridPoint point = grid.getGridPoint(80, 90);
+		assertSame(point, grid.getGridPoint(80, 90));
+		assertEquals(new GridPoint(100, 0), grid.getGridPoint(100, 0));
+
+		VisualVertex vertex = new SimpleVisualVertex(point);
+		grid.addVisualVertexToGrid(vertex);
+		assertSame(vertex, grid.getVisualVertexAt(80, 90));
+		assertSame(vertex, grid.getVisualVertexAtGridPoint(new GridPoint(80, 90)));
+		assertNull(grid.getVisualVertexAt(-1, 90));
+
+		Grid hugeGrid = new Grid(1000, 1000);
+		VisualVertex hugeVertex = new SimpleVisualVertex(new GridPoint(500, 600));
+		hugeGrid.addVisualVertexToGrid(hugeVertex);
+		assertSame(hugeVertex.getGridPoint(), hugeGrid.getGridPoint(500, 600));
+		assertEquals(new GridPoint(600, 500), hugeGrid.getGridPoint(600, 500));
+	}
+
+	@Test
+	public void testRegionQueries() {
+		int width = 37;
+		int height = 29;
+		Grid grid = new Grid(width, height);
+		ArrayList<VisualVertex> vertices = new ArrayList<VisualVertex>();
+		Random random = new Random(11);
+		for (int i = 0; i < 200; i++) {
+			VisualVertex vertex = new SimpleVisualVertex(new GridPoint(random.nextInt(width), random.nextInt(height)));
+			if (grid.addVisualVertexToGrid(vertex)) {
+				vertices.add(vertex);
+			}
+		}
+		// Empty a few grid points again
+		for (int i = 0; i < 20; i++) {
+			grid.removeVisualVertexAtGridPoint(vertices.remove(vertices.size() - 1).getGridPoint());
+		}
+
+		for (int i = 0; i < 300; i++) {
+			int x = random.nextInt(width + 10) - 5;
+			int y = random.nextInt(height + 10) - 5;
+			int radius = random.nextInt(12);
+			GridPoint center = new GridPoint(x, y);
+
+			HashSet<VisualVertex> rectangle = new HashSet<VisualVertex>();
+			HashSet<VisualVertex> chebyshev = new HashSet<VisualVertex>();
+			HashSet<VisualVertex> manhattan = new HashSet<VisualVertex>();
+			for (VisualVertex vertex : vertices) {
+				int dx = Math.abs(vertex.getGridPoint().getPositionX() - x);
+				int dy = Math.abs(vertex.getGridPoint().getPositionY() - y);
+				int px = vertex.getGridPoint().getPositionX();
+				int py = vertex.getGridPoint().getPositionY();
+				if (px >= x && px <= x + radius && py >= y && py <= y + 2 * radius) {
+					rectangle.add(vertex);
+				}
+				if (Math.max(dx, dy) <= radius) {
+					chebyshev.add(vertex);
+				}
+				if (dx + dy <= radius) {
+					manhattan.add(vertex);
+				}
+			}
+
+			ArrayList<VisualVertex> result = grid.getVisualVerticesInRectangle(x, y, x + radius, y + 2 * radius);
+			assertEquals(rectangle.size(), result.size());
+			assertEquals(rectangle, new HashSet<VisualVertex>(result));
+			result = grid.getVisualVerticesWithinChebyshevRadius(center, radius);
+			assertEquals(chebyshev.size(), result.size());
+			assertEquals(chebyshev, new HashSet<VisualVertex>(result));
+			result = grid.getVisualVerticesWithinManhattanRadius(center, radius);
+			assertEquals(manhattan.size(), result.size());
+			assertEquals(manhattan, new HashSet<VisualVertex>(result));
+		}
+	}
+
+	@Test
+	public void testOffsetQuery() {
+		Grid grid = new Grid(6, 6);
+		VisualVertex knight = new SimpleVisualVertex(new GridPoint(1, 2));
+		VisualVertex blocked = new SimpleVisualVertex(new GridPoint(2, 2));
+		grid.addVisualVertexToGrid(knight);
+		grid.addVisualVertexToGrid(blocked);
+
+		GridPoint[] knightMoves = { new GridPoint(1, 2), new GridPoint(-1, -2), new GridPoint(-1, 0) };
+		assertTrue(grid.getVisualVerticesAtOffsets(new GridPoint(0, 0), knightMoves).contains(knight));
+		assertEquals(0, grid.getVisualVerticesAtOffsets(new GridPoint(5, 5), knightMoves).size());
+		ArrayList<VisualVertex> result = grid.getVisualVerticesAtOffsets(new GridPoint(2, 4), knightMoves);
+		assertEquals(1, result.size());
+		assertSame(knight, result.get(0));
+		assertSame(blocked, grid.getVisualVerticesAtOffsets(new GridPoint(3, 2), knightMoves).get(0));
+	}
+
 }
@@ -0,0 +1,73 @@
+package de.graphioli.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class UIDManagerTest {
+
+	private static final int COUNT = 10000;
+
+	@Test
+	public void testGeneratorsAreUnique() {
+		UIDGenerator[] generators = { new CounterUIDGenerator(), new StripedRandomUIDGenerator(),
+				new RandomUIDGenerator() };
+		for (UIDGenerator generator : generators) {
+			HashSet<UUID> ids = new HashSet<UUID>();
+			for (int i = 0; i < COUNT; i++) {
+				assertTrue(ids.add(generator.generateUniqueID()));
+			}
+		}
+	}
+
+	@Test
+	public void testCounterScopes() {
+		CounterUIDGenerator generatorA = new CounterUIDGenerator();
+		CounterUIDGenerator generatorB = new CounterUIDGenerator();
+		assertFalse(generatorA.generateUniqueID().equals(generatorB.generateUniqueID()));
+	}
+
+	@Test
+	public void testConcurrentCounter() throws InterruptedException {
+		final CounterUIDGenerator generator = new CounterUIDGenerator();
+		final UUID[][] results = new UUID[4][COUNT];
+		Thread[] threads = new Thread[results.length];
+		for (int i = 0; i < threads.length; i++) {
+			final UUID[] result = results[i];
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < result.length; j++) {
+						result[j] = generator.generateUniqueID();
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		HashSet<UUID> ids = new HashSet<UUID>();
+		for (int i = 0; i < threads.length; i++) {
+			threads[i].join();
+			for (UUID id : results[i]) {
+				assertTrue(ids.add(id));
+			}
+		}
+	}
+
+	@Test
+	public void testSetGenerator() {
+		UIDGenerator previous = UIDManager.getGenerator();
+		assertFalse(UIDManager.setGenerator(null));
+		assertSame(previous, UIDManager.getGenerator());
+
+		RandomUIDGenerator generator = new RandomUIDGenerator();
+		assertTrue(UIDManager.setGenerator(generator));
+		assertSame(generator, UIDManager.getGenerator());
+		assertNotNull(UIDManager.generateUniqueID());
+		UIDManager.setGenerator(previous);
+	}
+
+}
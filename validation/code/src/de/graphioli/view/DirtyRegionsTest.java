@@ -0,0 +1,90 @@
+package de.graphioli.view;
+
+import static org.junit.Assert.*;
+
+import de.graphioli.model.Graph;
+import de.graphioli.model.GraphEvent;
+import de.graphioli.model.GraphJournal;
+import de.graphioli.model.GridPoint;
+import de.graphioli.model.SimpleVisualEdge;
+import de.graphioli.model.SimpleVisualVertex;
+import de.graphioli.model.VisualVertex;
+import java.awt.Rectangle;
+
+import org.junit.Test;
+
+public class DirtyRegionsTest {
+
+	private static final int SCALE = 40;
+
+	@Test
+	public void testVertexBounds() {
+		VisualVertex vertex = new SimpleVisualVertex(new GridPoint(2, 0));
+		Rectangle bounds = DirtyRegions.getVertexBounds(vertex, SCALE);
+		assertEquals(new Rectangle(3 * SCALE - VisualVertex.PIXELS_PER_SIDE / 2,
+				SCALE - VisualVertex.PIXELS_PER_SIDE / 2, VisualVertex.PIXELS_PER_SIDE,
+				VisualVertex.PIXELS_PER_SIDE), bounds);
+	}
+
+	@Test
+	public void testEdgeBoundsCoverVertices() {
+		VisualVertex origin = new SimpleVisualVertex(new GridPoint(4, 1));
+		VisualVertex target = new SimpleVisualVertex(new GridPoint(0, 3));
+		Rectangle bounds = DirtyRegions.getEdgeBounds(new SimpleVisualEdge(origin, target), SCALE);
+		assertTrue(bounds.contains(DirtyRegions.getVertexBounds(origin, SCALE)));
+		assertTrue(bounds.contains(DirtyRegions.getVertexBounds(target, SCALE)));
+	}
+
+	@Test
+	public void testMerging() {
+		DirtyRegions dirty = new DirtyRegions(SCALE);
+		assertTrue(dirty.isEmpty());
+		dirty.add(new Rectangle(0, 0, 10, 10));
+		dirty.add(new Rectangle(100, 100, 10, 10));
+		assertEquals(2, dirty.getRegions().size());
+
+		// Bridges both regions
+		dirty.add(new Rectangle(5, 5, 100, 100));
+		assertEquals(1, dirty.getRegions().size());
+		assertEquals(new Rectangle(0, 0, 110, 110), dirty.getRegions().get(0));
+	}
+
+	@Test
+	public void testTooManyRegions() {
+		DirtyRegions dirty = new DirtyRegions(SCALE);
+		for (int i = 0; i <= DirtyRegions.MAX_REGIONS; i++) {
+			dirty.add(new Rectangle(i * 20, 0, 10, 10));
+		}
+		assertEquals(1, dirty.getRegions().size());
+		assertEquals(new Rectangle(0, 0, DirtyRegions.MAX_REGIONS * 20 + 10, 10), dirty.getRegions().get(0));
+	}
+
+	@Test
+	public void testGraphEvents() {
+		Graph graph = new Graph();
+		GraphJournal journal = new GraphJournal();
+		graph.addGraphListener(journal);
+		SimpleVisualVertex vtexOne = new SimpleVisualVertex(new GridPoint(0, 0));
+		SimpleVisualVertex vtexTwo = new SimpleVisualVertex(new GridPoint(10, 10));
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		journal.clear();
+
+		// A click recolouring one vertex only dirties that vertex
+		vtexTwo.update();
+		DirtyRegions dirty = new DirtyRegions(SCALE);
+		for (GraphEvent event : journal.drain()) {
+			dirty.add(event);
+		}
+		assertEquals(1, dirty.getRegions().size());
+		assertEquals(DirtyRegions.getVertexBounds(vtexTwo, SCALE), dirty.getRegions().get(0));
+
+		SimpleVisualEdge edge = new SimpleVisualEdge(vtexOne, vtexTwo);
+		graph.addEdge(edge);
+		for (GraphEvent event : journal.drain()) {
+			dirty.add(event);
+		}
+		assertEquals(1, dirty.getRegions().size());
+		assertEquals(DirtyRegions.getEdgeBounds(edge, SCALE), dirty.getRegions().get(0));
+	}
+}
@@ -0,0 +1,85 @@
+package de.graphioli.view;
+
+import static org.junit.Assert.*;
+
+import de.graphioli.model.Graph;
+import de.graphioli.model.GraphEvent;
+import de.graphioli.model.GraphJournal;
+import de.graphioli.model.GridPoint;
+import de.graphioli.model.SimpleVisualEdge;
+import de.graphioli.model.SimpleVisualVertex;
+import java.awt.Rectangle;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DrawingIndexTest {
+
+	private static final int SCALE = 40;
+
+	private Graph graph;
+	private SimpleVisualVertex vtexOne;
+	private SimpleVisualVertex vtexTwo;
+	private SimpleVisualVertex vtexThree;
+	private SimpleVisualEdge edge;
+
+	@Before
+	public void setUp() {
+		graph = new Graph();
+		vtexOne = new SimpleVisualVertex(new GridPoint(0, 0));
+		vtexTwo = new SimpleVisualVertex(new GridPoint(20, 20));
+		vtexThree = new SimpleVisualVertex(new GridPoint(30, 0));
+		edge = new SimpleVisualEdge(vtexOne, vtexTwo);
+		graph.addVertex(vtexOne);
+		graph.addVertex(vtexTwo);
+		graph.addVertex(vtexThree);
+		graph.addEdge(edge);
+	}
+
+	@Test
+	public void testQueries() {
+		DrawingIndex index = new DrawingIndex(SCALE, graph.getSnapshot());
+		Rectangle aroundThree = DirtyRegions.getVertexBounds(vtexThree, SCALE);
+		assertEquals(1, index.getVertices(aroundThree).size());
+		assertSame(vtexThree, index.getVertices(aroundThree).get(0));
+		assertTrue(index.getEdges(aroundThree).isEmpty());
+
+		// The long edge is found once in the middle of the board
+		Rectangle middle = DirtyRegions.getVertexBounds(new SimpleVisualVertex(new GridPoint(10, 10)), SCALE);
+		assertEquals(1, index.getEdges(middle).size());
+		assertTrue(index.getVertices(middle).isEmpty());
+
+		Rectangle all = new Rectangle(0, 0, 32 * SCALE, 32 * SCALE);
+		assertEquals(3, index.getVertices(all).size());
+		assertEquals(1, index.getEdges(all).size());
+	}
+
+	@Test
+	public void testUpdates() {
+		GraphJournal journal = new GraphJournal();
+		graph.addGraphListener(journal);
+		DrawingIndex index = new DrawingIndex(SCALE, graph.getSnapshot());
+
+		graph.removeVertex(vtexTwo);
+		SimpleVisualEdge newEdge = new SimpleVisualEdge(vtexOne, vtexThree);
+		graph.addEdge(newEdge);
+		vtexThree.update();
+		for (GraphEvent event : journal.drain()) {
+			index.update(event);
+		}
+
+		Rectangle all = new Rectangle(0, 0, 32 * SCALE, 32 * SCALE);
+		assertEquals(2, index.getVertices(all).size());
+		assertFalse(index.getVertices(all).contains(vtexTwo));
+		assertEquals(1, index.getEdges(all).size());
+		assertSame(newEdge, index.getEdges(all).get(0));
+
+		// Adding an indexed element again does not duplicate it
+		index.addVertex(vtexThree);
+		index.addEdge(newEdge);
+		assertEquals(2, index.getVertices(all).size());
+		assertEquals(1, index.getEdges(all).size());
+		index.removeVertex(vtexThree);
+		assertEquals(1, index.getVertices(all).size());
+	}
+}